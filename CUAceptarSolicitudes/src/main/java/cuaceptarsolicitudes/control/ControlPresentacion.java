@@ -1,7 +1,9 @@
 package cuaceptarsolicitudes.control;
 
+import cuaceptarsolicitudes.negocio.dtos.PaginaDTO;
 import cuaceptarsolicitudes.negocio.dtos.ResultadoOperacion;
 import cuaceptarsolicitudes.negocio.dtos.SolicitudDTO;
+import cuaceptarsolicitudes.negocio.subsistema.IEscuchaCambiosSolicitudes;
 import cuaceptarsolicitudes.presentacion.JPSolicitudesCU;
 import cuaceptarsolicitudes.presentacion.JDinfoSolicitud;
 import cuaceptarsolicitudes.presentacion.JDMsgModificacion;
@@ -122,6 +124,64 @@ public class ControlPresentacion {
         }
     }
 
+    /**
+     * Obtiene una pagina de solicitudes de adopción.
+     * 
+     * @param cursor Cursor de la pagina anterior, null para la primera
+     * @param tamano Solicitudes por pagina
+     * @return Pagina de solicitudes o pagina vacía en caso de error
+     */
+    public PaginaDTO<SolicitudDTO> obtenerPaginaSolicitudes(String cursor, int tamano) {
+        try {
+            return controlSubsistemas.obtenerPaginaSolicitudes(cursor, tamano);
+        } catch (Exception e) {
+            System.err.println("Error al obtener solicitudes: " + e.getMessage());
+            return new PaginaDTO<>();
+        }
+    }
+
+    /**
+     * Obtiene una sola solicitud de adopción, para actualizar su fila.
+     * 
+     * @param idSolicitud ID de la solicitud
+     * @return Solicitud o null si no existe o hubo un error
+     */
+    public SolicitudDTO obtenerSolicitud(String idSolicitud) {
+        try {
+            return controlSubsistemas.obtenerSolicitud(idSolicitud);
+        } catch (Exception e) {
+            System.err.println("Error al obtener solicitud: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Registra una escucha de los cambios en solicitudes y citas, para
+     * actualizar la tabla sin recargarla.
+     * 
+     * @param escucha Escucha de cambios
+     */
+    public void escucharCambiosSolicitudes(IEscuchaCambiosSolicitudes escucha) {
+        try {
+            controlSubsistemas.escucharCambiosSolicitudes(escucha);
+        } catch (Exception e) {
+            System.err.println("No se pudo escuchar cambios de solicitudes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Quita una escucha registrada con escucharCambiosSolicitudes.
+     * 
+     * @param escucha Escucha de cambios
+     */
+    public void dejarDeEscucharCambiosSolicitudes(IEscuchaCambiosSolicitudes escucha) {
+        try {
+            controlSubsistemas.dejarDeEscucharCambiosSolicitudes(escucha);
+        } catch (Exception e) {
+            System.err.println("No se pudo quitar la escucha de solicitudes: " + e.getMessage());
+        }
+    }
+
     /**
      * Acepta una solicitud de adopción.
      * 
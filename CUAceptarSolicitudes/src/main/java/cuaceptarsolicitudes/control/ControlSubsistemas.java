@@ -1,6 +1,8 @@
 package cuaceptarsolicitudes.control;
 
+import cuaceptarsolicitudes.negocio.dtos.PaginaDTO;
 import cuaceptarsolicitudes.negocio.dtos.SolicitudDTO;
+import cuaceptarsolicitudes.negocio.subsistema.IEscuchaCambiosSolicitudes;
 import cuaceptarsolicitudes.negocio.subsistema.ISeleccionarOpcion;
 import cuaceptarsolicitudes.negocio.subsistema.FachadaSeleccionarOpcion;
 
@@ -31,6 +33,45 @@ public class ControlSubsistemas {
         return seleccionarOpcion.obtenerTodasLasSolicitudes();
     }
 
+    /**
+     * Obtiene una pagina de solicitudes de adopción.
+     * 
+     * @param cursor Cursor de la pagina anterior, null para la primera
+     * @param tamano Solicitudes por pagina
+     * @return Pagina de solicitudes
+     */
+    public PaginaDTO<SolicitudDTO> obtenerPaginaSolicitudes(String cursor, int tamano) {
+        return seleccionarOpcion.obtenerPaginaSolicitudes(cursor, tamano);
+    }
+
+    /**
+     * Obtiene una sola solicitud de adopción.
+     * 
+     * @param idSolicitud ID de la solicitud
+     * @return Solicitud o null si no existe
+     */
+    public SolicitudDTO obtenerSolicitud(String idSolicitud) {
+        return seleccionarOpcion.obtenerSolicitud(idSolicitud);
+    }
+
+    /**
+     * Registra una escucha de los cambios en solicitudes y citas.
+     * 
+     * @param escucha Escucha de cambios
+     */
+    public void escucharCambiosSolicitudes(IEscuchaCambiosSolicitudes escucha) {
+        seleccionarOpcion.agregarEscuchaCambios(escucha);
+    }
+
+    /**
+     * Quita una escucha de los cambios en solicitudes y citas.
+     * 
+     * @param escucha Escucha de cambios
+     */
+    public void dejarDeEscucharCambiosSolicitudes(IEscuchaCambiosSolicitudes escucha) {
+        seleccionarOpcion.quitarEscuchaCambios(escucha);
+    }
+
     /**
      * Acepta una solicitud de adopción.
      * 
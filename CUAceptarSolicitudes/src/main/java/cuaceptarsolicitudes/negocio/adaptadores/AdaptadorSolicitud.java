@@ -1,10 +1,13 @@
 package cuaceptarsolicitudes.negocio.adaptadores;
 
+import cuaceptarsolicitudes.negocio.dtos.PaginaDTO;
 import cuaceptarsolicitudes.negocio.dtos.SolicitudDTO;
 import entities.SolicitudAdopcion;
+import entities.SolicitudListado;
 import entities.Usuario;
 import entities.Mascota;
 import org.bson.types.ObjectId;
+import paginacion.Pagina;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -72,6 +75,46 @@ public class AdaptadorSolicitud {
         return dto;
     }
 
+    /**
+     * Convierte una fila del listado (solicitud ya unida con usuario, mascota
+     * y cita) a SolicitudDTO.
+     * 
+     * @param fila Fila del listado de solicitudes
+     * @return DTO para la capa de presentación
+     */
+    public static SolicitudDTO listadoADTO(SolicitudListado fila) {
+        if (fila == null) {
+            return null;
+        }
+
+        SolicitudDTO dto = new SolicitudDTO();
+        dto.setId(aTexto(fila.getId()));
+        dto.setIdUsuario(aTexto(fila.getIdUsuario()));
+        dto.setNombreUsuario(fila.getNombreUsuario());
+        dto.setCorreoUsuario(fila.getCorreoUsuario());
+        dto.setIdMascota(aTexto(fila.getIdMascota()));
+        dto.setNombreMascota(fila.getNombreMascota());
+        dto.setEstado(fila.getEstado());
+        dto.setFechaSolicitud(fila.getFechaSolicitud());
+        dto.setIdCita(aTexto(fila.getIdCita()));
+        dto.setFechaCita(fila.getFechaCita());
+        dto.setMensajeCorreccion(fila.getMensajeCorreccion());
+        return dto;
+    }
+
+    /**
+     * Convierte una pagina del listado a la pagina de DTOs que recibe la
+     * presentación.
+     * 
+     * @param pagina Pagina de filas del listado
+     * @return Pagina de DTOs con el mismo cursor
+     */
+    public static PaginaDTO<SolicitudDTO> paginaListadoADTO(Pagina<SolicitudListado> pagina) {
+        Pagina<SolicitudDTO> solicitudes = pagina.map(AdaptadorSolicitud::listadoADTO);
+        return new PaginaDTO<>(solicitudes.getElementos(), solicitudes.getCursorSiguiente(), solicitudes.isHayMas(),
+                solicitudes.getTotalEstimado());
+    }
+
     /**
      * Convierte una entidad SolicitudAdopcion a SolicitudDTO (sin usuario ni
      * mascota).
@@ -164,4 +207,8 @@ public class AdaptadorSolicitud {
 
         return solicitudes;
     }
+
+    private static String aTexto(ObjectId id) {
+        return id != null ? id.toString() : null;
+    }
 }
@@ -1,5 +1,6 @@
 package cuaceptarsolicitudes.negocio.subsistema;
 
+import cuaceptarsolicitudes.negocio.dtos.PaginaDTO;
 import cuaceptarsolicitudes.negocio.dtos.SolicitudDTO;
 
 import java.util.List;
@@ -27,6 +28,26 @@ public class FachadaSeleccionarOpcion implements ISeleccionarOpcion {
         return seleccionarOpcion.obtenerTodasLasSolicitudes();
     }
 
+    @Override
+    public PaginaDTO<SolicitudDTO> obtenerPaginaSolicitudes(String cursor, int tamano) {
+        return seleccionarOpcion.obtenerPaginaSolicitudes(cursor, tamano);
+    }
+
+    @Override
+    public SolicitudDTO obtenerSolicitud(String idSolicitud) {
+        return seleccionarOpcion.obtenerSolicitud(idSolicitud);
+    }
+
+    @Override
+    public void agregarEscuchaCambios(IEscuchaCambiosSolicitudes escucha) {
+        seleccionarOpcion.agregarEscuchaCambios(escucha);
+    }
+
+    @Override
+    public void quitarEscuchaCambios(IEscuchaCambiosSolicitudes escucha) {
+        seleccionarOpcion.quitarEscuchaCambios(escucha);
+    }
+
     @Override
     public boolean aceptarSolicitud(String idSolicitud, String idAdmin) throws Exception {
         return seleccionarOpcion.aceptarSolicitud(idSolicitud, idAdmin);
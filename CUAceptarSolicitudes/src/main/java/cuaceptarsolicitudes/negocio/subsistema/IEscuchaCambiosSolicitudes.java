@@ -0,0 +1,38 @@
+package cuaceptarsolicitudes.negocio.subsistema;
+
+/**
+ * Escucha de los cambios en solicitudes y citas hechos desde cualquier
+ * instancia. Los métodos se llaman desde el hilo del suscriptor de
+ * cambios, no desde el de Swing.
+ *
+ * @author System
+ */
+public interface IEscuchaCambiosSolicitudes {
+
+    /**
+     * Se insertó o cambió la solicitud
+     *
+     * @param idSolicitud ID de la solicitud
+     */
+    void alCambiarSolicitud(String idSolicitud);
+
+    /**
+     * Se eliminó la solicitud
+     *
+     * @param idSolicitud ID de la solicitud
+     */
+    void alEliminarSolicitud(String idSolicitud);
+
+    /**
+     * Se insertó, cambió o eliminó una cita; cambia la fecha de las
+     * solicitudes que la usan
+     *
+     * @param idCita ID de la cita
+     */
+    void alCambiarCita(String idCita);
+
+    /**
+     * Se perdieron cambios; hay que recargar todas las solicitudes
+     */
+    void alRecargar();
+}
@@ -1,5 +1,6 @@
 package cuaceptarsolicitudes.negocio.subsistema;
 
+import cuaceptarsolicitudes.negocio.dtos.PaginaDTO;
 import cuaceptarsolicitudes.negocio.dtos.SolicitudDTO;
 
 import java.util.List;
@@ -19,6 +20,38 @@ public interface ISeleccionarOpcion {
      */
     List<SolicitudDTO> obtenerTodasLasSolicitudes();
 
+    /**
+     * Obtiene una pagina de solicitudes, de la mas reciente a la mas antigua.
+     * 
+     * @param cursor Cursor de la pagina anterior, null para la primera
+     * @param tamano Numero de solicitudes por pagina
+     * @return Pagina de solicitudes con el cursor de la siguiente
+     */
+    PaginaDTO<SolicitudDTO> obtenerPaginaSolicitudes(String cursor, int tamano);
+
+    /**
+     * Obtiene una sola solicitud con los mismos datos del listado.
+     * 
+     * @param idSolicitud ID de la solicitud
+     * @return Solicitud o null si no existe
+     */
+    SolicitudDTO obtenerSolicitud(String idSolicitud);
+
+    /**
+     * Registra una escucha de los cambios en solicitudes y citas hechos por
+     * cualquier instancia de la aplicación.
+     * 
+     * @param escucha Se llama desde el hilo del suscriptor de cambios
+     */
+    void agregarEscuchaCambios(IEscuchaCambiosSolicitudes escucha);
+
+    /**
+     * Quita una escucha registrada con agregarEscuchaCambios.
+     * 
+     * @param escucha Escucha a quitar
+     */
+    void quitarEscuchaCambios(IEscuchaCambiosSolicitudes escucha);
+
     /**
      * Acepta una solicitud de adopción.
      * Acepta la cita, marca mascota como adoptada, libera usuario, envía correo.
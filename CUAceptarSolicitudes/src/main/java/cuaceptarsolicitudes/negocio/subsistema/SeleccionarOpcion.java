@@ -1,18 +1,24 @@
 package cuaceptarsolicitudes.negocio.subsistema;
 
+import auditoria.EscritorAuditoria;
+import cambios.EventoCambio;
+import cambios.TipoCambio;
+import cuaceptarsolicitudes.negocio.dtos.PaginaDTO;
 import cuaceptarsolicitudes.negocio.dtos.SolicitudDTO;
 import cuaceptarsolicitudes.negocio.adaptadores.AdaptadorSolicitud;
 import cuaceptarsolicitudes.negocio.BO.SolicitudBO;
 import cuaceptarsolicitudes.negocio.BO.ISolicitudBO;
 import conexion.ConexionMongoDB;
-import daos.SolicitudAdopcionDAO;
-import daos.MascotaDAO;
-import daos.UsuarioDAO;
-import daos.CitaDAO;
+import daos.FabricaDAOs;
+import daos.IMascotaDAO;
+import daos.IMetricasDiariasDAO;
+import daos.ISolicitudAdopcionDAO;
+import daos.IUsuarioDAO;
+import entities.AuditoriaSolicitud;
 import entities.SolicitudAdopcion;
+import entities.SolicitudListado;
 import entities.Mascota;
 import entities.Usuario;
-import entities.Cita;
 import infraestructura.dto.CorreoDTO;
 import infraestructura.sistemacorreo.FachadaCorreo;
 import infraestructura.sistemacorreo.ISistemaCorreo;
@@ -20,6 +26,9 @@ import org.bson.types.ObjectId;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * Subsistema que maneja las solicitudes de adopcion.
@@ -28,90 +37,103 @@ import java.util.List;
  * - Aceptar: Acepta la solicitud, marca la mascota como adoptada y envia correo
  * - Rechazar: Rechaza la solicitud, libera la mascota y envia correo
  * - Modificar: Pide al usuario que corrija algo y le envia un correo
+ *
+ * Cada cambio de estado queda en la auditoria (quien, que, cuando, de que
+ * estado a cual); se escribe en segundo plano para no retrasar la accion.
+ * Ademas se suma al acumulado del dia en metricas_diarias.
  */
 public class SeleccionarOpcion implements ISeleccionarOpcion {
 
-    private final SolicitudAdopcionDAO solicitudDAO;
-    private final MascotaDAO mascotaDAO;
-    private final UsuarioDAO usuarioDAO;
-    private final CitaDAO citaDAO;
+    private final ISolicitudAdopcionDAO solicitudDAO;
+    private final IMascotaDAO mascotaDAO;
+    private final IUsuarioDAO usuarioDAO;
     private final ISolicitudBO solicitudBO;
     private final ISistemaCorreo sistemaCorreo;
+    private final EscritorAuditoria auditoria;
+    private final IMetricasDiariasDAO metricasDAO;
+    // Consumidor registrado en el suscriptor por cada escucha, para poder quitarlo
+    private final Map<IEscuchaCambiosSolicitudes, Consumer<EventoCambio>> escuchas = new ConcurrentHashMap<>();
 
     public SeleccionarOpcion() {
-        this.solicitudDAO = new SolicitudAdopcionDAO(ConexionMongoDB.getInstancia().getDatabase());
-        this.mascotaDAO = new MascotaDAO(ConexionMongoDB.getInstancia().getDatabase());
-        this.usuarioDAO = new UsuarioDAO(ConexionMongoDB.getInstancia().getDatabase());
-        this.citaDAO = new CitaDAO(ConexionMongoDB.getInstancia().getDatabase());
+        this.solicitudDAO = FabricaDAOs.solicitudes();
+        this.mascotaDAO = FabricaDAOs.mascotas();
+        this.usuarioDAO = FabricaDAOs.usuarios();
         this.solicitudBO = new SolicitudBO();
         this.sistemaCorreo = new FachadaCorreo();
+        this.auditoria = EscritorAuditoria.getInstancia();
+        this.metricasDAO = FabricaDAOs.metricasDiarias();
     }
 
     // Constructor para testing
-    public SeleccionarOpcion(SolicitudAdopcionDAO solicitudDAO, MascotaDAO mascotaDAO,
-            UsuarioDAO usuarioDAO, ISolicitudBO solicitudBO, ISistemaCorreo sistemaCorreo) {
+    public SeleccionarOpcion(ISolicitudAdopcionDAO solicitudDAO, IMascotaDAO mascotaDAO,
+            IUsuarioDAO usuarioDAO, ISolicitudBO solicitudBO, ISistemaCorreo sistemaCorreo,
+            EscritorAuditoria auditoria, IMetricasDiariasDAO metricasDAO) {
         this.solicitudDAO = solicitudDAO;
         this.mascotaDAO = mascotaDAO;
         this.usuarioDAO = usuarioDAO;
-        this.citaDAO = new CitaDAO(ConexionMongoDB.getInstancia().getDatabase());
         this.solicitudBO = solicitudBO;
         this.sistemaCorreo = sistemaCorreo;
+        this.auditoria = auditoria;
+        this.metricasDAO = metricasDAO;
     }
 
     @Override
     public List<SolicitudDTO> obtenerTodasLasSolicitudes() {
-        List<SolicitudAdopcion> solicitudes = solicitudDAO.buscarTodas();
+        // Una sola agregacion trae la solicitud con usuario, mascota y cita
         List<SolicitudDTO> solicitudesDTO = new ArrayList<>();
+        for (SolicitudListado fila : solicitudDAO.buscarListado()) {
+            solicitudesDTO.add(AdaptadorSolicitud.listadoADTO(fila));
+        }
+        return solicitudesDTO;
+    }
 
-        for (SolicitudAdopcion solicitud : solicitudes) {
-            // Traigo el usuario y la mascota para completar el DTO
-            Usuario usuario = null;
-            Mascota mascota = null;
-
-            if (solicitud.getIdUsuario() != null) {
-                usuario = usuarioDAO.buscarPorId(solicitud.getIdUsuario());
-            }
-
-            if (solicitud.getIdMascota() != null) {
-                mascota = mascotaDAO.buscarPorId(solicitud.getIdMascota());
-            }
-
-            SolicitudDTO dto = AdaptadorSolicitud.entidadADTO(solicitud, usuario, mascota);
-
-            // Busco la cita para obtener la fecha
-            // Primero intento por idCita, si no existe busco por usuario+mascota
-            try {
-                Cita citaEncontrada = null;
-
-                // Metodo 1: Buscar por idCita si existe
-                if (solicitud.getIdCita() != null) {
-                    citaEncontrada = citaDAO.buscarPorId(solicitud.getIdCita());
-                }
+    @Override
+    public PaginaDTO<SolicitudDTO> obtenerPaginaSolicitudes(String cursor, int tamano) {
+        // Los $lookup solo se ejecutan para las solicitudes de la pagina
+        return AdaptadorSolicitud.paginaListadoADTO(solicitudDAO.buscarPaginaListado(cursor, tamano));
+    }
 
-                // Metodo 2: Si no hay idCita o no se encontro, busco por usuario+mascota
-                if (citaEncontrada == null && solicitud.getIdUsuario() != null && solicitud.getIdMascota() != null) {
-                    java.util.List<Cita> citasUsuario = citaDAO.buscarPorUsuario(solicitud.getIdUsuario());
-                    for (Cita c : citasUsuario) {
-                        if (c.getIdMascota() != null && c.getIdMascota().equals(solicitud.getIdMascota())) {
-                            citaEncontrada = c;
-                            dto.setIdCita(c.getId().toString());
-                            break;
-                        }
-                    }
-                }
+    @Override
+    public SolicitudDTO obtenerSolicitud(String idSolicitud) {
+        if (idSolicitud == null || !ObjectId.isValid(idSolicitud)) {
+            return null;
+        }
+        return AdaptadorSolicitud.listadoADTO(solicitudDAO.buscarListadoPorId(new ObjectId(idSolicitud)));
+    }
 
-                // Pongo la fecha de la cita si la encontre
-                if (citaEncontrada != null && citaEncontrada.getFechaHora() != null) {
-                    dto.setFechaCita(citaEncontrada.getFechaHora());
-                }
-            } catch (Exception e) {
-                System.err.println("Error al obtener cita: " + e.getMessage());
+    @Override
+    public void agregarEscuchaCambios(IEscuchaCambiosSolicitudes escucha) {
+        if (FabricaDAOs.isEnMemoria()) {
+            // Sin MongoDB no hay change stream; solo esta aplicacion escribe
+            return;
+        }
+        Consumer<EventoCambio> consumidor = evento -> {
+            if (evento.getTipo() == TipoCambio.RECARGA) {
+                escucha.alRecargar();
+            } else if ("citas".equals(evento.getColeccion())) {
+                escucha.alCambiarCita(evento.getId().toHexString());
+            } else if (evento.getTipo() == TipoCambio.ELIMINACION) {
+                escucha.alEliminarSolicitud(evento.getId().toHexString());
+            } else {
+                escucha.alCambiarSolicitud(evento.getId().toHexString());
             }
-
-            solicitudesDTO.add(dto);
+        };
+        if (escuchas.putIfAbsent(escucha, consumidor) != null) {
+            return;
         }
+        // La fecha de la cita se muestra en el listado
+        ConexionMongoDB.getInstancia().getSuscriptorCambios().agregarEscucha("solicitudes", consumidor);
+        ConexionMongoDB.getInstancia().getSuscriptorCambios().agregarEscucha("citas", consumidor);
+    }
 
-        return solicitudesDTO;
+    @Override
+    public void quitarEscuchaCambios(IEscuchaCambiosSolicitudes escucha) {
+        Consumer<EventoCambio> consumidor = escuchas.remove(escucha);
+        if (consumidor == null) {
+            return;
+        }
+        ConexionMongoDB.getInstancia().getSuscriptorCambios().quitarEscucha("solicitudes", consumidor);
+        ConexionMongoDB.getInstancia().getSuscriptorCambios().quitarEscucha("citas", consumidor);
     }
 
     @Override
@@ -127,19 +149,25 @@ public class SeleccionarOpcion implements ISeleccionarOpcion {
         }
 
         // 2. Actualizar estado de la solicitud
+        String estadoAnterior = solicitud.getEstado();
         solicitud.setEstado("APROBADA");
         solicitudDAO.actualizar(solicitud);
+        AuditoriaSolicitud registro = auditar(solicitud, idAdmin, AuditoriaSolicitud.ACCION_ACEPTAR,
+                estadoAnterior, null);
 
         // 3. Marcar mascota como adoptada
+        String especie = null;
         if (solicitud.getIdMascota() != null) {
             Mascota mascota = mascotaDAO.buscarPorId(solicitud.getIdMascota());
             if (mascota != null) {
                 mascota.setDisponible(false);
                 mascota.setEstado("adoptada");
                 mascotaDAO.actualizar(mascota);
+                especie = mascota.getEspecie();
                 System.out.println(" Mascota " + mascota.getNombre() + " marcada como adoptada");
             }
         }
+        contarDecision(registro, especie);
 
         // 4. Obtener usuario para enviar correo
         Usuario usuario = null;
@@ -169,8 +197,11 @@ public class SeleccionarOpcion implements ISeleccionarOpcion {
         }
 
         // 2. Actualizar estado de la solicitud
+        String estadoAnterior = solicitud.getEstado();
         solicitud.setEstado("RECHAZADA");
         solicitudDAO.actualizar(solicitud);
+        contarDecision(auditar(solicitud, idAdmin, AuditoriaSolicitud.ACCION_RECHAZAR, estadoAnterior, null),
+                null);
 
         // 3. Liberar mascota (hacerla disponible nuevamente)
         if (solicitud.getIdMascota() != null) {
@@ -211,9 +242,12 @@ public class SeleccionarOpcion implements ISeleccionarOpcion {
         }
 
         // 2. Actualizar estado a pendiente de modificacion
+        String estadoAnterior = solicitud.getEstado();
         solicitud.setEstado("Requiere Modificacion");
         solicitud.setMensajeCorreccion(razonModificacion);
         solicitudDAO.actualizar(solicitud);
+        contarDecision(auditar(solicitud, idAdmin, AuditoriaSolicitud.ACCION_MODIFICAR, estadoAnterior,
+                razonModificacion), null);
 
         // 3. Obtener usuario para enviar correo
         Usuario usuario = null;
@@ -230,6 +264,32 @@ public class SeleccionarOpcion implements ISeleccionarOpcion {
         return true;
     }
 
+    /**
+     * Encola el registro del cambio ya guardado; no espera a que se escriba
+     */
+    private AuditoriaSolicitud auditar(SolicitudAdopcion solicitud, String idAdmin, String accion,
+            String estadoAnterior, String detalle) {
+        AuditoriaSolicitud registro = new AuditoriaSolicitud(solicitud.getId(), idAdmin, accion, estadoAnterior,
+                solicitud.getEstado(), detalle);
+        auditoria.registrar(registro);
+        return registro;
+    }
+
+    /**
+     * Suma la decision al acumulado del dia con la misma fecha que la
+     * auditoria, para que la reconstruccion de los acumulados de lo mismo.
+     * Si falla la decision ya quedo guardada; acumulados.ReconstructorMetricas
+     * corrige el conteo.
+     */
+    private void contarDecision(AuditoriaSolicitud registro, String especie) {
+        long segundos = (registro.getFecha().getTime() - registro.getIdSolicitud().getDate().getTime()) / 1000;
+        try {
+            metricasDAO.registrarDecision(registro.getFecha(), registro.getAccion(), segundos, especie);
+        } catch (RuntimeException e) {
+            System.err.println("No se pudo actualizar metricas_diarias: " + e.getMessage());
+        }
+    }
+
     // --- Metodos privados para envio de correos ---
 
     private void enviarCorreoAceptacion(Usuario usuario, SolicitudAdopcion solicitud) {
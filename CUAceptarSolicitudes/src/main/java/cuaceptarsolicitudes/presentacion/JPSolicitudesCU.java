@@ -1,10 +1,17 @@
 package cuaceptarsolicitudes.presentacion;
 
 import cuaceptarsolicitudes.control.ControlPresentacion;
+import cuaceptarsolicitudes.negocio.dtos.PaginaDTO;
 import cuaceptarsolicitudes.negocio.dtos.SolicitudDTO;
 import cuaceptarsolicitudes.negocio.dtos.ResultadoOperacion;
+import cuaceptarsolicitudes.negocio.subsistema.IEscuchaCambiosSolicitudes;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.swing.JOptionPane;
+import javax.swing.JScrollBar;
+import javax.swing.SwingUtilities;
 import javax.swing.table.DefaultTableModel;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
@@ -20,6 +27,45 @@ public class JPSolicitudesCU extends javax.swing.JPanel {
         private DefaultTableModel modeloTabla;
         private Runnable inicioListener;
 
+        private static final int TAMANO_PAGINA = 50;
+        // Solicitudes ya cargadas en la tabla, por id; el suscriptor de cambios tambien la lee
+        private final Map<String, SolicitudDTO> solicitudesCargadas = new ConcurrentHashMap<>();
+        private final IEscuchaCambiosSolicitudes escuchaCambios = new IEscuchaCambiosSolicitudes() {
+                @Override
+                public void alCambiarSolicitud(String idSolicitud) {
+                        actualizarFila(idSolicitud);
+                }
+
+                @Override
+                public void alEliminarSolicitud(String idSolicitud) {
+                        SwingUtilities.invokeLater(() -> aplicarCambio(idSolicitud, null));
+                }
+
+                @Override
+                public void alCambiarCita(String idCita) {
+                        // Solo cambia la fecha de las solicitudes cargadas con esa cita
+                        List<String> afectadas = new ArrayList<>();
+                        for (SolicitudDTO solicitud : solicitudesCargadas.values()) {
+                                if (idCita.equals(solicitud.getIdCita())) {
+                                        afectadas.add(solicitud.getId());
+                                }
+                        }
+                        for (String idSolicitud : afectadas) {
+                                actualizarFila(idSolicitud);
+                        }
+                }
+
+                @Override
+                public void alRecargar() {
+                        SwingUtilities.invokeLater(JPSolicitudesCU.this::cargarSolicitudes);
+                }
+        };
+        private String ultimoIdCargado;
+        private String cursorSiguiente;
+        private boolean hayMas;
+        private long totalEstimado;
+        private boolean cargando;
+
         public JPSolicitudesCU() {
                 initComponents();
                 configurarTabla();
@@ -37,7 +83,13 @@ public class JPSolicitudesCU extends javax.swing.JPanel {
         }
 
         public void setControlPresentacion(ControlPresentacion control) {
+                if (isDisplayable() && this.controlPresentacion != null) {
+                        this.controlPresentacion.dejarDeEscucharCambiosSolicitudes(escuchaCambios);
+                }
                 this.controlPresentacion = control;
+                if (isDisplayable() && control != null) {
+                        control.escucharCambiosSolicitudes(escuchaCambios);
+                }
                 cargarSolicitudes();
         }
 
@@ -64,6 +116,15 @@ public class JPSolicitudesCU extends javax.swing.JPanel {
                                 }
                         }
                 });
+
+                // Al llegar al final de la tabla se pide la siguiente pagina
+                jScrollPane1.getVerticalScrollBar().addAdjustmentListener(e -> {
+                        JScrollBar barra = jScrollPane1.getVerticalScrollBar();
+                        if (!e.getValueIsAdjusting() && hayMas
+                                        && barra.getValue() + barra.getVisibleAmount() >= barra.getMaximum() - 20) {
+                                cargarSiguientePagina();
+                        }
+                });
         }
 
         private void cargarSolicitudes() {
@@ -71,45 +132,149 @@ public class JPSolicitudesCU extends javax.swing.JPanel {
                         return;
                 }
 
+                modeloTabla.setRowCount(0);
+                solicitudesCargadas.clear();
+                cursorSiguiente = null;
+                ultimoIdCargado = null;
+                hayMas = true;
+                cargarSiguientePagina();
+        }
+
+        /**
+         * Agrega a la tabla la siguiente pagina de solicitudes
+         */
+        private void cargarSiguientePagina() {
+                if (controlPresentacion == null || !hayMas || cargando) {
+                        return;
+                }
+
+                cargando = true;
                 try {
-                        List<SolicitudDTO> solicitudes = controlPresentacion.obtenerSolicitudes();
-                        modeloTabla.setRowCount(0);
-
-                        for (SolicitudDTO solicitud : solicitudes) {
-                                String nombreUsuario = (solicitud.getNombreUsuario() != null)
-                                                ? solicitud.getNombreUsuario()
-                                                : "Desconocido";
-
-                                String nombreMascota = (solicitud.getNombreMascota() != null)
-                                                ? solicitud.getNombreMascota()
-                                                : "Desconocida";
-
-                                String fecha = (solicitud.getFechaCita() != null)
-                                                ? solicitud.getFechaCita().toLocalDate().toString()
-                                                : "Sin cita";
-
-                                String estado = (solicitud.getEstado() != null)
-                                                ? solicitud.getEstado()
-                                                : "PENDIENTE";
-
-                                modeloTabla.addRow(new Object[] {
-                                                solicitud.getId(),
-                                                nombreUsuario,
-                                                nombreMascota,
-                                                fecha,
-                                                estado
-                                });
+                        boolean primera = cursorSiguiente == null;
+                        PaginaDTO<SolicitudDTO> pagina = controlPresentacion.obtenerPaginaSolicitudes(cursorSiguiente,
+                                        TAMANO_PAGINA);
+                        cursorSiguiente = pagina.getCursorSiguiente();
+                        hayMas = pagina.isHayMas();
+                        if (primera) {
+                                totalEstimado = pagina.getTotalEstimado();
                         }
 
-                        System.out.println("Cargadas " + solicitudes.size() + " solicitudes.");
+                        for (SolicitudDTO solicitud : pagina.getElementos()) {
+                                solicitudesCargadas.put(solicitud.getId(), solicitud);
+                                modeloTabla.addRow(filaDe(solicitud));
+                                ultimoIdCargado = solicitud.getId();
+                        }
+
+                        System.out.println("Cargadas " + solicitudesCargadas.size() + " de " + totalEstimado
+                                        + " solicitudes.");
                 } catch (Exception e) {
+                        hayMas = false;
                         JOptionPane.showMessageDialog(this,
                                         "Error al cargar solicitudes: " + e.getMessage(),
                                         "Error", JOptionPane.ERROR_MESSAGE);
                         e.printStackTrace();
+                } finally {
+                        cargando = false;
                 }
         }
 
+        /**
+         * Columnas de la tabla para una solicitud
+         */
+        private Object[] filaDe(SolicitudDTO solicitud) {
+                String nombreUsuario = (solicitud.getNombreUsuario() != null)
+                                ? solicitud.getNombreUsuario()
+                                : "Desconocido";
+
+                String nombreMascota = (solicitud.getNombreMascota() != null)
+                                ? solicitud.getNombreMascota()
+                                : "Desconocida";
+
+                String fecha = (solicitud.getFechaCita() != null)
+                                ? solicitud.getFechaCita().toLocalDate().toString()
+                                : "Sin cita";
+
+                String estado = (solicitud.getEstado() != null)
+                                ? solicitud.getEstado()
+                                : "PENDIENTE";
+
+                return new Object[] {
+                                solicitud.getId(),
+                                nombreUsuario,
+                                nombreMascota,
+                                fecha,
+                                estado
+                };
+        }
+
+        @Override
+        public void addNotify() {
+                super.addNotify();
+                if (controlPresentacion != null) {
+                        controlPresentacion.escucharCambiosSolicitudes(escuchaCambios);
+                }
+        }
+
+        @Override
+        public void removeNotify() {
+                if (controlPresentacion != null) {
+                        controlPresentacion.dejarDeEscucharCambiosSolicitudes(escuchaCambios);
+                }
+                super.removeNotify();
+        }
+
+        /**
+         * Cambio en una solicitud o cita hecho desde cualquier instancia.
+         * Llega en el hilo del suscriptor: la fila se consulta aqui y la
+         * tabla se cambia en el hilo de Swing.
+         */
+        private void actualizarFila(String idSolicitud) {
+                SolicitudDTO solicitud = controlPresentacion.obtenerSolicitud(idSolicitud);
+                SwingUtilities.invokeLater(() -> aplicarCambio(idSolicitud, solicitud));
+        }
+
+        /**
+         * Actualiza, quita o inserta solo la fila que cambio
+         *
+         * @param solicitud null si la solicitud ya no existe
+         */
+        private void aplicarCambio(String id, SolicitudDTO solicitud) {
+                int fila = buscarFila(id);
+                if (solicitud == null) {
+                        if (fila >= 0) {
+                                modeloTabla.removeRow(fila);
+                                solicitudesCargadas.remove(id);
+                        }
+                        return;
+                }
+
+                if (fila >= 0) {
+                        Object[] valores = filaDe(solicitud);
+                        for (int columna = 1; columna < valores.length; columna++) {
+                                modeloTabla.setValueAt(valores[columna], fila, columna);
+                        }
+                        solicitudesCargadas.put(id, solicitud);
+                } else if (!hayMas || (ultimoIdCargado != null && id.compareTo(ultimoIdCargado) > 0)) {
+                        // Orden descendente por _id; si va despues de lo cargado llegara con su pagina
+                        int posicion = 0;
+                        while (posicion < modeloTabla.getRowCount()
+                                        && ((String) modeloTabla.getValueAt(posicion, 0)).compareTo(id) > 0) {
+                                posicion++;
+                        }
+                        modeloTabla.insertRow(posicion, filaDe(solicitud));
+                        solicitudesCargadas.put(id, solicitud);
+                }
+        }
+
+        private int buscarFila(String id) {
+                for (int fila = 0; fila < modeloTabla.getRowCount(); fila++) {
+                        if (id.equals(modeloTabla.getValueAt(fila, 0))) {
+                                return fila;
+                        }
+                }
+                return -1;
+        }
+
         private SolicitudDTO obtenerSolicitudSeleccionada() {
                 int filaSeleccionada = tablaSolicitudes.getSelectedRow();
                 if (filaSeleccionada < 0) {
@@ -119,15 +284,8 @@ public class JPSolicitudesCU extends javax.swing.JPanel {
                 // Obtener el ID de la fila seleccionada
                 String idSolicitud = (String) modeloTabla.getValueAt(filaSeleccionada, 0);
 
-                // Buscar en la lista de solicitudes
-                List<SolicitudDTO> solicitudes = controlPresentacion.obtenerSolicitudes();
-                for (SolicitudDTO solicitud : solicitudes) {
-                        if (solicitud.getId().equals(idSolicitud)) {
-                                return solicitud;
-                        }
-                }
-
-                return null;
+                // La solicitud ya se cargo con su pagina
+                return solicitudesCargadas.get(idSolicitud);
         }
 
         private void mostrarDetallesSolicitud() {
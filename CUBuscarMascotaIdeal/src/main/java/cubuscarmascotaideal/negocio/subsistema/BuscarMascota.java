@@ -5,10 +5,12 @@ import cubuscarmascotaideal.negocio.dtos.MascotaResultadoDTO;
 import cubuscarmascotaideal.negocio.adaptadores.AdaptadorMascotaResultado;
 import cubuscarmascotaideal.negocio.BO.EncuestaBO;
 import cubuscarmascotaideal.negocio.BO.IEncuestaBO;
+import com.mongodb.client.model.Filters;
 import conexion.ConexionMongoDB;
 import cubuscarmascotaideal.persistencia.daos.ResultadoMascotaIdealDAO;
 import cubuscarmascotaideal.persistencia.entities.ResultadoMascotaIdeal;
-import daos.MascotaDAO;
+import daos.FabricaDAOs;
+import daos.IMascotaDAO;
 import entities.Mascota;
 import org.bson.types.ObjectId;
 
@@ -16,23 +18,24 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Clase que busca mascotas compatibles segun las preferencias del usuario
  */
 public class BuscarMascota implements IBuscarMascota {
 
-    private MascotaDAO mascotaDAO;
+    private IMascotaDAO mascotaDAO;
     private IEncuestaBO encuestaBO;
     private ResultadoMascotaIdealDAO resultadoDAO;
 
     public BuscarMascota() {
-        this.mascotaDAO = new MascotaDAO(ConexionMongoDB.getInstancia().getDatabase());
+        this.mascotaDAO = FabricaDAOs.mascotas();
         this.encuestaBO = new EncuestaBO();
         this.resultadoDAO = new ResultadoMascotaIdealDAO(ConexionMongoDB.getInstancia().getDatabase());
     }
 
-    public BuscarMascota(MascotaDAO mascotaDAO, IEncuestaBO encuestaBO) {
+    public BuscarMascota(IMascotaDAO mascotaDAO, IEncuestaBO encuestaBO) {
         this.mascotaDAO = mascotaDAO;
         this.encuestaBO = encuestaBO;
         this.resultadoDAO = new ResultadoMascotaIdealDAO(ConexionMongoDB.getInstancia().getDatabase());
@@ -46,12 +49,10 @@ public class BuscarMascota implements IBuscarMascota {
             return new ArrayList<>();
         }
 
-        // Traigo todas las mascotas que estan disponibles
-        List<Mascota> mascotasDisponibles = mascotaDAO.buscarPorDisponibilidad(true);
-
-        // Calculo que tan compatible es cada mascota
+        // Recorro las mascotas disponibles por lotes, sin cargarlas todas,
+        // y calculo que tan compatible es cada una
         List<MascotaResultadoDTO> resultados = new ArrayList<>();
-        for (Mascota mascota : mascotasDisponibles) {
+        mascotaDAO.recorrer(Filters.eq("disponible", true), 0, mascota -> {
             double porcentaje = calcularCompatibilidad(encuesta, mascota);
 
             // Solo incluyo las mascotas con al menos 50% de compatibilidad
@@ -59,7 +60,7 @@ public class BuscarMascota implements IBuscarMascota {
                 MascotaResultadoDTO resultado = AdaptadorMascotaResultado.entidadADTO(mascota, porcentaje);
                 resultados.add(resultado);
             }
-        }
+        });
 
         // Ordeno de mayor a menor compatibilidad
         ordenarPorCompatibilidad(resultados);
@@ -74,16 +75,13 @@ public class BuscarMascota implements IBuscarMascota {
             return new ArrayList<>();
         }
 
-        // Traigo todas las mascotas disponibles
-        List<Mascota> todasMascotas = mascotaDAO.buscarPorDisponibilidad(true);
-
-        // Calculo compatibilidad para todas (sin filtrar por porcentaje)
+        // Calculo compatibilidad para todas las disponibles (sin filtrar por porcentaje)
         List<MascotaResultadoDTO> resultados = new ArrayList<>();
-        for (Mascota mascota : todasMascotas) {
+        mascotaDAO.recorrer(Filters.eq("disponible", true), 0, mascota -> {
             double porcentaje = calcularCompatibilidad(encuesta, mascota);
             MascotaResultadoDTO resultado = AdaptadorMascotaResultado.entidadADTO(mascota, porcentaje);
             resultados.add(resultado);
-        }
+        });
 
         // Ordeno de mayor a menor compatibilidad
         ordenarPorCompatibilidad(resultados);
@@ -100,9 +98,6 @@ public class BuscarMascota implements IBuscarMascota {
             return;
         }
 
-        // Primero borro los resultados viejos del usuario
-        resultadoDAO.eliminarPorUsuario(idUsuario);
-
         // Convierto los DTOs a entidades para guardar
         List<ResultadoMascotaIdeal> entidades = new ArrayList<>();
         for (MascotaResultadoDTO dto : resultados) {
@@ -115,8 +110,8 @@ public class BuscarMascota implements IBuscarMascota {
             }
         }
 
-        // Guardo todos los resultados nuevos
-        resultadoDAO.guardarTodos(entidades);
+        // Un solo upsert reemplaza los resultados anteriores del usuario
+        resultadoDAO.guardarResultados(idUsuario, entidades);
     }
 
     /**
@@ -132,9 +127,15 @@ public class BuscarMascota implements IBuscarMascota {
         List<ResultadoMascotaIdeal> guardados = resultadoDAO.buscarPorUsuario(idUsuario);
         List<MascotaResultadoDTO> resultados = new ArrayList<>();
 
-        // Por cada resultado, traigo la info completa de la mascota
+        // Traigo la info completa de todas las mascotas en una sola consulta
+        List<ObjectId> idsMascota = new ArrayList<>();
+        for (ResultadoMascotaIdeal guardado : guardados) {
+            idsMascota.add(guardado.getIdMascota());
+        }
+        Map<ObjectId, Mascota> mascotas = mascotaDAO.buscarPorIds(idsMascota);
+
         for (ResultadoMascotaIdeal guardado : guardados) {
-            Mascota mascota = mascotaDAO.buscarPorId(guardado.getIdMascota());
+            Mascota mascota = mascotas.get(guardado.getIdMascota());
 
             // Solo lo agrego si la mascota todavia existe y esta disponible
             if (mascota != null && mascota.isDisponible()) {
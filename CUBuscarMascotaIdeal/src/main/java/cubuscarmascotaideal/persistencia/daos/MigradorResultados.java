@@ -0,0 +1,217 @@
+package cubuscarmascotaideal.persistencia.daos;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteManyModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Migracion de resultados_mascota_ideal a un documento por usuario. Antes
+ * cada busqueda borraba e insertaba un documento por mascota
+ * { _id, idUsuario, idMascota, porcentajeCompatibilidad, fechaBusqueda };
+ * ahora el usuario es el _id y las mascotas van en un arreglo.
+ *
+ * Por cada lote de usuarios hace un upsert con $setOnInsert (si el usuario
+ * ya busco con el formato nuevo se conserva lo suyo) y borra sus documentos
+ * anteriores, en un mismo bulkWrite ordenado. El ultimo idUsuario procesado
+ * se guarda en migraciones para continuar al reiniciar. Al terminar elimina
+ * el indice de idUsuario, ya que las lecturas van por _id.
+ *
+ * @author System
+ */
+public class MigradorResultados implements Runnable {
+
+    public static final String NOMBRE = "resultados_por_usuario";
+    static final String COLECCION = "resultados_mascota_ideal";
+    private static final String INDICE_ANTERIOR = "idx_idUsuario";
+    private static final int LOTE = 500;
+
+    // Mientras no termine, el DAO tambien lee y limpia el formato anterior
+    private static volatile boolean terminada;
+    private static boolean iniciada;
+
+    private final MongoCollection<Document> resultados;
+    private final MongoCollection<Document> migraciones;
+
+    public MigradorResultados(MongoDatabase database) {
+        this.resultados = database.getCollection(COLECCION);
+        this.migraciones = database.getCollection("migraciones");
+    }
+
+    /**
+     * Arranca la migracion en un hilo de fondo, una sola vez por proceso
+     */
+    public static synchronized void iniciarEnSegundoPlano(MongoDatabase database) {
+        if (iniciada) {
+            return;
+        }
+        iniciada = true;
+        MigradorResultados migrador = new MigradorResultados(database);
+        if (migrador.yaTerminada()) {
+            terminada = true;
+            return;
+        }
+        Thread hilo = new Thread(migrador, "migrador-resultados");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    public static boolean isTerminada() {
+        return terminada;
+    }
+
+    /**
+     * Documentos del formato anterior de un usuario
+     */
+    public static Bson formatoAnterior(ObjectId idUsuario) {
+        return Filters.and(Filters.eq("idUsuario", idUsuario), Filters.exists("idMascota"));
+    }
+
+    @Override
+    public void run() {
+        try {
+            migrar();
+        } catch (Exception e) {
+            System.err.println("Migracion de resultados interrumpida, se continuara al reiniciar: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Agrupa los documentos anteriores por usuario y los migra por lotes
+     */
+    public void migrar() {
+        long inicio = System.currentTimeMillis();
+        Document estado = migraciones.find(Filters.eq("_id", NOMBRE)).first();
+        ObjectId ultimo = estado != null ? estado.getObjectId("ultimoId") : null;
+        long usuarios = estado != null ? estado.get("usuarios", 0L) : 0L;
+        long documentos = estado != null ? estado.get("documentos", 0L) : 0L;
+
+        long pendientes = resultados.countDocuments(pendientesDesde(ultimo));
+        System.out.println("Migracion de resultados: " + pendientes + " documentos pendientes"
+                + (ultimo != null ? " (continuando despues del usuario " + ultimo + ")" : ""));
+
+        while (true) {
+            List<Document> lote = resultados.find(pendientesDesde(ultimo))
+                    .projection(new Document("idUsuario", 1).append("idMascota", 1)
+                            .append("porcentajeCompatibilidad", 1).append("fechaBusqueda", 1))
+                    .sort(Sorts.ascending("idUsuario", "_id"))
+                    .limit(LOTE)
+                    .into(new ArrayList<>(LOTE));
+            if (lote.isEmpty()) {
+                break;
+            }
+
+            // El ultimo usuario del lote puede tener mas documentos fuera del limite
+            ObjectId ultimoDelLote = lote.get(lote.size() - 1).getObjectId("idUsuario");
+            if (lote.size() == LOTE) {
+                lote.removeIf(doc -> ultimoDelLote.equals(doc.getObjectId("idUsuario")));
+                resultados.find(formatoAnterior(ultimoDelLote)).sort(Sorts.ascending("_id")).into(lote);
+            }
+
+            List<WriteModel<Document>> cambios = new ArrayList<>();
+            int desde = 0;
+            while (desde < lote.size()) {
+                ObjectId idUsuario = lote.get(desde).getObjectId("idUsuario");
+                int hasta = desde;
+                while (hasta < lote.size() && idUsuario.equals(lote.get(hasta).getObjectId("idUsuario"))) {
+                    hasta++;
+                }
+                agregarCambios(cambios, idUsuario, lote.subList(desde, hasta));
+                usuarios++;
+                desde = hasta;
+            }
+            resultados.bulkWrite(cambios, new BulkWriteOptions().ordered(true));
+
+            documentos += lote.size();
+            ultimo = ultimoDelLote;
+            guardarEstado(ultimo, usuarios, documentos, false);
+            System.out.println("Migracion de resultados: " + documentos + "/" + pendientes);
+        }
+
+        guardarEstado(ultimo, usuarios, documentos, true);
+        terminada = true;
+        eliminarIndiceAnterior();
+        System.out.println("Migracion de resultados terminada: " + documentos + " documentos de " + usuarios
+                + " usuarios en " + (System.currentTimeMillis() - inicio) + " ms");
+    }
+
+    /**
+     * Upsert del documento nuevo del usuario y borrado de los anteriores
+     */
+    private static void agregarCambios(List<WriteModel<Document>> cambios, ObjectId idUsuario,
+            List<Document> anteriores) {
+        List<Document> elementos = new ArrayList<>(anteriores.size());
+        Date fecha = null;
+        for (Document anterior : anteriores) {
+            Object porcentaje = anterior.get("porcentajeCompatibilidad");
+            elementos.add(new Document("idMascota", anterior.getObjectId("idMascota"))
+                    .append("porcentaje", porcentaje instanceof Number ? ((Number) porcentaje).doubleValue() : 0.0));
+            Date fechaAnterior = anterior.getDate("fechaBusqueda");
+            if (fechaAnterior != null && (fecha == null || fechaAnterior.after(fecha))) {
+                fecha = fechaAnterior;
+            }
+        }
+
+        Bson nuevo = Updates.combine(
+                Updates.setOnInsert("fechaBusqueda", fecha != null ? fecha : new Date()),
+                Updates.setOnInsert("resultados", elementos));
+        cambios.add(new UpdateOneModel<>(Filters.eq("_id", idUsuario), nuevo, new UpdateOptions().upsert(true)));
+        cambios.add(new DeleteManyModel<>(formatoAnterior(idUsuario)));
+    }
+
+    private boolean yaTerminada() {
+        try {
+            Document estado = migraciones.find(Filters.eq("_id", NOMBRE)).first();
+            return estado != null && estado.getBoolean("terminada", false);
+        } catch (Exception e) {
+            System.err.println("No se pudo consultar el estado de la migracion: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Documentos anteriores (con idMascota) de usuarios despues del ultimo migrado
+     */
+    private static Bson pendientesDesde(ObjectId ultimo) {
+        Bson pendientes = Filters.and(Filters.exists("idMascota"), Filters.type("idUsuario", BsonType.OBJECT_ID));
+        return ultimo == null ? pendientes : Filters.and(Filters.gt("idUsuario", ultimo), pendientes);
+    }
+
+    private void guardarEstado(ObjectId ultimo, long usuarios, long documentos, boolean fin) {
+        Document estado = new Document("_id", NOMBRE)
+                .append("ultimoId", ultimo)
+                .append("usuarios", usuarios)
+                .append("documentos", documentos)
+                .append("terminada", fin)
+                .append("actualizada", new Date());
+        migraciones.replaceOne(Filters.eq("_id", NOMBRE), estado, new ReplaceOptions().upsert(true));
+    }
+
+    private void eliminarIndiceAnterior() {
+        try {
+            for (Document indice : resultados.listIndexes()) {
+                if (INDICE_ANTERIOR.equals(indice.getString("name"))) {
+                    resultados.dropIndex(INDICE_ANTERIOR);
+                    System.out.println("Indice " + INDICE_ANTERIOR + " eliminado de " + COLECCION);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("No se pudo eliminar " + INDICE_ANTERIOR + ": " + e.getMessage());
+        }
+    }
+}
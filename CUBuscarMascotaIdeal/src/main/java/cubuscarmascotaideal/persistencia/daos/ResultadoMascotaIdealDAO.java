@@ -3,52 +3,51 @@ package cubuscarmascotaideal.persistencia.daos;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
 import cubuscarmascotaideal.persistencia.entities.ResultadoMascotaIdeal;
 import org.bson.Document;
 import org.bson.types.ObjectId;
 
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
 /**
- * DAO para guardar y buscar resultados de busqueda de mascota ideal
+ * DAO para guardar y buscar resultados de busqueda de mascota ideal.
+ *
+ * Cada usuario tiene un solo documento, con _id = idUsuario:
+ * { _id, fechaBusqueda, resultados: [ { idMascota, porcentaje } ] }
+ * Guardar es un solo upsert y leer es un solo find por _id.
  */
 public class ResultadoMascotaIdealDAO {
 
+    private static final ReplaceOptions UPSERT = new ReplaceOptions().upsert(true);
+
     private final MongoCollection<Document> collection;
 
     public ResultadoMascotaIdealDAO(MongoDatabase database) {
-        this.collection = database.getCollection("resultados_mascota_ideal");
-    }
-
-    /**
-     * Guarda un resultado de busqueda en la base de datos
-     */
-    public ObjectId guardar(ResultadoMascotaIdeal resultado) {
-        Document doc = convertirResultadoADocumento(resultado);
-        collection.insertOne(doc);
-        return doc.getObjectId("_id");
+        this.collection = database.getCollection(MigradorResultados.COLECCION);
+        MigradorResultados.iniciarEnSegundoPlano(database);
     }
 
     /**
-     * Guarda varios resultados de una sola vez
+     * Reemplaza los resultados del usuario por los de la ultima busqueda
      */
-    public void guardarTodos(List<ResultadoMascotaIdeal> resultados) {
-        // Si la lista esta vacia, no hago nada
-        if (resultados == null || resultados.isEmpty()) {
+    public void guardarResultados(ObjectId idUsuario, List<ResultadoMascotaIdeal> resultados) {
+        if (idUsuario == null || resultados == null) {
             return;
         }
 
-        // Convierto cada resultado a documento
-        List<Document> documentos = new ArrayList<>();
-        for (ResultadoMascotaIdeal resultado : resultados) {
-            documentos.add(convertirResultadoADocumento(resultado));
-        }
+        // Un solo documento con todo el arreglo, insertado o reemplazado
+        collection.replaceOne(Filters.eq("_id", idUsuario), convertirResultadosADocumento(idUsuario, resultados),
+                UPSERT);
 
-        // Guardo todos de una vez
-        collection.insertMany(documentos);
+        // Mientras no termine la migracion pueden quedar documentos del formato anterior
+        if (!MigradorResultados.isTerminada()) {
+            collection.deleteMany(MigradorResultados.formatoAnterior(idUsuario));
+        }
     }
 
     /**
@@ -56,69 +55,86 @@ public class ResultadoMascotaIdealDAO {
      */
     public List<ResultadoMascotaIdeal> buscarPorUsuario(ObjectId idUsuario) {
         List<ResultadoMascotaIdeal> resultados = new ArrayList<>();
+        if (idUsuario == null) {
+            return resultados;
+        }
 
-        for (Document doc : collection.find(Filters.eq("idUsuario", idUsuario))) {
-            resultados.add(convertirDocumentoAResultado(doc));
+        Document doc = collection.find(Filters.eq("_id", idUsuario)).first();
+        if (doc != null) {
+            return convertirDocumentoAResultados(doc);
         }
 
+        // Usuario todavia no migrado: un documento por mascota
+        if (!MigradorResultados.isTerminada()) {
+            for (Document anterior : collection.find(MigradorResultados.formatoAnterior(idUsuario))) {
+                resultados.add(convertirDocumentoAnterior(anterior));
+            }
+        }
         return resultados;
     }
 
     /**
-     * Borra todos los resultados anteriores de un usuario
+     * Borra los resultados guardados de un usuario
      */
     public void eliminarPorUsuario(ObjectId idUsuario) {
-        collection.deleteMany(Filters.eq("idUsuario", idUsuario));
+        collection.deleteOne(Filters.eq("_id", idUsuario));
+        if (!MigradorResultados.isTerminada()) {
+            collection.deleteMany(MigradorResultados.formatoAnterior(idUsuario));
+        }
     }
 
     /**
-     * Convierte un documento de MongoDB a objeto ResultadoMascotaIdeal
+     * Convierte el documento del usuario a una lista de ResultadoMascotaIdeal
      */
-    private ResultadoMascotaIdeal convertirDocumentoAResultado(Document doc) {
-        ResultadoMascotaIdeal resultado = new ResultadoMascotaIdeal();
-
-        resultado.setId(doc.getObjectId("_id"));
-        resultado.setIdUsuario(doc.getObjectId("idUsuario"));
-        resultado.setIdMascota(doc.getObjectId("idMascota"));
-
-        // Manejo el porcentaje con cuidado por si viene null
-        Double porcentaje = doc.getDouble("porcentajeCompatibilidad");
-        resultado.setPorcentajeCompatibilidad(porcentaje != null ? porcentaje : 0.0);
-
-        // Convierto la fecha de Date a LocalDateTime
-        Date fecha = doc.getDate("fechaBusqueda");
-        if (fecha != null) {
-            resultado.setFechaBusqueda(
-                    fecha.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime());
+    private List<ResultadoMascotaIdeal> convertirDocumentoAResultados(Document doc) {
+        ObjectId idUsuario = doc.getObjectId("_id");
+        LocalDateTime fecha = aLocalDateTime(doc.getDate("fechaBusqueda"));
+
+        List<Document> elementos = doc.getList("resultados", Document.class, List.of());
+        List<ResultadoMascotaIdeal> resultados = new ArrayList<>(elementos.size());
+        for (Document elemento : elementos) {
+            ResultadoMascotaIdeal resultado = new ResultadoMascotaIdeal();
+            resultado.setIdUsuario(idUsuario);
+            resultado.setIdMascota(elemento.getObjectId("idMascota"));
+            resultado.setPorcentajeCompatibilidad(porcentaje(elemento.get("porcentaje")));
+            resultado.setFechaBusqueda(fecha);
+            resultados.add(resultado);
         }
-
-        return resultado;
+        return resultados;
     }
 
     /**
-     * Convierte un objeto ResultadoMascotaIdeal a documento de MongoDB
+     * Convierte los resultados al documento del usuario
      */
-    private Document convertirResultadoADocumento(ResultadoMascotaIdeal resultado) {
-        Document doc = new Document();
-
-        // Si ya tiene ID, lo guardo
-        if (resultado.getId() != null) {
-            doc.append("_id", resultado.getId());
+    private static Document convertirResultadosADocumento(ObjectId idUsuario, List<ResultadoMascotaIdeal> resultados) {
+        List<Document> elementos = new ArrayList<>(resultados.size());
+        for (ResultadoMascotaIdeal resultado : resultados) {
+            elementos.add(new Document("idMascota", resultado.getIdMascota())
+                    .append("porcentaje", resultado.getPorcentajeCompatibilidad()));
         }
+        return new Document("_id", idUsuario)
+                .append("fechaBusqueda", new Date())
+                .append("resultados", elementos);
+    }
 
-        // Guardo todos los campos del resultado
-        doc.append("idUsuario", resultado.getIdUsuario())
-                .append("idMascota", resultado.getIdMascota())
-                .append("porcentajeCompatibilidad", resultado.getPorcentajeCompatibilidad());
-
-        // Guardo la fecha (si no tiene, uso la fecha actual)
-        if (resultado.getFechaBusqueda() != null) {
-            doc.append("fechaBusqueda",
-                    Date.from(resultado.getFechaBusqueda().atZone(ZoneId.systemDefault()).toInstant()));
-        } else {
-            doc.append("fechaBusqueda", new Date());
-        }
+    /**
+     * Convierte un documento del formato anterior (uno por mascota)
+     */
+    private static ResultadoMascotaIdeal convertirDocumentoAnterior(Document doc) {
+        ResultadoMascotaIdeal resultado = new ResultadoMascotaIdeal();
+        resultado.setId(doc.getObjectId("_id"));
+        resultado.setIdUsuario(doc.getObjectId("idUsuario"));
+        resultado.setIdMascota(doc.getObjectId("idMascota"));
+        resultado.setPorcentajeCompatibilidad(porcentaje(doc.get("porcentajeCompatibilidad")));
+        resultado.setFechaBusqueda(aLocalDateTime(doc.getDate("fechaBusqueda")));
+        return resultado;
+    }
+
+    private static double porcentaje(Object valor) {
+        return valor instanceof Number ? ((Number) valor).doubleValue() : 0.0;
+    }
 
-        return doc;
+    private static LocalDateTime aLocalDateTime(Date fecha) {
+        return fecha == null ? null : fecha.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
     }
 }
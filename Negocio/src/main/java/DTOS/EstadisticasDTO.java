@@ -0,0 +1,100 @@
+package DTOS;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DTO con los numeros del tablero del administrador. Los mapas conservan
+ * el orden: de mayor a menor conteo, y las semanas de la mas vieja a la
+ * mas nueva.
+ *
+ * @author System
+ */
+public class EstadisticasDTO {
+
+    private Map<String, Long> mascotasPorEstado = new LinkedHashMap<>();
+    private Map<String, Long> mascotasPorEspecie = new LinkedHashMap<>();
+    private long mascotasDisponibles;
+    private long mascotasNoDisponibles;
+    private Map<String, Long> solicitudesPorEstado = new LinkedHashMap<>();
+    private long citasReservadas;
+    private long citasLibres;
+    private Map<String, Long> adopcionesPorSemana = new LinkedHashMap<>();
+    private LocalDateTime calculadoEn;
+
+    public EstadisticasDTO() {
+    }
+
+    public Map<String, Long> getMascotasPorEstado() {
+        return mascotasPorEstado;
+    }
+
+    public void setMascotasPorEstado(Map<String, Long> mascotasPorEstado) {
+        this.mascotasPorEstado = mascotasPorEstado;
+    }
+
+    public Map<String, Long> getMascotasPorEspecie() {
+        return mascotasPorEspecie;
+    }
+
+    public void setMascotasPorEspecie(Map<String, Long> mascotasPorEspecie) {
+        this.mascotasPorEspecie = mascotasPorEspecie;
+    }
+
+    public long getMascotasDisponibles() {
+        return mascotasDisponibles;
+    }
+
+    public void setMascotasDisponibles(long mascotasDisponibles) {
+        this.mascotasDisponibles = mascotasDisponibles;
+    }
+
+    public long getMascotasNoDisponibles() {
+        return mascotasNoDisponibles;
+    }
+
+    public void setMascotasNoDisponibles(long mascotasNoDisponibles) {
+        this.mascotasNoDisponibles = mascotasNoDisponibles;
+    }
+
+    public Map<String, Long> getSolicitudesPorEstado() {
+        return solicitudesPorEstado;
+    }
+
+    public void setSolicitudesPorEstado(Map<String, Long> solicitudesPorEstado) {
+        this.solicitudesPorEstado = solicitudesPorEstado;
+    }
+
+    public long getCitasReservadas() {
+        return citasReservadas;
+    }
+
+    public void setCitasReservadas(long citasReservadas) {
+        this.citasReservadas = citasReservadas;
+    }
+
+    public long getCitasLibres() {
+        return citasLibres;
+    }
+
+    public void setCitasLibres(long citasLibres) {
+        this.citasLibres = citasLibres;
+    }
+
+    public Map<String, Long> getAdopcionesPorSemana() {
+        return adopcionesPorSemana;
+    }
+
+    public void setAdopcionesPorSemana(Map<String, Long> adopcionesPorSemana) {
+        this.adopcionesPorSemana = adopcionesPorSemana;
+    }
+
+    public LocalDateTime getCalculadoEn() {
+        return calculadoEn;
+    }
+
+    public void setCalculadoEn(LocalDateTime calculadoEn) {
+        this.calculadoEn = calculadoEn;
+    }
+}
@@ -4,6 +4,10 @@
  */
 package DTOS;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * Data Transfer Object para Mascota
  * Contiene la información completa de una mascota disponible para adopción
@@ -34,6 +38,9 @@ public class MascotaDTO {
     private String costoMantenimiento;
     private String descripcion;
 
+    // Campos cambiados con los setters, para actualizar solo esos
+    private final Set<String> camposModificados = new HashSet<>();
+
     public MascotaDTO() {
     }
 
@@ -58,6 +65,7 @@ public class MascotaDTO {
 
     public void setNombre(String nombre) {
         this.nombre = nombre;
+        camposModificados.add("nombre");
     }
 
     public String getEspecie() {
@@ -66,6 +74,7 @@ public class MascotaDTO {
 
     public void setEspecie(String especie) {
         this.especie = especie;
+        camposModificados.add("especie");
     }
 
     public String getEstadoSalud() {
@@ -74,6 +83,7 @@ public class MascotaDTO {
 
     public void setEstadoSalud(String estadoSalud) {
         this.estadoSalud = estadoSalud;
+        camposModificados.add("estadoSalud");
     }
 
     public String getPersonalidad() {
@@ -82,6 +92,7 @@ public class MascotaDTO {
 
     public void setPersonalidad(String personalidad) {
         this.personalidad = personalidad;
+        camposModificados.add("personalidad");
     }
 
     public String getUrlImagen() {
@@ -90,6 +101,7 @@ public class MascotaDTO {
 
     public void setUrlImagen(String urlImagen) {
         this.urlImagen = urlImagen;
+        camposModificados.add("urlImagen");
     }
 
     public int getEdad() {
@@ -98,6 +110,7 @@ public class MascotaDTO {
 
     public void setEdad(int edad) {
         this.edad = edad;
+        camposModificados.add("edad");
     }
 
     public boolean isDisponible() {
@@ -106,6 +119,7 @@ public class MascotaDTO {
 
     public void setDisponible(boolean disponible) {
         this.disponible = disponible;
+        camposModificados.add("disponible");
     }
 
     public String getEstado() {
@@ -114,6 +128,7 @@ public class MascotaDTO {
 
     public void setEstado(String estado) {
         this.estado = estado;
+        camposModificados.add("estado");
     }
 
     public String getColor() {
@@ -122,6 +137,7 @@ public class MascotaDTO {
 
     public void setColor(String color) {
         this.color = color;
+        camposModificados.add("color");
     }
 
     public String getRaza() {
@@ -130,6 +146,7 @@ public class MascotaDTO {
 
     public void setRaza(String raza) {
         this.raza = raza;
+        camposModificados.add("raza");
     }
 
     public double getPeso() {
@@ -138,6 +155,7 @@ public class MascotaDTO {
 
     public void setPeso(double peso) {
         this.peso = peso;
+        camposModificados.add("peso");
     }
 
     public String getTamano() {
@@ -146,6 +164,7 @@ public class MascotaDTO {
 
     public void setTamano(String tamano) {
         this.tamano = tamano;
+        camposModificados.add("tamano");
     }
 
     public String getNivelActividad() {
@@ -154,6 +173,7 @@ public class MascotaDTO {
 
     public void setNivelActividad(String nivelActividad) {
         this.nivelActividad = nivelActividad;
+        camposModificados.add("nivelActividad");
     }
 
     public boolean isPeludo() {
@@ -162,6 +182,7 @@ public class MascotaDTO {
 
     public void setPeludo(boolean peludo) {
         this.peludo = peludo;
+        camposModificados.add("peludo");
     }
 
     public String getCostoMantenimiento() {
@@ -170,6 +191,7 @@ public class MascotaDTO {
 
     public void setCostoMantenimiento(String costoMantenimiento) {
         this.costoMantenimiento = costoMantenimiento;
+        camposModificados.add("costoMantenimiento");
     }
 
     public String getDescripcion() {
@@ -178,6 +200,21 @@ public class MascotaDTO {
 
     public void setDescripcion(String descripcion) {
         this.descripcion = descripcion;
+        camposModificados.add("descripcion");
+    }
+
+    /**
+     * Campos modificados desde que se armo a partir de la base de datos
+     */
+    public Set<String> getCamposModificados() {
+        return Collections.unmodifiableSet(camposModificados);
+    }
+
+    /**
+     * Marca el DTO como sin cambios; se llama al convertir desde la entidad
+     */
+    public void limpiarCambios() {
+        camposModificados.clear();
     }
 
     @Override
@@ -0,0 +1,57 @@
+package DTOS;
+
+/**
+ * DTO con los datos minimos de una mascota para mostrar su tarjeta en el
+ * catalogo. El detalle completo se consulta con buscarMascotaPorId.
+ * 
+ * @author System
+ */
+public class MascotaResumenDTO {
+
+    private String id;
+    private String nombre;
+    private String especie;
+    private String urlImagen;
+
+    public MascotaResumenDTO() {
+    }
+
+    public MascotaResumenDTO(String id, String nombre, String especie, String urlImagen) {
+        this.id = id;
+        this.nombre = nombre;
+        this.especie = especie;
+        this.urlImagen = urlImagen;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getEspecie() {
+        return especie;
+    }
+
+    public void setEspecie(String especie) {
+        this.especie = especie;
+    }
+
+    public String getUrlImagen() {
+        return urlImagen;
+    }
+
+    public void setUrlImagen(String urlImagen) {
+        this.urlImagen = urlImagen;
+    }
+}
@@ -0,0 +1,123 @@
+package DTOS;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DTO con las tendencias de adopcion de un rango de fechas, armado con los
+ * acumulados diarios. Los mapas van en orden cronologico e incluyen los
+ * dias y meses sin actividad (en 0 o vacios).
+ *
+ * @author System
+ */
+public class ReporteAdopcionesDTO {
+
+    private LocalDate desde;
+    private LocalDate hasta;
+    private Map<String, Long> solicitudesPorDia = new LinkedHashMap<>();
+    private long solicitudes;
+    private long aprobadas;
+    private long rechazadas;
+    private long modificaciones;
+    private double tasaAprobacion;
+    private double horasPromedioDecision;
+    private Map<String, Map<String, Long>> adopcionesPorMes = new LinkedHashMap<>();
+
+    public ReporteAdopcionesDTO() {
+    }
+
+    public LocalDate getDesde() {
+        return desde;
+    }
+
+    public void setDesde(LocalDate desde) {
+        this.desde = desde;
+    }
+
+    public LocalDate getHasta() {
+        return hasta;
+    }
+
+    public void setHasta(LocalDate hasta) {
+        this.hasta = hasta;
+    }
+
+    /**
+     * Dia (yyyy-MM-dd, UTC) -> solicitudes creadas
+     */
+    public Map<String, Long> getSolicitudesPorDia() {
+        return solicitudesPorDia;
+    }
+
+    public void setSolicitudesPorDia(Map<String, Long> solicitudesPorDia) {
+        this.solicitudesPorDia = solicitudesPorDia;
+    }
+
+    public long getSolicitudes() {
+        return solicitudes;
+    }
+
+    public void setSolicitudes(long solicitudes) {
+        this.solicitudes = solicitudes;
+    }
+
+    public long getAprobadas() {
+        return aprobadas;
+    }
+
+    public void setAprobadas(long aprobadas) {
+        this.aprobadas = aprobadas;
+    }
+
+    public long getRechazadas() {
+        return rechazadas;
+    }
+
+    public void setRechazadas(long rechazadas) {
+        this.rechazadas = rechazadas;
+    }
+
+    public long getModificaciones() {
+        return modificaciones;
+    }
+
+    public void setModificaciones(long modificaciones) {
+        this.modificaciones = modificaciones;
+    }
+
+    /**
+     * Aprobadas entre aprobadas mas rechazadas, de 0 a 1; 0 si no hubo
+     * decisiones
+     */
+    public double getTasaAprobacion() {
+        return tasaAprobacion;
+    }
+
+    public void setTasaAprobacion(double tasaAprobacion) {
+        this.tasaAprobacion = tasaAprobacion;
+    }
+
+    /**
+     * Horas promedio desde que se crea una solicitud hasta que se aprueba o
+     * rechaza; 0 si no hubo decisiones
+     */
+    public double getHorasPromedioDecision() {
+        return horasPromedioDecision;
+    }
+
+    public void setHorasPromedioDecision(double horasPromedioDecision) {
+        this.horasPromedioDecision = horasPromedioDecision;
+    }
+
+    /**
+     * Mes (yyyy-MM) -> especie -> mascotas adoptadas
+     */
+    public Map<String, Map<String, Long>> getAdopcionesPorMes() {
+        return adopcionesPorMes;
+    }
+
+    public void setAdopcionesPorMes(Map<String, Map<String, Long>> adopcionesPorMes) {
+        this.adopcionesPorMes = adopcionesPorMes;
+    }
+}
@@ -0,0 +1,14 @@
+package DTOS;
+
+/**
+ * Resultado de reservar una cita, para que la pantalla distinga una cita
+ * que otro usuario tomo de una que ya no existe
+ *
+ * @author System
+ */
+public enum ResultadoReservaDTO {
+
+    RESERVADA,
+    OCUPADA,
+    NO_EXISTE
+}
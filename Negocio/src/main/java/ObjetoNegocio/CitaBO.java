@@ -1,8 +1,9 @@
 package ObjetoNegocio;
 
 import DTOS.CitaDTO;
-import daos.CitaDAO;
-import conexion.ConexionMongoDB;
+import daos.FabricaDAOs;
+import daos.ICitaDAO;
+import daos.UnidadDeTrabajo;
 import entities.Cita;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -13,10 +14,10 @@ import java.util.List;
  */
 public class CitaBO implements ICitaBO {
 
-    private CitaDAO citaDAO;
+    private ICitaDAO citaDAO;
 
     public CitaBO() {
-        this.citaDAO = new CitaDAO(ConexionMongoDB.getInstancia().getDatabase());
+        this.citaDAO = FabricaDAOs.citas();
     }
 
     @Override
@@ -27,6 +28,13 @@ public class CitaBO implements ICitaBO {
         }
     }
 
+    @Override
+    public void registrarCita(UnidadDeTrabajo unidad, CitaDTO citaDTO) {
+        if (citaDTO != null) {
+            citaDAO.registrarNueva(unidad, convertirAEntidad(citaDTO));
+        }
+    }
+
     @Override
     public CitaDTO buscarCitaPorId(String id) {
         return null; // TODO: Implementar busqueda por ID
@@ -1,7 +1,9 @@
 package ObjetoNegocio;
 
-import daos.CitaDisponibleDAO;
+import daos.FabricaDAOs;
+import daos.ICitaDisponibleDAO;
 import DTOS.CitaDisponibleDTO;
+import DTOS.ResultadoReservaDTO;
 import entities.CitaDisponible;
 
 import java.util.ArrayList;
@@ -13,10 +15,10 @@ import java.util.List;
  * @author Sistema
  */
 public class CitaDisponibleBO implements ICitaDisponibleBO {
-    private final CitaDisponibleDAO citaDAO;
+    private final ICitaDisponibleDAO citaDAO;
 
     public CitaDisponibleBO() {
-        this.citaDAO = new CitaDisponibleDAO();
+        this.citaDAO = FabricaDAOs.citasDisponibles();
     }
 
     @Override
@@ -41,26 +43,18 @@ public class CitaDisponibleBO implements ICitaDisponibleBO {
     }
 
     @Override
-    public boolean reservarCita(String idCita, String idUsuario) {
-        try {
-            // Primero verificar que esté disponible
-            if (!verificarDisponibilidad(idCita)) {
-                System.err.println("✗ La cita ya no está disponible");
-                return false;
-            }
-
-            // Marcar como ocupada
-            boolean resultado = citaDAO.marcarCitaOcupada(idCita, idUsuario);
-
-            if (resultado) {
+    public ResultadoReservaDTO reservarCita(String idCita, String idUsuario) {
+        // Verificar y ocupar en una sola operacion para evitar dobles reservas
+        switch (citaDAO.reservarCita(idCita, idUsuario)) {
+            case RESERVADA:
                 System.out.println("✓ Cita reservada exitosamente para usuario: " + idUsuario);
-            }
-
-            return resultado;
-        } catch (Exception e) {
-            System.err.println("Error en BO al reservar cita: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+                return ResultadoReservaDTO.RESERVADA;
+            case OCUPADA:
+                System.err.println("✗ La cita ya fue tomada por otro usuario: " + idCita);
+                return ResultadoReservaDTO.OCUPADA;
+            default:
+                System.err.println("✗ La cita no existe: " + idCita);
+                return ResultadoReservaDTO.NO_EXISTE;
         }
     }
 
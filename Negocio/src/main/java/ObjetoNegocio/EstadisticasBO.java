@@ -0,0 +1,108 @@
+package ObjetoNegocio;
+
+import DTOS.EstadisticasDTO;
+import conexion.ConfiguracionMongoDB;
+import daos.FabricaDAOs;
+import daos.IEstadisticasDAO;
+import entities.EstadisticasAdmin;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estadisticas del tablero del administrador con un TTL corto: la
+ * agregacion corre a lo mas una vez por estadisticas.ttlSegundos sin
+ * importar cuantas pantallas la pidan, y el resultado se comparte entre
+ * todas las instancias. Si el recalculo falla se sigue mostrando el ultimo.
+ *
+ * @author System
+ */
+public class EstadisticasBO implements IEstadisticasBO {
+
+    private static final int SEMANAS = 12;
+    private static final Object CANDADO = new Object();
+    private static volatile Calculo vigente;
+
+    private final IEstadisticasDAO estadisticasDAO;
+    private final long ttlNanos;
+
+    public EstadisticasBO() {
+        this(FabricaDAOs.estadisticas());
+    }
+
+    public EstadisticasBO(IEstadisticasDAO estadisticasDAO) {
+        this.estadisticasDAO = estadisticasDAO;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(new ConfiguracionMongoDB().getTtlEstadisticasSegundos());
+    }
+
+    @Override
+    public EstadisticasDTO obtenerEstadisticas() {
+        Calculo actual = vigente;
+        if (actual != null && actual.isVigente()) {
+            return actual.estadisticas;
+        }
+        // Un solo hilo recalcula; los demas esperan y usan su resultado
+        synchronized (CANDADO) {
+            actual = vigente;
+            if (actual != null && actual.isVigente()) {
+                return actual.estadisticas;
+            }
+            try {
+                EstadisticasDTO estadisticas = entityToDTO(estadisticasDAO.calcular(SEMANAS));
+                vigente = new Calculo(estadisticas, System.nanoTime() + ttlNanos);
+                return estadisticas;
+            } catch (RuntimeException e) {
+                if (actual == null) {
+                    throw e;
+                }
+                System.err.println("No se pudieron recalcular las estadisticas, se muestran las anteriores: "
+                        + e.getMessage());
+                return actual.estadisticas;
+            }
+        }
+    }
+
+    @Override
+    public void invalidar() {
+        vigente = null;
+    }
+
+    /**
+     * El DTO se comparte entre pantallas, por eso sus mapas no se pueden
+     * modificar
+     */
+    private static EstadisticasDTO entityToDTO(EstadisticasAdmin estadisticas) {
+        EstadisticasDTO dto = new EstadisticasDTO();
+        dto.setMascotasPorEstado(copia(estadisticas.getMascotasPorEstado()));
+        dto.setMascotasPorEspecie(copia(estadisticas.getMascotasPorEspecie()));
+        dto.setMascotasDisponibles(estadisticas.getMascotasDisponibles());
+        dto.setMascotasNoDisponibles(estadisticas.getMascotasNoDisponibles());
+        dto.setSolicitudesPorEstado(copia(estadisticas.getSolicitudesPorEstado()));
+        dto.setCitasReservadas(estadisticas.getCitasReservadas());
+        dto.setCitasLibres(estadisticas.getCitasLibres());
+        dto.setAdopcionesPorSemana(copia(estadisticas.getAdopcionesPorSemana()));
+        dto.setCalculadoEn(estadisticas.getCalculadoEn());
+        return dto;
+    }
+
+    private static Map<String, Long> copia(Map<String, Long> conteos) {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(conteos));
+    }
+
+    private static final class Calculo {
+
+        private final EstadisticasDTO estadisticas;
+        private final long vence;
+
+        Calculo(EstadisticasDTO estadisticas, long vence) {
+            this.estadisticas = estadisticas;
+            this.vence = vence;
+        }
+
+        boolean isVigente() {
+            return System.nanoTime() - vence < 0;
+        }
+    }
+}
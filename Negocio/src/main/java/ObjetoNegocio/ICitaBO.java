@@ -5,6 +5,7 @@
 package ObjetoNegocio;
 
 import DTOS.CitaDTO;
+import daos.UnidadDeTrabajo;
 import java.time.LocalDateTime;
 
 /**
@@ -15,6 +16,11 @@ public interface ICitaBO {
 
     void agendarCita(CitaDTO cita);
 
+    /**
+     * Agrega la cita a la unidad de trabajo; se guarda al confirmarla
+     */
+    void registrarCita(UnidadDeTrabajo unidad, CitaDTO cita);
+
     CitaDTO buscarCitaPorId(String id);
 
     java.util.List<CitaDTO> buscarCitasPorUsuario(String idUsuario);
@@ -1,6 +1,7 @@
 package ObjetoNegocio;
 
 import DTOS.CitaDisponibleDTO;
+import DTOS.ResultadoReservaDTO;
 import java.util.List;
 
 /**
@@ -22,9 +23,9 @@ public interface ICitaDisponibleBO {
      * 
      * @param idCita    ID de la cita
      * @param idUsuario ID del usuario
-     * @return true si se reservó exitosamente
+     * @return RESERVADA, OCUPADA si otro usuario la tomo antes o NO_EXISTE
      */
-    boolean reservarCita(String idCita, String idUsuario);
+    ResultadoReservaDTO reservarCita(String idCita, String idUsuario);
 
     /**
      * Verifica si una cita está disponible
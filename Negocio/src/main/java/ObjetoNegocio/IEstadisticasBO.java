@@ -0,0 +1,22 @@
+package ObjetoNegocio;
+
+import DTOS.EstadisticasDTO;
+
+/**
+ * Estadisticas del tablero del administrador
+ *
+ * @author System
+ */
+public interface IEstadisticasBO {
+
+    /**
+     * Las estadisticas vigentes; se recalculan cuando vence su TTL
+     * (estadisticas.ttlSegundos)
+     */
+    EstadisticasDTO obtenerEstadisticas();
+
+    /**
+     * Descarta las estadisticas guardadas; la siguiente consulta recalcula
+     */
+    void invalidar();
+}
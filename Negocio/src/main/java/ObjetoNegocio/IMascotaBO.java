@@ -5,6 +5,7 @@
 package ObjetoNegocio;
 
 import DTOS.MascotaDTO;
+import DTOS.MascotaResumenDTO;
 
 /**
  *
@@ -22,8 +23,31 @@ public interface IMascotaBO {
 
     java.util.List<MascotaDTO> buscarMascotasDisponiblesPorEspecie(String especie);
 
+    /**
+     * Pagina de tarjetas de las mascotas disponibles ("Todas" o null para no
+     * filtrar); cursor null para la primera pagina
+     */
+    paginacion.Pagina<MascotaResumenDTO> buscarPaginaResumenMascotasDisponibles(String especie, String cursor, int tamano);
+
+    /**
+     * Pagina de tarjetas de las mascotas disponibles que coinciden con el
+     * texto (nombre, raza, color, personalidad o descripcion), de la mas a
+     * la menos relevante; especie "Todas" o null para no filtrar
+     */
+    paginacion.Pagina<MascotaResumenDTO> buscarTexto(String texto, String especie, String cursor, int tamano);
+
+    /**
+     * Especies distintas entre las mascotas disponibles, ordenadas
+     */
+    java.util.List<String> buscarEspeciesDisponibles();
+
     void actualizarMascota(MascotaDTO mascota);
 
+    /**
+     * Agrega a la unidad de trabajo el paso de la mascota a no disponible
+     */
+    void registrarReserva(daos.UnidadDeTrabajo unidad, String idMascota);
+
     void actualizaEstadoSalud(MascotaDTO mascota, String nuevoEstado);
 
     void registraDueño(MascotaDTO mascota, Long idDueño);
@@ -0,0 +1,22 @@
+package ObjetoNegocio;
+
+import DTOS.ReporteAdopcionesDTO;
+
+import java.time.LocalDate;
+
+/**
+ * Reportes de tendencias de adopcion para la administracion
+ *
+ * @author System
+ */
+public interface IReportesAdopcionBO {
+
+    /**
+     * Reporte del rango (inclusive, dias en UTC). Solo lee los acumulados de
+     * los dias del rango, no las solicitudes.
+     *
+     * @throws IllegalArgumentException si el rango es invalido o pasa de
+     *                                  ReportesAdopcionBO.MAXIMO_DIAS
+     */
+    ReporteAdopcionesDTO generarReporte(LocalDate desde, LocalDate hasta);
+}
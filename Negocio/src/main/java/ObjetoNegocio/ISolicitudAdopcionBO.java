@@ -4,6 +4,7 @@
  */
 package ObjetoNegocio;
 
+import DTOS.CitaDTO;
 import DTOS.MascotaDTO;
 import DTOS.SolicitudAdopcionDTO;
 import DTOS.UsuarioDTO;
@@ -16,6 +17,14 @@ public interface ISolicitudAdopcionBO {
 
     void crearSolicitud(SolicitudAdopcionDTO solicitud);
 
+    /**
+     * Guarda la solicitud, aparta su mascota y guarda la cita en una sola
+     * unidad de trabajo: si un paso falla no se escribe ninguno
+     *
+     * @throws IllegalStateException si otra solicitud ya aparto la mascota
+     */
+    void registrarSolicitudConCita(SolicitudAdopcionDTO solicitud, CitaDTO cita);
+
     SolicitudAdopcionDTO buscarSolicitudPorId(String id);
 
     java.util.List<SolicitudAdopcionDTO> buscarSolicitudesPorUsuario(String idUsuario);
@@ -19,6 +19,8 @@ public interface IUsuarioBO {
 
     UsuarioDTO buscarYValidarUsuario(String correo, String password);
 
+    boolean existeCorreo(String correo);
+
     void generaSolicitud(UsuarioDTO usuario, SolicitudAdopcionDTO solicitud);
 
     void adoptaMascota(UsuarioDTO usuario, Long idMascota);
@@ -1,11 +1,15 @@
 package ObjetoNegocio;
 
 import DTOS.MascotaDTO;
-import daos.MascotaDAO;
-import conexion.ConexionMongoDB;
+import DTOS.MascotaResumenDTO;
+import daos.FabricaDAOs;
+import daos.IMascotaDAO;
+import daos.UnidadDeTrabajo;
 import entities.Mascota;
+import paginacion.Pagina;
 import org.bson.types.ObjectId;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -14,10 +18,10 @@ import java.util.List;
  */
 public class MascotaBO implements IMascotaBO {
 
-    private MascotaDAO mascotaDAO;
+    private IMascotaDAO mascotaDAO;
 
     public MascotaBO() {
-        this.mascotaDAO = new MascotaDAO(ConexionMongoDB.getInstancia().getDatabase());
+        this.mascotaDAO = FabricaDAOs.mascotas();
     }
 
     /**
@@ -102,6 +106,52 @@ public class MascotaBO implements IMascotaBO {
         return dtos;
     }
 
+    /**
+     * Obtiene una pagina de tarjetas de mascotas disponibles, opcionalmente
+     * por especie. Solo trae los campos que se muestran en el catalogo.
+     */
+    @Override
+    public Pagina<MascotaResumenDTO> buscarPaginaResumenMascotasDisponibles(String especie, String cursor, int tamano) {
+        if (especie == null || especie.isEmpty() || "Todas".equalsIgnoreCase(especie)) {
+            especie = null;
+        }
+
+        return mascotaDAO.buscarPaginaResumenDisponibles(especie, cursor, tamano)
+                .map(r -> new MascotaResumenDTO(r.getId().toHexString(), r.getNombre(), r.getEspecie(), r.getUrlImagen()));
+    }
+
+    /**
+     * Busca por texto en el servidor (indice de texto de mascotas) y regresa
+     * solo los datos de tarjeta, ordenados por relevancia
+     */
+    @Override
+    public Pagina<MascotaResumenDTO> buscarTexto(String texto, String especie, String cursor, int tamano) {
+        if (texto == null || texto.trim().isEmpty()) {
+            throw new IllegalArgumentException("Escribe algo para buscar");
+        }
+        if (especie == null || especie.isEmpty() || "Todas".equalsIgnoreCase(especie)) {
+            especie = null;
+        }
+
+        return mascotaDAO.buscarTexto(texto.trim(), especie, cursor, tamano)
+                .map(r -> new MascotaResumenDTO(r.getId().toHexString(), r.getNombre(), r.getEspecie(), r.getUrlImagen()));
+    }
+
+    /**
+     * Obtiene las especies de las mascotas disponibles
+     */
+    @Override
+    public List<String> buscarEspeciesDisponibles() {
+        List<String> especies = new ArrayList<>();
+        for (String especie : mascotaDAO.buscarEspeciesDisponibles()) {
+            if (especie != null && !especie.isEmpty()) {
+                especies.add(especie);
+            }
+        }
+        Collections.sort(especies);
+        return especies;
+    }
+
     /**
      * Actualiza los datos de una mascota existente
      */
@@ -109,11 +159,26 @@ public class MascotaBO implements IMascotaBO {
     public void actualizarMascota(MascotaDTO mascotaDTO) {
         if (mascotaDTO != null) {
             Mascota mascota = convertirAEntidad(mascotaDTO);
+            // Solo se escriben los campos que cambiaron en el DTO, asi un DTO
+            // parcial no borra los campos que no trae
+            mascota.retenerCambios(mascotaDTO.getCamposModificados());
             mascotaDAO.actualizar(mascota);
+            mascotaDTO.limpiarCambios();
             System.out.println("Mascota actualizada: " + mascota.getId());
         }
     }
 
+    /**
+     * Marca la mascota como no disponible dentro de la unidad de trabajo
+     */
+    @Override
+    public void registrarReserva(UnidadDeTrabajo unidad, String idMascota) {
+        if (idMascota == null || !ObjectId.isValid(idMascota)) {
+            throw new IllegalArgumentException("ID de mascota invalido: " + idMascota);
+        }
+        mascotaDAO.registrarReserva(unidad, new ObjectId(idMascota));
+    }
+
     /**
      * Actualiza el estado de salud de una mascota
      */
@@ -196,6 +261,7 @@ public class MascotaBO implements IMascotaBO {
         dto.setCostoMantenimiento(entidad.getCostoMantenimiento());
         dto.setDescripcion(entidad.getDescripcion());
 
+        dto.limpiarCambios();
         return dto;
     }
 
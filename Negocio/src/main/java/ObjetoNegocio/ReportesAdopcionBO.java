@@ -0,0 +1,80 @@
+package ObjetoNegocio;
+
+import DTOS.ReporteAdopcionesDTO;
+import daos.FabricaDAOs;
+import daos.IMetricasDiariasDAO;
+import entities.MetricaDiaria;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Arma los reportes sumando los documentos de metricas_diarias del rango:
+ * el costo depende de cuantos dias abarca el reporte, no de cuantas
+ * solicitudes existen.
+ *
+ * @author System
+ */
+public class ReportesAdopcionBO implements IReportesAdopcionBO {
+
+    /**
+     * Rango maximo de un reporte, unos diez anios
+     */
+    public static final long MAXIMO_DIAS = 3660;
+
+    private final IMetricasDiariasDAO metricasDAO;
+
+    public ReportesAdopcionBO() {
+        this(FabricaDAOs.metricasDiarias());
+    }
+
+    public ReportesAdopcionBO(IMetricasDiariasDAO metricasDAO) {
+        this.metricasDAO = metricasDAO;
+    }
+
+    @Override
+    public ReporteAdopcionesDTO generarReporte(LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null || desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("Rango de fechas invalido: " + desde + " a " + hasta);
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAXIMO_DIAS) {
+            throw new IllegalArgumentException("El reporte no puede abarcar mas de " + MAXIMO_DIAS + " dias");
+        }
+
+        ReporteAdopcionesDTO reporte = new ReporteAdopcionesDTO();
+        reporte.setDesde(desde);
+        reporte.setHasta(hasta);
+        for (LocalDate dia = desde; !dia.isAfter(hasta); dia = dia.plusDays(1)) {
+            reporte.getSolicitudesPorDia().put(dia.toString(), 0L);
+        }
+        for (YearMonth mes = YearMonth.from(desde); !mes.isAfter(YearMonth.from(hasta)); mes = mes.plusMonths(1)) {
+            reporte.getAdopcionesPorMes().put(mes.toString(), new TreeMap<>());
+        }
+
+        long segundosDecision = 0;
+        for (MetricaDiaria metrica : metricasDAO.buscarRango(desde, hasta)) {
+            reporte.getSolicitudesPorDia().put(metrica.getDia(), metrica.getSolicitudes());
+            reporte.setSolicitudes(reporte.getSolicitudes() + metrica.getSolicitudes());
+            reporte.setAprobadas(reporte.getAprobadas() + metrica.getAprobadas());
+            reporte.setRechazadas(reporte.getRechazadas() + metrica.getRechazadas());
+            reporte.setModificaciones(reporte.getModificaciones() + metrica.getModificaciones());
+            segundosDecision += metrica.getSegundosDecision();
+
+            // yyyy-MM-dd -> yyyy-MM
+            Map<String, Long> delMes = reporte.getAdopcionesPorMes().get(metrica.getDia().substring(0, 7));
+            for (Map.Entry<String, Long> adopciones : metrica.getAdopcionesPorEspecie().entrySet()) {
+                delMes.merge(adopciones.getKey(), adopciones.getValue(), Long::sum);
+            }
+        }
+
+        long decisiones = reporte.getAprobadas() + reporte.getRechazadas();
+        if (decisiones > 0) {
+            reporte.setTasaAprobacion((double) reporte.getAprobadas() / decisiones);
+            reporte.setHorasPromedioDecision(segundosDecision / 3600.0 / decisiones);
+        }
+        return reporte;
+    }
+}
@@ -1,29 +1,38 @@
 package ObjetoNegocio;
 
+import DTOS.CitaDTO;
 import DTOS.SolicitudAdopcionDTO;
 import DTOS.UsuarioDTO;
 import DTOS.MascotaDTO;
 import DTOS.RazonesAntecedentesDTO;
-import daos.SolicitudAdopcionDAO;
-import daos.MascotaDAO;
-import conexion.ConexionMongoDB;
+import daos.FabricaDAOs;
+import daos.IMetricasDiariasDAO;
+import daos.ISolicitudAdopcionDAO;
+import daos.UnidadDeTrabajo;
 import entities.SolicitudAdopcion;
 import entities.RazonesAntecedentes;
 import entities.Cita;
-import daos.CitaDAO;
 import org.bson.types.ObjectId;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Maneja la logica de negocio de las solicitudes de adopcion
  */
 public class SolicitudAdopcionBO implements ISolicitudAdopcionBO {
 
-    private SolicitudAdopcionDAO solicitudDAO;
+    private ISolicitudAdopcionDAO solicitudDAO;
+    private IMetricasDiariasDAO metricasDAO;
+    private IMascotaBO mascotaBO;
+    private ICitaBO citaBO;
 
     public SolicitudAdopcionBO() {
-        this.solicitudDAO = new SolicitudAdopcionDAO(ConexionMongoDB.getInstancia().getDatabase());
+        this.solicitudDAO = FabricaDAOs.solicitudes();
+        this.metricasDAO = FabricaDAOs.metricasDiarias();
+        this.mascotaBO = new MascotaBO();
+        this.citaBO = new CitaBO();
     }
 
     @Override
@@ -31,6 +40,33 @@ public class SolicitudAdopcionBO implements ISolicitudAdopcionBO {
         if (solicitudDTO != null) {
             SolicitudAdopcion solicitud = convertirAEntidad(solicitudDTO);
             solicitudDAO.guardar(solicitud);
+            contarSolicitudNueva();
+        }
+    }
+
+    @Override
+    public void registrarSolicitudConCita(SolicitudAdopcionDTO solicitudDTO, CitaDTO citaDTO) {
+        UnidadDeTrabajo unidad = new UnidadDeTrabajo();
+        solicitudDAO.registrarNueva(unidad, convertirAEntidad(solicitudDTO));
+        // Falla si otra solicitud ya aparto la mascota
+        if (solicitudDTO.getMascota() != null) {
+            mascotaBO.registrarReserva(unidad, solicitudDTO.getMascota().getId());
+        }
+        citaBO.registrarCita(unidad, citaDTO);
+        // Solo cuenta si la unidad de trabajo se confirma
+        unidad.alConfirmar(this::contarSolicitudNueva);
+        unidad.confirmar();
+    }
+
+    /**
+     * Suma la solicitud al acumulado del dia. Si falla la solicitud ya quedo
+     * guardada; acumulados.ReconstructorMetricas corrige el conteo.
+     */
+    private void contarSolicitudNueva() {
+        try {
+            metricasDAO.registrarSolicitud(new Date());
+        } catch (RuntimeException e) {
+            System.err.println("No se pudo actualizar metricas_diarias: " + e.getMessage());
         }
     }
 
@@ -59,20 +95,10 @@ public class SolicitudAdopcionBO implements ISolicitudAdopcionBO {
 
             // Mascota
             if (entidad.getIdMascota() != null) {
-                daos.MascotaDAO mascotaDAO = new daos.MascotaDAO(ConexionMongoDB.getInstancia().getDatabase());
+                daos.IMascotaDAO mascotaDAO = FabricaDAOs.mascotas();
                 entities.Mascota mascotaEntidad = mascotaDAO.buscarPorId(entidad.getIdMascota());
                 if (mascotaEntidad != null) {
-                    MascotaDTO mascotaDTO = new MascotaDTO();
-                    mascotaDTO.setId(mascotaEntidad.getId().toHexString());
-                    mascotaDTO.setNombre(mascotaEntidad.getNombre());
-                    mascotaDTO.setUrlImagen(mascotaEntidad.getUrlImagen());
-                    mascotaDTO.setEspecie(mascotaEntidad.getEspecie());
-                    mascotaDTO.setEdad(mascotaEntidad.getEdad());
-                    mascotaDTO.setPersonalidad(mascotaEntidad.getPersonalidad());
-                    mascotaDTO.setEstadoSalud(mascotaEntidad.getEstadoSalud());
-                    mascotaDTO.setDisponible(mascotaEntidad.isDisponible());
-                    mascotaDTO.setEstado(mascotaEntidad.getEstado());
-                    dto.setMascota(mascotaDTO);
+                    dto.setMascota(convertirMascota(mascotaEntidad));
                 }
             }
 
@@ -95,12 +121,19 @@ public class SolicitudAdopcionBO implements ISolicitudAdopcionBO {
             ObjectId objectId = new ObjectId(idUsuario);
             List<SolicitudAdopcion> solicitudes = solicitudDAO.buscarPorUsuario(objectId);
 
-            daos.MascotaDAO mascotaDAO = new daos.MascotaDAO(ConexionMongoDB.getInstancia().getDatabase());
-            CitaDAO citaDAO = new CitaDAO(ConexionMongoDB.getInstancia().getDatabase());
+            daos.IMascotaDAO mascotaDAO = FabricaDAOs.mascotas();
+            daos.ICitaDAO citaDAO = FabricaDAOs.citas();
 
             // Obtener todas las citas del usuario para cruzar información
             List<Cita> citasUsuario = citaDAO.buscarPorUsuario(objectId);
 
+            // Todas las mascotas de las solicitudes en una sola consulta
+            List<ObjectId> idsMascota = new ArrayList<>();
+            for (SolicitudAdopcion entidad : solicitudes) {
+                idsMascota.add(entidad.getIdMascota());
+            }
+            Map<ObjectId, entities.Mascota> mascotas = mascotaDAO.buscarPorIds(idsMascota);
+
             for (SolicitudAdopcion entidad : solicitudes) {
                 SolicitudAdopcionDTO dto = new SolicitudAdopcionDTO();
                 dto.setId(entidad.getId().toHexString());
@@ -126,19 +159,9 @@ public class SolicitudAdopcionBO implements ISolicitudAdopcionBO {
 
                 // Mapeo Mascota
                 if (entidad.getIdMascota() != null) {
-                    entities.Mascota mascotaEntidad = mascotaDAO.buscarPorId(entidad.getIdMascota());
+                    entities.Mascota mascotaEntidad = mascotas.get(entidad.getIdMascota());
                     if (mascotaEntidad != null) {
-                        MascotaDTO mascotaDTO = new MascotaDTO();
-                        mascotaDTO.setId(mascotaEntidad.getId().toHexString());
-                        mascotaDTO.setNombre(mascotaEntidad.getNombre());
-                        mascotaDTO.setUrlImagen(mascotaEntidad.getUrlImagen());
-                        mascotaDTO.setEspecie(mascotaEntidad.getEspecie());
-                        mascotaDTO.setEdad(mascotaEntidad.getEdad());
-                        mascotaDTO.setPersonalidad(mascotaEntidad.getPersonalidad());
-                        mascotaDTO.setEstadoSalud(mascotaEntidad.getEstadoSalud());
-                        mascotaDTO.setDisponible(mascotaEntidad.isDisponible());
-                        mascotaDTO.setEstado(mascotaEntidad.getEstado());
-                        dto.setMascota(mascotaDTO);
+                        dto.setMascota(convertirMascota(mascotaEntidad));
                     }
                 }
 
@@ -165,15 +188,10 @@ public class SolicitudAdopcionBO implements ISolicitudAdopcionBO {
         if (id != null && !id.isEmpty()) {
             try {
                 ObjectId objectId = new ObjectId(id);
-                // Necesito un metodo en DAO para actualizar solo el estado
-                // O buscamos, actualizamos y guardamos
                 SolicitudAdopcion solicitud = solicitudDAO.buscarPorId(objectId);
                 if (solicitud != null) {
+                    // El DAO solo escribe el campo estado
                     solicitud.setEstado(nuevoEstado);
-                    // Usamos guardar para actualizar (upsert o replace)
-                    // El DAO actual usa insertOne, necesitamos update o replace
-                    // Vamos a añadir actualizar al DAO o usar guardar si maneja updates (insertOne
-                    // falla con duplicado _id)
                     solicitudDAO.actualizar(solicitud);
                 }
             } catch (IllegalArgumentException e) {
@@ -203,6 +221,23 @@ public class SolicitudAdopcionBO implements ISolicitudAdopcionBO {
         return (solicitud != null) ? solicitud.getMascota() : null;
     }
 
+    private MascotaDTO convertirMascota(entities.Mascota mascotaEntidad) {
+        MascotaDTO mascotaDTO = new MascotaDTO();
+        mascotaDTO.setId(mascotaEntidad.getId().toHexString());
+        mascotaDTO.setNombre(mascotaEntidad.getNombre());
+        mascotaDTO.setUrlImagen(mascotaEntidad.getUrlImagen());
+        mascotaDTO.setEspecie(mascotaEntidad.getEspecie());
+        mascotaDTO.setEdad(mascotaEntidad.getEdad());
+        mascotaDTO.setPersonalidad(mascotaEntidad.getPersonalidad());
+        mascotaDTO.setEstadoSalud(mascotaEntidad.getEstadoSalud());
+        mascotaDTO.setDisponible(mascotaEntidad.isDisponible());
+        mascotaDTO.setEstado(mascotaEntidad.getEstado());
+        // Es un DTO parcial: sin cambios pendientes para que al actualizarlo
+        // solo se escriba lo que se modifique despues
+        mascotaDTO.limpiarCambios();
+        return mascotaDTO;
+    }
+
     private SolicitudAdopcion convertirAEntidad(SolicitudAdopcionDTO dto) {
         if (dto == null)
             return null;
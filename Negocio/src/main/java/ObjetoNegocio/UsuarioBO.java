@@ -3,8 +3,8 @@ package ObjetoNegocio;
 import DTOS.SolicitudAdopcionDTO;
 import DTOS.UsuarioDTO;
 import DTOS.InfoPersonalDTO;
-import daos.UsuarioDAO;
-import conexion.ConexionMongoDB;
+import daos.FabricaDAOs;
+import daos.IUsuarioDAO;
 import entities.Usuario;
 import org.bson.types.ObjectId;
 
@@ -13,10 +13,10 @@ import org.bson.types.ObjectId;
  */
 public class UsuarioBO implements IUsuarioBO {
 
-    private UsuarioDAO usuarioDAO;
+    private IUsuarioDAO usuarioDAO;
 
     public UsuarioBO() {
-        this.usuarioDAO = new UsuarioDAO(ConexionMongoDB.getInstancia().getDatabase());
+        this.usuarioDAO = FabricaDAOs.usuarios();
     }
 
     @Override
@@ -59,6 +59,11 @@ public class UsuarioBO implements IUsuarioBO {
         return convertirADTO(usuario);
     }
 
+    @Override
+    public boolean existeCorreo(String correo) {
+        return usuarioDAO.existeCorreo(correo);
+    }
+
     @Override
     public void generaSolicitud(UsuarioDTO usuario, SolicitudAdopcionDTO solicitud) {
         if (solicitud != null) {
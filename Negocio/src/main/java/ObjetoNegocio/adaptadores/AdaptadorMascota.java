@@ -44,6 +44,7 @@ public class AdaptadorMascota {
         dto.setUrlImagen(entity.getUrlImagen());
         dto.setEdad(entity.getEdad());
         dto.setDisponible(entity.isDisponible());
+        dto.limpiarCambios();
         
         return dto;
     }
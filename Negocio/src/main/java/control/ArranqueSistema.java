@@ -0,0 +1,182 @@
+package control;
+
+import conexion.ConexionMongoDB;
+import daos.FabricaDAOs;
+import memoria.AlmacenMemoria;
+import org.bson.Document;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Arranque de la aplicacion en segundo plano: abre la conexion (con la
+ * sincronizacion de indices), hace ping, crea los subsistemas y siembra el
+ * usuario administrador mientras la ventana de inicio de sesion se pinta.
+ * Antes todo esto ocurria en el hilo de Swing al construir la ventana.
+ *
+ * Cada fase se mide y, cuando la interfaz avisa que ya es interactiva, se
+ * imprime el reporte desde el arranque de la JVM.
+ *
+ * @author System
+ */
+public final class ArranqueSistema {
+
+    private static final ArranqueSistema INSTANCIA = new ArranqueSistema();
+    private static final String INTERACTIVO = "interactivo";
+
+    private final CompletableFuture<ControlSubsistemas> listo = new CompletableFuture<>();
+    private final List<Fase> fases = new ArrayList<>();
+    private long inicioNanos;
+    private long jvmHastaInicioMs;
+    private boolean iniciado;
+    private boolean reportado;
+
+    private ArranqueSistema() {
+    }
+
+    public static ArranqueSistema getInstancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Lanza el arranque en un hilo aparte; las llamadas siguientes no hacen
+     * nada. Conviene llamarlo lo primero en el main.
+     */
+    public synchronized void iniciar() {
+        if (iniciado) {
+            return;
+        }
+        iniciado = true;
+        inicioNanos = System.nanoTime();
+        jvmHastaInicioMs = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+
+        Thread hilo = new Thread(this::arrancar, "arranque");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    private void arrancar() {
+        try {
+            if (FabricaDAOs.isEnMemoria()) {
+                medir("almacen en memoria", AlmacenMemoria::getInstancia);
+            } else {
+                ConexionMongoDB conexion = medir("conexion e indices", ConexionMongoDB::getInstancia);
+                medir("ping", () -> conexion.getDatabase().runCommand(new Document("ping", 1)));
+            }
+            ControlSubsistemas control = medir("subsistemas", ControlSubsistemas::new);
+            medir("usuario admin", () -> {
+                control.InicializarAdminUser();
+                return null;
+            });
+            listo.complete(control);
+        } catch (Throwable t) {
+            // Un error en un inicializador estatico (por ejemplo un motor de
+            // persistencia desconocido) llega como ExceptionInInitializerError;
+            // sin completar listo la ventana de inicio esperaria para siempre
+            Throwable causa = t instanceof ExceptionInInitializerError && t.getCause() != null ? t.getCause() : t;
+            System.err.println("Error en el arranque: " + causa.getMessage());
+            listo.completeExceptionally(causa);
+        }
+    }
+
+    private <T> T medir(String nombre, Supplier<T> fase) {
+        long inicio = System.nanoTime();
+        try {
+            return fase.get();
+        } finally {
+            registrar(nombre, inicio, false);
+        }
+    }
+
+    /**
+     * Registra un momento del arranque hecho fuera de este hilo, por
+     * ejemplo cuando la ventana queda visible
+     */
+    public void marcar(String nombre) {
+        registrar(nombre, System.nanoTime(), true);
+    }
+
+    private synchronized void registrar(String nombre, long inicio, boolean momento) {
+        long fin = System.nanoTime();
+        fases.add(new Fase(nombre, (inicio - inicioNanos) / 1_000_000, (fin - inicio) / 1_000_000, momento));
+    }
+
+    /**
+     * Termina cuando los subsistemas estan listos; la interfaz espera a esto
+     * para habilitar el inicio de sesion
+     */
+    public CompletableFuture<ControlSubsistemas> getListo() {
+        return listo;
+    }
+
+    /**
+     * Bloquea hasta que los subsistemas esten listos, arrancando si hace falta
+     */
+    public ControlSubsistemas getControlSubsistemas() {
+        iniciar();
+        try {
+            return listo.join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("No se pudo iniciar el sistema", e.getCause());
+        }
+    }
+
+    /**
+     * La interfaz ya responde: se imprime el reporte del arranque en frio
+     * (solo la primera vez)
+     */
+    public void marcarInteractivo() {
+        String reporte;
+        synchronized (this) {
+            if (reportado || !iniciado) {
+                return;
+            }
+            reportado = true;
+            marcar(INTERACTIVO);
+            reporte = getReporte();
+        }
+        System.out.print(reporte);
+    }
+
+    public synchronized String getReporte() {
+        StringBuilder texto = new StringBuilder();
+        long interactivo = -1;
+        for (Fase fase : fases) {
+            if (INTERACTIVO.equals(fase.nombre)) {
+                interactivo = fase.desdeInicioMs;
+            }
+        }
+        texto.append(String.format("Arranque en frio: %s%n", interactivo < 0 ? "aun no interactivo"
+                : (jvmHastaInicioMs + interactivo) + " ms hasta interactivo"));
+        texto.append(String.format("  %-22s %7d ms%n", "JVM hasta main", jvmHastaInicioMs));
+        for (Fase fase : fases) {
+            if (fase.momento) {
+                texto.append(String.format("  %-22s            en +%d ms%n", fase.nombre, fase.desdeInicioMs));
+            } else {
+                texto.append(String.format("  %-22s %7d ms  desde +%d ms%n", fase.nombre, fase.duracionMs,
+                        fase.desdeInicioMs));
+            }
+        }
+        return texto.toString();
+    }
+
+    private static final class Fase {
+
+        private final String nombre;
+        private final long desdeInicioMs;
+        private final long duracionMs;
+        // Un momento (ventana visible, interactivo) no tiene duracion
+        private final boolean momento;
+
+        Fase(String nombre, long desdeInicioMs, long duracionMs, boolean momento) {
+            this.nombre = nombre;
+            this.desdeInicioMs = desdeInicioMs;
+            this.duracionMs = duracionMs;
+            this.momento = momento;
+        }
+    }
+}
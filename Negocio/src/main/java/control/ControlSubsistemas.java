@@ -2,10 +2,17 @@ package control;
 
 import DTOS.CitaDTO;
 import DTOS.CitaDisponibleDTO;
+import DTOS.EstadisticasDTO;
+import DTOS.ReporteAdopcionesDTO;
+import DTOS.ResultadoReservaDTO;
 import DTOS.SolicitudAdopcionDTO;
 import DTOS.UsuarioDTO;
 import ObjetoNegocio.CitaDisponibleBO;
+import ObjetoNegocio.EstadisticasBO;
 import ObjetoNegocio.ICitaDisponibleBO;
+import ObjetoNegocio.IEstadisticasBO;
+import ObjetoNegocio.IReportesAdopcionBO;
+import ObjetoNegocio.ReportesAdopcionBO;
 import negocio.adopcionesdto.*;
 import negocio.subsistemas.iniciosesion.FachadaInicioSesion;
 import negocio.subsistemas.iniciosesion.IInicioSesion;
@@ -16,7 +23,10 @@ import infraestructura.dto.CorreoDTO;
 import infraestructura.sistemacorreo.FachadaCorreo;
 import infraestructura.sistemacorreo.ISistemaCorreo;
 
+
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controla y coordina todos los subsistemas de negocio
@@ -26,17 +36,19 @@ public class ControlSubsistemas {
     private IInicioSesion subsistemaInicioSesion;
     private IMascotas subsistemaMascotas;
     private ControlAdopcion controlAdopcion;
-    private ControlCita controlCita;
     private ICitaDisponibleBO citaDisponibleBO;
     private ISistemaCorreo subsistemaCorreo;
+    private IEstadisticasBO estadisticasBO;
+    private IReportesAdopcionBO reportesAdopcionBO;
 
     public ControlSubsistemas() {
         this.subsistemaInicioSesion = new FachadaInicioSesion();
         this.subsistemaMascotas = new FachadaMascotas();
         this.controlAdopcion = new ControlAdopcion();
-        this.controlCita = new ControlCita();
         this.citaDisponibleBO = new CitaDisponibleBO();
         this.subsistemaCorreo = new FachadaCorreo();
+        this.estadisticasBO = new EstadisticasBO();
+        this.reportesAdopcionBO = new ReportesAdopcionBO();
     }
 
     // --- Inicio de Sesion ---
@@ -58,12 +70,9 @@ public class ControlSubsistemas {
      */
     public void InicializarAdminUser() {
         try {
-            // Intento hacer login con el admin
-            try {
-                subsistemaInicioSesion.iniciarSesion("admin@gmail.com", "admin");
-                return; // Ya existe, no hago nada
-            } catch (Exception e) {
-                // No existe, lo creo
+            // Basta con saber si el correo existe; no hace falta un login completo
+            if (subsistemaInicioSesion.existeUsuario("admin@gmail.com")) {
+                return;
             }
 
             // Creo el usuario admin
@@ -98,7 +107,7 @@ public class ControlSubsistemas {
         return citaDisponibleBO.obtenerCitasDisponibles();
     }
 
-    public boolean reservarCita(String idCita, String idUsuario) {
+    public ResultadoReservaDTO reservarCita(String idCita, String idUsuario) {
         return citaDisponibleBO.reservarCita(idCita, idUsuario);
     }
 
@@ -113,6 +122,23 @@ public class ControlSubsistemas {
         return citaDisponibleBO.liberarCita(idCita);
     }
 
+    // --- Estadisticas del administrador ---
+
+    /**
+     * Conteos del tablero; se recalculan a lo mas una vez por TTL
+     */
+    public EstadisticasDTO obtenerEstadisticas() {
+        return estadisticasBO.obtenerEstadisticas();
+    }
+
+    /**
+     * Tendencias de solicitudes y adopciones del rango, leidas de los
+     * acumulados diarios
+     */
+    public ReporteAdopcionesDTO obtenerReporteAdopciones(LocalDate desde, LocalDate hasta) {
+        return reportesAdopcionBO.generarReporte(desde, hasta);
+    }
+
     // --- Flujo de Adopcion ---
     public void procesarSolicitudCompleta(SolicitudAdopcionDTO solicitud, CitaDTO cita) throws Exception {
         // 0. Guardo el ID de la cita en la solicitud
@@ -121,27 +147,26 @@ public class ControlSubsistemas {
             System.out.println("→ ID de cita guardado en solicitud: " + cita.getId());
         }
 
-        // 1. Guardar la solicitud de adopción (Negocio -> Persistencia)
-        controlAdopcion.crearSolicitud(solicitud);
-
-        // 2. Actualizar estado de la mascota a NO DISPONIBLE
-        if (solicitud.getMascota() != null) {
-            MascotaDTO mascota = solicitud.getMascota();
-            mascota.setDisponible(false);
-            subsistemaMascotas.actualizarMascota(mascota);
-            System.out.println("Mascota " + mascota.getId() + " marcada como NO disponible.");
+        try {
+            // 1-3. Solicitud, mascota a NO DISPONIBLE y cita en una sola unidad de
+            // trabajo: si un paso falla no queda la solicitud a medias ni la mascota apartada
+            controlAdopcion.registrarSolicitudConCita(solicitud, cita);
+        } catch (Exception e) {
+            // El horario se reservo antes de llegar aqui; se libera para no dejarlo ocupado
+            if (cita != null && cita.getId() != null) {
+                citaDisponibleBO.liberarCita(cita.getId());
+            }
+            throw e;
         }
 
-        // 3. Agendar la cita y notificar (Negocio -> Infraestructura)
-        // Asumiendo que obtenemos el correo del usuario del DTO
-        String correoUsuario = "usuario@ejemplo.com";
-        if (solicitud != null && solicitud.getUsuario() != null && solicitud.getUsuario().getInfoPersonal() != null) {
-            correoUsuario = solicitud.getUsuario().getInfoPersonal().getCorreo();
+        if (solicitud.getMascota() != null) {
+            solicitud.getMascota().setDisponible(false);
+            solicitud.getMascota().limpiarCambios();
+            System.out.println("Mascota " + solicitud.getMascota().getId() + " marcada como NO disponible.");
         }
-        controlCita.agendarCita(cita, correoUsuario);
 
-        // 4. Enviar correo de confirmación
-        enviarCorreoConfirmacion(solicitud);
+        // 4. Correo de confirmación fuera de la unidad de trabajo, sin bloquear
+        CompletableFuture.runAsync(() -> enviarCorreoConfirmacion(solicitud));
 
         System.out.println("Flujo completo de solicitud finalizado exitosamente.");
     }
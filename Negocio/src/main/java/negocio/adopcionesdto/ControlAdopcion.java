@@ -4,6 +4,7 @@
  */
 package negocio.adopcionesdto;
 
+import DTOS.CitaDTO;
 import DTOS.SolicitudAdopcionDTO;
 
 /**
@@ -28,6 +29,20 @@ public class ControlAdopcion {
         }
     }
 
+    /**
+     * Guarda la solicitud, aparta la mascota y guarda la cita juntas: si un
+     * paso falla no queda ninguno escrito
+     */
+    public void registrarSolicitudConCita(SolicitudAdopcionDTO solicitud, CitaDTO cita) throws Exception {
+        if (solicitud == null || solicitud.getMascota() == null) {
+            throw new Exception("Datos de solicitud inválidos");
+        }
+        if (cita == null) {
+            throw new Exception("Datos de cita inválidos");
+        }
+        fachadaAdopciones.registrarSolicitudConCita(solicitud, cita);
+    }
+
     public java.util.List<SolicitudAdopcionDTO> buscarSolicitudesPorUsuario(String idUsuario) throws Exception {
         return fachadaAdopciones.buscarSolicitudesPorUsuario(idUsuario);
     }
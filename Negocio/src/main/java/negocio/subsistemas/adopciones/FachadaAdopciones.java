@@ -4,6 +4,7 @@
  */
 package negocio.subsistemas.adopciones;
 
+import DTOS.CitaDTO;
 import DTOS.SolicitudAdopcionDTO;
 import ObjetoNegocio.ISolicitudAdopcionBO;
 import ObjetoNegocio.SolicitudAdopcionBO;
@@ -27,6 +28,11 @@ public class FachadaAdopciones implements IAdopciones {
         solicitudBO.crearSolicitud(solicitud);
     }
 
+    @Override
+    public void registrarSolicitudConCita(SolicitudAdopcionDTO solicitud, CitaDTO cita) throws Exception {
+        solicitudBO.registrarSolicitudConCita(solicitud, cita);
+    }
+
     @Override
     public SolicitudAdopcionDTO buscarSolicitudPorId(String id) throws Exception {
         return solicitudBO.buscarSolicitudPorId(id);
@@ -4,6 +4,7 @@
  */
 package negocio.subsistemas.adopciones;
 
+import DTOS.CitaDTO;
 import DTOS.SolicitudAdopcionDTO;
 import java.util.List;
 
@@ -16,6 +17,8 @@ public interface IAdopciones {
 
     void crearSolicitud(SolicitudAdopcionDTO solicitud) throws Exception;
 
+    void registrarSolicitudConCita(SolicitudAdopcionDTO solicitud, CitaDTO cita) throws Exception;
+
     SolicitudAdopcionDTO buscarSolicitudPorId(String id) throws Exception;
 
     List<SolicitudAdopcionDTO> buscarSolicitudesPorUsuario(String idUsuario) throws Exception;
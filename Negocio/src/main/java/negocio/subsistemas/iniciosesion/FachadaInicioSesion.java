@@ -91,6 +91,11 @@ public class FachadaInicioSesion implements IInicioSesion {
         }
     }
 
+    @Override
+    public boolean existeUsuario(String correo) {
+        return correo != null && usuarioBO.existeCorreo(correo);
+    }
+
     /**
      * Genera un correo de bienvenida para un nuevo usuario.
      * 
@@ -17,4 +17,9 @@ public interface IInicioSesion {
     void registrarUsuario(UsuarioDTO usuario) throws Exception;
 
     void actualizarUsuario(UsuarioDTO usuario) throws Exception;
+
+    /**
+     * true si ya hay un usuario con ese correo, sin validar contrasena
+     */
+    boolean existeUsuario(String correo);
 }
@@ -5,9 +5,12 @@
 package negocio.subsistemas.mascotas;
 
 import DTOS.MascotaDTO;
+import DTOS.MascotaResumenDTO;
+import DTOS.PaginaDTO;
 import ObjetoNegocio.IMascotaBO;
 import ObjetoNegocio.MascotaBO;
 import java.util.List;
+import paginacion.Pagina;
 
 /**
  * Fachada para el subsistema de mascotas
@@ -47,8 +50,31 @@ public class FachadaMascotas implements IMascotas {
         return mascotaBO.buscarMascotasDisponiblesPorEspecie(especie);
     }
 
+    @Override
+    public PaginaDTO<MascotaResumenDTO> buscarPaginaResumenMascotasDisponibles(String especie, String cursor, int tamano) throws Exception {
+        return aDTO(mascotaBO.buscarPaginaResumenMascotasDisponibles(especie, cursor, tamano));
+    }
+
+    @Override
+    public PaginaDTO<MascotaResumenDTO> buscarTexto(String texto, String especie, String cursor, int tamano) throws Exception {
+        return aDTO(mascotaBO.buscarTexto(texto, especie, cursor, tamano));
+    }
+
+    @Override
+    public List<String> buscarEspeciesDisponibles() throws Exception {
+        return mascotaBO.buscarEspeciesDisponibles();
+    }
+
     @Override
     public void actualizarMascota(MascotaDTO mascota) throws Exception {
         mascotaBO.actualizarMascota(mascota);
     }
+
+    /**
+     * La pagina del DAO se entrega a la vista como DTO
+     */
+    private static PaginaDTO<MascotaResumenDTO> aDTO(Pagina<MascotaResumenDTO> pagina) {
+        return new PaginaDTO<>(pagina.getElementos(), pagina.getCursorSiguiente(), pagina.isHayMas(),
+                pagina.getTotalEstimado());
+    }
 }
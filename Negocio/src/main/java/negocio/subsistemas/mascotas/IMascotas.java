@@ -5,6 +5,8 @@
 package negocio.subsistemas.mascotas;
 
 import DTOS.MascotaDTO;
+import DTOS.MascotaResumenDTO;
+import DTOS.PaginaDTO;
 import java.util.List;
 
 /**
@@ -24,6 +26,19 @@ public interface IMascotas {
 
     List<MascotaDTO> buscarMascotasDisponiblesPorEspecie(String especie) throws Exception;
 
+    PaginaDTO<MascotaResumenDTO> buscarPaginaResumenMascotasDisponibles(String especie, String cursor, int tamano) throws Exception;
+
+    /**
+     * Busqueda por texto entre las mascotas disponibles, de la mas a la
+     * menos relevante
+     *
+     * @param especie null o "Todas" para no filtrar
+     * @param cursor  cursor de la pagina anterior, null para la primera
+     */
+    PaginaDTO<MascotaResumenDTO> buscarTexto(String texto, String especie, String cursor, int tamano) throws Exception;
+
+    List<String> buscarEspeciesDisponibles() throws Exception;
+
     void actualizarMascota(MascotaDTO mascota) throws Exception;
 
 }
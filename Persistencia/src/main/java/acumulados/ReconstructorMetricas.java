@@ -0,0 +1,179 @@
+package acumulados;
+
+import daos.FabricaDAOs;
+import daos.IAuditoriaSolicitudDAO;
+import daos.IMascotaDAO;
+import daos.IMetricasDiariasDAO;
+import daos.ISolicitudAdopcionDAO;
+import entities.AuditoriaSolicitud;
+import entities.Mascota;
+import entities.MetricaDiaria;
+import entities.SolicitudAdopcion;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Recalcula metricas_diarias desde cero, por ejemplo la primera vez o si
+ * algun $inc se perdio. Las solicitudes se cuentan en el dia de su _id
+ * (cuando se crearon) y las decisiones con la auditoria de solicitudes,
+ * que guarda cuando se tomaron; las solicitudes aprobadas o rechazadas
+ * antes de que existiera la auditoria no tienen fecha de decision y solo
+ * se reportan en getCerradasSinAuditoria.
+ *
+ * Reemplaza todos los dias, asi que conviene correrlo sin administradores
+ * trabajando: un $inc que llegue a la mitad se puede perder.
+ *
+ * @author System
+ */
+public class ReconstructorMetricas {
+
+    private static final int LOTE_MASCOTAS = 500;
+
+    private final ISolicitudAdopcionDAO solicitudDAO;
+    private final IAuditoriaSolicitudDAO auditoriaDAO;
+    private final IMascotaDAO mascotaDAO;
+    private final IMetricasDiariasDAO metricasDAO;
+
+    private long solicitudes;
+    private long registrosAuditoria;
+    private long cerradasSinAuditoria;
+    private int dias;
+
+    public ReconstructorMetricas() {
+        this(FabricaDAOs.solicitudes(), FabricaDAOs.auditoriaSolicitudes(), FabricaDAOs.mascotas(),
+                FabricaDAOs.metricasDiarias());
+    }
+
+    public ReconstructorMetricas(ISolicitudAdopcionDAO solicitudDAO, IAuditoriaSolicitudDAO auditoriaDAO,
+            IMascotaDAO mascotaDAO, IMetricasDiariasDAO metricasDAO) {
+        this.solicitudDAO = solicitudDAO;
+        this.auditoriaDAO = auditoriaDAO;
+        this.mascotaDAO = mascotaDAO;
+        this.metricasDAO = metricasDAO;
+    }
+
+    public void reconstruir() {
+        Map<String, MetricaDiaria> porDia = new TreeMap<>();
+        solicitudes = 0;
+        registrosAuditoria = 0;
+        cerradasSinAuditoria = 0;
+
+        // 1. Decisiones de la auditoria; las aprobadas esperan a conocer la especie
+        Set<ObjectId> decididas = new HashSet<>();
+        List<AuditoriaSolicitud> aprobadas = new ArrayList<>();
+        auditoriaDAO.recorrer(new Document(), 0, registro -> {
+            registrosAuditoria++;
+            if (AuditoriaSolicitud.ACCION_ACEPTAR.equals(registro.getAccion())) {
+                decididas.add(registro.getIdSolicitud());
+                aprobadas.add(registro);
+                return;
+            }
+            if (AuditoriaSolicitud.ACCION_RECHAZAR.equals(registro.getAccion())) {
+                decididas.add(registro.getIdSolicitud());
+            }
+            metrica(porDia, fecha(registro)).contarDecision(registro.getAccion(), segundos(registro), null);
+        });
+
+        // 2. Solicitudes creadas, y la mascota de cada solicitud aprobada
+        Set<ObjectId> idsAprobadas = new HashSet<>();
+        for (AuditoriaSolicitud registro : aprobadas) {
+            idsAprobadas.add(registro.getIdSolicitud());
+        }
+        Map<ObjectId, ObjectId> mascotaPorSolicitud = new HashMap<>();
+        solicitudDAO.recorrer(new Document(), 0, solicitud -> {
+            solicitudes++;
+            metrica(porDia, solicitud.getId().getDate()).contarSolicitud();
+            if (idsAprobadas.contains(solicitud.getId()) && solicitud.getIdMascota() != null) {
+                mascotaPorSolicitud.put(solicitud.getId(), solicitud.getIdMascota());
+            }
+            if (estaCerrada(solicitud) && !decididas.contains(solicitud.getId())) {
+                cerradasSinAuditoria++;
+            }
+        });
+
+        // 3. Especies de las mascotas adoptadas, por lotes
+        Map<ObjectId, String> especies = especies(new HashSet<>(mascotaPorSolicitud.values()));
+        for (AuditoriaSolicitud registro : aprobadas) {
+            String especie = especies.get(mascotaPorSolicitud.get(registro.getIdSolicitud()));
+            metrica(porDia, fecha(registro)).contarDecision(registro.getAccion(), segundos(registro), especie);
+        }
+
+        metricasDAO.reemplazarTodas(porDia.values());
+        dias = porDia.size();
+        System.out.println("Metricas reconstruidas: " + dias + " dias, " + solicitudes + " solicitudes, "
+                + registrosAuditoria + " registros de auditoria, " + cerradasSinAuditoria
+                + " solicitudes cerradas sin auditoria");
+    }
+
+    private Map<ObjectId, String> especies(Set<ObjectId> idsMascota) {
+        Map<ObjectId, String> especies = new HashMap<>();
+        List<ObjectId> lote = new ArrayList<>(LOTE_MASCOTAS);
+        for (ObjectId id : idsMascota) {
+            lote.add(id);
+            if (lote.size() == LOTE_MASCOTAS) {
+                agregarEspecies(lote, especies);
+                lote.clear();
+            }
+        }
+        agregarEspecies(lote, especies);
+        return especies;
+    }
+
+    private void agregarEspecies(List<ObjectId> lote, Map<ObjectId, String> especies) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<ObjectId, Mascota> mascota : mascotaDAO.buscarPorIds(lote).entrySet()) {
+            especies.put(mascota.getKey(), mascota.getValue().getEspecie());
+        }
+    }
+
+    private static MetricaDiaria metrica(Map<String, MetricaDiaria> porDia, Date fecha) {
+        return porDia.computeIfAbsent(IMetricasDiariasDAO.dia(fecha), MetricaDiaria::new);
+    }
+
+    private static Date fecha(AuditoriaSolicitud registro) {
+        return registro.getFecha() != null ? registro.getFecha() : registro.getId().getDate();
+    }
+
+    /**
+     * Segundos entre la creacion de la solicitud (su _id) y la decision
+     */
+    private static long segundos(AuditoriaSolicitud registro) {
+        if (registro.getIdSolicitud() == null) {
+            return 0;
+        }
+        return (fecha(registro).getTime() - registro.getIdSolicitud().getDate().getTime()) / 1000;
+    }
+
+    private static boolean estaCerrada(SolicitudAdopcion solicitud) {
+        String estado = solicitud.getEstado() == null ? "" : solicitud.getEstado().toUpperCase(Locale.ROOT);
+        return "APROBADA".equals(estado) || "RECHAZADA".equals(estado);
+    }
+
+    public long getSolicitudes() {
+        return solicitudes;
+    }
+
+    public long getRegistrosAuditoria() {
+        return registrosAuditoria;
+    }
+
+    public long getCerradasSinAuditoria() {
+        return cerradasSinAuditoria;
+    }
+
+    public int getDias() {
+        return dias;
+    }
+}
@@ -0,0 +1,186 @@
+package auditoria;
+
+import conexion.ConfiguracionMongoDB;
+import daos.FabricaDAOs;
+import daos.IAuditoriaSolicitudDAO;
+import entities.AuditoriaSolicitud;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escribe la auditoria de solicitudes en segundo plano. registrar solo
+ * encola el registro (no espera a la base) y un hilo lo escribe: toma lo
+ * que haya en la cola, hasta auditoria.tamanoLote registros, y lo inserta
+ * con un solo insertMany. Con poco trafico cada registro se escribe en
+ * cuanto llega; con mucho se juntan en lotes.
+ *
+ * Si la escritura falla se reintenta con espera creciente; si aun asi no
+ * se puede, los registros se imprimen en System.err para no perderlos del
+ * todo. Con la cola llena (auditoria.capacidadCola) el registro se
+ * descarta y se avisa. Al cerrar la aplicacion se vacia la cola.
+ *
+ * @author System
+ */
+public class EscritorAuditoria {
+
+    private static final int REINTENTOS = 3;
+    private static final long ESPERA_REINTENTO_MS = 1000;
+    private static final long ESPERA_CIERRE_MS = 5000;
+
+    private static EscritorAuditoria instancia;
+
+    private final IAuditoriaSolicitudDAO dao;
+    private final BlockingQueue<AuditoriaSolicitud> cola;
+    private final int tamanoLote;
+    private final Thread hilo;
+    private volatile boolean cerrado;
+
+    private final AtomicLong aceptados = new AtomicLong();
+    private final AtomicLong escritos = new AtomicLong();
+    private final AtomicLong lotes = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong perdidos = new AtomicLong();
+
+    public EscritorAuditoria(IAuditoriaSolicitudDAO dao, int capacidad, int tamanoLote) {
+        if (capacidad <= 0 || tamanoLote <= 0) {
+            throw new IllegalArgumentException("La capacidad y el lote de la auditoria deben ser mayores a 0");
+        }
+        this.dao = dao;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.tamanoLote = tamanoLote;
+        this.hilo = new Thread(this::escribir, "escritor-auditoria");
+        this.hilo.setDaemon(true);
+        this.hilo.start();
+    }
+
+    /**
+     * Escritor de la aplicacion sobre el motor configurado; se vacia al
+     * cerrar la JVM
+     */
+    public static synchronized EscritorAuditoria getInstancia() {
+        if (instancia == null) {
+            ConfiguracionMongoDB configuracion = new ConfiguracionMongoDB();
+            instancia = new EscritorAuditoria(FabricaDAOs.auditoriaSolicitudes(),
+                    configuracion.getCapacidadColaAuditoria(), configuracion.getTamanoLoteAuditoria());
+            EscritorAuditoria escritor = instancia;
+            Runtime.getRuntime().addShutdownHook(
+                    new Thread(() -> escritor.cerrar(ESPERA_CIERRE_MS), "cierre-auditoria"));
+        }
+        return instancia;
+    }
+
+    /**
+     * Encola el registro sin bloquear
+     *
+     * @return false si se descarto porque la cola esta llena o ya se cerro
+     */
+    public boolean registrar(AuditoriaSolicitud registro) {
+        if (cerrado || !cola.offer(registro)) {
+            descartados.incrementAndGet();
+            System.err.println("Auditoria descartada (cola llena o cerrada): " + registro);
+            return false;
+        }
+        aceptados.incrementAndGet();
+        return true;
+    }
+
+    private void escribir() {
+        List<AuditoriaSolicitud> lote = new ArrayList<>(tamanoLote);
+        while (!cerrado || !cola.isEmpty()) {
+            try {
+                AuditoriaSolicitud primero = cola.poll(500, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                cola.drainTo(lote, tamanoLote - 1);
+                guardar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void guardar(List<AuditoriaSolicitud> lote) throws InterruptedException {
+        for (int intento = 1; intento <= REINTENTOS; intento++) {
+            try {
+                dao.guardarTodos(lote);
+                escritos.addAndGet(lote.size());
+                lotes.incrementAndGet();
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("No se pudo escribir la auditoria (intento " + intento + " de " + REINTENTOS
+                        + "): " + e.getMessage());
+                if (intento < REINTENTOS) {
+                    Thread.sleep(ESPERA_REINTENTO_MS << (intento - 1));
+                }
+            }
+        }
+        for (AuditoriaSolicitud registro : lote) {
+            System.err.println("Auditoria no escrita: " + registro);
+        }
+        perdidos.addAndGet(lote.size());
+    }
+
+    /**
+     * Espera a que todo lo encolado hasta ahora se haya escrito (o se haya
+     * dado por perdido)
+     *
+     * @return false si se agoto el tiempo
+     */
+    public boolean esperar(long milisegundos) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(milisegundos);
+        long objetivo = aceptados.get();
+        while (escritos.get() + perdidos.get() < objetivo) {
+            if (System.nanoTime() - limite >= 0) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    /**
+     * Deja de aceptar registros, escribe lo que quede en la cola y termina
+     * el hilo
+     */
+    public void cerrar(long milisegundos) {
+        cerrado = true;
+        try {
+            hilo.join(milisegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!cola.isEmpty()) {
+            System.err.println("Auditoria: " + cola.size() + " registros sin escribir al cerrar");
+        }
+    }
+
+    public int getPendientes() {
+        return cola.size();
+    }
+
+    public long getEscritos() {
+        return escritos.get();
+    }
+
+    public long getLotes() {
+        return lotes.get();
+    }
+
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    public long getPerdidos() {
+        return perdidos.get();
+    }
+}
@@ -0,0 +1,62 @@
+package cambios;
+
+import org.bson.types.ObjectId;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Cambio en un documento de una coleccion observada
+ *
+ * @author System
+ */
+public class EventoCambio {
+
+    private final String coleccion;
+    private final TipoCambio tipo;
+    private final ObjectId id;
+    private final Set<String> camposActualizados;
+
+    public EventoCambio(String coleccion, TipoCambio tipo, ObjectId id, Set<String> camposActualizados) {
+        this.coleccion = coleccion;
+        this.tipo = tipo;
+        this.id = id;
+        this.camposActualizados = camposActualizados == null
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(camposActualizados);
+    }
+
+    /**
+     * Evento que pide recargar todo, sin un documento en particular
+     */
+    public static EventoCambio recarga(String coleccion) {
+        return new EventoCambio(coleccion, TipoCambio.RECARGA, null, null);
+    }
+
+    public String getColeccion() {
+        return coleccion;
+    }
+
+    public TipoCambio getTipo() {
+        return tipo;
+    }
+
+    /**
+     * _id del documento, null en RECARGA
+     */
+    public ObjectId getId() {
+        return id;
+    }
+
+    /**
+     * Campos escritos por una actualizacion (vacio en los demas tipos)
+     */
+    public Set<String> getCamposActualizados() {
+        return camposActualizados;
+    }
+
+    @Override
+    public String toString() {
+        return tipo + " " + coleccion + (id != null ? " " + id : "");
+    }
+}
@@ -0,0 +1,334 @@
+package cambios;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import daos.CacheEntidades;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Escucha el change stream de la base de datos y publica un EventoCambio
+ * por cada documento insertado, actualizado, reemplazado o eliminado en las
+ * colecciones observadas. Antes de avisar a las pantallas invalida la
+ * entrada de CacheEntidades, asi lo que escribe otra instancia de la
+ * aplicacion no se queda viejo hasta el TTL.
+ *
+ * El token de reanudacion se guarda en un archivo: al reiniciar (o al
+ * reconectar) continua desde el ultimo evento procesado. Si el oplog ya no
+ * tiene ese punto se publica un evento RECARGA por coleccion.
+ *
+ * Los change streams solo existen en replica sets y clusters; en un
+ * servidor standalone el suscriptor no se inicia. Las escuchas se llaman
+ * desde el hilo del suscriptor, no desde el de Swing.
+ *
+ * @author System
+ */
+public class SuscriptorCambios implements Runnable {
+
+    // ChangeStreamHistoryLost y ChangeStreamFatalError: el token ya no sirve
+    private static final Set<Integer> ERRORES_TOKEN = Set.of(280, 286);
+    private static final long GUARDAR_TOKEN_CADA_MS = 5000;
+    private static final long ESPERA_MAXIMA_MS = 30000;
+
+    private final MongoDatabase database;
+    private final List<String> colecciones;
+    private final Path archivoToken;
+    private final Map<String, List<Consumer<EventoCambio>>> escuchas = new ConcurrentHashMap<>();
+
+    private volatile boolean activo;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursorActual;
+    private Thread hilo;
+    private BsonDocument token;
+    private BsonDocument tokenGuardado;
+    private long ultimoGuardado;
+    private long eventos;
+
+    public SuscriptorCambios(MongoDatabase database, List<String> colecciones, Path archivoToken) {
+        this.database = database;
+        this.colecciones = List.copyOf(colecciones);
+        this.archivoToken = archivoToken;
+    }
+
+    /**
+     * Arranca el hilo del suscriptor si no esta corriendo
+     */
+    public synchronized void iniciar() {
+        if (activo) {
+            return;
+        }
+        token = leerToken();
+        tokenGuardado = token;
+        activo = true;
+        hilo = new Thread(this, "suscriptor-cambios");
+        hilo.setDaemon(true);
+        hilo.start();
+        System.out.println("Suscriptor de cambios iniciado para " + colecciones
+                + (token != null ? " (reanudando)" : ""));
+    }
+
+    /**
+     * Detiene el hilo y guarda el ultimo token
+     */
+    public void detener() {
+        Thread anterior;
+        synchronized (this) {
+            if (!activo) {
+                return;
+            }
+            activo = false;
+            anterior = hilo;
+        }
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = cursorActual;
+        if (cursor != null) {
+            try {
+                cursor.close();
+            } catch (RuntimeException e) {
+                // El hilo puede estar leyendo del cursor; basta con que termine
+            }
+        }
+        anterior.interrupt();
+        try {
+            anterior.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println("Suscriptor de cambios detenido: " + eventos + " eventos");
+    }
+
+    public boolean isActivo() {
+        return activo;
+    }
+
+    /**
+     * Registra una escucha para los cambios de una coleccion
+     */
+    public void agregarEscucha(String coleccion, Consumer<EventoCambio> escucha) {
+        escuchas.computeIfAbsent(coleccion, c -> new CopyOnWriteArrayList<>()).add(escucha);
+    }
+
+    public void quitarEscucha(String coleccion, Consumer<EventoCambio> escucha) {
+        List<Consumer<EventoCambio>> lista = escuchas.get(coleccion);
+        if (lista != null) {
+            lista.remove(escucha);
+        }
+    }
+
+    @Override
+    public void run() {
+        long espera = 1000;
+        while (activo) {
+            try {
+                escuchar();
+                espera = 1000;
+            } catch (MongoException e) {
+                if (!activo) {
+                    break;
+                }
+                if (ERRORES_TOKEN.contains(e.getCode())) {
+                    System.err.println("El token de cambios ya no esta en el oplog, se recarga todo: "
+                            + e.getMessage());
+                    token = null;
+                    publicarRecarga();
+                    continue;
+                }
+                System.err.println("Change stream interrumpido, se reintenta en " + espera + " ms: "
+                        + e.getMessage());
+                dormir(espera);
+                espera = Math.min(espera * 2, ESPERA_MAXIMA_MS);
+            } catch (RuntimeException e) {
+                System.err.println("Error en el suscriptor de cambios: " + e.getMessage());
+                dormir(espera);
+                espera = Math.min(espera * 2, ESPERA_MAXIMA_MS);
+            }
+        }
+        guardarToken(true);
+    }
+
+    /**
+     * Abre el change stream desde el ultimo token y procesa eventos hasta
+     * que se detiene o se invalida
+     */
+    private void escuchar() {
+        ChangeStreamIterable<Document> flujo = database
+                .watch(List.of(Aggregates.match(Filters.in("ns.coll", colecciones))))
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (token != null) {
+            flujo = flujo.resumeAfter(token);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = flujo.cursor()) {
+            cursorActual = cursor;
+            while (activo) {
+                ChangeStreamDocument<Document> cambio = cursor.tryNext();
+                // Aun sin eventos el token avanza; guardarlo evita releer el oplog al reiniciar
+                BsonDocument siguiente = cursor.getResumeToken();
+                if (siguiente != null) {
+                    token = siguiente;
+                }
+                if (cambio != null && !procesar(cambio)) {
+                    // Invalidado (p. ej. se borro la base): no se puede reanudar despues de este punto
+                    token = null;
+                    publicarRecarga();
+                    return;
+                }
+                guardarToken(false);
+            }
+        } finally {
+            cursorActual = null;
+        }
+    }
+
+    /**
+     * @return false si el stream quedo invalidado
+     */
+    private boolean procesar(ChangeStreamDocument<Document> cambio) {
+        OperationType operacion = cambio.getOperationType();
+        if (operacion == OperationType.INVALIDATE) {
+            return false;
+        }
+        String coleccion = cambio.getNamespace() != null ? cambio.getNamespace().getCollectionName() : null;
+        if (coleccion == null) {
+            return true;
+        }
+        if (operacion == OperationType.DROP || operacion == OperationType.RENAME) {
+            CacheEntidades.limpiarTodas();
+            publicar(EventoCambio.recarga(coleccion));
+            return true;
+        }
+
+        TipoCambio tipo = tipoDe(operacion);
+        ObjectId id = idDe(cambio.getDocumentKey());
+        if (tipo == null || id == null) {
+            return true;
+        }
+        Set<String> campos = null;
+        if (cambio.getUpdateDescription() != null) {
+            campos = new HashSet<>();
+            if (cambio.getUpdateDescription().getUpdatedFields() != null) {
+                campos.addAll(cambio.getUpdateDescription().getUpdatedFields().keySet());
+            }
+            if (cambio.getUpdateDescription().getRemovedFields() != null) {
+                campos.addAll(cambio.getUpdateDescription().getRemovedFields());
+            }
+        }
+
+        CacheEntidades.invalidar(cambio.getNamespace().getFullName(), id);
+        publicar(new EventoCambio(coleccion, tipo, id, campos));
+        return true;
+    }
+
+    private void publicar(EventoCambio evento) {
+        eventos++;
+        List<Consumer<EventoCambio>> lista = escuchas.get(evento.getColeccion());
+        if (lista == null) {
+            return;
+        }
+        for (Consumer<EventoCambio> escucha : lista) {
+            try {
+                escucha.accept(evento);
+            } catch (RuntimeException e) {
+                System.err.println("Error al procesar " + evento + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void publicarRecarga() {
+        CacheEntidades.limpiarTodas();
+        for (String coleccion : colecciones) {
+            publicar(EventoCambio.recarga(coleccion));
+        }
+    }
+
+    private static TipoCambio tipoDe(OperationType operacion) {
+        switch (operacion) {
+            case INSERT:
+                return TipoCambio.INSERCION;
+            case UPDATE:
+                return TipoCambio.ACTUALIZACION;
+            case REPLACE:
+                return TipoCambio.REEMPLAZO;
+            case DELETE:
+                return TipoCambio.ELIMINACION;
+            default:
+                return null;
+        }
+    }
+
+    private static ObjectId idDe(BsonDocument llave) {
+        if (llave == null) {
+            return null;
+        }
+        BsonValue id = llave.get("_id");
+        return id != null && id.isObjectId() ? id.asObjectId().getValue() : null;
+    }
+
+    private BsonDocument leerToken() {
+        if (archivoToken == null || !Files.exists(archivoToken)) {
+            return null;
+        }
+        try {
+            return BsonDocument.parse(Files.readString(archivoToken, StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("No se pudo leer el token de cambios " + archivoToken + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Escribe el token si cambio; sin forzar, como mucho cada 5 segundos
+     */
+    private void guardarToken(boolean forzar) {
+        if (archivoToken == null || token == null || token.equals(tokenGuardado)) {
+            return;
+        }
+        long ahora = System.currentTimeMillis();
+        if (!forzar && ahora - ultimoGuardado < GUARDAR_TOKEN_CADA_MS) {
+            return;
+        }
+        try {
+            if (archivoToken.getParent() != null) {
+                Files.createDirectories(archivoToken.getParent());
+            }
+            // Se escribe aparte y se mueve para no dejar un archivo a medias
+            Path temporal = archivoToken.resolveSibling(archivoToken.getFileName() + ".tmp");
+            Files.writeString(temporal, token.toJson(), StandardCharsets.UTF_8);
+            Files.move(temporal, archivoToken, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tokenGuardado = token;
+            ultimoGuardado = ahora;
+        } catch (IOException e) {
+            System.err.println("No se pudo guardar el token de cambios: " + e.getMessage());
+            ultimoGuardado = ahora;
+        }
+    }
+
+    private void dormir(long milisegundos) {
+        try {
+            Thread.sleep(milisegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            activo = false;
+        }
+    }
+}
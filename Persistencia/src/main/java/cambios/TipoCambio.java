@@ -0,0 +1,19 @@
+package cambios;
+
+/**
+ * Tipo de cambio que publica el SuscriptorCambios
+ *
+ * @author System
+ */
+public enum TipoCambio {
+
+    INSERCION,
+    ACTUALIZACION,
+    REEMPLAZO,
+    ELIMINACION,
+    /**
+     * Se perdieron eventos (el token de reanudacion ya no existe en el
+     * oplog); hay que recargar todo lo que se muestra
+     */
+    RECARGA
+}
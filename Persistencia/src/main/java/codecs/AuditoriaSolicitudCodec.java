@@ -0,0 +1,77 @@
+package codecs;
+
+import entities.AuditoriaSolicitud;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+/**
+ * Codec de la coleccion auditoria_solicitudes
+ *
+ * @author System
+ */
+public class AuditoriaSolicitudCodec extends CodecEntidad<AuditoriaSolicitud> {
+
+    @Override
+    public Class<AuditoriaSolicitud> getEncoderClass() {
+        return AuditoriaSolicitud.class;
+    }
+
+    @Override
+    protected AuditoriaSolicitud nuevaEntidad() {
+        return new AuditoriaSolicitud();
+    }
+
+    @Override
+    protected ObjectId obtenerId(AuditoriaSolicitud registro) {
+        return registro.getId();
+    }
+
+    @Override
+    protected void asignarId(AuditoriaSolicitud registro, ObjectId id) {
+        registro.setId(id);
+    }
+
+    @Override
+    protected boolean leerCampo(BsonReader reader, String campo, AuditoriaSolicitud registro,
+            DecoderContext contexto) {
+        switch (campo) {
+            case "idSolicitud":
+                registro.setIdSolicitud(leerObjectId(reader));
+                return true;
+            case "idAdmin":
+                registro.setIdAdmin(leerString(reader));
+                return true;
+            case "accion":
+                registro.setAccion(leerString(reader));
+                return true;
+            case "estadoAnterior":
+                registro.setEstadoAnterior(leerString(reader));
+                return true;
+            case "estadoNuevo":
+                registro.setEstadoNuevo(leerString(reader));
+                return true;
+            case "detalle":
+                registro.setDetalle(leerString(reader));
+                return true;
+            case "fecha":
+                registro.setFecha(leerFecha(reader));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    protected void escribirCampos(BsonWriter writer, AuditoriaSolicitud registro, EncoderContext contexto) {
+        escribirObjectId(writer, "idSolicitud", registro.getIdSolicitud());
+        escribirString(writer, "idAdmin", registro.getIdAdmin());
+        escribirString(writer, "accion", registro.getAccion());
+        escribirString(writer, "estadoAnterior", registro.getEstadoAnterior());
+        escribirString(writer, "estadoNuevo", registro.getEstadoNuevo());
+        escribirString(writer, "detalle", registro.getDetalle());
+        escribirFecha(writer, "fecha", registro.getFecha());
+    }
+}
@@ -0,0 +1,62 @@
+package codecs;
+
+import entities.Cita;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+/**
+ * Codec de la coleccion citas
+ *
+ * @author System
+ */
+public class CitaCodec extends CodecEntidad<Cita> {
+
+    @Override
+    public Class<Cita> getEncoderClass() {
+        return Cita.class;
+    }
+
+    @Override
+    protected Cita nuevaEntidad() {
+        return new Cita();
+    }
+
+    @Override
+    protected ObjectId obtenerId(Cita cita) {
+        return cita.getId();
+    }
+
+    @Override
+    protected void asignarId(Cita cita, ObjectId id) {
+        cita.setId(id);
+    }
+
+    @Override
+    protected boolean leerCampo(BsonReader reader, String campo, Cita cita, DecoderContext contexto) {
+        switch (campo) {
+            case "idUsuario":
+                cita.setIdUsuario(leerObjectId(reader));
+                return true;
+            case "idMascota":
+                cita.setIdMascota(leerObjectId(reader));
+                return true;
+            case "fechaHora":
+                cita.setFechaHora(leerFechaLocal(reader));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    protected void escribirCampos(BsonWriter writer, Cita cita, EncoderContext contexto) {
+        escribirObjectId(writer, "idUsuario", cita.getIdUsuario());
+        escribirObjectId(writer, "idMascota", cita.getIdMascota());
+        if (cita.getFechaHora() != null) {
+            escribirFechaLocal(writer, "fechaHora", cita.getFechaHora());
+        }
+    }
+}
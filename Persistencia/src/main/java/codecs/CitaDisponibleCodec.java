@@ -0,0 +1,67 @@
+package codecs;
+
+import entities.CitaDisponible;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+/**
+ * Codec de la coleccion citasDisponibles
+ *
+ * @author System
+ */
+public class CitaDisponibleCodec extends CodecEntidad<CitaDisponible> {
+
+    @Override
+    public Class<CitaDisponible> getEncoderClass() {
+        return CitaDisponible.class;
+    }
+
+    @Override
+    protected CitaDisponible nuevaEntidad() {
+        CitaDisponible cita = new CitaDisponible();
+        // Si el documento no trae el campo se considera disponible
+        cita.setDisponible(true);
+        return cita;
+    }
+
+    @Override
+    protected ObjectId obtenerId(CitaDisponible cita) {
+        return cita.getId();
+    }
+
+    @Override
+    protected void asignarId(CitaDisponible cita, ObjectId id) {
+        cita.setId(id);
+    }
+
+    @Override
+    protected boolean leerCampo(BsonReader reader, String campo, CitaDisponible cita, DecoderContext contexto) {
+        switch (campo) {
+            case "fecha":
+                cita.setFecha(leerFecha(reader));
+                return true;
+            case "hora":
+                cita.setHora(leerString(reader));
+                return true;
+            case "disponible":
+                cita.setDisponible(leerBoolean(reader, true));
+                return true;
+            case "idUsuario":
+                cita.setIdUsuario(leerObjectId(reader));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    protected void escribirCampos(BsonWriter writer, CitaDisponible cita, EncoderContext contexto) {
+        escribirFecha(writer, "fecha", cita.getFecha());
+        escribirString(writer, "hora", cita.getHora());
+        writer.writeBoolean("disponible", cita.isDisponible());
+        escribirObjectId(writer, "idUsuario", cita.getIdUsuario());
+    }
+}
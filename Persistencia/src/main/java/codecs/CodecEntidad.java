@@ -0,0 +1,247 @@
+package codecs;
+
+import entities.EntidadRastreable;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonNull;
+import org.bson.BsonObjectId;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.bson.BsonWriter;
+import org.bson.codecs.CollectibleCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Base de los codecs de entidades: decodifica directamente de BSON a la
+ * entidad, sin pasar por un Document intermedio. Cada codec concreto solo
+ * indica como leer y escribir sus campos.
+ *
+ * @param <T> entidad que se codifica
+ * @author System
+ */
+public abstract class CodecEntidad<T> implements CollectibleCodec<T> {
+
+    protected abstract T nuevaEntidad();
+
+    protected abstract ObjectId obtenerId(T entidad);
+
+    protected abstract void asignarId(T entidad, ObjectId id);
+
+    /**
+     * Lee el valor del campo actual; regresa false si el campo no se conoce
+     */
+    protected abstract boolean leerCampo(BsonReader reader, String campo, T entidad, DecoderContext contexto);
+
+    /**
+     * Escribe los campos de la entidad (sin _id)
+     */
+    protected abstract void escribirCampos(BsonWriter writer, T entidad, EncoderContext contexto);
+
+    @Override
+    public T decode(BsonReader reader, DecoderContext contexto) {
+        T entidad = nuevaEntidad();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String campo = reader.readName();
+            if ("_id".equals(campo)) {
+                asignarId(entidad, leerObjectId(reader));
+            } else if (!leerCampo(reader, campo, entidad, contexto)) {
+                reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        // Recien leida de la base no tiene cambios pendientes
+        if (entidad instanceof EntidadRastreable) {
+            ((EntidadRastreable) entidad).limpiarCambios();
+        }
+        return entidad;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, T entidad, EncoderContext contexto) {
+        writer.writeStartDocument();
+        if (obtenerId(entidad) != null) {
+            writer.writeObjectId("_id", obtenerId(entidad));
+        }
+        escribirCampos(writer, entidad, contexto);
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public T generateIdIfAbsentFromDocument(T entidad) {
+        if (obtenerId(entidad) == null) {
+            asignarId(entidad, new ObjectId());
+        }
+        return entidad;
+    }
+
+    @Override
+    public boolean documentHasId(T entidad) {
+        return obtenerId(entidad) != null;
+    }
+
+    @Override
+    public BsonValue getDocumentId(T entidad) {
+        if (obtenerId(entidad) == null) {
+            throw new IllegalStateException("La entidad no tiene _id");
+        }
+        return new BsonObjectId(obtenerId(entidad));
+    }
+
+    /**
+     * Codifica la entidad a un BsonDocument, util para armar $set
+     */
+    public BsonDocument aDocumento(T entidad) {
+        BsonDocument documento = new BsonDocument();
+        encode(new BsonDocumentWriter(documento), entidad, EncoderContext.builder().build());
+        return documento;
+    }
+
+    /**
+     * Arma un $set solo con los campos indicados, tomando sus valores de la
+     * entidad codificada. Los campos nulos se guardan como null.
+     *
+     * @param campos nombres de campo de la entidad
+     * @return la actualizacion, o null si no hay campos
+     */
+    public Bson actualizacionParcial(T entidad, Collection<String> campos) {
+        BsonDocument completo = aDocumento(entidad);
+        BsonDocument cambios = new BsonDocument();
+        for (String campo : campos) {
+            for (String campoBson : camposBson(campo)) {
+                cambios.put(campoBson, completo.containsKey(campoBson) ? completo.get(campoBson) : BsonNull.VALUE);
+            }
+        }
+        return cambios.isEmpty() ? null : new BsonDocument("$set", cambios);
+    }
+
+    /**
+     * Campos del documento donde se guarda un campo de la entidad; por
+     * defecto el mismo nombre
+     */
+    protected List<String> camposBson(String campo) {
+        return List.of(campo);
+    }
+
+    // Lectura tolerante: un campo nulo o de otro tipo numerico no rompe la decodificacion
+
+    protected static String leerString(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.STRING) {
+            return reader.readString();
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    protected static ObjectId leerObjectId(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.OBJECT_ID) {
+            return reader.readObjectId();
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    protected static int leerEntero(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case INT32:
+                return reader.readInt32();
+            case INT64:
+                return (int) reader.readInt64();
+            case DOUBLE:
+                return (int) reader.readDouble();
+            default:
+                reader.skipValue();
+                return 0;
+        }
+    }
+
+    protected static long leerLargo(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case INT64:
+                return reader.readInt64();
+            case INT32:
+                return reader.readInt32();
+            case DOUBLE:
+                return (long) reader.readDouble();
+            default:
+                reader.skipValue();
+                return 0;
+        }
+    }
+
+    protected static double leerDouble(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case DOUBLE:
+                return reader.readDouble();
+            case INT32:
+                return reader.readInt32();
+            case INT64:
+                return reader.readInt64();
+            default:
+                reader.skipValue();
+                return 0.0;
+        }
+    }
+
+    protected static boolean leerBoolean(BsonReader reader, boolean porDefecto) {
+        if (reader.getCurrentBsonType() == BsonType.BOOLEAN) {
+            return reader.readBoolean();
+        }
+        reader.skipValue();
+        return porDefecto;
+    }
+
+    protected static Date leerFecha(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.DATE_TIME) {
+            return new Date(reader.readDateTime());
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    protected static LocalDateTime leerFechaLocal(BsonReader reader) {
+        Date fecha = leerFecha(reader);
+        return fecha == null ? null : fecha.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    // Escritura: los nulos se guardan como null, igual que Document.append
+
+    protected static void escribirString(BsonWriter writer, String campo, String valor) {
+        if (valor == null) {
+            writer.writeNull(campo);
+        } else {
+            writer.writeString(campo, valor);
+        }
+    }
+
+    protected static void escribirObjectId(BsonWriter writer, String campo, ObjectId valor) {
+        if (valor == null) {
+            writer.writeNull(campo);
+        } else {
+            writer.writeObjectId(campo, valor);
+        }
+    }
+
+    protected static void escribirFecha(BsonWriter writer, String campo, Date valor) {
+        if (valor == null) {
+            writer.writeNull(campo);
+        } else {
+            writer.writeDateTime(campo, valor.getTime());
+        }
+    }
+
+    protected static void escribirFechaLocal(BsonWriter writer, String campo, LocalDateTime valor) {
+        escribirFecha(writer, campo,
+                valor == null ? null : Date.from(valor.atZone(ZoneId.systemDefault()).toInstant()));
+    }
+}
@@ -0,0 +1,109 @@
+package codecs;
+
+import entities.ExpedienteMedico;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+/**
+ * Codec de la coleccion expedientes_medicos. Escribe solo mascotaId
+ * (ObjectId); todavia lee idMascota (String) de los expedientes que no se
+ * han migrado.
+ *
+ * @author System
+ */
+public class ExpedienteMedicoCodec extends CodecEntidad<ExpedienteMedico> {
+
+    @Override
+    public Class<ExpedienteMedico> getEncoderClass() {
+        return ExpedienteMedico.class;
+    }
+
+    @Override
+    protected ExpedienteMedico nuevaEntidad() {
+        return new ExpedienteMedico();
+    }
+
+    @Override
+    protected ObjectId obtenerId(ExpedienteMedico expediente) {
+        return expediente.getId();
+    }
+
+    @Override
+    protected void asignarId(ExpedienteMedico expediente, ObjectId id) {
+        expediente.setId(id);
+    }
+
+    @Override
+    protected boolean leerCampo(BsonReader reader, String campo, ExpedienteMedico expediente, DecoderContext contexto) {
+        switch (campo) {
+            case "mascotaId":
+                // Tiene prioridad sobre idMascota
+                ObjectId mascotaId = leerObjectId(reader);
+                if (mascotaId != null) {
+                    expediente.setMascotaId(mascotaId);
+                }
+                return true;
+            case "idMascota":
+                String idMascota = leerString(reader);
+                if (expediente.getMascotaId() == null && idMascota != null) {
+                    if (ObjectId.isValid(idMascota)) {
+                        expediente.setMascotaId(new ObjectId(idMascota));
+                    } else {
+                        System.err.println("Error convirtiendo idMascota string a ObjectId: " + idMascota);
+                    }
+                }
+                return true;
+            case "condicion":
+                expediente.setCondicion(leerString(reader));
+                return true;
+            case "nivelEnergia":
+                expediente.setNivelEnergia(leerString(reader));
+                return true;
+            case "vacunaRabia":
+                expediente.setVacunaRabia(leerBoolean(reader, false));
+                return true;
+            case "vacunaDesparasitacionExterna":
+                expediente.setVacunaDesparasitacionExterna(leerBoolean(reader, false));
+                return true;
+            case "vacunaBordetella":
+                expediente.setVacunaBordetella(leerBoolean(reader, false));
+                return true;
+            case "vacunaDesparasitacionInterna":
+                expediente.setVacunaDesparasitacionInterna(leerBoolean(reader, false));
+                return true;
+            case "vacunaMultiple":
+                expediente.setVacunaMultiple(leerBoolean(reader, false));
+                return true;
+            case "esterilizado":
+                expediente.setEsterilizado(leerBoolean(reader, false));
+                return true;
+            case "alergias":
+                expediente.setAlergias(leerString(reader));
+                return true;
+            case "condicionesEspeciales":
+                expediente.setCondicionesEspeciales(leerString(reader));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    protected void escribirCampos(BsonWriter writer, ExpedienteMedico expediente, EncoderContext contexto) {
+        // Solo mascotaId; idMascota se sigue leyendo hasta que termine MigradorExpedientes
+        escribirObjectId(writer, "mascotaId", expediente.getMascotaId());
+        escribirString(writer, "condicion", expediente.getCondicion());
+        escribirString(writer, "nivelEnergia", expediente.getNivelEnergia());
+        writer.writeBoolean("vacunaRabia", expediente.isVacunaRabia());
+        writer.writeBoolean("vacunaDesparasitacionExterna", expediente.isVacunaDesparasitacionExterna());
+        writer.writeBoolean("vacunaBordetella", expediente.isVacunaBordetella());
+        writer.writeBoolean("vacunaDesparasitacionInterna", expediente.isVacunaDesparasitacionInterna());
+        writer.writeBoolean("vacunaMultiple", expediente.isVacunaMultiple());
+        writer.writeBoolean("esterilizado", expediente.isEsterilizado());
+        escribirString(writer, "alergias", expediente.getAlergias());
+        escribirString(writer, "condicionesEspeciales", expediente.getCondicionesEspeciales());
+    }
+}
@@ -0,0 +1,114 @@
+package codecs;
+
+import entities.Mascota;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+/**
+ * Codec de la coleccion mascotas
+ *
+ * @author System
+ */
+public class MascotaCodec extends CodecEntidad<Mascota> {
+
+    @Override
+    public Class<Mascota> getEncoderClass() {
+        return Mascota.class;
+    }
+
+    @Override
+    protected Mascota nuevaEntidad() {
+        return new Mascota();
+    }
+
+    @Override
+    protected ObjectId obtenerId(Mascota mascota) {
+        return mascota.getId();
+    }
+
+    @Override
+    protected void asignarId(Mascota mascota, ObjectId id) {
+        mascota.setId(id);
+    }
+
+    @Override
+    protected boolean leerCampo(BsonReader reader, String campo, Mascota mascota, DecoderContext contexto) {
+        switch (campo) {
+            case "nombre":
+                mascota.setNombre(leerString(reader));
+                return true;
+            case "especie":
+                mascota.setEspecie(leerString(reader));
+                return true;
+            case "estadoSalud":
+                mascota.setEstadoSalud(leerString(reader));
+                return true;
+            case "personalidad":
+                mascota.setPersonalidad(leerString(reader));
+                return true;
+            case "urlImagen":
+                mascota.setUrlImagen(leerString(reader));
+                return true;
+            case "edad":
+                mascota.setEdad(leerEntero(reader));
+                return true;
+            case "disponible":
+                mascota.setDisponible(leerBoolean(reader, false));
+                return true;
+            case "estado":
+                mascota.setEstado(leerString(reader));
+                return true;
+            case "color":
+                mascota.setColor(leerString(reader));
+                return true;
+            case "raza":
+                mascota.setRaza(leerString(reader));
+                return true;
+            case "peso":
+                mascota.setPeso(leerDouble(reader));
+                return true;
+            case "tamano":
+                mascota.setTamano(leerString(reader));
+                return true;
+            case "nivelActividad":
+                mascota.setNivelActividad(leerString(reader));
+                return true;
+            case "peludo":
+                mascota.setPeludo(leerBoolean(reader, false));
+                return true;
+            case "costoMantenimiento":
+                mascota.setCostoMantenimiento(leerString(reader));
+                return true;
+            case "descripcion":
+                mascota.setDescripcion(leerString(reader));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    protected void escribirCampos(BsonWriter writer, Mascota mascota, EncoderContext contexto) {
+        escribirString(writer, "nombre", mascota.getNombre());
+        escribirString(writer, "especie", mascota.getEspecie());
+        escribirString(writer, "estadoSalud", mascota.getEstadoSalud());
+        escribirString(writer, "personalidad", mascota.getPersonalidad());
+        escribirString(writer, "urlImagen", mascota.getUrlImagen());
+        writer.writeInt32("edad", mascota.getEdad());
+        writer.writeBoolean("disponible", mascota.isDisponible());
+        escribirString(writer, "estado", mascota.getEstado());
+        // Campos adicionales
+        escribirString(writer, "color", mascota.getColor());
+        escribirString(writer, "raza", mascota.getRaza());
+        writer.writeDouble("peso", mascota.getPeso());
+        // Campos para busqueda de mascota ideal
+        escribirString(writer, "tamano", mascota.getTamano());
+        escribirString(writer, "nivelActividad", mascota.getNivelActividad());
+        writer.writeBoolean("peludo", mascota.isPeludo());
+        escribirString(writer, "costoMantenimiento", mascota.getCostoMantenimiento());
+        escribirString(writer, "descripcion", mascota.getDescripcion());
+    }
+}
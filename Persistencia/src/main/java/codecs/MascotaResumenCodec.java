@@ -0,0 +1,73 @@
+package codecs;
+
+import entities.MascotaResumen;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+import paginacion.Paginador;
+
+/**
+ * Codec de solo lectura para la proyeccion de tarjetas de mascotas
+ *
+ * @author System
+ */
+public class MascotaResumenCodec extends CodecEntidad<MascotaResumen> {
+
+    /**
+     * Campos que se piden al servidor
+     */
+    public static final String[] CAMPOS = {"nombre", "especie", "urlImagen", "estado", "disponible"};
+
+    @Override
+    public Class<MascotaResumen> getEncoderClass() {
+        return MascotaResumen.class;
+    }
+
+    @Override
+    protected MascotaResumen nuevaEntidad() {
+        return new MascotaResumen();
+    }
+
+    @Override
+    protected ObjectId obtenerId(MascotaResumen resumen) {
+        return resumen.getId();
+    }
+
+    @Override
+    protected void asignarId(MascotaResumen resumen, ObjectId id) {
+        resumen.setId(id);
+    }
+
+    @Override
+    protected boolean leerCampo(BsonReader reader, String campo, MascotaResumen resumen, DecoderContext contexto) {
+        switch (campo) {
+            case "nombre":
+                resumen.setNombre(leerString(reader));
+                return true;
+            case "especie":
+                resumen.setEspecie(leerString(reader));
+                return true;
+            case "urlImagen":
+                resumen.setUrlImagen(leerString(reader));
+                return true;
+            case "estado":
+                resumen.setEstado(leerString(reader));
+                return true;
+            case "disponible":
+                resumen.setDisponible(leerBoolean(reader, false));
+                return true;
+            case Paginador.CAMPO_PUNTAJE:
+                resumen.setPuntaje(leerDouble(reader));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    protected void escribirCampos(BsonWriter writer, MascotaResumen resumen, EncoderContext contexto) {
+        throw new UnsupportedOperationException("MascotaResumen es solo de lectura");
+    }
+}
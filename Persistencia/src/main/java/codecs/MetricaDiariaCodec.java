@@ -0,0 +1,101 @@
+package codecs;
+
+import entities.MetricaDiaria;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Codec de la coleccion metricas_diarias. Los conteos se leen aunque
+ * falten (un documento recien creado por el upsert solo trae lo que se
+ * incremento) y se escriben como enteros largos, igual que los $inc.
+ *
+ * @author System
+ */
+public class MetricaDiariaCodec extends CodecEntidad<MetricaDiaria> {
+
+    @Override
+    public Class<MetricaDiaria> getEncoderClass() {
+        return MetricaDiaria.class;
+    }
+
+    @Override
+    protected MetricaDiaria nuevaEntidad() {
+        return new MetricaDiaria();
+    }
+
+    @Override
+    protected ObjectId obtenerId(MetricaDiaria metrica) {
+        return metrica.getId();
+    }
+
+    @Override
+    protected void asignarId(MetricaDiaria metrica, ObjectId id) {
+        metrica.setId(id);
+    }
+
+    @Override
+    protected boolean leerCampo(BsonReader reader, String campo, MetricaDiaria metrica, DecoderContext contexto) {
+        switch (campo) {
+            case "dia":
+                metrica.setDia(leerString(reader));
+                return true;
+            case "solicitudes":
+                metrica.setSolicitudes(leerLargo(reader));
+                return true;
+            case "aprobadas":
+                metrica.setAprobadas(leerLargo(reader));
+                return true;
+            case "rechazadas":
+                metrica.setRechazadas(leerLargo(reader));
+                return true;
+            case "modificaciones":
+                metrica.setModificaciones(leerLargo(reader));
+                return true;
+            case "segundosDecision":
+                metrica.setSegundosDecision(leerLargo(reader));
+                return true;
+            case "adopcionesPorEspecie":
+                metrica.setAdopcionesPorEspecie(leerConteos(reader));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static Map<String, Long> leerConteos(BsonReader reader) {
+        Map<String, Long> conteos = new LinkedHashMap<>();
+        if (reader.getCurrentBsonType() != BsonType.DOCUMENT) {
+            reader.skipValue();
+            return conteos;
+        }
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String especie = reader.readName();
+            conteos.put(especie, leerLargo(reader));
+        }
+        reader.readEndDocument();
+        return conteos;
+    }
+
+    @Override
+    protected void escribirCampos(BsonWriter writer, MetricaDiaria metrica, EncoderContext contexto) {
+        escribirString(writer, "dia", metrica.getDia());
+        writer.writeInt64("solicitudes", metrica.getSolicitudes());
+        writer.writeInt64("aprobadas", metrica.getAprobadas());
+        writer.writeInt64("rechazadas", metrica.getRechazadas());
+        writer.writeInt64("modificaciones", metrica.getModificaciones());
+        writer.writeInt64("segundosDecision", metrica.getSegundosDecision());
+        writer.writeStartDocument("adopcionesPorEspecie");
+        for (Map.Entry<String, Long> conteo : metrica.getAdopcionesPorEspecie().entrySet()) {
+            writer.writeInt64(conteo.getKey(), conteo.getValue());
+        }
+        writer.writeEndDocument();
+    }
+}
@@ -0,0 +1,36 @@
+package codecs;
+
+import com.mongodb.MongoClientSettings;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+
+/**
+ * Registro con los codecs de las entidades mas los codecs por defecto del driver
+ *
+ * @author System
+ */
+public final class RegistroCodecs {
+
+    public static final MascotaCodec MASCOTA = new MascotaCodec();
+    public static final MascotaResumenCodec MASCOTA_RESUMEN = new MascotaResumenCodec();
+    public static final UsuarioCodec USUARIO = new UsuarioCodec();
+    public static final SolicitudAdopcionCodec SOLICITUD = new SolicitudAdopcionCodec();
+    public static final SolicitudListadoCodec SOLICITUD_LISTADO = new SolicitudListadoCodec();
+    public static final CitaCodec CITA = new CitaCodec();
+    public static final CitaDisponibleCodec CITA_DISPONIBLE = new CitaDisponibleCodec();
+    public static final ExpedienteMedicoCodec EXPEDIENTE = new ExpedienteMedicoCodec();
+    public static final AuditoriaSolicitudCodec AUDITORIA_SOLICITUD = new AuditoriaSolicitudCodec();
+    public static final MetricaDiariaCodec METRICA_DIARIA = new MetricaDiariaCodec();
+
+    private static final CodecRegistry REGISTRO = CodecRegistries.fromRegistries(
+            CodecRegistries.fromCodecs(MASCOTA, MASCOTA_RESUMEN, USUARIO, SOLICITUD, SOLICITUD_LISTADO, CITA,
+                    CITA_DISPONIBLE, EXPEDIENTE, AUDITORIA_SOLICITUD, METRICA_DIARIA),
+            MongoClientSettings.getDefaultCodecRegistry());
+
+    private RegistroCodecs() {
+    }
+
+    public static CodecRegistry getRegistro() {
+        return REGISTRO;
+    }
+}
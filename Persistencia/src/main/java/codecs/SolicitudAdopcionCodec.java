@@ -0,0 +1,121 @@
+package codecs;
+
+import entities.RazonesAntecedentes;
+import entities.SolicitudAdopcion;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+/**
+ * Codec de la coleccion solicitudes, con las razones embebidas
+ *
+ * @author System
+ */
+public class SolicitudAdopcionCodec extends CodecEntidad<SolicitudAdopcion> {
+
+    @Override
+    public Class<SolicitudAdopcion> getEncoderClass() {
+        return SolicitudAdopcion.class;
+    }
+
+    @Override
+    protected SolicitudAdopcion nuevaEntidad() {
+        return new SolicitudAdopcion();
+    }
+
+    @Override
+    protected ObjectId obtenerId(SolicitudAdopcion solicitud) {
+        return solicitud.getId();
+    }
+
+    @Override
+    protected void asignarId(SolicitudAdopcion solicitud, ObjectId id) {
+        solicitud.setId(id);
+    }
+
+    @Override
+    protected boolean leerCampo(BsonReader reader, String campo, SolicitudAdopcion solicitud, DecoderContext contexto) {
+        switch (campo) {
+            case "idUsuario":
+                solicitud.setIdUsuario(leerObjectId(reader));
+                return true;
+            case "idMascota":
+                solicitud.setIdMascota(leerObjectId(reader));
+                return true;
+            case "estado":
+                solicitud.setEstado(leerString(reader));
+                return true;
+            case "fechaSolicitud":
+                solicitud.setFechaSolicitud(leerFechaLocal(reader));
+                return true;
+            case "razones":
+                solicitud.setRazones(leerRazones(reader));
+                return true;
+            case "mensajeCorreccion":
+                solicitud.setMensajeCorreccion(leerString(reader));
+                return true;
+            case "idCita":
+                solicitud.setIdCita(leerObjectId(reader));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private RazonesAntecedentes leerRazones(BsonReader reader) {
+        if (reader.getCurrentBsonType() != BsonType.DOCUMENT) {
+            reader.skipValue();
+            return null;
+        }
+        RazonesAntecedentes razones = new RazonesAntecedentes();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "motivoAdopcion":
+                    razones.setMotivoAdopcion(leerString(reader));
+                    break;
+                case "antecedentesMascotas":
+                    razones.setAntecedentesMascotas(leerString(reader));
+                    break;
+                case "aceptaSeguimiento":
+                    razones.setAceptaSeguimiento(leerBoolean(reader, false));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return razones;
+    }
+
+    @Override
+    protected void escribirCampos(BsonWriter writer, SolicitudAdopcion solicitud, EncoderContext contexto) {
+        escribirObjectId(writer, "idUsuario", solicitud.getIdUsuario());
+        escribirObjectId(writer, "idMascota", solicitud.getIdMascota());
+        escribirString(writer, "estado", solicitud.getEstado());
+
+        if (solicitud.getFechaSolicitud() != null) {
+            escribirFechaLocal(writer, "fechaSolicitud", solicitud.getFechaSolicitud());
+        }
+
+        RazonesAntecedentes razones = solicitud.getRazones();
+        if (razones != null) {
+            writer.writeStartDocument("razones");
+            escribirString(writer, "motivoAdopcion", razones.getMotivoAdopcion());
+            escribirString(writer, "antecedentesMascotas", razones.getAntecedentesMascotas());
+            writer.writeBoolean("aceptaSeguimiento", razones.isAceptaSeguimiento());
+            writer.writeEndDocument();
+        }
+
+        if (solicitud.getMensajeCorreccion() != null) {
+            writer.writeString("mensajeCorreccion", solicitud.getMensajeCorreccion());
+        }
+
+        if (solicitud.getIdCita() != null) {
+            writer.writeObjectId("idCita", solicitud.getIdCita());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package codecs;
+
+import entities.SolicitudListado;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+/**
+ * Codec de solo lectura para las filas del listado de solicitudes
+ *
+ * @author System
+ */
+public class SolicitudListadoCodec extends CodecEntidad<SolicitudListado> {
+
+    @Override
+    public Class<SolicitudListado> getEncoderClass() {
+        return SolicitudListado.class;
+    }
+
+    @Override
+    protected SolicitudListado nuevaEntidad() {
+        return new SolicitudListado();
+    }
+
+    @Override
+    protected ObjectId obtenerId(SolicitudListado fila) {
+        return fila.getId();
+    }
+
+    @Override
+    protected void asignarId(SolicitudListado fila, ObjectId id) {
+        fila.setId(id);
+    }
+
+    @Override
+    protected boolean leerCampo(BsonReader reader, String campo, SolicitudListado fila, DecoderContext contexto) {
+        switch (campo) {
+            case "idUsuario":
+                fila.setIdUsuario(leerObjectId(reader));
+                return true;
+            case "idMascota":
+                fila.setIdMascota(leerObjectId(reader));
+                return true;
+            case "idCita":
+                fila.setIdCita(leerObjectId(reader));
+                return true;
+            case "estado":
+                fila.setEstado(leerString(reader));
+                return true;
+            case "fechaSolicitud":
+                fila.setFechaSolicitud(leerFechaLocal(reader));
+                return true;
+            case "mensajeCorreccion":
+                fila.setMensajeCorreccion(leerString(reader));
+                return true;
+            case "nombreUsuario":
+                fila.setNombreUsuario(leerString(reader));
+                return true;
+            case "correoUsuario":
+                fila.setCorreoUsuario(leerString(reader));
+                return true;
+            case "nombreMascota":
+                fila.setNombreMascota(leerString(reader));
+                return true;
+            case "fechaCita":
+                fila.setFechaCita(leerFechaLocal(reader));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    protected void escribirCampos(BsonWriter writer, SolicitudListado fila, EncoderContext contexto) {
+        throw new UnsupportedOperationException("SolicitudListado es solo de lectura");
+    }
+}
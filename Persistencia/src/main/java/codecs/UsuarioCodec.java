@@ -0,0 +1,147 @@
+package codecs;
+
+import entities.InfoPersonal;
+import entities.InfoVivienda;
+import entities.Usuario;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+/**
+ * Codec de la coleccion usuarios, con infoPersonal e infoVivienda embebidos
+ *
+ * @author System
+ */
+public class UsuarioCodec extends CodecEntidad<Usuario> {
+
+    @Override
+    public Class<Usuario> getEncoderClass() {
+        return Usuario.class;
+    }
+
+    @Override
+    protected Usuario nuevaEntidad() {
+        return new Usuario();
+    }
+
+    @Override
+    protected ObjectId obtenerId(Usuario usuario) {
+        return usuario.getId();
+    }
+
+    @Override
+    protected void asignarId(Usuario usuario, ObjectId id) {
+        usuario.setId(id);
+    }
+
+    @Override
+    protected boolean leerCampo(BsonReader reader, String campo, Usuario usuario, DecoderContext contexto) {
+        switch (campo) {
+            case "contrasena":
+                usuario.setContrasena(leerString(reader));
+                return true;
+            case "infoPersonal":
+                usuario.setInfoPersonal(leerInfoPersonal(reader));
+                return true;
+            case "infoVivienda":
+                usuario.setInfoVivienda(leerInfoVivienda(reader));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private InfoPersonal leerInfoPersonal(BsonReader reader) {
+        if (reader.getCurrentBsonType() != BsonType.DOCUMENT) {
+            reader.skipValue();
+            return null;
+        }
+        InfoPersonal info = new InfoPersonal();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "nombre":
+                    info.setNombre(leerString(reader));
+                    break;
+                case "correo":
+                    info.setCorreo(leerString(reader));
+                    break;
+                case "curp":
+                    info.setCurp(leerString(reader));
+                    break;
+                case "direccion":
+                    info.setDireccion(leerString(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return info;
+    }
+
+    private InfoVivienda leerInfoVivienda(BsonReader reader) {
+        if (reader.getCurrentBsonType() != BsonType.DOCUMENT) {
+            reader.skipValue();
+            return null;
+        }
+        InfoVivienda info = new InfoVivienda();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "tipoVivienda":
+                    info.setTipoVivienda(leerString(reader));
+                    break;
+                case "condicionesHogar":
+                    info.setCondicionesHogar(leerString(reader));
+                    break;
+                case "tieneOtrasMascotas":
+                    info.setTieneOtrasMascotas(leerBoolean(reader, false));
+                    break;
+                case "tieneNinos":
+                    info.setTieneNinos(leerBoolean(reader, false));
+                    break;
+                case "tiempoDisponibilidad":
+                    info.setTiempoDisponibilidad(leerString(reader));
+                    break;
+                case "urlImagenVivienda":
+                    info.setUrlImagenVivienda(leerString(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return info;
+    }
+
+    @Override
+    protected void escribirCampos(BsonWriter writer, Usuario usuario, EncoderContext contexto) {
+        escribirString(writer, "contrasena", usuario.getContrasena());
+
+        InfoPersonal personal = usuario.getInfoPersonal();
+        if (personal != null) {
+            writer.writeStartDocument("infoPersonal");
+            escribirString(writer, "nombre", personal.getNombre());
+            escribirString(writer, "correo", personal.getCorreo());
+            escribirString(writer, "curp", personal.getCurp());
+            escribirString(writer, "direccion", personal.getDireccion());
+            writer.writeEndDocument();
+        }
+
+        InfoVivienda vivienda = usuario.getInfoVivienda();
+        if (vivienda != null) {
+            writer.writeStartDocument("infoVivienda");
+            escribirString(writer, "tipoVivienda", vivienda.getTipoVivienda());
+            escribirString(writer, "condicionesHogar", vivienda.getCondicionesHogar());
+            writer.writeBoolean("tieneOtrasMascotas", vivienda.isTieneOtrasMascotas());
+            writer.writeBoolean("tieneNinos", vivienda.isTieneNinos());
+            escribirString(writer, "tiempoDisponibilidad", vivienda.getTiempoDisponibilidad());
+            escribirString(writer, "urlImagenVivienda", vivienda.getUrlImagenVivienda());
+            writer.writeEndDocument();
+        }
+    }
+}
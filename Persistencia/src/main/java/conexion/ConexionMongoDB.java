@@ -4,9 +4,14 @@
  */
 package conexion;
 
+import cambios.SuscriptorCambios;
+import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
+import metricas.EscuchaComandos;
+import metricas.RegistroMetricas;
+import org.bson.Document;
 
 /**
  * Singleton para manejar la conexión a MongoDB
@@ -17,15 +22,33 @@ public class ConexionMongoDB {
     private static ConexionMongoDB instancia;
     private MongoClient mongoClient;
     private MongoDatabase database;
-    
-    private static final String CONNECTION_STRING = "mongodb://localhost:27017";
-    private static final String DATABASE_NAME = "lavidaesbella";
+    private final MonitorPoolConexiones monitorPool = new MonitorPoolConexiones();
+    private volatile Boolean soportaTransacciones;
+    private SuscriptorCambios suscriptorCambios;
     
     private ConexionMongoDB() {
         try {
-            mongoClient = MongoClients.create(CONNECTION_STRING);
-            database = mongoClient.getDatabase(DATABASE_NAME);
+            ConfiguracionMongoDB configuracion = new ConfiguracionMongoDB();
+            // El listener de comandos mide cada comando y lo atribuye al metodo de DAO en curso
+            MongoClientSettings.Builder settings = MongoClientSettings.builder(configuracion.construirSettings(monitorPool));
+            if (RegistroMetricas.getInstancia().isHabilitado()) {
+                settings.addCommandListener(new EscuchaComandos(RegistroMetricas.getInstancia()));
+            }
+            mongoClient = MongoClients.create(settings.build());
+            RegistroMetricas.getInstancia().getBitacora().setCliente(mongoClient);
+            database = mongoClient.getDatabase(configuracion.getNombreBaseDatos());
             System.out.println("Conexión a MongoDB establecida exitosamente");
+            new GestorIndices(database).sincronizar();
+            MigradorExpedientes.iniciarEnSegundoPlano(database);
+            suscriptorCambios = new SuscriptorCambios(database, configuracion.getColeccionesCambios(),
+                    configuracion.getArchivoTokenCambios());
+            if (!configuracion.isCambiosHabilitados()) {
+                System.out.println("Suscriptor de cambios deshabilitado");
+            } else if (soportaTransacciones()) {
+                suscriptorCambios.iniciar();
+            } else {
+                System.out.println("Servidor standalone: sin change streams, las pantallas se actualizan al recargar");
+            }
         } catch (Exception e) {
             System.err.println("Error al conectar a MongoDB: " + e.getMessage());
             throw new RuntimeException("No se pudo establecer conexión con MongoDB", e);
@@ -47,8 +70,46 @@ public class ConexionMongoDB {
         return database;
     }
     
+    public MongoClient getCliente() {
+        return mongoClient;
+    }
+    
+    /**
+     * Las transacciones solo existen en replica sets y clusters; en un
+     * servidor standalone hay que compensar a mano. Se consulta una vez.
+     */
+    public boolean soportaTransacciones() {
+        if (soportaTransacciones == null) {
+            try {
+                Document hello = mongoClient.getDatabase("admin").runCommand(new Document("hello", 1));
+                soportaTransacciones = hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+            } catch (Exception e) {
+                System.err.println("No se pudo consultar el tipo de servidor: " + e.getMessage());
+                return false;
+            }
+        }
+        return soportaTransacciones;
+    }
+    
+    /**
+     * Suscriptor del change stream; si no esta activo las escuchas
+     * registradas simplemente no reciben eventos
+     */
+    public SuscriptorCambios getSuscriptorCambios() {
+        return suscriptorCambios;
+    }
+    
+    public MonitorPoolConexiones getMonitorPool() {
+        return monitorPool;
+    }
+    
     public void cerrarConexion() {
         if (mongoClient != null) {
+            if (suscriptorCambios != null) {
+                suscriptorCambios.detener();
+            }
+            System.out.println(monitorPool.resumen());
+            System.out.println(daos.CacheEntidades.resumenGeneral());
             mongoClient.close();
             System.out.println("Conexión a MongoDB cerrada");
         }
@@ -0,0 +1,303 @@
+package conexion;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadConcernLevel;
+import com.mongodb.WriteConcern;
+import com.mongodb.event.ConnectionPoolListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuracion del cliente de MongoDB leida de mongodb.properties.
+ * Cada llave puede sobrescribirse con una variable de entorno
+ * (mongodb.pool.maxSize -> MONGODB_POOL_MAXSIZE) o con una propiedad del sistema.
+ *
+ * @author System
+ */
+public class ConfiguracionMongoDB {
+
+    private static final String ARCHIVO = "mongodb.properties";
+
+    private final Properties propiedades = new Properties();
+
+    public ConfiguracionMongoDB() {
+        try (InputStream entrada = ConfiguracionMongoDB.class.getClassLoader().getResourceAsStream(ARCHIVO)) {
+            if (entrada != null) {
+                propiedades.load(entrada);
+            } else {
+                System.out.println("No se encontro " + ARCHIVO + ", se usan valores por defecto");
+            }
+        } catch (IOException e) {
+            System.err.println("Error al leer " + ARCHIVO + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene el valor de una llave: propiedad del sistema, variable de entorno o archivo
+     */
+    public String obtener(String llave, String porDefecto) {
+        String valor = System.getProperty(llave);
+        if (valor == null) {
+            valor = System.getenv(llave.toUpperCase().replace('.', '_'));
+        }
+        if (valor == null) {
+            valor = propiedades.getProperty(llave);
+        }
+        return valor == null || valor.isBlank() ? porDefecto : valor.trim();
+    }
+
+    private int obtenerEntero(String llave, int porDefecto) {
+        String valor = obtener(llave, null);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            System.err.println("Valor invalido para " + llave + ": " + valor);
+            return porDefecto;
+        }
+    }
+
+    public String getUri() {
+        return obtener("mongodb.uri", "mongodb://localhost:27017");
+    }
+
+    public String getNombreBaseDatos() {
+        return obtener("mongodb.database", "lavidaesbella");
+    }
+
+    /**
+     * Documentos por lote que piden los recorridos con cursor
+     */
+    public int getTamanoLoteCursor() {
+        return obtenerEntero("mongodb.cursor.batchSize", 500);
+    }
+
+    /**
+     * Latencias por metodo de DAO y por comando (metricas.RegistroMetricas)
+     */
+    public boolean isMetricasHabilitadas() {
+        return Boolean.parseBoolean(obtener("metricas.habilitado", "true"));
+    }
+
+    /**
+     * Cada cuantos segundos se imprime la tabla de metricas, 0 nunca
+     */
+    public int getSegundosVolcadoMetricas() {
+        return obtenerEntero("metricas.volcadoSegundos", 60);
+    }
+
+    /**
+     * Comandos mas lentos que esto se explican en segundo plano, 0 nunca
+     */
+    public int getUmbralConsultasLentasMs() {
+        return obtenerEntero("metricas.consultasLentas.umbralMs", 100);
+    }
+
+    /**
+     * Cuantas consultas lentas conserva la bitacora
+     */
+    public int getCapacidadConsultasLentas() {
+        return obtenerEntero("metricas.consultasLentas.capacidad", 200);
+    }
+
+    /**
+     * Cuanto se reutilizan las estadisticas del tablero del administrador
+     */
+    public int getTtlEstadisticasSegundos() {
+        return obtenerEntero("estadisticas.ttlSegundos", 30);
+    }
+
+    /**
+     * Registros de auditoria que pueden esperar en cola a ser escritos
+     */
+    public int getCapacidadColaAuditoria() {
+        return obtenerEntero("auditoria.capacidadCola", 10000);
+    }
+
+    /**
+     * Registros de auditoria por insertMany como maximo
+     */
+    public int getTamanoLoteAuditoria() {
+        return obtenerEntero("auditoria.tamanoLote", 200);
+    }
+
+    /**
+     * Filas por lote (un insertMany) de la importacion masiva de mascotas
+     */
+    public int getTamanoLoteImportacion() {
+        return obtenerEntero("importacion.tamanoLote", 1000);
+    }
+
+    /**
+     * Entradas maximas de cada cache de entidades por _id, 0 la desactiva
+     */
+    public int getTamanoCache() {
+        return obtenerEntero("mongodb.cache.tamano", 1000);
+    }
+
+    /**
+     * Segundos que una entidad puede quedarse en cache
+     */
+    public int getTtlCacheSegundos() {
+        return obtenerEntero("mongodb.cache.ttlSegundos", 60);
+    }
+
+    /**
+     * Si se escucha el change stream (solo con replica set)
+     */
+    public boolean isCambiosHabilitados() {
+        return Boolean.parseBoolean(obtener("mongodb.cambios.habilitado", "true"));
+    }
+
+    /**
+     * Colecciones cuyo change stream se escucha
+     */
+    public List<String> getColeccionesCambios() {
+        List<String> colecciones = new ArrayList<>();
+        for (String coleccion : obtener("mongodb.cambios.colecciones",
+                "mascotas,usuarios,solicitudes,citas,citasDisponibles").split(",")) {
+            if (!coleccion.isBlank()) {
+                colecciones.add(coleccion.trim());
+            }
+        }
+        return colecciones;
+    }
+
+    /**
+     * Archivo donde se guarda el token de reanudacion del change stream
+     */
+    public Path getArchivoTokenCambios() {
+        String archivo = obtener("mongodb.cambios.archivoToken", null);
+        if (archivo != null) {
+            return Paths.get(archivo);
+        }
+        return Paths.get(System.getProperty("user.home"), ".lavidaesbella",
+                "cambios-" + getNombreBaseDatos() + ".token");
+    }
+
+    /**
+     * Motor de los DAOs: mongodb o memoria
+     */
+    public String getMotorPersistencia() {
+        return obtener("persistencia.motor", "mongodb").toLowerCase();
+    }
+
+    /**
+     * Archivo donde el motor en memoria guarda su snapshot y su bitacora;
+     * null para no persistir
+     */
+    public Path getArchivoMemoria() {
+        String archivo = obtener("persistencia.memoria.archivo", null);
+        return archivo == null ? null : Paths.get(archivo);
+    }
+
+    /**
+     * Construye los settings del cliente con pool, tiempos, compresion y concerns
+     */
+    public MongoClientSettings construirSettings(ConnectionPoolListener listenerPool) {
+        int poolMax = obtenerEntero("mongodb.pool.maxSize", 50);
+        int poolMin = obtenerEntero("mongodb.pool.minSize", 0);
+        int esperaPool = obtenerEntero("mongodb.pool.maxWaitMs", 10000);
+        int inactividad = obtenerEntero("mongodb.pool.maxIdleMs", 60000);
+        int conexion = obtenerEntero("mongodb.connectTimeoutMs", 5000);
+        int socket = obtenerEntero("mongodb.socketTimeoutMs", 30000);
+        int seleccion = obtenerEntero("mongodb.serverSelectionTimeoutMs", 5000);
+
+        MongoClientSettings.Builder builder = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(getUri()))
+                .applyToConnectionPoolSettings(pool -> {
+                    pool.maxSize(poolMax)
+                            .minSize(poolMin)
+                            .maxWaitTime(esperaPool, TimeUnit.MILLISECONDS)
+                            .maxConnectionIdleTime(inactividad, TimeUnit.MILLISECONDS);
+                    if (listenerPool != null) {
+                        pool.addConnectionPoolListener(listenerPool);
+                    }
+                })
+                .applyToSocketSettings(s -> s
+                        .connectTimeout(conexion, TimeUnit.MILLISECONDS)
+                        .readTimeout(socket, TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(c -> c
+                        .serverSelectionTimeout(seleccion, TimeUnit.MILLISECONDS))
+                .compressorList(construirCompresores());
+
+        String readConcern = obtener("mongodb.readConcern", null);
+        if (readConcern != null) {
+            builder.readConcern(new ReadConcern(ReadConcernLevel.fromString(readConcern)));
+        }
+
+        String writeConcern = obtener("mongodb.writeConcern", null);
+        if (writeConcern != null) {
+            WriteConcern concern;
+            if ("majority".equalsIgnoreCase(writeConcern)) {
+                concern = WriteConcern.MAJORITY;
+            } else if (writeConcern.chars().allMatch(Character::isDigit)) {
+                concern = new WriteConcern(Integer.parseInt(writeConcern));
+            } else {
+                concern = new WriteConcern(writeConcern);
+            }
+            if (Boolean.parseBoolean(obtener("mongodb.writeConcern.journal", "false"))) {
+                concern = concern.withJournal(true);
+            }
+            builder.writeConcern(concern);
+        }
+
+        System.out.println("MongoDB: pool " + poolMin + "-" + poolMax
+                + ", timeouts conexion/socket/seleccion " + conexion + "/" + socket + "/" + seleccion + " ms");
+        return builder.build();
+    }
+
+    /**
+     * zstd y snappy requieren su libreria nativa; si no esta se omiten
+     */
+    private List<MongoCompressor> construirCompresores() {
+        List<MongoCompressor> compresores = new ArrayList<>();
+        for (String nombre : obtener("mongodb.compresores", "").split(",")) {
+            switch (nombre.trim().toLowerCase()) {
+                case "zstd":
+                    if (existeClase("com.github.luben.zstd.Zstd")) {
+                        compresores.add(MongoCompressor.createZstdCompressor());
+                    } else {
+                        System.out.println("Compresion zstd omitida: zstd-jni no esta en el classpath");
+                    }
+                    break;
+                case "snappy":
+                    if (existeClase("org.xerial.snappy.Snappy")) {
+                        compresores.add(MongoCompressor.createSnappyCompressor());
+                    } else {
+                        System.out.println("Compresion snappy omitida: snappy-java no esta en el classpath");
+                    }
+                    break;
+                case "zlib":
+                    compresores.add(MongoCompressor.createZlibCompressor());
+                    break;
+                case "":
+                    break;
+                default:
+                    System.err.println("Compresor desconocido: " + nombre);
+            }
+        }
+        return compresores;
+    }
+
+    private boolean existeClase(String nombre) {
+        try {
+            Class.forName(nombre, false, ConfiguracionMongoDB.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
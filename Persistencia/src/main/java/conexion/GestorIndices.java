@@ -0,0 +1,285 @@
+package conexion;
+
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import daos.IMascotaDAO;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declara y sincroniza los indices de cada coleccion que consultan los DAOs.
+ * Se ejecuta al iniciar la conexion: crea los indices faltantes (operacion
+ * idempotente), reporta diferencias con los existentes y revisa con explain
+ * que las consultas principales usen un indice en lugar de un COLLSCAN.
+ *
+ * @author System
+ */
+public class GestorIndices {
+
+    private final MongoDatabase database;
+
+    // coleccion -> indices declarados
+    private final Map<String, List<IndexModel>> indicesDeclarados = new LinkedHashMap<>();
+
+    // coleccion -> filtro representativo de la consulta mas frecuente
+    private final Map<String, Bson> consultasRepresentativas = new LinkedHashMap<>();
+
+    public GestorIndices(MongoDatabase database) {
+        this.database = database;
+        declararIndices();
+    }
+
+    /**
+     * Indices requeridos por cada DAO
+     */
+    private void declararIndices() {
+        // daos.MascotaDAO: buscarDisponibles, buscarPorDisponibilidad, buscarDisponiblesPorEspecie
+        // y las paginas por especie, que ordenan por _id sobre el mismo indice
+        declarar("mascotas",
+                Indexes.ascending("disponible", "especie", "_id"), "idx_disponible_especie_id", false,
+                new Document("disponible", true).append("especie", "Perro"));
+        // Paginas de disponibles sin filtro de especie
+        declarar("mascotas",
+                Indexes.ascending("disponible", "_id"), "idx_disponible_id", false, null);
+        // daos.MascotaDAO: buscarTexto (solo puede haber un indice de texto por coleccion)
+        declararTexto("mascotas", IMascotaDAO.PESOS_TEXTO, IMascotaDAO.IDIOMA_TEXTO, "idx_texto");
+
+        // daos.UsuarioDAO: buscarPorCorreo, existeCorreo (login y registro)
+        declarar("usuarios",
+                Indexes.ascending("infoPersonal.correo"), "idx_correo", true,
+                new Document("infoPersonal.correo", "admin@gmail.com"));
+
+        // daos.SolicitudAdopcionDAO: buscarPorUsuario
+        declarar("solicitudes",
+                Indexes.ascending("idUsuario"), "idx_idUsuario", false,
+                new Document("idUsuario", new ObjectId()));
+
+        // daos.AuditoriaSolicitudDAO: historial por solicitud y por administrador, del mas reciente
+        declarar("auditoria_solicitudes",
+                Indexes.compoundIndex(Indexes.ascending("idSolicitud"), Indexes.descending("_id")),
+                "idx_idSolicitud_id", false,
+                new Document("idSolicitud", new ObjectId()));
+        declarar("auditoria_solicitudes",
+                Indexes.compoundIndex(Indexes.ascending("idAdmin"), Indexes.descending("_id")),
+                "idx_idAdmin_id", false, null);
+
+        // daos.MetricasDiariasDAO: un documento por dia; la llave unica evita duplicar el dia en el upsert
+        declarar("metricas_diarias", Indexes.ascending("dia"), "idx_dia_unico", true,
+                new Document("dia", "2000-01-01"));
+
+        // daos.CitaDAO: buscarPorUsuario y cruce por mascota
+        declarar("citas",
+                Indexes.ascending("idUsuario", "idMascota"), "idx_idUsuario_idMascota", false,
+                new Document("idUsuario", new ObjectId()));
+
+        // daos.CitaDisponibleDAO: obtenerCitasDisponibles (filtra y ordena por fecha y hora)
+        declarar("citasDisponibles",
+                Indexes.ascending("disponible", "fecha", "hora"), "idx_disponible_fecha_hora", false,
+                new Document("disponible", true));
+
+        // daos.ExpedienteMedicoDAO y negocioo.ExpedienteBO: busqueda por mascota
+        // (idx_idMascota lo elimina MigradorExpedientes al terminar)
+        declarar("expedientes_medicos",
+                Indexes.ascending("mascotaId"), "idx_mascotaId", false,
+                new Document("mascotaId", new ObjectId()));
+
+        // cubuscarmascotaideal EncuestaDAO: encuesta mas reciente del usuario
+        declarar("encuestas",
+                Indexes.compoundIndex(Indexes.ascending("idUsuario"), Indexes.descending("fechaRespuesta")),
+                "idx_idUsuario_fechaRespuesta", false,
+                new Document("idUsuario", new ObjectId()));
+
+        // cubuscarmascotaideal ResultadoMascotaIdealDAO: un documento por usuario con
+        // _id = idUsuario, el indice de _id basta (MigradorResultados quita idx_idUsuario)
+    }
+
+    private void declarar(String coleccion, Bson llaves, String nombre, boolean unico, Bson consulta) {
+        IndexModel indice = new IndexModel(llaves, new IndexOptions().name(nombre).unique(unico));
+        indicesDeclarados.computeIfAbsent(coleccion, c -> new ArrayList<>()).add(indice);
+        if (consulta != null) {
+            consultasRepresentativas.putIfAbsent(coleccion, consulta);
+        }
+    }
+
+    private void declararTexto(String coleccion, Map<String, Integer> pesos, String idioma, String nombre) {
+        List<Bson> campos = new ArrayList<>();
+        Document pesosIndice = new Document();
+        for (Map.Entry<String, Integer> peso : pesos.entrySet()) {
+            campos.add(Indexes.text(peso.getKey()));
+            pesosIndice.append(peso.getKey(), peso.getValue());
+        }
+        IndexModel indice = new IndexModel(Indexes.compoundIndex(campos),
+                new IndexOptions().name(nombre).weights(pesosIndice).defaultLanguage(idioma));
+        indicesDeclarados.computeIfAbsent(coleccion, c -> new ArrayList<>()).add(indice);
+    }
+
+    /**
+     * Crea los indices faltantes, reporta diferencias y verifica los planes
+     */
+    public void sincronizar() {
+        long inicio = System.currentTimeMillis();
+        int creados = 0;
+
+        for (Map.Entry<String, List<IndexModel>> entrada : indicesDeclarados.entrySet()) {
+            try {
+                creados += sincronizarColeccion(entrada.getKey(), entrada.getValue());
+            } catch (MongoTimeoutException e) {
+                // Sin servidor disponible no tiene caso seguir con las demas colecciones
+                System.err.println("No se pudieron sincronizar los indices: " + e.getMessage());
+                return;
+            } catch (Exception e) {
+                System.err.println("Error al sincronizar indices de '" + entrada.getKey() + "': " + e.getMessage());
+            }
+        }
+
+        verificarPlanes();
+
+        System.out.println("Indices sincronizados: " + creados + " creados en "
+                + (System.currentTimeMillis() - inicio) + " ms");
+    }
+
+    private int sincronizarColeccion(String nombreColeccion, List<IndexModel> declarados) {
+        MongoCollection<Document> coleccion = database.getCollection(nombreColeccion);
+
+        Map<String, Document> existentes = new LinkedHashMap<>();
+        for (Document indice : coleccion.listIndexes()) {
+            existentes.put(indice.getString("name"), indice);
+        }
+
+        List<IndexModel> faltantes = new ArrayList<>();
+        for (IndexModel declarado : declarados) {
+            String nombre = declarado.getOptions().getName();
+            Document llaves = llavesEnServidor(declarado);
+
+            Document existente = existentes.remove(nombre);
+            if (existente == null) {
+                Document mismoPatron = buscarPorLlaves(existentes, llaves);
+                if (mismoPatron != null) {
+                    // Ya existe con otro nombre: no se duplica, solo se reporta
+                    existentes.remove(mismoPatron.getString("name"));
+                    System.out.println("Indice '" + nombre + "' en " + nombreColeccion
+                            + " ya existe como '" + mismoPatron.getString("name") + "'");
+                } else {
+                    faltantes.add(declarado);
+                }
+                continue;
+            }
+
+            boolean unicoDeclarado = declarado.getOptions().isUnique();
+            boolean unicoExistente = existente.getBoolean("unique", false);
+            if (!llaves.equals(existente.get("key", Document.class)) || unicoDeclarado != unicoExistente) {
+                System.err.println("DRIFT en " + nombreColeccion + "." + nombre
+                        + ": declarado " + llaves.toJson() + (unicoDeclarado ? " unique" : "")
+                        + ", existente " + existente.get("key", Document.class).toJson()
+                        + (unicoExistente ? " unique" : ""));
+            }
+            Bson pesos = declarado.getOptions().getWeights();
+            Document pesosExistentes = existente.get("weights", Document.class);
+            if (pesos != null && !Document.parse(pesos.toBsonDocument().toJson()).equals(pesosExistentes)) {
+                System.err.println("DRIFT en " + nombreColeccion + "." + nombre
+                        + ": pesos declarados " + pesos.toBsonDocument().toJson()
+                        + ", existentes " + (pesosExistentes == null ? "ninguno" : pesosExistentes.toJson()));
+            }
+        }
+
+        // Lo que queda en existentes no esta declarado por ningun DAO
+        for (String nombre : existentes.keySet()) {
+            if (!"_id_".equals(nombre)) {
+                System.out.println("Indice no declarado en " + nombreColeccion + ": " + nombre);
+            }
+        }
+
+        if (faltantes.isEmpty()) {
+            return 0;
+        }
+        List<String> creados = coleccion.createIndexes(faltantes);
+        System.out.println("Indices creados en " + nombreColeccion + ": " + creados);
+        return creados.size();
+    }
+
+    /**
+     * Llaves como las reporta listIndexes: los campos de un indice de texto
+     * aparecen como {_fts: "text", _ftsx: 1} y los campos van en weights
+     */
+    private static Document llavesEnServidor(IndexModel indice) {
+        Document llaves = Document.parse(indice.getKeys().toBsonDocument().toJson());
+        if (!llaves.containsValue("text")) {
+            return llaves;
+        }
+        Document normalizadas = new Document();
+        for (Map.Entry<String, Object> llave : llaves.entrySet()) {
+            if (!"text".equals(llave.getValue())) {
+                normalizadas.append(llave.getKey(), llave.getValue());
+            } else if (!normalizadas.containsKey("_fts")) {
+                normalizadas.append("_fts", "text").append("_ftsx", 1);
+            }
+        }
+        return normalizadas;
+    }
+
+    private Document buscarPorLlaves(Map<String, Document> existentes, Document llaves) {
+        for (Document indice : existentes.values()) {
+            if (llaves.equals(indice.get("key", Document.class))) {
+                return indice;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Ejecuta explain (queryPlanner, sin ejecutar la consulta) sobre la
+     * consulta representativa de cada coleccion y avisa si hay COLLSCAN
+     */
+    private void verificarPlanes() {
+        for (Map.Entry<String, Bson> entrada : consultasRepresentativas.entrySet()) {
+            try {
+                Document plan = database.getCollection(entrada.getKey())
+                        .find(entrada.getValue())
+                        .explain(ExplainVerbosity.QUERY_PLANNER);
+
+                List<String> etapas = new ArrayList<>();
+                Document queryPlanner = plan.get("queryPlanner", Document.class);
+                if (queryPlanner != null) {
+                    Document ganador = queryPlanner.get("winningPlan", Document.class);
+                    if (ganador != null && ganador.containsKey("queryPlan")) {
+                        ganador = ganador.get("queryPlan", Document.class);
+                    }
+                    recolectarEtapas(ganador, etapas);
+                }
+
+                if (etapas.contains("COLLSCAN")) {
+                    System.err.println("Plan de " + entrada.getKey() + " usa COLLSCAN: " + etapas);
+                } else {
+                    System.out.println("Plan de " + entrada.getKey() + ": " + etapas);
+                }
+            } catch (Exception e) {
+                System.err.println("No se pudo verificar el plan de " + entrada.getKey() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void recolectarEtapas(Document etapa, List<String> etapas) {
+        if (etapa == null) {
+            return;
+        }
+        etapas.add(etapa.getString("stage"));
+        recolectarEtapas(etapa.get("inputStage", Document.class), etapas);
+        List<Document> entradas = etapa.getList("inputStages", Document.class);
+        if (entradas != null) {
+            for (Document entrada : entradas) {
+                recolectarEtapas(entrada, etapas);
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package conexion;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Migracion de expedientes_medicos a una sola llave: mascotaId (ObjectId).
+ * Antes cada expediente podia tener mascotaId, idMascota (hex en String) o
+ * ambos, y las busquedas necesitaban un $or. Por cada lote convierte
+ * idMascota a mascotaId y quita idMascota.
+ *
+ * Se puede interrumpir: el ultimo _id procesado se guarda en la coleccion
+ * migraciones y al reiniciar continua desde ahi. Al terminar elimina el
+ * indice de idMascota, que ya no se usa.
+ *
+ * @author System
+ */
+public class MigradorExpedientes implements Runnable {
+
+    public static final String NOMBRE = "expedientes_mascotaId";
+    private static final String COLECCION = "expedientes_medicos";
+    private static final String INDICE_ANTERIOR = "idx_idMascota";
+    private static final int LOTE = 500;
+
+    // Mientras no termine, las busquedas tambien consideran idMascota
+    private static volatile boolean terminada;
+    private static boolean iniciada;
+
+    private final MongoCollection<Document> expedientes;
+    private final MongoCollection<Document> migraciones;
+
+    public MigradorExpedientes(MongoDatabase database) {
+        this.expedientes = database.getCollection(COLECCION);
+        this.migraciones = database.getCollection("migraciones");
+    }
+
+    /**
+     * Lee de migraciones si ya termino y, si no, arranca la migracion en un
+     * hilo de fondo, una sola vez por proceso
+     */
+    public static synchronized void iniciarEnSegundoPlano(MongoDatabase database) {
+        if (iniciada) {
+            return;
+        }
+        iniciada = true;
+        MigradorExpedientes migrador = new MigradorExpedientes(database);
+        if (migrador.yaTerminada()) {
+            terminada = true;
+            return;
+        }
+        Thread hilo = new Thread(migrador, "migrador-expedientes");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    public static boolean isTerminada() {
+        return terminada;
+    }
+
+    @Override
+    public void run() {
+        try {
+            migrar();
+        } catch (Exception e) {
+            System.err.println("Migracion de expedientes interrumpida, se continuara al reiniciar: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Procesa todos los expedientes pendientes por lotes
+     */
+    public void migrar() {
+        long inicio = System.currentTimeMillis();
+        Document estado = migraciones.find(Filters.eq("_id", NOMBRE)).first();
+        ObjectId ultimo = estado != null ? estado.getObjectId("ultimoId") : null;
+        long migrados = estado != null ? estado.get("migrados", 0L) : 0L;
+        long omitidos = estado != null ? estado.get("omitidos", 0L) : 0L;
+
+        long pendientes = expedientes.countDocuments(pendientesDesde(ultimo));
+        System.out.println("Migracion de expedientes: " + pendientes + " pendientes"
+                + (ultimo != null ? " (continuando despues de " + ultimo + ")" : ""));
+
+        long procesados = 0;
+        while (true) {
+            List<Document> lote = expedientes.find(pendientesDesde(ultimo))
+                    .projection(new Document("mascotaId", 1).append("idMascota", 1))
+                    .sort(Sorts.ascending("_id"))
+                    .limit(LOTE)
+                    .into(new ArrayList<>(LOTE));
+            if (lote.isEmpty()) {
+                break;
+            }
+
+            List<WriteModel<Document>> cambios = new ArrayList<>(lote.size());
+            for (Document expediente : lote) {
+                Bson cambio = normalizar(expediente);
+                if (cambio == null) {
+                    omitidos++;
+                    System.err.println("Expediente " + expediente.getObjectId("_id")
+                            + " sin id de mascota valido, se omite");
+                } else {
+                    cambios.add(new UpdateOneModel<>(Filters.eq("_id", expediente.getObjectId("_id")), cambio));
+                }
+            }
+            if (!cambios.isEmpty()) {
+                expedientes.bulkWrite(cambios, new BulkWriteOptions().ordered(false));
+            }
+
+            migrados += cambios.size();
+            procesados += lote.size();
+            ultimo = lote.get(lote.size() - 1).getObjectId("_id");
+            guardarEstado(ultimo, migrados, omitidos, false);
+            System.out.println("Migracion de expedientes: " + procesados + "/" + pendientes);
+        }
+
+        guardarEstado(ultimo, migrados, omitidos, true);
+        terminada = true;
+        eliminarIndiceAnterior();
+        System.out.println("Migracion de expedientes terminada: " + migrados + " migrados, " + omitidos
+                + " omitidos en " + (System.currentTimeMillis() - inicio) + " ms");
+    }
+
+    private boolean yaTerminada() {
+        try {
+            Document estado = migraciones.find(Filters.eq("_id", NOMBRE)).first();
+            return estado != null && estado.getBoolean("terminada", false);
+        } catch (Exception e) {
+            System.err.println("No se pudo consultar el estado de la migracion: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Expedientes que aun tienen idMascota o cuyo mascotaId no es ObjectId
+     */
+    private static Bson pendientesDesde(ObjectId ultimo) {
+        Bson pendientes = Filters.or(
+                Filters.exists("idMascota"),
+                Filters.not(Filters.type("mascotaId", BsonType.OBJECT_ID)));
+        return ultimo == null ? pendientes : Filters.and(Filters.gt("_id", ultimo), pendientes);
+    }
+
+    /**
+     * mascotaId tiene prioridad sobre idMascota, igual que al leer
+     *
+     * @return la actualizacion, o null si no hay un id valido
+     */
+    private static Bson normalizar(Document expediente) {
+        Object mascotaId = expediente.get("mascotaId");
+        Object idMascota = expediente.get("idMascota");
+
+        ObjectId llave = null;
+        if (mascotaId instanceof ObjectId) {
+            llave = (ObjectId) mascotaId;
+        } else if (mascotaId instanceof String && ObjectId.isValid((String) mascotaId)) {
+            llave = new ObjectId((String) mascotaId);
+        } else if (idMascota instanceof String && ObjectId.isValid((String) idMascota)) {
+            llave = new ObjectId((String) idMascota);
+        } else if (idMascota instanceof ObjectId) {
+            llave = (ObjectId) idMascota;
+        }
+        if (llave == null) {
+            return null;
+        }
+        return Updates.combine(Updates.set("mascotaId", llave), Updates.unset("idMascota"));
+    }
+
+    private void guardarEstado(ObjectId ultimo, long migrados, long omitidos, boolean fin) {
+        Document estado = new Document("_id", NOMBRE)
+                .append("ultimoId", ultimo)
+                .append("migrados", migrados)
+                .append("omitidos", omitidos)
+                .append("terminada", fin)
+                .append("actualizada", new Date());
+        migraciones.replaceOne(Filters.eq("_id", NOMBRE), estado, new ReplaceOptions().upsert(true));
+    }
+
+    private void eliminarIndiceAnterior() {
+        try {
+            for (Document indice : expedientes.listIndexes()) {
+                if (INDICE_ANTERIOR.equals(indice.getString("name"))) {
+                    expedientes.dropIndex(INDICE_ANTERIOR);
+                    System.out.println("Indice " + INDICE_ANTERIOR + " eliminado de " + COLECCION);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("No se pudo eliminar " + INDICE_ANTERIOR + ": " + e.getMessage());
+        }
+    }
+}
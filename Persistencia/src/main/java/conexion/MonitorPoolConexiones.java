@@ -0,0 +1,113 @@
+package conexion;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Escucha los eventos del pool de conexiones del driver y lleva las
+ * metricas para saber cuando el pool es el cuello de botella: tiempo de
+ * espera al obtener una conexion, conexiones en uso y cola de espera.
+ *
+ * @author System
+ */
+public class MonitorPoolConexiones implements ConnectionPoolListener {
+
+    private final AtomicInteger enUso = new AtomicInteger();
+    private final AtomicInteger enEspera = new AtomicInteger();
+    private final AtomicInteger abiertas = new AtomicInteger();
+
+    private final LongAdder obtenidas = new LongAdder();
+    private final LongAdder fallidas = new LongAdder();
+    private final LongAdder esperaTotalMicros = new LongAdder();
+    private final AtomicLong esperaMaximaMicros = new AtomicLong();
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        enEspera.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        enEspera.decrementAndGet();
+        enUso.incrementAndGet();
+        obtenidas.increment();
+        registrarEspera(event.getElapsedTime(TimeUnit.MICROSECONDS));
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        enEspera.decrementAndGet();
+        fallidas.increment();
+        registrarEspera(event.getElapsedTime(TimeUnit.MICROSECONDS));
+        System.err.println("No se obtuvo conexion del pool (" + event.getReason() + ") tras "
+                + event.getElapsedTime(TimeUnit.MILLISECONDS) + " ms");
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        enUso.decrementAndGet();
+    }
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        abiertas.incrementAndGet();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        abiertas.decrementAndGet();
+    }
+
+    private void registrarEspera(long micros) {
+        esperaTotalMicros.add(micros);
+        esperaMaximaMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public int getConexionesEnUso() {
+        return enUso.get();
+    }
+
+    public int getLongitudCola() {
+        return enEspera.get();
+    }
+
+    public int getConexionesAbiertas() {
+        return abiertas.get();
+    }
+
+    public long getConexionesObtenidas() {
+        return obtenidas.sum();
+    }
+
+    public long getObtencionesFallidas() {
+        return fallidas.sum();
+    }
+
+    /**
+     * Tiempo promedio de espera para obtener una conexion, en milisegundos
+     */
+    public double getEsperaPromedioMs() {
+        long total = obtenidas.sum() + fallidas.sum();
+        return total == 0 ? 0 : esperaTotalMicros.sum() / 1000.0 / total;
+    }
+
+    public double getEsperaMaximaMs() {
+        return esperaMaximaMicros.get() / 1000.0;
+    }
+
+    public String resumen() {
+        return String.format("Pool MongoDB: en uso=%d, en cola=%d, abiertas=%d, obtenidas=%d, fallidas=%d, espera prom=%.2f ms, max=%.2f ms",
+                getConexionesEnUso(), getLongitudCola(), getConexionesAbiertas(),
+                getConexionesObtenidas(), getObtencionesFallidas(), getEsperaPromedioMs(), getEsperaMaximaMs());
+    }
+}
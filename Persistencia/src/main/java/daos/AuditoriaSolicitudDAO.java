@@ -0,0 +1,74 @@
+package daos;
+
+import codecs.RegistroCodecs;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import entities.AuditoriaSolicitud;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import paginacion.Pagina;
+import paginacion.Paginador;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bitacora de cambios de estado de solicitudes en la coleccion
+ * auditoria_solicitudes. Solo se inserta; nunca se actualiza ni se borra.
+ *
+ * @author System
+ */
+public class AuditoriaSolicitudDAO implements IAuditoriaSolicitudDAO {
+
+    private final MongoCollection<AuditoriaSolicitud> collection;
+
+    public AuditoriaSolicitudDAO(MongoDatabase database) {
+        this.collection = database.getCollection("auditoria_solicitudes", AuditoriaSolicitud.class)
+                .withCodecRegistry(RegistroCodecs.getRegistro());
+    }
+
+    /**
+     * insertMany sin orden; si un reintento choca con registros que ya se
+     * habian escrito (llave duplicada) el lote se da por guardado
+     */
+    @Override
+    public void guardarTodos(List<AuditoriaSolicitud> registros) {
+        if (registros == null || registros.isEmpty()) {
+            return;
+        }
+        try {
+            collection.insertMany(registros, new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+            if (e.getWriteConcernError() != null) {
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public Pagina<AuditoriaSolicitud> buscarPorSolicitud(ObjectId idSolicitud, String despuesDe, int tamano) {
+        return Paginador.paginar(collection, Filters.eq("idSolicitud", idSolicitud), null, despuesDe, tamano,
+                true, AuditoriaSolicitud::getId);
+    }
+
+    @Override
+    public Pagina<AuditoriaSolicitud> buscarPorAdmin(String idAdmin, String despuesDe, int tamano) {
+        return Paginador.paginar(collection, Filters.eq("idAdmin", idAdmin), null, despuesDe, tamano,
+                true, AuditoriaSolicitud::getId);
+    }
+
+    @Override
+    public long recorrer(Bson filtro, int lote, Consumer<AuditoriaSolicitud> consumidor) {
+        return RecorridoCursor.recorrer(collection.find(filtro), lote, consumidor);
+    }
+}
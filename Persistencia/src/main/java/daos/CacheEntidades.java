@@ -0,0 +1,264 @@
+package daos;
+
+import com.mongodb.client.MongoCollection;
+import conexion.ConfiguracionMongoDB;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache de lectura por _id para los DAOs, compartida por todas las
+ * instancias del DAO de una misma coleccion. Limita el numero de entradas
+ * (se desaloja la menos usada) y su antiguedad (TTL).
+ *
+ * Guarda el documento BSON y no la entidad: cada lectura decodifica una
+ * entidad nueva, asi quien la modifique no altera lo que ven los demas.
+ * Los DAOs invalidan la entrada al guardar, actualizar o eliminar.
+ *
+ * Configuracion: mongodb.cache.tamano (0 la desactiva) y
+ * mongodb.cache.ttlSegundos.
+ *
+ * @param <T> entidad de la coleccion
+ * @author System
+ */
+public class CacheEntidades<T> {
+
+    private static final Map<String, CacheEntidades<?>> CACHES = new ConcurrentHashMap<>();
+    private static final ConfiguracionMongoDB CONFIGURACION = new ConfiguracionMongoDB();
+
+    private final String nombre;
+    private final Codec<T> codec;
+    private final int tamanoMaximo;
+    private final long ttlNanos;
+    private final LinkedHashMap<ObjectId, Entrada> entradas;
+
+    // Cambia con cada invalidacion; una carga que empezo antes no se guarda
+    private long version;
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong desalojos = new AtomicLong();
+    private final AtomicLong expirados = new AtomicLong();
+    private final AtomicLong invalidaciones = new AtomicLong();
+
+    private CacheEntidades(String nombre, Codec<T> codec, int tamanoMaximo, long ttlSegundos) {
+        this.nombre = nombre;
+        this.codec = codec;
+        this.tamanoMaximo = tamanoMaximo;
+        this.ttlNanos = ttlSegundos * 1_000_000_000L;
+        // Orden de acceso: la primera entrada es la menos usada
+        this.entradas = new LinkedHashMap<ObjectId, Entrada>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ObjectId, Entrada> mayor) {
+                if (size() > CacheEntidades.this.tamanoMaximo) {
+                    desalojos.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Cache compartida de la coleccion
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CacheEntidades<T> de(MongoCollection<T> coleccion) {
+        return (CacheEntidades<T>) CACHES.computeIfAbsent(coleccion.getNamespace().getFullName(),
+                nombre -> new CacheEntidades<>(nombre,
+                        coleccion.getCodecRegistry().get(coleccion.getDocumentClass()),
+                        CONFIGURACION.getTamanoCache(), CONFIGURACION.getTtlCacheSegundos()));
+    }
+
+    public boolean isActiva() {
+        return tamanoMaximo > 0 && ttlNanos > 0;
+    }
+
+    /**
+     * Regresa la entidad de la cache o la carga y la guarda
+     *
+     * @param cargar consulta a la base de datos si no esta en cache
+     */
+    public T obtener(ObjectId id, Function<ObjectId, T> cargar) {
+        if (id == null || !isActiva()) {
+            return cargar.apply(id);
+        }
+        BsonDocument documento = buscar(id);
+        if (documento != null) {
+            aciertos.incrementAndGet();
+            return decodificar(documento);
+        }
+
+        fallos.incrementAndGet();
+        long versionCarga = versionActual();
+        T entidad = cargar.apply(id);
+        if (entidad != null) {
+            guardar(id, entidad, versionCarga);
+        }
+        return entidad;
+    }
+
+    /**
+     * Como obtener, para varios ids: solo se consultan los que faltan
+     *
+     * @param cargar consulta de los ids que no estan en cache
+     */
+    public Map<ObjectId, T> obtenerVarios(Collection<ObjectId> ids,
+            Function<Collection<ObjectId>, Map<ObjectId, T>> cargar) {
+        if (ids == null || ids.isEmpty() || !isActiva()) {
+            return cargar.apply(ids);
+        }
+        Map<ObjectId, T> encontrados = new HashMap<>();
+        List<ObjectId> faltantes = new ArrayList<>();
+        for (ObjectId id : ids) {
+            if (id == null || encontrados.containsKey(id)) {
+                continue;
+            }
+            BsonDocument documento = buscar(id);
+            if (documento != null) {
+                aciertos.incrementAndGet();
+                encontrados.put(id, decodificar(documento));
+            } else {
+                faltantes.add(id);
+            }
+        }
+
+        if (!faltantes.isEmpty()) {
+            fallos.addAndGet(faltantes.size());
+            long versionCarga = versionActual();
+            Map<ObjectId, T> cargados = cargar.apply(faltantes);
+            for (Map.Entry<ObjectId, T> cargado : cargados.entrySet()) {
+                guardar(cargado.getKey(), cargado.getValue(), versionCarga);
+            }
+            encontrados.putAll(cargados);
+        }
+        return encontrados;
+    }
+
+    /**
+     * Quita la entidad de la cache; llamarlo despues de escribirla
+     */
+    public synchronized void invalidar(ObjectId id) {
+        version++;
+        if (id != null && entradas.remove(id) != null) {
+            invalidaciones.incrementAndGet();
+        }
+    }
+
+    public synchronized void limpiar() {
+        version++;
+        invalidaciones.addAndGet(entradas.size());
+        entradas.clear();
+    }
+
+    /**
+     * Invalida la entidad en la cache de la coleccion (base.coleccion), si
+     * existe; lo usa el suscriptor de cambios
+     */
+    public static void invalidar(String namespace, ObjectId id) {
+        CacheEntidades<?> cache = CACHES.get(namespace);
+        if (cache != null) {
+            cache.invalidar(id);
+        }
+    }
+
+    public static void limpiarTodas() {
+        for (CacheEntidades<?> cache : CACHES.values()) {
+            cache.limpiar();
+        }
+    }
+
+    public String resumen() {
+        long totalLecturas = aciertos.get() + fallos.get();
+        double tasa = totalLecturas == 0 ? 0 : aciertos.get() * 100.0 / totalLecturas;
+        synchronized (this) {
+            return String.format("Cache %s: %d/%d entradas, %d aciertos, %d fallos (%.1f%% aciertos), "
+                    + "%d desalojos, %d expirados, %d invalidaciones",
+                    nombre, entradas.size(), tamanoMaximo, aciertos.get(), fallos.get(), tasa,
+                    desalojos.get(), expirados.get(), invalidaciones.get());
+        }
+    }
+
+    /**
+     * Resumen de todas las caches creadas
+     */
+    public static String resumenGeneral() {
+        StringBuilder resumen = new StringBuilder();
+        for (CacheEntidades<?> cache : CACHES.values()) {
+            if (resumen.length() > 0) {
+                resumen.append(System.lineSeparator());
+            }
+            resumen.append(cache.resumen());
+        }
+        return resumen.toString();
+    }
+
+    public long getAciertos() {
+        return aciertos.get();
+    }
+
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    public long getDesalojos() {
+        return desalojos.get();
+    }
+
+    private synchronized BsonDocument buscar(ObjectId id) {
+        Entrada entrada = entradas.get(id);
+        if (entrada == null) {
+            return null;
+        }
+        if (System.nanoTime() - entrada.guardada > ttlNanos) {
+            entradas.remove(id);
+            expirados.incrementAndGet();
+            return null;
+        }
+        return entrada.documento;
+    }
+
+    private synchronized long versionActual() {
+        return version;
+    }
+
+    private void guardar(ObjectId id, T entidad, long versionCarga) {
+        BsonDocument documento = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(documento), entidad, EncoderContext.builder().build());
+        synchronized (this) {
+            // Si hubo una escritura mientras se cargaba, lo leido puede ser viejo
+            if (version == versionCarga) {
+                entradas.put(id, new Entrada(documento, System.nanoTime()));
+            }
+        }
+    }
+
+    private T decodificar(BsonDocument documento) {
+        return codec.decode(new BsonDocumentReader(documento), DecoderContext.builder().build());
+    }
+
+    private static class Entrada {
+
+        private final BsonDocument documento;
+        private final long guardada;
+
+        Entrada(BsonDocument documento, long guardada) {
+            this.documento = documento;
+            this.guardada = guardada;
+        }
+    }
+}
@@ -2,89 +2,79 @@ package daos;
 
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import codecs.RegistroCodecs;
 import com.mongodb.client.model.Filters;
 import entities.Cita;
-import org.bson.Document;
 import org.bson.types.ObjectId;
-import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
+import org.bson.conversions.Bson;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * DAO para manejar citas en MongoDB
  */
-public class CitaDAO {
+public class CitaDAO implements ICitaDAO {
 
-    private final MongoCollection<Document> collection;
+    private final MongoCollection<Cita> collection;
 
     public CitaDAO(MongoDatabase database) {
-        this.collection = database.getCollection("citas");
+        this.collection = database.getCollection("citas", Cita.class)
+                .withCodecRegistry(RegistroCodecs.getRegistro());
     }
 
     /**
      * Guarda una nueva cita
      */
+    @Override
     public ObjectId guardar(Cita cita) {
-        Document doc = convertirCitaADocumento(cita);
-        collection.insertOne(doc);
-        return doc.getObjectId("_id");
+        collection.insertOne(cita);
+        return cita.getId();
+    }
+
+    /**
+     * Registra la cita para insertarse al confirmar la unidad de trabajo
+     */
+    @Override
+    public void registrarNueva(UnidadDeTrabajo unidad, Cita cita) {
+        unidad.insertar(collection, cita);
     }
 
     /**
      * Busca una cita por su ID
      */
+    @Override
     public Cita buscarPorId(ObjectId id) {
-        Document doc = collection.find(Filters.eq("_id", id)).first();
-        if (doc == null) {
-            return null;
-        }
-        return convertirDocumentoACita(doc);
+        return collection.find(Filters.eq("_id", id)).first();
     }
 
     /**
      * Busca todas las citas de un usuario
      */
+    @Override
     public List<Cita> buscarPorUsuario(ObjectId idUsuario) {
-        List<Cita> citas = new ArrayList<>();
-        for (Document doc : collection.find(Filters.eq("idUsuario", idUsuario))) {
-            citas.add(convertirDocumentoACita(doc));
-        }
-        return citas;
+        return collection.find(Filters.eq("idUsuario", idUsuario)).into(new ArrayList<>());
     }
 
     /**
-     * Convierte un documento de MongoDB a entidad Cita
+     * Recorre las citas que cumplen el filtro sin cargarlas todas en memoria
+     *
+     * @param lote documentos por lote, 0 para el configurado
+     * @return numero de citas recorridas
      */
-    private Cita convertirDocumentoACita(Document doc) {
-        Cita cita = new Cita();
-        cita.setId(doc.getObjectId("_id"));
-        cita.setIdUsuario(doc.getObjectId("idUsuario"));
-        cita.setIdMascota(doc.getObjectId("idMascota"));
-
-        Date fecha = doc.getDate("fechaHora");
-        if (fecha != null) {
-            cita.setFechaHora(fecha.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime());
-        }
-
-        return cita;
+    @Override
+    public long recorrer(Bson filtro, int lote, Consumer<Cita> consumidor) {
+        return RecorridoCursor.recorrer(collection.find(filtro), lote, consumidor);
     }
 
     /**
-     * Convierte una entidad Cita a documento de MongoDB
+     * Stream de las citas que cumplen el filtro; cerrarlo al terminar
+     *
+     * @param lote documentos por lote, 0 para el configurado
      */
-    private Document convertirCitaADocumento(Cita cita) {
-        Document doc = new Document();
-        if (cita.getId() != null) {
-            doc.append("_id", cita.getId());
-        }
-        doc.append("idUsuario", cita.getIdUsuario())
-                .append("idMascota", cita.getIdMascota());
-
-        if (cita.getFechaHora() != null) {
-            doc.append("fechaHora", Date.from(cita.getFechaHora().atZone(ZoneId.systemDefault()).toInstant()));
-        }
-
-        return doc;
+    @Override
+    public Stream<Cita> flujo(Bson filtro, int lote) {
+        return RecorridoCursor.flujo(collection.find(filtro), lote);
     }
 }
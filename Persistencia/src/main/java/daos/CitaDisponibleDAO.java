@@ -1,29 +1,39 @@
 package daos;
 
+import codecs.RegistroCodecs;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.CountOptions;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
 import com.mongodb.client.model.Updates;
 import entities.CitaDisponible;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * DAO para gestionar citas disponibles en MongoDB
  * 
  * @author Sistema
  */
-public class CitaDisponibleDAO {
-    private final MongoDatabase database;
-    private final MongoCollection<Document> coleccion;
+public class CitaDisponibleDAO implements ICitaDisponibleDAO {
+    private final MongoCollection<CitaDisponible> coleccion;
 
     public CitaDisponibleDAO() {
-        this.database = conexion.ConexionMongoDB.getInstancia().getDatabase();
-        this.coleccion = database.getCollection("citasDisponibles");
+        this(conexion.ConexionMongoDB.getInstancia().getDatabase());
+    }
+
+    public CitaDisponibleDAO(MongoDatabase database) {
+        this.coleccion = database.getCollection("citasDisponibles", CitaDisponible.class)
+                .withCodecRegistry(RegistroCodecs.getRegistro());
     }
 
     /**
@@ -31,6 +41,7 @@ public class CitaDisponibleDAO {
      * 
      * @return Lista de citas disponibles
      */
+    @Override
     public List<CitaDisponible> obtenerCitasDisponibles() {
         List<CitaDisponible> citas = new ArrayList<>();
 
@@ -38,10 +49,7 @@ public class CitaDisponibleDAO {
             // Filtrar solo las citas disponibles
             coleccion.find(Filters.eq("disponible", true))
                     .sort(new Document("fecha", 1).append("hora", 1))
-                    .forEach(doc -> {
-                        CitaDisponible cita = documentToEntity(doc);
-                        citas.add(cita);
-                    });
+                    .into(citas);
         } catch (Exception e) {
             System.err.println("Error al obtener citas disponibles: " + e.getMessage());
             e.printStackTrace();
@@ -51,25 +59,52 @@ public class CitaDisponibleDAO {
     }
 
     /**
-     * Marca una cita como ocupada
+     * Reserva la cita solo si sigue disponible. El filtro y la actualizacion
+     * van en una sola operacion atomica, asi dos usuarios no pueden quedarse
+     * con la misma cita.
+     * 
+     * @param idCita    ID de la cita
+     * @param idUsuario ID del usuario que reserva
+     * @return RESERVADA, OCUPADA si alguien mas la tomo o NO_EXISTE
+     */
+    @Override
+    public ResultadoReserva reservarCita(String idCita, String idUsuario) {
+        if (idCita == null || !ObjectId.isValid(idCita)) {
+            throw new IllegalArgumentException("ID de cita invalido: " + idCita);
+        }
+        if (idUsuario != null && !ObjectId.isValid(idUsuario)) {
+            throw new IllegalArgumentException("ID de usuario invalido: " + idUsuario);
+        }
+        ObjectId citaObjId = new ObjectId(idCita);
+        ObjectId usuarioObjId = idUsuario != null ? new ObjectId(idUsuario) : null;
+
+        CitaDisponible reservada = coleccion.findOneAndUpdate(
+                Filters.and(
+                        Filters.eq("_id", citaObjId),
+                        Filters.eq("disponible", true)),
+                Updates.combine(
+                        Updates.set("disponible", false),
+                        Updates.set("idUsuario", usuarioObjId)),
+                new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+        if (reservada != null) {
+            return ResultadoReserva.RESERVADA;
+        }
+        // Solo cuando no se pudo reservar: distinguir ocupada de inexistente
+        boolean existe = coleccion.countDocuments(Filters.eq("_id", citaObjId), new CountOptions().limit(1)) > 0;
+        return existe ? ResultadoReserva.OCUPADA : ResultadoReserva.NO_EXISTE;
+    }
+
+    /**
+     * Marca una cita como ocupada si sigue disponible
      * 
      * @param idCita    ID de la cita
      * @param idUsuario ID del usuario que reserva
-     * @return true si se marcó exitosamente
+     * @return true si se marcó exitosamente, false si ya estaba ocupada
      */
+    @Override
     public boolean marcarCitaOcupada(String idCita, String idUsuario) {
         try {
-            ObjectId citaObjId = new ObjectId(idCita);
-            ObjectId usuarioObjId = idUsuario != null ? new ObjectId(idUsuario) : null;
-
-            // Actualizar disponibilidad y asignar usuario
-            coleccion.updateOne(
-                    Filters.eq("_id", citaObjId),
-                    Updates.combine(
-                            Updates.set("disponible", false),
-                            Updates.set("idUsuario", usuarioObjId)));
-
-            return true;
+            return reservarCita(idCita, idUsuario) == ResultadoReserva.RESERVADA;
         } catch (Exception e) {
             System.err.println("Error al marcar cita como ocupada: " + e.getMessage());
             e.printStackTrace();
@@ -83,6 +118,7 @@ public class CitaDisponibleDAO {
      * @param idCita ID de la cita
      * @return true si se liberó exitosamente
      */
+    @Override
     public boolean liberarCita(String idCita) {
         try {
             ObjectId citaObjId = new ObjectId(idCita);
@@ -107,16 +143,17 @@ public class CitaDisponibleDAO {
      * @param idCita ID de la cita
      * @return true si está disponible
      */
+    @Override
     public boolean estaCitaDisponible(String idCita) {
         try {
             ObjectId citaObjId = new ObjectId(idCita);
-            Document doc = coleccion.find(
+            CitaDisponible cita = coleccion.find(
                     Filters.and(
                             Filters.eq("_id", citaObjId),
                             Filters.eq("disponible", true)))
                     .first();
 
-            return doc != null;
+            return cita != null;
         } catch (Exception e) {
             System.err.println("Error al verificar disponibilidad de cita: " + e.getMessage());
             return false;
@@ -124,30 +161,23 @@ public class CitaDisponibleDAO {
     }
 
     /**
-     * Convierte un Document de MongoDB a una entidad CitaDisponible
+     * Recorre las citas disponibles que cumplen el filtro sin cargarlas todas en memoria
+     *
+     * @param lote documentos por lote, 0 para el configurado
+     * @return numero de citas disponibles recorridas
      */
-    private CitaDisponible documentToEntity(Document doc) {
-        CitaDisponible cita = new CitaDisponible();
-        cita.setId(doc.getObjectId("_id"));
-        cita.setFecha(doc.getDate("fecha"));
-        cita.setHora(doc.getString("hora"));
-        cita.setDisponible(doc.getBoolean("disponible", true));
-        cita.setIdUsuario(doc.getObjectId("idUsuario"));
-        return cita;
+    @Override
+    public long recorrer(Bson filtro, int lote, Consumer<CitaDisponible> consumidor) {
+        return RecorridoCursor.recorrer(coleccion.find(filtro), lote, consumidor);
     }
 
     /**
-     * Convierte una entidad CitaDisponible a un Document de MongoDB
+     * Stream de las citas disponibles que cumplen el filtro; cerrarlo al terminar
+     *
+     * @param lote documentos por lote, 0 para el configurado
      */
-    private Document entityToDocument(CitaDisponible cita) {
-        Document doc = new Document();
-        if (cita.getId() != null) {
-            doc.append("_id", cita.getId());
-        }
-        doc.append("fecha", cita.getFecha());
-        doc.append("hora", cita.getHora());
-        doc.append("disponible", cita.isDisponible());
-        doc.append("idUsuario", cita.getIdUsuario());
-        return doc;
+    @Override
+    public Stream<CitaDisponible> flujo(Bson filtro, int lote) {
+        return RecorridoCursor.flujo(coleccion.find(filtro), lote);
     }
 }
@@ -0,0 +1,59 @@
+package daos;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Busqueda de varios documentos por _id en una sola consulta $in. Las
+ * listas muy grandes se parten en bloques para no rebasar el tamano maximo
+ * de un comando.
+ *
+ * @author System
+ */
+public final class ConsultaPorIds {
+
+    public static final int TAMANO_BLOQUE = 1000;
+
+    private ConsultaPorIds() {
+    }
+
+    /**
+     * Busca los documentos con los ids dados. Los ids nulos o repetidos se
+     * ignoran y los que no existen simplemente no aparecen en el mapa.
+     *
+     * @param campo     campo a comparar, normalmente "_id"
+     * @param obtenerId como sacar la llave del mapa de cada documento
+     */
+    public static <T> Map<ObjectId, T> buscar(MongoCollection<T> coleccion, String campo,
+            Collection<ObjectId> ids, Function<T, ObjectId> obtenerId) {
+        Map<ObjectId, T> encontrados = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return encontrados;
+        }
+
+        List<ObjectId> unicos = new ArrayList<>(new LinkedHashSet<>(ids));
+        unicos.remove(null);
+
+        for (int inicio = 0; inicio < unicos.size(); inicio += TAMANO_BLOQUE) {
+            List<ObjectId> bloque = unicos.subList(inicio, Math.min(inicio + TAMANO_BLOQUE, unicos.size()));
+            try (MongoCursor<T> cursor = coleccion.find(Filters.in(campo, bloque))
+                    .batchSize(bloque.size()).iterator()) {
+                while (cursor.hasNext()) {
+                    T documento = cursor.next();
+                    encontrados.put(obtenerId.apply(documento), documento);
+                }
+            }
+        }
+        return encontrados;
+    }
+}
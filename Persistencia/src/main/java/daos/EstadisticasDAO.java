@@ -0,0 +1,137 @@
+package daos;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Facet;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import entities.EstadisticasAdmin;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estadisticas del tablero del administrador en una sola agregacion: se
+ * parte de mascotas, se agregan solicitudes y citasDisponibles con
+ * $unionWith (cada documento marcado con su origen y solo con los campos
+ * que se cuentan) y un $facet saca todos los conteos en un viaje. Nada se
+ * carga en Java salvo el documento con los resultados.
+ *
+ * Requiere MongoDB 4.4 o superior ($unionWith).
+ *
+ * @author System
+ */
+public class EstadisticasDAO implements IEstadisticasDAO {
+
+    private static final String ORIGEN = "origen";
+    private static final String MASCOTA = "m";
+    private static final String SOLICITUD = "s";
+    private static final String CITA = "c";
+
+    private final MongoCollection<Document> mascotas;
+
+    public EstadisticasDAO(MongoDatabase database) {
+        this.mascotas = database.getCollection("mascotas");
+    }
+
+    @Override
+    public EstadisticasAdmin calcular(int semanas) {
+        LocalDate desde = EstadisticasAdmin.inicioSemanas(semanas);
+        Date desdeFecha = Date.from(desde.atStartOfDay(ZoneOffset.UTC).toInstant());
+
+        Document resultado = mascotas.aggregate(List.of(
+                Aggregates.project(new Document("_id", 0)
+                        .append(ORIGEN, new Document("$literal", MASCOTA))
+                        .append("estado", estadoMascota())
+                        .append("especie", new Document("$ifNull", List.of("$especie", SIN_DATO)))
+                        .append("disponible", new Document("$eq", List.of("$disponible", true)))),
+                Aggregates.unionWith("solicitudes", List.of(Aggregates.project(new Document("_id", 0)
+                        .append(ORIGEN, new Document("$literal", SOLICITUD))
+                        .append("estado", minusculas("$estado"))
+                        .append("fechaSolicitud", 1)))),
+                Aggregates.unionWith("citasDisponibles", List.of(Aggregates.project(new Document("_id", 0)
+                        .append(ORIGEN, new Document("$literal", CITA))
+                        .append("disponible", new Document("$eq", List.of("$disponible", true)))))),
+                Aggregates.facet(
+                        new Facet("mascotasPorEstado", de(MASCOTA), Aggregates.sortByCount("$estado")),
+                        new Facet("mascotasPorEspecie", de(MASCOTA), Aggregates.sortByCount("$especie")),
+                        new Facet("mascotasPorDisponible", de(MASCOTA), Aggregates.sortByCount("$disponible")),
+                        new Facet("solicitudesPorEstado", de(SOLICITUD), Aggregates.sortByCount("$estado")),
+                        new Facet("citasPorDisponible", de(CITA), Aggregates.sortByCount("$disponible")),
+                        new Facet("adopcionesPorSemana",
+                                Aggregates.match(Filters.and(
+                                        Filters.eq(ORIGEN, SOLICITUD),
+                                        Filters.eq("estado", ESTADO_APROBADA),
+                                        Filters.gte("fechaSolicitud", desdeFecha))),
+                                Aggregates.group(new Document("anio", new Document("$isoWeekYear", "$fechaSolicitud"))
+                                        .append("semana", new Document("$isoWeek", "$fechaSolicitud")),
+                                        Accumulators.sum("count", 1)),
+                                Aggregates.sort(Sorts.ascending("_id.anio", "_id.semana"))))))
+                .first();
+
+        EstadisticasAdmin estadisticas = new EstadisticasAdmin();
+        estadisticas.setCalculadoEn(LocalDateTime.now());
+        estadisticas.iniciarSemanas(desde);
+        if (resultado == null) {
+            return estadisticas;
+        }
+        estadisticas.setMascotasPorEstado(conteos(resultado, "mascotasPorEstado"));
+        estadisticas.setMascotasPorEspecie(conteos(resultado, "mascotasPorEspecie"));
+        Map<String, Long> disponibles = conteos(resultado, "mascotasPorDisponible");
+        estadisticas.setMascotasDisponibles(disponibles.getOrDefault("true", 0L));
+        estadisticas.setMascotasNoDisponibles(disponibles.getOrDefault("false", 0L));
+        estadisticas.setSolicitudesPorEstado(conteos(resultado, "solicitudesPorEstado"));
+        Map<String, Long> citas = conteos(resultado, "citasPorDisponible");
+        estadisticas.setCitasLibres(citas.getOrDefault("true", 0L));
+        estadisticas.setCitasReservadas(citas.getOrDefault("false", 0L));
+
+        for (Document semana : resultado.getList("adopcionesPorSemana", Document.class)) {
+            Document id = semana.get("_id", Document.class);
+            estadisticas.getAdopcionesPorSemana().put(
+                    EstadisticasAdmin.etiquetaSemana(((Number) id.get("anio")).intValue(),
+                            ((Number) id.get("semana")).intValue()),
+                    ((Number) semana.get("count")).longValue());
+        }
+        return estadisticas;
+    }
+
+    private static Bson de(String origen) {
+        return Aggregates.match(Filters.eq(ORIGEN, origen));
+    }
+
+    /**
+     * Las bajas guardan "BAJA: motivo | Prev: estado"; se cuentan juntas sin
+     * importar mayusculas, igual que el filtro de archivadas
+     */
+    private static Document estadoMascota() {
+        return new Document("$cond", List.of(
+                new Document("$regexMatch", new Document("input", new Document("$ifNull", List.of("$estado", "")))
+                        .append("regex", "^BAJA").append("options", "i")),
+                ESTADO_BAJA,
+                minusculas("$estado")));
+    }
+
+    private static Document minusculas(String campo) {
+        return new Document("$toLower", new Document("$ifNull", List.of(campo, SIN_DATO)));
+    }
+
+    /**
+     * Resultado de un $sortByCount: [{_id: valor, count: n}], ya ordenado
+     */
+    private static Map<String, Long> conteos(Document resultado, String faceta) {
+        Map<String, Long> conteos = new LinkedHashMap<>();
+        for (Document grupo : resultado.getList(faceta, Document.class)) {
+            conteos.put(String.valueOf(grupo.get("_id")), ((Number) grupo.get("count")).longValue());
+        }
+        return conteos;
+    }
+}
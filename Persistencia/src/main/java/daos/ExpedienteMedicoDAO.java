@@ -1,21 +1,27 @@
 
 package daos;
 
+import codecs.RegistroCodecs;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import conexion.MigradorExpedientes;
 import entities.ExpedienteMedico;
-import org.bson.Document;
 import org.bson.types.ObjectId;
+import org.bson.conversions.Bson;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * DAO para gestionar expedientes médicos en MongoDB
  * 
  * @author angel
  */
-public class ExpedienteMedicoDAO {
+public class ExpedienteMedicoDAO implements IExpedienteMedicoDAO {
 
-    private final MongoCollection<Document> collection;
+    private final MongoCollection<ExpedienteMedico> collection;
 
     /**
      * Constructor del DAO de ExpedienteMedico
@@ -23,7 +29,10 @@ public class ExpedienteMedicoDAO {
      * @param database Base de datos MongoDB a utilizar
      */
     public ExpedienteMedicoDAO(MongoDatabase database) {
-        this.collection = database.getCollection("expedientes_medicos");
+        this.collection = database.getCollection("expedientes_medicos", ExpedienteMedico.class)
+                .withCodecRegistry(RegistroCodecs.getRegistro());
+        // Con la migracion registrada como terminada, filtroPorMascota deja el $or
+        MigradorExpedientes.iniciarEnSegundoPlano(database);
     }
 
     /**
@@ -32,114 +41,93 @@ public class ExpedienteMedicoDAO {
      * @param expediente Expediente médico a guardar
      * @return ObjectId generado para el expediente guardado
      */
+    @Override
     public ObjectId guardar(ExpedienteMedico expediente) {
-        Document doc = expedienteToDocument(expediente);
-        collection.insertOne(doc);
-        return doc.getObjectId("_id");
+        collection.insertOne(expediente);
+        expediente.limpiarCambios();
+        return expediente.getId();
     }
 
     /**
-     * Busca un expediente por el ID de la mascota
+     * Guarda un lote de expedientes con un solo insertMany sin orden
      * 
-     * @param mascotaId ObjectId de la mascota
-     * @return Expediente médico encontrado o null si no existe
+     * @param expedientes Expedientes a guardar, con su mascotaId ya asignado
      */
+    @Override
+    public void guardarTodos(List<ExpedienteMedico> expedientes) {
+        if (expedientes == null || expedientes.isEmpty()) {
+            return;
+        }
+        collection.insertMany(expedientes, new InsertManyOptions().ordered(false));
+        for (ExpedienteMedico expediente : expedientes) {
+            expediente.limpiarCambios();
+        }
+    }
+
     /**
-     * Busca un expediente por el ID de la mascota
-     * Soporta tanto esquema antiguo (mascotaId: ObjectId) como nuevo (idMascota:
-     * String)
+     * Busca un expediente por el ID de la mascota (igualdad sobre mascotaId)
      * 
      * @param mascotaId ObjectId de la mascota
      * @return Expediente médico encontrado o null si no existe
      */
+    @Override
     public ExpedienteMedico buscarPorMascotaId(ObjectId mascotaId) {
-        System.out.println("DEBUG DAO: Buscando expediente para MascotaID (ObjectId): " + mascotaId);
-        System.out.println("DEBUG DAO: Buscando expediente para idMascota (String): " + mascotaId.toHexString());
-
-        // Buscar por ambos campos posibles
-        Document doc = collection.find(Filters.or(
-                Filters.eq("mascotaId", mascotaId),
-                Filters.eq("idMascota", mascotaId.toHexString()))).first();
-
-        if (doc == null) {
-            System.out.println("DEBUG DAO: No se encontró ningún expediente.");
+        if (mascotaId == null) {
             return null;
         }
-        System.out.println("DEBUG DAO: Expediente encontrado! ID: " + doc.get("_id"));
-        return documentToExpediente(doc);
+        return collection.find(filtroPorMascota(mascotaId)).first();
     }
 
     /**
-     * Actualiza un expediente médico existente
+     * Filtro por mascota para expedientes_medicos: igualdad sobre mascotaId.
+     * Mientras la migracion no termina (segun migraciones, leido al crear el
+     * DAO) tambien encuentra los expedientes que guardan el id como String,
+     * en mascotaId o en idMascota.
      * 
-     * @param expediente Expediente con datos actualizados
+     * @param mascotaId ObjectId de la mascota
+     * @return Filtro para find, replaceOne o deleteOne
      */
-    public void actualizar(ExpedienteMedico expediente) {
-        if (expediente.getId() != null) {
-            Document doc = expedienteToDocument(expediente);
-            collection.replaceOne(Filters.eq("_id", expediente.getId()), doc);
+    public static Bson filtroPorMascota(ObjectId mascotaId) {
+        if (MigradorExpedientes.isTerminada()) {
+            return Filters.eq("mascotaId", mascotaId);
         }
+        String hex = mascotaId.toHexString();
+        return Filters.or(Filters.in("mascotaId", mascotaId, hex), Filters.eq("idMascota", hex));
     }
 
     /**
-     * Convierte un Document de MongoDB a una entidad ExpedienteMedico
+     * Actualiza un expediente médico existente, escribiendo con $set solo
+     * los campos modificados
      * 
-     * @param doc Document de MongoDB
-     * @return Entidad ExpedienteMedico
+     * @param expediente Expediente con datos actualizados
      */
-    private ExpedienteMedico documentToExpediente(Document doc) {
-        ExpedienteMedico expediente = new ExpedienteMedico();
-        expediente.setId(doc.getObjectId("_id"));
-
-        // Manejo híbrido de ID de mascota
-        if (doc.containsKey("mascotaId")) {
-            expediente.setMascotaId(doc.getObjectId("mascotaId"));
-        } else if (doc.containsKey("idMascota")) {
-            try {
-                expediente.setMascotaId(new ObjectId(doc.getString("idMascota")));
-            } catch (Exception e) {
-                // Si falla conversión, loguear pero continuar (id será null)
-                System.err.println("Error convirtiendo idMascota string a ObjectId: " + doc.getString("idMascota"));
-            }
+    @Override
+    public void actualizar(ExpedienteMedico expediente) {
+        if (expediente.getId() != null && expediente.hayCambios()) {
+            collection.updateOne(Filters.eq("_id", expediente.getId()),
+                    RegistroCodecs.EXPEDIENTE.actualizacionParcial(expediente, expediente.getCamposModificados()));
+            expediente.limpiarCambios();
         }
+    }
 
-        expediente.setCondicion(doc.getString("condicion"));
-        expediente.setNivelEnergia(doc.getString("nivelEnergia"));
-        expediente.setVacunaRabia(doc.getBoolean("vacunaRabia", false));
-        expediente.setVacunaDesparasitacionExterna(doc.getBoolean("vacunaDesparasitacionExterna", false));
-        expediente.setVacunaBordetella(doc.getBoolean("vacunaBordetella", false));
-        expediente.setVacunaDesparasitacionInterna(doc.getBoolean("vacunaDesparasitacionInterna", false));
-        expediente.setVacunaMultiple(doc.getBoolean("vacunaMultiple", false));
-        expediente.setEsterilizado(doc.getBoolean("esterilizado", false));
-        expediente.setAlergias(doc.getString("alergias"));
-        expediente.setCondicionesEspeciales(doc.getString("condicionesEspeciales"));
-        return expediente;
+    /**
+     * Recorre los expedientes que cumplen el filtro sin cargarlos todos en memoria
+     *
+     * @param lote documentos por lote, 0 para el configurado
+     * @return numero de expedientes recorridos
+     */
+    @Override
+    public long recorrer(Bson filtro, int lote, Consumer<ExpedienteMedico> consumidor) {
+        return RecorridoCursor.recorrer(collection.find(filtro), lote, consumidor);
     }
 
     /**
-     * Convierte una entidad ExpedienteMedico a un Document de MongoDB
-     * 
-     * @param expediente Entidad a convertir
-     * @return Document para MongoDB
+     * Stream de los expedientes que cumplen el filtro; cerrarlo al terminar
+     *
+     * @param lote documentos por lote, 0 para el configurado
      */
-    private Document expedienteToDocument(ExpedienteMedico expediente) {
-        Document doc = new Document();
-        if (expediente.getId() != null) {
-            doc.append("_id", expediente.getId());
-        }
-        // Guardar ambos estilos para máxima compatibilidad
-        doc.append("mascotaId", expediente.getMascotaId())
-                .append("idMascota", expediente.getMascotaId() != null ? expediente.getMascotaId().toString() : null)
-                .append("condicion", expediente.getCondicion())
-                .append("nivelEnergia", expediente.getNivelEnergia())
-                .append("vacunaRabia", expediente.isVacunaRabia())
-                .append("vacunaDesparasitacionExterna", expediente.isVacunaDesparasitacionExterna())
-                .append("vacunaBordetella", expediente.isVacunaBordetella())
-                .append("vacunaDesparasitacionInterna", expediente.isVacunaDesparasitacionInterna())
-                .append("vacunaMultiple", expediente.isVacunaMultiple())
-                .append("esterilizado", expediente.isEsterilizado())
-                .append("alergias", expediente.getAlergias())
-                .append("condicionesEspeciales", expediente.getCondicionesEspeciales());
-        return doc;
+    @Override
+    public Stream<ExpedienteMedico> flujo(Bson filtro, int lote) {
+        return RecorridoCursor.flujo(collection.find(filtro), lote);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,106 @@
+package daos;
+
+import conexion.ConexionMongoDB;
+import conexion.ConfiguracionMongoDB;
+import memoria.AlmacenMemoria;
+import memoria.AuditoriaSolicitudDAOMemoria;
+import memoria.CitaDAOMemoria;
+import memoria.CitaDisponibleDAOMemoria;
+import memoria.EstadisticasDAOMemoria;
+import memoria.ExpedienteMedicoDAOMemoria;
+import memoria.MascotaDAOMemoria;
+import memoria.MetricasDiariasDAOMemoria;
+import memoria.SolicitudAdopcionDAOMemoria;
+import memoria.UsuarioDAOMemoria;
+import metricas.DAOsMedidos;
+
+/**
+ * Crea los DAOs del motor configurado en persistencia.motor: mongodb (por
+ * defecto) o memoria. Con memoria no se abre ninguna conexion a MongoDB.
+ * Cada DAO se entrega envuelto en DAOsMedidos para medir sus metodos.
+ *
+ * @author System
+ */
+public final class FabricaDAOs {
+
+    public static final String MOTOR_MONGODB = "mongodb";
+    public static final String MOTOR_MEMORIA = "memoria";
+
+    private static final boolean EN_MEMORIA = leerMotor();
+
+    private FabricaDAOs() {
+    }
+
+    /**
+     * true si los DAOs usan el almacen en memoria
+     */
+    public static boolean isEnMemoria() {
+        return EN_MEMORIA;
+    }
+
+    public static IMascotaDAO mascotas() {
+        IMascotaDAO dao = EN_MEMORIA ? new MascotaDAOMemoria(AlmacenMemoria.getInstancia())
+                : new MascotaDAO(ConexionMongoDB.getInstancia().getDatabase());
+        return DAOsMedidos.envolver(IMascotaDAO.class, dao);
+    }
+
+    public static IUsuarioDAO usuarios() {
+        IUsuarioDAO dao = EN_MEMORIA ? new UsuarioDAOMemoria(AlmacenMemoria.getInstancia())
+                : new UsuarioDAO(ConexionMongoDB.getInstancia().getDatabase());
+        return DAOsMedidos.envolver(IUsuarioDAO.class, dao);
+    }
+
+    public static ISolicitudAdopcionDAO solicitudes() {
+        ISolicitudAdopcionDAO dao = EN_MEMORIA ? new SolicitudAdopcionDAOMemoria(AlmacenMemoria.getInstancia())
+                : new SolicitudAdopcionDAO(ConexionMongoDB.getInstancia().getDatabase());
+        return DAOsMedidos.envolver(ISolicitudAdopcionDAO.class, dao);
+    }
+
+    public static ICitaDAO citas() {
+        ICitaDAO dao = EN_MEMORIA ? new CitaDAOMemoria(AlmacenMemoria.getInstancia())
+                : new CitaDAO(ConexionMongoDB.getInstancia().getDatabase());
+        return DAOsMedidos.envolver(ICitaDAO.class, dao);
+    }
+
+    public static ICitaDisponibleDAO citasDisponibles() {
+        ICitaDisponibleDAO dao = EN_MEMORIA ? new CitaDisponibleDAOMemoria(AlmacenMemoria.getInstancia())
+                : new CitaDisponibleDAO(ConexionMongoDB.getInstancia().getDatabase());
+        return DAOsMedidos.envolver(ICitaDisponibleDAO.class, dao);
+    }
+
+    public static IExpedienteMedicoDAO expedientes() {
+        IExpedienteMedicoDAO dao = EN_MEMORIA ? new ExpedienteMedicoDAOMemoria(AlmacenMemoria.getInstancia())
+                : new ExpedienteMedicoDAO(ConexionMongoDB.getInstancia().getDatabase());
+        return DAOsMedidos.envolver(IExpedienteMedicoDAO.class, dao);
+    }
+
+    public static IEstadisticasDAO estadisticas() {
+        IEstadisticasDAO dao = EN_MEMORIA ? new EstadisticasDAOMemoria(AlmacenMemoria.getInstancia())
+                : new EstadisticasDAO(ConexionMongoDB.getInstancia().getDatabase());
+        return DAOsMedidos.envolver(IEstadisticasDAO.class, dao);
+    }
+
+    public static IAuditoriaSolicitudDAO auditoriaSolicitudes() {
+        IAuditoriaSolicitudDAO dao = EN_MEMORIA ? new AuditoriaSolicitudDAOMemoria(AlmacenMemoria.getInstancia())
+                : new AuditoriaSolicitudDAO(ConexionMongoDB.getInstancia().getDatabase());
+        return DAOsMedidos.envolver(IAuditoriaSolicitudDAO.class, dao);
+    }
+
+    public static IMetricasDiariasDAO metricasDiarias() {
+        IMetricasDiariasDAO dao = EN_MEMORIA ? new MetricasDiariasDAOMemoria(AlmacenMemoria.getInstancia())
+                : new MetricasDiariasDAO(ConexionMongoDB.getInstancia().getDatabase());
+        return DAOsMedidos.envolver(IMetricasDiariasDAO.class, dao);
+    }
+
+    private static boolean leerMotor() {
+        String motor = new ConfiguracionMongoDB().getMotorPersistencia();
+        if (MOTOR_MEMORIA.equals(motor)) {
+            System.out.println("Persistencia en memoria (persistencia.motor=memoria)");
+            return true;
+        }
+        if (!MOTOR_MONGODB.equals(motor)) {
+            throw new IllegalArgumentException("Motor de persistencia desconocido: " + motor);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,48 @@
+package daos;
+
+import entities.AuditoriaSolicitud;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import paginacion.Pagina;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bitacora de solo escritura de los cambios de estado de las solicitudes;
+ * lo implementan AuditoriaSolicitudDAO (MongoDB) y
+ * memoria.AuditoriaSolicitudDAOMemoria. Las paginas van del registro mas
+ * reciente al mas antiguo.
+ *
+ * @author System
+ */
+public interface IAuditoriaSolicitudDAO {
+
+    /**
+     * Inserta un lote en una sola escritura. Los registros ya traen su _id,
+     * asi que reintentar un lote que se escribio a medias no los duplica.
+     */
+    void guardarTodos(List<AuditoriaSolicitud> registros);
+
+    /**
+     * Historial de una solicitud
+     *
+     * @param despuesDe cursor de la pagina anterior, null para la primera
+     */
+    Pagina<AuditoriaSolicitud> buscarPorSolicitud(ObjectId idSolicitud, String despuesDe, int tamano);
+
+    /**
+     * Acciones de un administrador
+     *
+     * @param despuesDe cursor de la pagina anterior, null para la primera
+     */
+    Pagina<AuditoriaSolicitud> buscarPorAdmin(String idAdmin, String despuesDe, int tamano);
+
+    /**
+     * Recorre los registros que cumplen el filtro sin cargarlos todos
+     *
+     * @param lote documentos por lote, 0 para el configurado
+     * @return numero de registros recorridos
+     */
+    long recorrer(Bson filtro, int lote, Consumer<AuditoriaSolicitud> consumidor);
+}
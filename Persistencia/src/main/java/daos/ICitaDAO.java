@@ -0,0 +1,33 @@
+package daos;
+
+import entities.Cita;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Repositorio de citas; lo implementan CitaDAO (MongoDB) y
+ * memoria.CitaDAOMemoria
+ *
+ * @author System
+ */
+public interface ICitaDAO {
+
+    ObjectId guardar(Cita cita);
+
+    /**
+     * Registra la cita para insertarse al confirmar la unidad de trabajo
+     */
+    void registrarNueva(UnidadDeTrabajo unidad, Cita cita);
+
+    Cita buscarPorId(ObjectId id);
+
+    List<Cita> buscarPorUsuario(ObjectId idUsuario);
+
+    long recorrer(Bson filtro, int lote, Consumer<Cita> consumidor);
+
+    Stream<Cita> flujo(Bson filtro, int lote);
+}
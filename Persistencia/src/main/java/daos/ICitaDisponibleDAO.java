@@ -0,0 +1,36 @@
+package daos;
+
+import entities.CitaDisponible;
+import org.bson.conversions.Bson;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Repositorio de citas disponibles; lo implementan CitaDisponibleDAO
+ * (MongoDB) y memoria.CitaDisponibleDAOMemoria
+ *
+ * @author System
+ */
+public interface ICitaDisponibleDAO {
+
+    List<CitaDisponible> obtenerCitasDisponibles();
+
+    /**
+     * Reserva la cita solo si sigue disponible, de forma atomica
+     *
+     * @return RESERVADA, OCUPADA si alguien mas la tomo o NO_EXISTE
+     */
+    ResultadoReserva reservarCita(String idCita, String idUsuario);
+
+    boolean marcarCitaOcupada(String idCita, String idUsuario);
+
+    boolean liberarCita(String idCita);
+
+    boolean estaCitaDisponible(String idCita);
+
+    long recorrer(Bson filtro, int lote, Consumer<CitaDisponible> consumidor);
+
+    Stream<CitaDisponible> flujo(Bson filtro, int lote);
+}
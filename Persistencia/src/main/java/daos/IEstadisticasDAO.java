@@ -0,0 +1,33 @@
+package daos;
+
+import entities.EstadisticasAdmin;
+
+/**
+ * Estadisticas del tablero del administrador; lo implementan
+ * EstadisticasDAO (MongoDB) y memoria.EstadisticasDAOMemoria
+ *
+ * @author System
+ */
+public interface IEstadisticasDAO {
+
+    /**
+     * Estado, en minusculas, de una solicitud aprobada por el administrador
+     */
+    String ESTADO_APROBADA = "aprobada";
+
+    /**
+     * Las mascotas dadas de baja guardan "BAJA: motivo | Prev: estado"; se
+     * cuentan juntas con este estado
+     */
+    String ESTADO_BAJA = "baja";
+
+    /**
+     * Valor con el que se cuentan los campos vacios
+     */
+    String SIN_DATO = "sin dato";
+
+    /**
+     * @param semanas cuantas semanas hacia atras se cuentan las adopciones
+     */
+    EstadisticasAdmin calcular(int semanas);
+}
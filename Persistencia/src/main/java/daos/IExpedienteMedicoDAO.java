@@ -0,0 +1,33 @@
+package daos;
+
+import entities.ExpedienteMedico;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Repositorio de expedientes medicos; lo implementan ExpedienteMedicoDAO
+ * (MongoDB) y memoria.ExpedienteMedicoDAOMemoria
+ *
+ * @author System
+ */
+public interface IExpedienteMedicoDAO {
+
+    ObjectId guardar(ExpedienteMedico expediente);
+
+    /**
+     * Inserta un lote de expedientes en una sola escritura
+     */
+    void guardarTodos(List<ExpedienteMedico> expedientes);
+
+    ExpedienteMedico buscarPorMascotaId(ObjectId mascotaId);
+
+    void actualizar(ExpedienteMedico expediente);
+
+    long recorrer(Bson filtro, int lote, Consumer<ExpedienteMedico> consumidor);
+
+    Stream<ExpedienteMedico> flujo(Bson filtro, int lote);
+}
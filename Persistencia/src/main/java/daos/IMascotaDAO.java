@@ -0,0 +1,94 @@
+package daos;
+
+import entities.Mascota;
+import entities.MascotaResumen;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import paginacion.Pagina;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Repositorio de mascotas; lo implementan MascotaDAO (MongoDB) y
+ * memoria.MascotaDAOMemoria
+ *
+ * @author System
+ */
+public interface IMascotaDAO {
+
+    /**
+     * Campos del indice de texto y su peso en el puntaje de buscarTexto
+     */
+    Map<String, Integer> PESOS_TEXTO = Map.of(
+            "nombre", 10,
+            "raza", 6,
+            "color", 4,
+            "personalidad", 4,
+            "descripcion", 1);
+
+    /**
+     * Idioma del indice de texto (palabras vacias y raices)
+     */
+    String IDIOMA_TEXTO = "spanish";
+
+    ObjectId guardar(Mascota mascota);
+
+    /**
+     * Inserta un lote de mascotas en una sola escritura; las que no traen
+     * _id reciben uno
+     */
+    void guardarTodas(List<Mascota> mascotas);
+
+    Mascota buscarPorId(ObjectId id);
+
+    Map<ObjectId, Mascota> buscarPorIds(Collection<ObjectId> ids);
+
+    List<Mascota> buscarTodas();
+
+    List<Mascota> buscarDisponibles();
+
+    List<Mascota> buscarPorDisponibilidad(boolean disponible);
+
+    List<Mascota> buscarDisponiblesPorEspecie(String especie);
+
+    Pagina<Mascota> buscarPagina(String despuesDe, int tamano);
+
+    Pagina<MascotaResumen> buscarPaginaResumenDisponibles(String especie, String despuesDe, int tamano);
+
+    Pagina<MascotaResumen> buscarPaginaResumenPorPrefijoEstado(String prefijo, String especie, String despuesDe,
+            int tamano);
+
+    /**
+     * Busca mascotas disponibles por nombre, raza, color, personalidad y
+     * descripcion, de la mas a la menos relevante. Basta con que coincida
+     * una palabra; "-palabra" excluye y "frase entre comillas" exige la frase.
+     *
+     * @param especie   null para todas
+     * @param despuesDe cursor de la pagina anterior (CursorPuntaje), null
+     *                  para la primera
+     * @throws IllegalArgumentException si el texto esta vacio
+     */
+    Pagina<MascotaResumen> buscarTexto(String texto, String especie, String despuesDe, int tamano);
+
+    MascotaResumen buscarResumenDisponible(ObjectId id);
+
+    List<String> buscarEspeciesDisponibles();
+
+    void actualizar(Mascota mascota);
+
+    /**
+     * Registra en la unidad de trabajo que la mascota deja de estar
+     * disponible; falla al confirmar si ya no lo estaba
+     */
+    void registrarReserva(UnidadDeTrabajo unidad, ObjectId id);
+
+    boolean eliminar(ObjectId id);
+
+    long recorrer(Bson filtro, int lote, Consumer<Mascota> consumidor);
+
+    Stream<Mascota> flujo(Bson filtro, int lote);
+}
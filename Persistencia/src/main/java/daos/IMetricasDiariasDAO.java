@@ -0,0 +1,89 @@
+package daos;
+
+import com.mongodb.client.model.Updates;
+import entities.AuditoriaSolicitud;
+import entities.MetricaDiaria;
+import org.bson.conversions.Bson;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Acumulados diarios de solicitudes y adopciones (metricas_diarias); lo
+ * implementan MetricasDiariasDAO (MongoDB) y
+ * memoria.MetricasDiariasDAOMemoria. Cada cambio de estado suma con $inc
+ * sobre el documento de su dia (se crea con upsert) y
+ * acumulados.ReconstructorMetricas los recalcula desde cero.
+ *
+ * @author System
+ */
+public interface IMetricasDiariasDAO {
+
+    /**
+     * Los dias se cortan en UTC, igual que las semanas de IEstadisticasDAO
+     */
+    ZoneOffset ZONA = ZoneOffset.UTC;
+
+    /**
+     * Suma una solicitud creada en la fecha
+     */
+    void registrarSolicitud(Date fecha);
+
+    /**
+     * Suma una decision del administrador en la fecha
+     *
+     * @param accion   una de las acciones de AuditoriaSolicitud
+     * @param segundos desde que se creo la solicitud hasta la decision
+     * @param especie  especie de la mascota adoptada, solo al aceptar
+     * @throws IllegalArgumentException si la accion no se conoce
+     */
+    void registrarDecision(Date fecha, String accion, long segundos, String especie);
+
+    /**
+     * Dias con datos entre las dos fechas (inclusive), del mas antiguo al
+     * mas nuevo; los dias sin actividad no tienen documento
+     */
+    List<MetricaDiaria> buscarRango(LocalDate desde, LocalDate hasta);
+
+    /**
+     * Reemplaza todos los acumulados por los dados y borra los dias que ya
+     * no aparecen
+     */
+    void reemplazarTodas(Collection<MetricaDiaria> metricas);
+
+    /**
+     * Dia (yyyy-MM-dd, UTC) al que pertenece la fecha
+     */
+    static String dia(Date fecha) {
+        return fecha.toInstant().atOffset(ZONA).toLocalDate().toString();
+    }
+
+    /**
+     * $inc de una decision, con las mismas reglas que
+     * MetricaDiaria.contarDecision
+     */
+    static Bson incrementoDecision(String accion, long segundos, String especie) {
+        List<Bson> incrementos = new ArrayList<>();
+        switch (accion) {
+            case AuditoriaSolicitud.ACCION_ACEPTAR:
+                incrementos.add(Updates.inc("aprobadas", 1L));
+                incrementos.add(Updates.inc("segundosDecision", Math.max(0, segundos)));
+                incrementos.add(Updates.inc("adopcionesPorEspecie." + MetricaDiaria.claveEspecie(especie), 1L));
+                break;
+            case AuditoriaSolicitud.ACCION_RECHAZAR:
+                incrementos.add(Updates.inc("rechazadas", 1L));
+                incrementos.add(Updates.inc("segundosDecision", Math.max(0, segundos)));
+                break;
+            case AuditoriaSolicitud.ACCION_MODIFICAR:
+                incrementos.add(Updates.inc("modificaciones", 1L));
+                break;
+            default:
+                throw new IllegalArgumentException("Accion desconocida: " + accion);
+        }
+        return Updates.combine(incrementos);
+    }
+}
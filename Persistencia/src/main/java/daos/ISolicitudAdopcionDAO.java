@@ -0,0 +1,47 @@
+package daos;
+
+import entities.SolicitudAdopcion;
+import entities.SolicitudListado;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import paginacion.Pagina;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Repositorio de solicitudes de adopcion; lo implementan
+ * SolicitudAdopcionDAO (MongoDB) y memoria.SolicitudAdopcionDAOMemoria
+ *
+ * @author System
+ */
+public interface ISolicitudAdopcionDAO {
+
+    ObjectId guardar(SolicitudAdopcion solicitud);
+
+    /**
+     * Registra la solicitud para insertarse al confirmar la unidad de trabajo
+     */
+    void registrarNueva(UnidadDeTrabajo unidad, SolicitudAdopcion solicitud);
+
+    void actualizar(SolicitudAdopcion solicitud);
+
+    SolicitudAdopcion buscarPorId(ObjectId id);
+
+    List<SolicitudAdopcion> buscarPorUsuario(ObjectId idUsuario);
+
+    List<SolicitudAdopcion> buscarTodas();
+
+    Pagina<SolicitudAdopcion> buscarPagina(String despuesDe, int tamano);
+
+    long recorrer(Bson filtro, int lote, Consumer<SolicitudAdopcion> consumidor);
+
+    Stream<SolicitudAdopcion> flujo(Bson filtro, int lote);
+
+    List<SolicitudListado> buscarListado();
+
+    Pagina<SolicitudListado> buscarPaginaListado(String despuesDe, int tamano);
+
+    SolicitudListado buscarListadoPorId(ObjectId id);
+}
@@ -0,0 +1,35 @@
+package daos;
+
+import entities.Usuario;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Repositorio de usuarios; lo implementan UsuarioDAO (MongoDB) y
+ * memoria.UsuarioDAOMemoria
+ *
+ * @author System
+ */
+public interface IUsuarioDAO {
+
+    Usuario buscarPorCorreo(String correo);
+
+    Usuario buscarPorId(ObjectId id);
+
+    Map<ObjectId, Usuario> buscarPorIds(Collection<ObjectId> ids);
+
+    ObjectId guardar(Usuario usuario);
+
+    void actualizar(Usuario usuario);
+
+    boolean existeCorreo(String correo);
+
+    long recorrer(Bson filtro, int lote, Consumer<Usuario> consumidor);
+
+    Stream<Usuario> flujo(Bson filtro, int lote);
+}
@@ -4,66 +4,108 @@
  */
 package daos;
 
+import codecs.MascotaResumenCodec;
+import codecs.RegistroCodecs;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
 import entities.Mascota;
-import org.bson.Document;
+import entities.MascotaResumen;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
+import paginacion.Pagina;
+import paginacion.Paginador;
+
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * DAO para manejar mascotas en MongoDB
  */
-public class MascotaDAO {
+public class MascotaDAO implements IMascotaDAO {
+
+    private static final Bson PROYECCION_RESUMEN = Projections.include(MascotaResumenCodec.CAMPOS);
+    private static final Bson PROYECCION_RESUMEN_PUNTAJE = Projections.fields(PROYECCION_RESUMEN,
+            Projections.include(Paginador.CAMPO_PUNTAJE));
 
-    private final MongoCollection<Document> collection;
+    private final MongoCollection<Mascota> collection;
+    private final MongoCollection<MascotaResumen> coleccionResumen;
+    private final CacheEntidades<Mascota> cache;
 
     public MascotaDAO(MongoDatabase database) {
-        this.collection = database.getCollection("mascotas");
+        this.collection = database.getCollection("mascotas", Mascota.class)
+                .withCodecRegistry(RegistroCodecs.getRegistro());
+        this.coleccionResumen = collection.withDocumentClass(MascotaResumen.class);
+        this.cache = CacheEntidades.de(collection);
     }
 
     /**
      * Guarda una nueva mascota
      */
+    @Override
     public ObjectId guardar(Mascota mascota) {
-        Document doc = convertirMascotaADocumento(mascota);
-        collection.insertOne(doc);
-        return doc.getObjectId("_id");
+        collection.insertOne(mascota);
+        mascota.limpiarCambios();
+        cache.invalidar(mascota.getId());
+        return mascota.getId();
     }
 
     /**
-     * Busca una mascota por su ID
+     * Guarda un lote de mascotas con un solo insertMany sin orden, para que
+     * el servidor no espere a cada documento
      */
-    public Mascota buscarPorId(ObjectId id) {
-        Document doc = collection.find(Filters.eq("_id", id)).first();
-        if (doc == null) {
-            return null;
+    @Override
+    public void guardarTodas(List<Mascota> mascotas) {
+        if (mascotas == null || mascotas.isEmpty()) {
+            return;
         }
-        return convertirDocumentoAMascota(doc);
+        collection.insertMany(mascotas, new InsertManyOptions().ordered(false));
+        for (Mascota mascota : mascotas) {
+            mascota.limpiarCambios();
+            cache.invalidar(mascota.getId());
+        }
+    }
+
+    /**
+     * Busca una mascota por su ID, primero en la cache
+     */
+    @Override
+    public Mascota buscarPorId(ObjectId id) {
+        return cache.obtener(id, llave -> collection.find(Filters.eq("_id", llave)).first());
+    }
+
+    /**
+     * Busca varios mascotas en una sola consulta
+     *
+     * @return mascotas encontrados por su ID
+     */
+    @Override
+    public Map<ObjectId, Mascota> buscarPorIds(Collection<ObjectId> ids) {
+        return cache.obtenerVarios(ids, faltantes -> ConsultaPorIds.buscar(collection, "_id", faltantes, Mascota::getId));
     }
 
     /**
      * Obtiene todas las mascotas
      */
+    @Override
     public List<Mascota> buscarTodas() {
-        List<Mascota> mascotas = new ArrayList<>();
-        for (Document doc : collection.find()) {
-            mascotas.add(convertirDocumentoAMascota(doc));
-        }
-        return mascotas;
+        return collection.find().into(new ArrayList<>());
     }
 
     /**
      * Obtiene mascotas disponibles para adopcion
      */
+    @Override
     public List<Mascota> buscarDisponibles() {
-        List<Mascota> mascotas = new ArrayList<>();
-        for (Document doc : collection.find(Filters.eq("disponible", true))) {
-            mascotas.add(convertirDocumentoAMascota(doc));
-        }
-        return mascotas;
+        return collection.find(Filters.eq("disponible", true)).into(new ArrayList<>());
     }
 
     /**
@@ -73,12 +115,9 @@ public class MascotaDAO {
      *                   disponibles
      * @return Lista de mascotas con el estado de disponibilidad especificado
      */
+    @Override
     public List<Mascota> buscarPorDisponibilidad(boolean disponible) {
-        List<Mascota> mascotas = new ArrayList<>();
-        for (Document doc : collection.find(Filters.eq("disponible", disponible))) {
-            mascotas.add(convertirDocumentoAMascota(doc));
-        }
-        return mascotas;
+        return collection.find(Filters.eq("disponible", disponible)).into(new ArrayList<>());
     }
 
     /**
@@ -87,96 +126,151 @@ public class MascotaDAO {
      * @param especie Especie a buscar (exact match)
      * @return Lista de mascotas disponibles de esa especie
      */
+    @Override
     public List<Mascota> buscarDisponiblesPorEspecie(String especie) {
-        List<Mascota> mascotas = new ArrayList<>();
         // Filtro compuesto: disponible = true AND especie = especie
-        for (Document doc : collection
-                .find(Filters.and(Filters.eq("disponible", true), Filters.eq("especie", especie)))) {
-            mascotas.add(convertirDocumentoAMascota(doc));
+        return collection.find(Filters.and(Filters.eq("disponible", true), Filters.eq("especie", especie)))
+                .into(new ArrayList<>());
+    }
+
+    /**
+     * Pagina de mascotas completas ordenadas por _id
+     *
+     * @param despuesDe cursor de la pagina anterior, null para la primera
+     */
+    @Override
+    public Pagina<Mascota> buscarPagina(String despuesDe, int tamano) {
+        return Paginador.paginar(collection, Filters.empty(), null, despuesDe, tamano, false, Mascota::getId);
+    }
+
+    /**
+     * Pagina de resumenes de mascotas disponibles; especie null para todas
+     */
+    @Override
+    public Pagina<MascotaResumen> buscarPaginaResumenDisponibles(String especie, String despuesDe, int tamano) {
+        Bson filtro = especie == null
+                ? Filters.eq("disponible", true)
+                : Filters.and(Filters.eq("disponible", true), Filters.eq("especie", especie));
+        return buscarPaginaResumen(filtro, despuesDe, tamano);
+    }
+
+    /**
+     * Pagina de resumenes de mascotas cuyo estado inicia con el prefijo dado;
+     * especie null para todas
+     */
+    @Override
+    public Pagina<MascotaResumen> buscarPaginaResumenPorPrefijoEstado(String prefijo, String especie,
+            String despuesDe, int tamano) {
+        Bson filtro = Filters.regex("estado", "^" + Pattern.quote(prefijo), "i");
+        if (especie != null) {
+            filtro = Filters.and(filtro, Filters.eq("especie", especie));
         }
-        return mascotas;
+        return buscarPaginaResumen(filtro, despuesDe, tamano);
     }
 
     /**
-     * Convierte un documento de MongoDB a entidad Mascota
+     * Busqueda por texto sobre el indice idx_texto, ordenada por textScore
+     * (los pesos de PESOS_TEXTO) y paginada por puntaje
      */
-    private Mascota convertirDocumentoAMascota(Document doc) {
-        Mascota mascota = new Mascota();
-        mascota.setId(doc.getObjectId("_id"));
-        mascota.setNombre(doc.getString("nombre"));
-        mascota.setEspecie(doc.getString("especie"));
-        mascota.setEstadoSalud(doc.getString("estadoSalud"));
-        mascota.setPersonalidad(doc.getString("personalidad"));
-        mascota.setUrlImagen(doc.getString("urlImagen"));
-        mascota.setEdad(doc.getInteger("edad"));
-        mascota.setDisponible(doc.getBoolean("disponible"));
-        mascota.setEstado(doc.getString("estado"));
+    @Override
+    public Pagina<MascotaResumen> buscarTexto(String texto, String especie, String despuesDe, int tamano) {
+        if (texto == null || texto.isBlank()) {
+            throw new IllegalArgumentException("Texto de busqueda vacio");
+        }
+        Bson filtro = Filters.and(Filters.text(texto.trim()), Filters.eq("disponible", true));
+        if (especie != null) {
+            filtro = Filters.and(filtro, Filters.eq("especie", especie));
+        }
+        return Paginador.paginarPorPuntaje(coleccionResumen, filtro, PROYECCION_RESUMEN_PUNTAJE, despuesDe, tamano,
+                MascotaResumen::getId, MascotaResumen::getPuntaje);
+    }
 
-        // Nuevos campos
-        mascota.setColor(doc.getString("color"));
-        mascota.setRaza(doc.getString("raza"));
-        Double peso = doc.getDouble("peso");
-        mascota.setPeso(peso != null ? peso : 0.0);
+    /**
+     * Resumen de una mascota si sigue disponible, para actualizar una sola
+     * tarjeta del catalogo
+     */
+    @Override
+    public MascotaResumen buscarResumenDisponible(ObjectId id) {
+        return coleccionResumen.find(Filters.and(Filters.eq("_id", id), Filters.eq("disponible", true)))
+                .projection(PROYECCION_RESUMEN)
+                .first();
+    }
 
-        // Campos para búsqueda de mascota ideal
-        mascota.setTamano(doc.getString("tamano"));
-        mascota.setNivelActividad(doc.getString("nivelActividad"));
-        Boolean peludo = doc.getBoolean("peludo");
-        mascota.setPeludo(peludo != null ? peludo : false);
-        mascota.setCostoMantenimiento(doc.getString("costoMantenimiento"));
-        mascota.setDescripcion(doc.getString("descripcion"));
+    private Pagina<MascotaResumen> buscarPaginaResumen(Bson filtro, String despuesDe, int tamano) {
+        return Paginador.paginar(coleccionResumen, filtro, PROYECCION_RESUMEN, despuesDe, tamano, false,
+                MascotaResumen::getId);
+    }
 
-        return mascota;
+    /**
+     * Especies distintas entre las mascotas disponibles
+     */
+    @Override
+    public List<String> buscarEspeciesDisponibles() {
+        return collection.distinct("especie", Filters.eq("disponible", true), String.class)
+                .into(new ArrayList<>());
     }
 
     /**
-     * Actualiza una mascota existente
+     * Actualiza una mascota existente. Solo se escriben con $set los campos
+     * que cambiaron desde que se leyo; si no cambio nada no se consulta.
      */
+    @Override
     public void actualizar(Mascota mascota) {
-        if (mascota.getId() != null) {
-            Document doc = convertirMascotaADocumento(mascota);
-            collection.replaceOne(Filters.eq("_id", mascota.getId()), doc);
+        if (mascota.getId() != null && mascota.hayCambios()) {
+            collection.updateOne(Filters.eq("_id", mascota.getId()),
+                    RegistroCodecs.MASCOTA.actualizacionParcial(mascota, mascota.getCamposModificados()));
+            mascota.limpiarCambios();
+            cache.invalidar(mascota.getId());
         }
     }
 
+    /**
+     * Registra en la unidad de trabajo que la mascota deja de estar
+     * disponible. Solo coincide si sigue disponible, asi dos solicitudes no
+     * pueden apartar la misma mascota; al deshacer vuelve a quedar disponible.
+     */
+    @Override
+    public void registrarReserva(UnidadDeTrabajo unidad, ObjectId id) {
+        unidad.actualizar(collection,
+                Filters.and(Filters.eq("_id", id), Filters.eq("disponible", true)),
+                Updates.set("disponible", false),
+                Filters.eq("_id", id),
+                Updates.set("disponible", true));
+        unidad.alConfirmar(() -> cache.invalidar(id));
+    }
+
     /**
      * Elimina permanentemente una mascota de la base de datos
      */
+    @Override
     public boolean eliminar(ObjectId id) {
         if (id == null) {
             return false;
         }
 
         long deletedCount = collection.deleteOne(Filters.eq("_id", id)).getDeletedCount();
+        cache.invalidar(id);
         return deletedCount > 0;
     }
 
     /**
-     * Convierte una entidad Mascota a documento de MongoDB
+     * Recorre las mascotas que cumplen el filtro sin cargarlas todas en memoria
+     *
+     * @param lote documentos por lote, 0 para el configurado
+     * @return numero de mascotas recorridas
      */
-    private Document convertirMascotaADocumento(Mascota mascota) {
-        Document doc = new Document();
-        if (mascota.getId() != null) {
-            doc.append("_id", mascota.getId());
-        }
-        doc.append("nombre", mascota.getNombre())
-                .append("especie", mascota.getEspecie())
-                .append("estadoSalud", mascota.getEstadoSalud())
-                .append("personalidad", mascota.getPersonalidad())
-                .append("urlImagen", mascota.getUrlImagen())
-                .append("edad", mascota.getEdad())
-                .append("disponible", mascota.isDisponible())
-                .append("estado", mascota.getEstado())
-                // Campos adicionales
-                .append("color", mascota.getColor())
-                .append("raza", mascota.getRaza())
-                .append("peso", mascota.getPeso())
-                // Campos para busqueda de mascota ideal
-                .append("tamano", mascota.getTamano())
-                .append("nivelActividad", mascota.getNivelActividad())
-                .append("peludo", mascota.isPeludo())
-                .append("costoMantenimiento", mascota.getCostoMantenimiento())
-                .append("descripcion", mascota.getDescripcion());
-        return doc;
+    @Override
+    public long recorrer(Bson filtro, int lote, Consumer<Mascota> consumidor) {
+        return RecorridoCursor.recorrer(collection.find(filtro), lote, consumidor);
+    }
+
+    /**
+     * Stream de las mascotas que cumplen el filtro; cerrarlo al terminar
+     *
+     * @param lote documentos por lote, 0 para el configurado
+     */
+    @Override
+    public Stream<Mascota> flujo(Bson filtro, int lote) {
+        return RecorridoCursor.flujo(collection.find(filtro), lote);
     }
 }
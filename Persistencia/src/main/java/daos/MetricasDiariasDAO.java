@@ -0,0 +1,92 @@
+package daos;
+
+import codecs.RegistroCodecs;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import entities.MetricaDiaria;
+import org.bson.conversions.Bson;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Acumulados diarios en la coleccion metricas_diarias, un documento por
+ * dia con llave unica en "dia" (idx_dia_unico)
+ *
+ * @author System
+ */
+public class MetricasDiariasDAO implements IMetricasDiariasDAO {
+
+    private static final UpdateOptions UPSERT = new UpdateOptions().upsert(true);
+
+    private final MongoCollection<MetricaDiaria> collection;
+
+    public MetricasDiariasDAO(MongoDatabase database) {
+        this.collection = database.getCollection("metricas_diarias", MetricaDiaria.class)
+                .withCodecRegistry(RegistroCodecs.getRegistro());
+    }
+
+    @Override
+    public void registrarSolicitud(Date fecha) {
+        incrementar(IMetricasDiariasDAO.dia(fecha), Updates.inc("solicitudes", 1L));
+    }
+
+    @Override
+    public void registrarDecision(Date fecha, String accion, long segundos, String especie) {
+        incrementar(IMetricasDiariasDAO.dia(fecha), IMetricasDiariasDAO.incrementoDecision(accion, segundos, especie));
+    }
+
+    /**
+     * Un solo updateOne con upsert. Si dos escrituras crean el mismo dia a
+     * la vez una choca con la llave unica; al repetirla el documento ya
+     * existe y solo incrementa.
+     */
+    private void incrementar(String dia, Bson incremento) {
+        try {
+            collection.updateOne(Filters.eq("dia", dia), incremento, UPSERT);
+        } catch (MongoWriteException e) {
+            if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                throw e;
+            }
+            collection.updateOne(Filters.eq("dia", dia), incremento, UPSERT);
+        }
+    }
+
+    @Override
+    public List<MetricaDiaria> buscarRango(LocalDate desde, LocalDate hasta) {
+        // yyyy-MM-dd ordena igual como texto que como fecha
+        return collection.find(Filters.and(Filters.gte("dia", desde.toString()), Filters.lte("dia", hasta.toString())))
+                .sort(Sorts.ascending("dia"))
+                .into(new ArrayList<>());
+    }
+
+    @Override
+    public void reemplazarTodas(Collection<MetricaDiaria> metricas) {
+        List<WriteModel<MetricaDiaria>> reemplazos = new ArrayList<>();
+        List<String> dias = new ArrayList<>();
+        ReplaceOptions opciones = new ReplaceOptions().upsert(true);
+        for (MetricaDiaria metrica : metricas) {
+            // Sin _id el reemplazo conserva el del documento existente
+            metrica.setId(null);
+            reemplazos.add(new ReplaceOneModel<>(Filters.eq("dia", metrica.getDia()), metrica, opciones));
+            dias.add(metrica.getDia());
+        }
+        if (!reemplazos.isEmpty()) {
+            collection.bulkWrite(reemplazos, new BulkWriteOptions().ordered(false));
+        }
+        collection.deleteMany(Filters.nin("dia", dias));
+    }
+}
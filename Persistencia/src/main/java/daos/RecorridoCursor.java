@@ -0,0 +1,60 @@
+package daos;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCursor;
+import conexion.ConfiguracionMongoDB;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Recorridos de colecciones completas sin cargarlas en una lista: los
+ * documentos se piden al servidor por lotes y el cursor se cierra al
+ * terminar, aunque el consumidor lance una excepcion.
+ *
+ * @author System
+ */
+public final class RecorridoCursor {
+
+    private static final int LOTE_CONFIGURADO = new ConfiguracionMongoDB().getTamanoLoteCursor();
+
+    private RecorridoCursor() {
+    }
+
+    /**
+     * Pasa cada documento de la consulta al consumidor
+     *
+     * @param lote documentos por lote, 0 o menos para el configurado
+     * @return numero de documentos recorridos
+     */
+    public static <T> long recorrer(FindIterable<T> consulta, int lote, Consumer<? super T> consumidor) {
+        long total = 0;
+        try (MongoCursor<T> cursor = consulta.batchSize(resolverLote(lote)).iterator()) {
+            while (cursor.hasNext()) {
+                consumidor.accept(cursor.next());
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Stream perezoso sobre la consulta. Se debe cerrar (try-with-resources)
+     * para liberar el cursor si no se consume completo.
+     *
+     * @param lote documentos por lote, 0 o menos para el configurado
+     */
+    public static <T> Stream<T> flujo(FindIterable<T> consulta, int lote) {
+        MongoCursor<T> cursor = consulta.batchSize(resolverLote(lote)).iterator();
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(cursor::close);
+    }
+
+    private static int resolverLote(int lote) {
+        return lote > 0 ? lote : LOTE_CONFIGURADO;
+    }
+}
@@ -0,0 +1,16 @@
+package daos;
+
+/**
+ * Resultado de ICitaDisponibleDAO.reservarCita
+ *
+ * @author System
+ */
+public enum ResultadoReserva {
+
+    RESERVADA,
+    /**
+     * La cita existe pero alguien mas la tomo antes
+     */
+    OCUPADA,
+    NO_EXISTE
+}
@@ -1,141 +1,189 @@
 package daos;
 
+import codecs.RegistroCodecs;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Field;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.Variable;
 import entities.SolicitudAdopcion;
-import entities.RazonesAntecedentes;
+import entities.SolicitudListado;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
-import java.time.ZoneId;
+import paginacion.Pagina;
+import paginacion.Paginador;
+
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * DAO para manejar solicitudes de adopcion en MongoDB
  */
-public class SolicitudAdopcionDAO {
+public class SolicitudAdopcionDAO implements ISolicitudAdopcionDAO {
 
-    private final MongoCollection<Document> collection;
+    /**
+     * Etapas que unen cada solicitud con su usuario, mascota y cita y dejan
+     * solo las columnas del listado del administrador
+     */
+    private static final List<Bson> ETAPAS_LISTADO = List.of(
+            Aggregates.lookup("usuarios", "idUsuario", "_id", "usuario"),
+            Aggregates.lookup("mascotas", "idMascota", "_id", "mascota"),
+            Aggregates.lookup("citas", "idCita", "_id", "citaPorId"),
+            // Si no hay idCita (o ya no existe) se usa la cita del mismo usuario y mascota
+            Aggregates.lookup("citas",
+                    List.of(new Variable<>("usuario", "$idUsuario"), new Variable<>("mascota", "$idMascota")),
+                    List.of(Aggregates.match(Filters.expr(new Document("$and", List.of(
+                            new Document("$eq", List.of("$idUsuario", "$$usuario")),
+                            new Document("$eq", List.of("$idMascota", "$$mascota")))))),
+                            Aggregates.project(Projections.include("fechaHora")),
+                            Aggregates.limit(1)),
+                    "citaPorUsuario"),
+            Aggregates.addFields(new Field<>("cita", new Document("$ifNull", List.of(
+                    primero("$citaPorId"), primero("$citaPorUsuario"))))),
+            Aggregates.project(Projections.fields(
+                    Projections.include("idUsuario", "idMascota", "estado", "fechaSolicitud", "mensajeCorreccion"),
+                    Projections.computed("idCita", new Document("$ifNull", List.of("$cita._id", "$idCita"))),
+                    Projections.computed("fechaCita", "$cita.fechaHora"),
+                    Projections.computed("nombreUsuario", primero("$usuario.infoPersonal.nombre")),
+                    Projections.computed("correoUsuario", primero("$usuario.infoPersonal.correo")),
+                    Projections.computed("nombreMascota", primero("$mascota.nombre")))));
+
+    private final MongoCollection<SolicitudAdopcion> collection;
 
     public SolicitudAdopcionDAO(MongoDatabase database) {
-        this.collection = database.getCollection("solicitudes");
+        this.collection = database.getCollection("solicitudes", SolicitudAdopcion.class)
+                .withCodecRegistry(RegistroCodecs.getRegistro());
     }
 
     /**
      * Guarda una nueva solicitud de adopcion
      */
+    @Override
     public ObjectId guardar(SolicitudAdopcion solicitud) {
-        Document doc = convertirSolicitudADocumento(solicitud);
-        collection.insertOne(doc);
-        return doc.getObjectId("_id");
+        collection.insertOne(solicitud);
+        solicitud.limpiarCambios();
+        return solicitud.getId();
     }
 
     /**
-     * Actualiza una solicitud de adopcion existente
+     * Registra la solicitud para insertarse al confirmar la unidad de trabajo
      */
+    @Override
+    public void registrarNueva(UnidadDeTrabajo unidad, SolicitudAdopcion solicitud) {
+        unidad.insertar(collection, solicitud);
+    }
+
+    /**
+     * Actualiza una solicitud de adopcion existente. Solo se escriben con
+     * $set los campos que cambiaron desde que se leyo.
+     */
+    @Override
     public void actualizar(SolicitudAdopcion solicitud) {
-        Document doc = convertirSolicitudADocumento(solicitud);
-        collection.replaceOne(Filters.eq("_id", solicitud.getId()), doc);
+        if (solicitud.getId() != null && solicitud.hayCambios()) {
+            collection.updateOne(Filters.eq("_id", solicitud.getId()),
+                    RegistroCodecs.SOLICITUD.actualizacionParcial(solicitud, solicitud.getCamposModificados()));
+            solicitud.limpiarCambios();
+        }
     }
 
     /**
      * Busca una solicitud por su ID
      */
+    @Override
     public SolicitudAdopcion buscarPorId(ObjectId id) {
-        Document doc = collection.find(Filters.eq("_id", id)).first();
-        if (doc == null) {
-            return null;
-        }
-        return convertirDocumentoASolicitud(doc);
+        return collection.find(Filters.eq("_id", id)).first();
     }
 
     /**
      * Busca todas las solicitudes de un usuario
      */
+    @Override
     public List<SolicitudAdopcion> buscarPorUsuario(ObjectId idUsuario) {
-        List<SolicitudAdopcion> solicitudes = new ArrayList<>();
-        for (Document doc : collection.find(Filters.eq("idUsuario", idUsuario))) {
-            solicitudes.add(convertirDocumentoASolicitud(doc));
-        }
-        return solicitudes;
+        return collection.find(Filters.eq("idUsuario", idUsuario)).into(new ArrayList<>());
     }
 
     /**
      * Busca todas las solicitudes en el sistema
      */
+    @Override
     public List<SolicitudAdopcion> buscarTodas() {
-        List<SolicitudAdopcion> solicitudes = new ArrayList<>();
-        for (Document doc : collection.find()) {
-            solicitudes.add(convertirDocumentoASolicitud(doc));
-        }
-        return solicitudes;
+        return collection.find().into(new ArrayList<>());
     }
 
     /**
-     * Convierte un documento de MongoDB a entidad SolicitudAdopcion
+     * Pagina de solicitudes, de la mas reciente a la mas antigua
+     *
+     * @param despuesDe cursor de la pagina anterior, null para la primera
      */
-    private SolicitudAdopcion convertirDocumentoASolicitud(Document doc) {
-        SolicitudAdopcion solicitud = new SolicitudAdopcion();
-        solicitud.setId(doc.getObjectId("_id"));
-        solicitud.setIdUsuario(doc.getObjectId("idUsuario"));
-        solicitud.setIdMascota(doc.getObjectId("idMascota"));
-        solicitud.setEstado(doc.getString("estado"));
-
-        Date fecha = doc.getDate("fechaSolicitud");
-        if (fecha != null) {
-            solicitud.setFechaSolicitud(fecha.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime());
-        }
-
-        Document razonesDoc = doc.get("razones", Document.class);
-        if (razonesDoc != null) {
-            RazonesAntecedentes razones = new RazonesAntecedentes();
-            razones.setMotivoAdopcion(razonesDoc.getString("motivoAdopcion"));
-            razones.setAntecedentesMascotas(razonesDoc.getString("antecedentesMascotas"));
-            razones.setAceptaSeguimiento(razonesDoc.getBoolean("aceptaSeguimiento", false));
-            solicitud.setRazones(razones);
-        }
-
-        solicitud.setMensajeCorreccion(doc.getString("mensajeCorreccion"));
-        solicitud.setIdCita(doc.getObjectId("idCita"));
-
-        return solicitud;
+    @Override
+    public Pagina<SolicitudAdopcion> buscarPagina(String despuesDe, int tamano) {
+        return Paginador.paginar(collection, Filters.empty(), null, despuesDe, tamano, true,
+                SolicitudAdopcion::getId);
     }
 
     /**
-     * Convierte una entidad SolicitudAdopcion a documento de MongoDB
+     * Recorre las solicitudes que cumplen el filtro sin cargarlas todas en memoria
+     *
+     * @param lote documentos por lote, 0 para el configurado
+     * @return numero de solicitudes recorridas
      */
-    private Document convertirSolicitudADocumento(SolicitudAdopcion solicitud) {
-        Document doc = new Document();
-        if (solicitud.getId() != null) {
-            doc.append("_id", solicitud.getId());
-        }
-        doc.append("idUsuario", solicitud.getIdUsuario())
-                .append("idMascota", solicitud.getIdMascota())
-                .append("estado", solicitud.getEstado());
+    @Override
+    public long recorrer(Bson filtro, int lote, Consumer<SolicitudAdopcion> consumidor) {
+        return RecorridoCursor.recorrer(collection.find(filtro), lote, consumidor);
+    }
 
-        if (solicitud.getFechaSolicitud() != null) {
-            doc.append("fechaSolicitud",
-                    Date.from(solicitud.getFechaSolicitud().atZone(ZoneId.systemDefault()).toInstant()));
-        }
+    /**
+     * Stream de las solicitudes que cumplen el filtro; cerrarlo al terminar
+     *
+     * @param lote documentos por lote, 0 para el configurado
+     */
+    @Override
+    public Stream<SolicitudAdopcion> flujo(Bson filtro, int lote) {
+        return RecorridoCursor.flujo(collection.find(filtro), lote);
+    }
 
-        if (solicitud.getRazones() != null) {
-            Document razonesDoc = new Document()
-                    .append("motivoAdopcion", solicitud.getRazones().getMotivoAdopcion())
-                    .append("antecedentesMascotas", solicitud.getRazones().getAntecedentesMascotas())
-                    .append("aceptaSeguimiento", solicitud.getRazones().isAceptaSeguimiento());
-            doc.append("razones", razonesDoc);
-        }
+    /**
+     * Listado completo del administrador con una sola agregacion, de la mas
+     * reciente a la mas antigua
+     */
+    @Override
+    public List<SolicitudListado> buscarListado() {
+        List<Bson> pipeline = new ArrayList<>();
+        pipeline.add(Aggregates.sort(Sorts.descending("_id")));
+        pipeline.addAll(ETAPAS_LISTADO);
+        return collection.aggregate(pipeline, SolicitudListado.class).into(new ArrayList<>());
+    }
 
-        if (solicitud.getMensajeCorreccion() != null) {
-            doc.append("mensajeCorreccion", solicitud.getMensajeCorreccion());
-        }
+    /**
+     * Pagina del listado del administrador; los $lookup solo se hacen para
+     * las solicitudes de la pagina
+     *
+     * @param despuesDe cursor de la pagina anterior, null para la primera
+     */
+    @Override
+    public Pagina<SolicitudListado> buscarPaginaListado(String despuesDe, int tamano) {
+        return Paginador.paginarAgregacion(collection, Filters.empty(), ETAPAS_LISTADO, SolicitudListado.class,
+                despuesDe, tamano, true, SolicitudListado::getId);
+    }
 
-        if (solicitud.getIdCita() != null) {
-            doc.append("idCita", solicitud.getIdCita());
-        }
+    /**
+     * Una fila del listado del administrador, para actualizarla sola
+     */
+    @Override
+    public SolicitudListado buscarListadoPorId(ObjectId id) {
+        List<Bson> pipeline = new ArrayList<>();
+        pipeline.add(Aggregates.match(Filters.eq("_id", id)));
+        pipeline.addAll(ETAPAS_LISTADO);
+        return collection.aggregate(pipeline, SolicitudListado.class).first();
+    }
 
-        return doc;
+    private static Document primero(String arreglo) {
+        return new Document("$arrayElemAt", List.of(arreglo, 0));
     }
 }
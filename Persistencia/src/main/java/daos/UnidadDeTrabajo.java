@@ -0,0 +1,312 @@
+package daos;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import conexion.ConexionMongoDB;
+import org.bson.BsonValue;
+import org.bson.codecs.Codec;
+import org.bson.codecs.CollectibleCodec;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Junta las escrituras de una operacion de negocio y las manda juntas al
+ * confirmar. Si el servidor soporta transacciones va un bulkWrite por
+ * coleccion dentro de una sola transaccion. Si no (servidor standalone),
+ * las actualizaciones van una por una y las inserciones en un bulkWrite por
+ * coleccion; al fallar se deshace lo aplicado con las operaciones inversas.
+ *
+ * Las actualizaciones registradas deben coincidir con un documento; si
+ * alguna no coincide la unidad completa falla y se deshace.
+ *
+ * Los DAOs en memoria registran acciones locales con su inversa; se
+ * aplican antes que las escrituras de MongoDB y se deshacen si algo falla.
+ * Una unidad sin escrituras de MongoDB no abre la conexion.
+ *
+ * @author System
+ */
+public class UnidadDeTrabajo {
+
+    private ConexionMongoDB conexion;
+    private final Map<MongoNamespace, Escrituras<?>> escrituras = new LinkedHashMap<>();
+    private final List<Accion> acciones = new ArrayList<>();
+    private final List<Runnable> alConfirmar = new ArrayList<>();
+    private boolean confirmada;
+
+    public UnidadDeTrabajo() {
+        this(null);
+    }
+
+    public UnidadDeTrabajo(ConexionMongoDB conexion) {
+        this.conexion = conexion;
+    }
+
+    /**
+     * Registra la insercion de una entidad. El _id se genera aqui para
+     * poder deshacerla.
+     */
+    public <T> void insertar(MongoCollection<T> coleccion, T entidad) {
+        BsonValue id = generarId(coleccion, entidad);
+        lote(coleccion).agregar(new InsertOneModel<>(entidad), new DeleteOneModel<>(Filters.eq("_id", id)), false);
+    }
+
+    /**
+     * Registra una actualizacion que debe coincidir con un documento
+     *
+     * @param filtro         documento a actualizar
+     * @param cambio         actualizacion a aplicar
+     * @param filtroDeshacer documento al que se aplica la inversa
+     * @param deshacer       actualizacion inversa
+     */
+    public <T> void actualizar(MongoCollection<T> coleccion, Bson filtro, Bson cambio, Bson filtroDeshacer,
+            Bson deshacer) {
+        lote(coleccion).agregar(new UpdateOneModel<>(filtro, cambio), new UpdateOneModel<>(filtroDeshacer, deshacer),
+                true);
+    }
+
+    /**
+     * Registra una accion local (por ejemplo sobre el almacen en memoria)
+     *
+     * @param aplicar  regresa false si no pudo aplicarse, como una
+     *                 actualizacion que no coincide
+     * @param deshacer inversa de la accion ya aplicada
+     */
+    public void registrarAccion(BooleanSupplier aplicar, Runnable deshacer) {
+        if (confirmada) {
+            throw new IllegalStateException("La unidad de trabajo ya fue confirmada");
+        }
+        acciones.add(new Accion(aplicar, deshacer));
+    }
+
+    /**
+     * Accion a ejecutar despues de confirmar con exito, por ejemplo
+     * invalidar una cache
+     */
+    public void alConfirmar(Runnable accion) {
+        alConfirmar.add(accion);
+    }
+
+    public boolean estaVacia() {
+        return escrituras.isEmpty() && acciones.isEmpty();
+    }
+
+    /**
+     * Aplica todas las escrituras registradas
+     *
+     * @throws RuntimeException si alguna falla; en ese caso no queda nada aplicado
+     */
+    public void confirmar() {
+        if (confirmada) {
+            throw new IllegalStateException("La unidad de trabajo ya fue confirmada");
+        }
+        confirmada = true;
+        if (estaVacia()) {
+            return;
+        }
+
+        List<Accion> aplicadas = aplicarAcciones();
+        if (!escrituras.isEmpty()) {
+            if (conexion == null) {
+                conexion = ConexionMongoDB.getInstancia();
+            }
+            try {
+                if (conexion.soportaTransacciones()) {
+                    confirmarEnTransaccion();
+                } else {
+                    confirmarConCompensacion();
+                }
+            } catch (RuntimeException e) {
+                deshacerAcciones(aplicadas);
+                throw e;
+            }
+        }
+        for (Runnable accion : alConfirmar) {
+            accion.run();
+        }
+    }
+
+    /**
+     * Aplica las acciones locales en orden; si una falla deshace las
+     * anteriores
+     */
+    private List<Accion> aplicarAcciones() {
+        List<Accion> aplicadas = new ArrayList<>();
+        for (Accion accion : acciones) {
+            boolean aplicada;
+            try {
+                aplicada = accion.aplicar.getAsBoolean();
+            } catch (RuntimeException e) {
+                deshacerAcciones(aplicadas);
+                throw new RuntimeException("No se pudo confirmar la unidad de trabajo: " + e.getMessage(), e);
+            }
+            if (!aplicada) {
+                deshacerAcciones(aplicadas);
+                throw new RuntimeException("No se pudo confirmar la unidad de trabajo: "
+                        + "una actualizacion no coincidio");
+            }
+            aplicadas.add(accion);
+        }
+        return aplicadas;
+    }
+
+    private static void deshacerAcciones(List<Accion> aplicadas) {
+        for (int i = aplicadas.size() - 1; i >= 0; i--) {
+            try {
+                aplicadas.get(i).deshacer.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error al deshacer una accion local: " + e.getMessage());
+            }
+        }
+    }
+
+    private void confirmarEnTransaccion() {
+        try (ClientSession sesion = conexion.getCliente().startSession()) {
+            sesion.withTransaction(() -> {
+                for (Escrituras<?> lote : escrituras.values()) {
+                    lote.aplicar(sesion);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            throw new RuntimeException("No se pudo confirmar la unidad de trabajo: " + e.getMessage(), e);
+        }
+    }
+
+    private void confirmarConCompensacion() {
+        List<Escrituras<?>> intentadas = new ArrayList<>();
+        try {
+            for (Escrituras<?> lote : escrituras.values()) {
+                intentadas.add(lote);
+                lote.aplicarSinTransaccion();
+            }
+        } catch (RuntimeException e) {
+            // Cada lote deshace solo lo que alcanzo a aplicar
+            for (int i = intentadas.size() - 1; i >= 0; i--) {
+                try {
+                    intentadas.get(i).deshacer();
+                } catch (RuntimeException errorDeshacer) {
+                    System.err.println("Error al deshacer escrituras en "
+                            + intentadas.get(i).coleccion.getNamespace() + ": " + errorDeshacer.getMessage());
+                }
+            }
+            throw new RuntimeException("No se pudo confirmar la unidad de trabajo: " + e.getMessage(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Escrituras<T> lote(MongoCollection<T> coleccion) {
+        if (confirmada) {
+            throw new IllegalStateException("La unidad de trabajo ya fue confirmada");
+        }
+        return (Escrituras<T>) escrituras.computeIfAbsent(coleccion.getNamespace(), n -> new Escrituras<>(coleccion));
+    }
+
+    private static <T> BsonValue generarId(MongoCollection<T> coleccion, T entidad) {
+        Codec<T> codec = coleccion.getCodecRegistry().get(coleccion.getDocumentClass());
+        if (!(codec instanceof CollectibleCodec)) {
+            throw new IllegalArgumentException("No se puede generar el _id de " + coleccion.getDocumentClass());
+        }
+        CollectibleCodec<T> coleccionable = (CollectibleCodec<T>) codec;
+        return coleccionable.getDocumentId(coleccionable.generateIdIfAbsentFromDocument(entidad));
+    }
+
+    /**
+     * Accion local con su inversa
+     */
+    private static class Accion {
+
+        private final BooleanSupplier aplicar;
+        private final Runnable deshacer;
+
+        Accion(BooleanSupplier aplicar, Runnable deshacer) {
+            this.aplicar = aplicar;
+            this.deshacer = deshacer;
+        }
+    }
+
+    /**
+     * Escrituras de una coleccion con sus inversas
+     */
+    private static class Escrituras<T> {
+
+        private final MongoCollection<T> coleccion;
+        private final List<WriteModel<T>> operaciones = new ArrayList<>();
+        private final List<WriteModel<T>> inversas = new ArrayList<>();
+        private final List<Boolean> esActualizacion = new ArrayList<>();
+        private final List<WriteModel<T>> aplicadas = new ArrayList<>();
+        private int actualizaciones;
+
+        Escrituras(MongoCollection<T> coleccion) {
+            this.coleccion = coleccion;
+        }
+
+        void agregar(WriteModel<T> operacion, WriteModel<T> inversa, boolean actualizacion) {
+            operaciones.add(operacion);
+            inversas.add(inversa);
+            esActualizacion.add(actualizacion);
+            if (actualizacion) {
+                actualizaciones++;
+            }
+        }
+
+        /**
+         * Dentro de la transaccion todo va en un solo bulkWrite; si algo no
+         * coincide se lanza la excepcion y la transaccion se aborta
+         */
+        void aplicar(ClientSession sesion) {
+            BulkWriteResult resultado = coleccion.bulkWrite(sesion, operaciones, new BulkWriteOptions().ordered(true));
+            if (resultado.getMatchedCount() < actualizaciones) {
+                throw new IllegalStateException("Solo " + resultado.getMatchedCount() + " de " + actualizaciones
+                        + " actualizaciones coincidieron en " + coleccion.getNamespace());
+            }
+        }
+
+        /**
+         * Sin transaccion hay que saber exactamente que se aplico: las
+         * actualizaciones van una por una (son las que pueden no coincidir)
+         * y las inserciones juntas en un bulkWrite.
+         */
+        void aplicarSinTransaccion() {
+            List<WriteModel<T>> inserciones = new ArrayList<>();
+            List<WriteModel<T>> inversasInsercion = new ArrayList<>();
+            for (int i = 0; i < operaciones.size(); i++) {
+                if (!esActualizacion.get(i)) {
+                    inserciones.add(operaciones.get(i));
+                    inversasInsercion.add(inversas.get(i));
+                    continue;
+                }
+                UpdateOneModel<T> actualizacion = (UpdateOneModel<T>) operaciones.get(i);
+                long coincidencias = coleccion.updateOne(actualizacion.getFilter(), actualizacion.getUpdate())
+                        .getMatchedCount();
+                if (coincidencias == 0) {
+                    throw new IllegalStateException("Una actualizacion no coincidio en " + coleccion.getNamespace());
+                }
+                aplicadas.add(inversas.get(i));
+            }
+            if (!inserciones.isEmpty()) {
+                // Si falla a medias, borrar un _id que no se inserto no hace nada
+                aplicadas.addAll(inversasInsercion);
+                coleccion.bulkWrite(inserciones, new BulkWriteOptions().ordered(true));
+            }
+        }
+
+        void deshacer() {
+            if (!aplicadas.isEmpty()) {
+                coleccion.bulkWrite(aplicadas, new BulkWriteOptions().ordered(false));
+            }
+        }
+    }
+}
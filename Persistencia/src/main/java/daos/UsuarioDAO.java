@@ -4,142 +4,112 @@
  */
 package daos;
 
+import codecs.RegistroCodecs;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
 import entities.Usuario;
-import org.bson.Document;
+import org.bson.BsonDocument;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
 /**
  * DAO para manejar usuarios en MongoDB
  */
-public class UsuarioDAO {
+public class UsuarioDAO implements IUsuarioDAO {
 
-    private final MongoCollection<Document> collection;
+    private final MongoCollection<Usuario> collection;
+    private final CacheEntidades<Usuario> cache;
 
     public UsuarioDAO(MongoDatabase database) {
-        this.collection = database.getCollection("usuarios");
+        this.collection = database.getCollection("usuarios", Usuario.class)
+                .withCodecRegistry(RegistroCodecs.getRegistro());
+        this.cache = CacheEntidades.de(collection);
     }
 
     /**
      * Busca un usuario por correo electronico
      */
+    @Override
     public Usuario buscarPorCorreo(String correo) {
-        Document doc = collection.find(Filters.eq("infoPersonal.correo", correo)).first();
-        if (doc == null) {
-            return null;
-        }
-        return convertirDocumentoAUsuario(doc);
+        return collection.find(Filters.eq("infoPersonal.correo", correo)).first();
     }
 
     /**
-     * Busca un usuario por su ID
+     * Busca un usuario por su ID, primero en la cache
      */
+    @Override
     public Usuario buscarPorId(ObjectId id) {
-        Document doc = collection.find(Filters.eq("_id", id)).first();
-        if (doc == null) {
-            return null;
-        }
-        return convertirDocumentoAUsuario(doc);
+        return cache.obtener(id, llave -> collection.find(Filters.eq("_id", llave)).first());
+    }
+
+    /**
+     * Busca varios usuarios en una sola consulta
+     *
+     * @return usuarios encontrados por su ID
+     */
+    @Override
+    public Map<ObjectId, Usuario> buscarPorIds(Collection<ObjectId> ids) {
+        return cache.obtenerVarios(ids, faltantes -> ConsultaPorIds.buscar(collection, "_id", faltantes, Usuario::getId));
     }
 
     /**
      * Guarda un nuevo usuario
      */
+    @Override
     public ObjectId guardar(Usuario usuario) {
-        Document doc = convertirUsuarioADocumento(usuario);
-        collection.insertOne(doc);
-        return doc.getObjectId("_id");
+        collection.insertOne(usuario);
+        cache.invalidar(usuario.getId());
+        return usuario.getId();
     }
 
     /**
      * Actualiza un usuario existente
      */
+    @Override
     public void actualizar(Usuario usuario) {
         if (usuario.getId() == null) {
             throw new IllegalArgumentException("El usuario debe tener un ID para ser actualizado");
         }
 
-        Document doc = convertirUsuarioADocumento(usuario);
+        BsonDocument doc = RegistroCodecs.USUARIO.aDocumento(usuario);
         doc.remove("_id");
 
-        collection.updateOne(Filters.eq("_id", usuario.getId()), new Document("$set", doc));
+        collection.updateOne(Filters.eq("_id", usuario.getId()), new BsonDocument("$set", doc));
+        cache.invalidar(usuario.getId());
     }
 
     /**
      * Verifica si existe un usuario con el correo dado
      */
+    @Override
     public boolean existeCorreo(String correo) {
         return collection.countDocuments(Filters.eq("infoPersonal.correo", correo)) > 0;
     }
 
     /**
-     * Convierte un documento de MongoDB a entidad Usuario
+     * Recorre los usuarios que cumplen el filtro sin cargarlos todos en memoria
+     *
+     * @param lote documentos por lote, 0 para el configurado
+     * @return numero de usuarios recorridos
      */
-    private Usuario convertirDocumentoAUsuario(Document doc) {
-        Usuario usuario = new Usuario();
-        usuario.setId(doc.getObjectId("_id"));
-        usuario.setContrasena(doc.getString("contrasena"));
-
-        Document infoPersonalDoc = doc.get("infoPersonal", Document.class);
-        if (infoPersonalDoc != null) {
-            entities.InfoPersonal infoPersonal = new entities.InfoPersonal();
-            infoPersonal.setNombre(infoPersonalDoc.getString("nombre"));
-            infoPersonal.setCorreo(infoPersonalDoc.getString("correo"));
-            infoPersonal.setCurp(infoPersonalDoc.getString("curp"));
-            infoPersonal.setDireccion(infoPersonalDoc.getString("direccion"));
-            usuario.setInfoPersonal(infoPersonal);
-            usuario.setInfoPersonal(infoPersonal);
-        }
-
-        Document infoViviendaDoc = doc.get("infoVivienda", Document.class);
-        if (infoViviendaDoc != null) {
-            entities.InfoVivienda infoVivienda = new entities.InfoVivienda();
-            infoVivienda.setTipoVivienda(infoViviendaDoc.getString("tipoVivienda"));
-            infoVivienda.setCondicionesHogar(infoViviendaDoc.getString("condicionesHogar"));
-            infoVivienda.setTieneOtrasMascotas(infoViviendaDoc.getBoolean("tieneOtrasMascotas", false));
-            infoVivienda.setTieneNinos(infoViviendaDoc.getBoolean("tieneNinos", false));
-            infoVivienda.setTiempoDisponibilidad(infoViviendaDoc.getString("tiempoDisponibilidad"));
-            infoVivienda.setUrlImagenVivienda(infoViviendaDoc.getString("urlImagenVivienda"));
-            usuario.setInfoVivienda(infoVivienda);
-        }
-
-        return usuario;
+    @Override
+    public long recorrer(Bson filtro, int lote, Consumer<Usuario> consumidor) {
+        return RecorridoCursor.recorrer(collection.find(filtro), lote, consumidor);
     }
 
     /**
-     * Convierte una entidad Usuario a documento de MongoDB
+     * Stream de los usuarios que cumplen el filtro; cerrarlo al terminar
+     *
+     * @param lote documentos por lote, 0 para el configurado
      */
-    private Document convertirUsuarioADocumento(Usuario usuario) {
-        Document doc = new Document();
-
-        if (usuario.getId() != null) {
-            doc.append("_id", usuario.getId());
-        }
-
-        doc.append("contrasena", usuario.getContrasena());
-
-        if (usuario.getInfoPersonal() != null) {
-            Document infoPersonalDoc = new Document()
-                    .append("nombre", usuario.getInfoPersonal().getNombre())
-                    .append("correo", usuario.getInfoPersonal().getCorreo())
-                    .append("curp", usuario.getInfoPersonal().getCurp())
-                    .append("direccion", usuario.getInfoPersonal().getDireccion());
-            doc.append("infoPersonal", infoPersonalDoc);
-        }
-
-        if (usuario.getInfoVivienda() != null) {
-            Document infoViviendaDoc = new Document()
-                    .append("tipoVivienda", usuario.getInfoVivienda().getTipoVivienda())
-                    .append("condicionesHogar", usuario.getInfoVivienda().getCondicionesHogar())
-                    .append("tieneOtrasMascotas", usuario.getInfoVivienda().isTieneOtrasMascotas())
-                    .append("tieneNinos", usuario.getInfoVivienda().isTieneNinos())
-                    .append("tiempoDisponibilidad", usuario.getInfoVivienda().getTiempoDisponibilidad())
-                    .append("urlImagenVivienda", usuario.getInfoVivienda().getUrlImagenVivienda());
-            doc.append("infoVivienda", infoViviendaDoc);
-        }
-
-        return doc;
+    @Override
+    public Stream<Usuario> flujo(Bson filtro, int lote) {
+        return RecorridoCursor.flujo(collection.find(filtro), lote);
     }
 }
@@ -0,0 +1,124 @@
+package entities;
+
+import org.bson.types.ObjectId;
+
+import java.util.Date;
+
+/**
+ * Registro de solo escritura de un cambio de estado de una solicitud de
+ * adopcion: quien lo hizo, que hizo, cuando y de que estado a que estado.
+ * El _id se asigna al crearlo, asi el orden por _id es el orden en que
+ * ocurrieron y reintentar la escritura no duplica registros.
+ *
+ * @author System
+ */
+public class AuditoriaSolicitud {
+
+    public static final String ACCION_ACEPTAR = "ACEPTAR";
+    public static final String ACCION_RECHAZAR = "RECHAZAR";
+    public static final String ACCION_MODIFICAR = "MODIFICAR";
+
+    private ObjectId id;
+    private ObjectId idSolicitud;
+    private String idAdmin;
+    private String accion;
+    private String estadoAnterior;
+    private String estadoNuevo;
+    private String detalle;
+    private Date fecha;
+
+    public AuditoriaSolicitud() {
+    }
+
+    public AuditoriaSolicitud(ObjectId idSolicitud, String idAdmin, String accion, String estadoAnterior,
+            String estadoNuevo, String detalle) {
+        this.id = new ObjectId();
+        this.idSolicitud = idSolicitud;
+        this.idAdmin = idAdmin;
+        this.accion = accion;
+        this.estadoAnterior = estadoAnterior;
+        this.estadoNuevo = estadoNuevo;
+        this.detalle = detalle;
+        this.fecha = new Date();
+    }
+
+    public ObjectId getId() {
+        return id;
+    }
+
+    public void setId(ObjectId id) {
+        this.id = id;
+    }
+
+    public ObjectId getIdSolicitud() {
+        return idSolicitud;
+    }
+
+    public void setIdSolicitud(ObjectId idSolicitud) {
+        this.idSolicitud = idSolicitud;
+    }
+
+    public String getIdAdmin() {
+        return idAdmin;
+    }
+
+    public void setIdAdmin(String idAdmin) {
+        this.idAdmin = idAdmin;
+    }
+
+    public String getAccion() {
+        return accion;
+    }
+
+    public void setAccion(String accion) {
+        this.accion = accion;
+    }
+
+    public String getEstadoAnterior() {
+        return estadoAnterior;
+    }
+
+    public void setEstadoAnterior(String estadoAnterior) {
+        this.estadoAnterior = estadoAnterior;
+    }
+
+    public String getEstadoNuevo() {
+        return estadoNuevo;
+    }
+
+    public void setEstadoNuevo(String estadoNuevo) {
+        this.estadoNuevo = estadoNuevo;
+    }
+
+    /**
+     * Razon de la modificacion u otro dato de la accion, puede ser null
+     */
+    public String getDetalle() {
+        return detalle;
+    }
+
+    public void setDetalle(String detalle) {
+        this.detalle = detalle;
+    }
+
+    public Date getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Date fecha) {
+        this.fecha = fecha;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditoriaSolicitud{" +
+                "id=" + id +
+                ", idSolicitud=" + idSolicitud +
+                ", idAdmin='" + idAdmin + '\'' +
+                ", accion='" + accion + '\'' +
+                ", estadoAnterior='" + estadoAnterior + '\'' +
+                ", estadoNuevo='" + estadoNuevo + '\'' +
+                ", fecha=" + fecha +
+                '}';
+    }
+}
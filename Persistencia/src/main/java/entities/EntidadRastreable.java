@@ -0,0 +1,47 @@
+package entities;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Entidad que recuerda que campos se modificaron desde que se leyo de la
+ * base de datos, para que el DAO actualice solo esos campos con $set en
+ * lugar de reemplazar el documento completo.
+ *
+ * @author System
+ */
+public abstract class EntidadRastreable {
+
+    private final Set<String> camposModificados = new HashSet<>();
+
+    /**
+     * Registra que el campo cambio; lo llaman los setters
+     */
+    protected void marcar(String campo) {
+        camposModificados.add(campo);
+    }
+
+    public Set<String> getCamposModificados() {
+        return Collections.unmodifiableSet(camposModificados);
+    }
+
+    public boolean hayCambios() {
+        return !camposModificados.isEmpty();
+    }
+
+    /**
+     * Olvida los cambios; se llama al decodificar y despues de guardar
+     */
+    public void limpiarCambios() {
+        camposModificados.clear();
+    }
+
+    /**
+     * Conserva como modificados solo los campos indicados
+     */
+    public void retenerCambios(Collection<String> campos) {
+        camposModificados.retainAll(campos);
+    }
+}
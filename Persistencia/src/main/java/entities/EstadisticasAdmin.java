@@ -0,0 +1,133 @@
+package entities;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.IsoFields;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Numeros del tablero del administrador, calculados en el servidor por
+ * EstadisticasDAO. Los conteos por estado usan el estado en minusculas
+ * (las pantallas guardan "Disponible" y "disponible" indistintamente).
+ *
+ * @author System
+ */
+public class EstadisticasAdmin {
+
+    private Map<String, Long> mascotasPorEstado = new LinkedHashMap<>();
+    private Map<String, Long> mascotasPorEspecie = new LinkedHashMap<>();
+    private long mascotasDisponibles;
+    private long mascotasNoDisponibles;
+    private Map<String, Long> solicitudesPorEstado = new LinkedHashMap<>();
+    private long citasReservadas;
+    private long citasLibres;
+    // Semana ISO ("2026-W41") -> solicitudes aprobadas, de la mas vieja a la mas nueva
+    private Map<String, Long> adopcionesPorSemana = new LinkedHashMap<>();
+    private LocalDateTime calculadoEn;
+
+    public EstadisticasAdmin() {
+    }
+
+    /**
+     * Lunes de la semana que queda semanas - 1 semanas atras; con 12 se
+     * cuentan la semana actual y las 11 anteriores. Las fechas van en UTC,
+     * igual que $isoWeek
+     */
+    public static LocalDate inicioSemanas(int semanas) {
+        return LocalDate.now(ZoneOffset.UTC).with(DayOfWeek.MONDAY).minusWeeks(Math.max(semanas, 1) - 1);
+    }
+
+    /**
+     * Etiqueta de una semana ISO, igual a $isoWeekYear y $isoWeek
+     */
+    public static String etiquetaSemana(int anio, int semana) {
+        return String.format("%d-W%02d", anio, semana);
+    }
+
+    /**
+     * Pone en 0 todas las semanas desde esa fecha hasta hoy, asi las semanas
+     * sin adopciones tambien aparecen
+     */
+    public void iniciarSemanas(LocalDate desde) {
+        adopcionesPorSemana = new LinkedHashMap<>();
+        for (LocalDate semana = desde; !semana.isAfter(LocalDate.now(ZoneOffset.UTC)); semana = semana.plusWeeks(1)) {
+            adopcionesPorSemana.put(etiquetaSemana(semana.get(IsoFields.WEEK_BASED_YEAR),
+                    semana.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR)), 0L);
+        }
+    }
+
+    public Map<String, Long> getMascotasPorEstado() {
+        return mascotasPorEstado;
+    }
+
+    public void setMascotasPorEstado(Map<String, Long> mascotasPorEstado) {
+        this.mascotasPorEstado = mascotasPorEstado;
+    }
+
+    public Map<String, Long> getMascotasPorEspecie() {
+        return mascotasPorEspecie;
+    }
+
+    public void setMascotasPorEspecie(Map<String, Long> mascotasPorEspecie) {
+        this.mascotasPorEspecie = mascotasPorEspecie;
+    }
+
+    public long getMascotasDisponibles() {
+        return mascotasDisponibles;
+    }
+
+    public void setMascotasDisponibles(long mascotasDisponibles) {
+        this.mascotasDisponibles = mascotasDisponibles;
+    }
+
+    public long getMascotasNoDisponibles() {
+        return mascotasNoDisponibles;
+    }
+
+    public void setMascotasNoDisponibles(long mascotasNoDisponibles) {
+        this.mascotasNoDisponibles = mascotasNoDisponibles;
+    }
+
+    public Map<String, Long> getSolicitudesPorEstado() {
+        return solicitudesPorEstado;
+    }
+
+    public void setSolicitudesPorEstado(Map<String, Long> solicitudesPorEstado) {
+        this.solicitudesPorEstado = solicitudesPorEstado;
+    }
+
+    public long getCitasReservadas() {
+        return citasReservadas;
+    }
+
+    public void setCitasReservadas(long citasReservadas) {
+        this.citasReservadas = citasReservadas;
+    }
+
+    public long getCitasLibres() {
+        return citasLibres;
+    }
+
+    public void setCitasLibres(long citasLibres) {
+        this.citasLibres = citasLibres;
+    }
+
+    public Map<String, Long> getAdopcionesPorSemana() {
+        return adopcionesPorSemana;
+    }
+
+    public void setAdopcionesPorSemana(Map<String, Long> adopcionesPorSemana) {
+        this.adopcionesPorSemana = adopcionesPorSemana;
+    }
+
+    public LocalDateTime getCalculadoEn() {
+        return calculadoEn;
+    }
+
+    public void setCalculadoEn(LocalDateTime calculadoEn) {
+        this.calculadoEn = calculadoEn;
+    }
+}
@@ -9,7 +9,7 @@ import org.bson.types.ObjectId;
  * 
  * @author angel
  */
-public class ExpedienteMedico {
+public class ExpedienteMedico extends EntidadRastreable {
 
     private ObjectId id;
     private ObjectId mascotaId;
@@ -41,6 +41,7 @@ public class ExpedienteMedico {
 
     public void setMascotaId(ObjectId mascotaId) {
         this.mascotaId = mascotaId;
+        marcar("mascotaId");
     }
 
     public String getCondicion() {
@@ -49,6 +50,7 @@ public class ExpedienteMedico {
 
     public void setCondicion(String condicion) {
         this.condicion = condicion;
+        marcar("condicion");
     }
 
     public String getNivelEnergia() {
@@ -57,6 +59,7 @@ public class ExpedienteMedico {
 
     public void setNivelEnergia(String nivelEnergia) {
         this.nivelEnergia = nivelEnergia;
+        marcar("nivelEnergia");
     }
 
     public boolean isVacunaRabia() {
@@ -65,6 +68,7 @@ public class ExpedienteMedico {
 
     public void setVacunaRabia(boolean vacunaRabia) {
         this.vacunaRabia = vacunaRabia;
+        marcar("vacunaRabia");
     }
 
     public boolean isVacunaDesparasitacionExterna() {
@@ -73,6 +77,7 @@ public class ExpedienteMedico {
 
     public void setVacunaDesparasitacionExterna(boolean vacunaDesparasitacionExterna) {
         this.vacunaDesparasitacionExterna = vacunaDesparasitacionExterna;
+        marcar("vacunaDesparasitacionExterna");
     }
 
     public boolean isVacunaBordetella() {
@@ -81,6 +86,7 @@ public class ExpedienteMedico {
 
     public void setVacunaBordetella(boolean vacunaBordetella) {
         this.vacunaBordetella = vacunaBordetella;
+        marcar("vacunaBordetella");
     }
 
     public boolean isVacunaDesparasitacionInterna() {
@@ -89,6 +95,7 @@ public class ExpedienteMedico {
 
     public void setVacunaDesparasitacionInterna(boolean vacunaDesparasitacionInterna) {
         this.vacunaDesparasitacionInterna = vacunaDesparasitacionInterna;
+        marcar("vacunaDesparasitacionInterna");
     }
 
     public boolean isVacunaMultiple() {
@@ -97,6 +104,7 @@ public class ExpedienteMedico {
 
     public void setVacunaMultiple(boolean vacunaMultiple) {
         this.vacunaMultiple = vacunaMultiple;
+        marcar("vacunaMultiple");
     }
 
     public boolean isEsterilizado() {
@@ -105,6 +113,7 @@ public class ExpedienteMedico {
 
     public void setEsterilizado(boolean esterilizado) {
         this.esterilizado = esterilizado;
+        marcar("esterilizado");
     }
 
     public String getAlergias() {
@@ -113,6 +122,7 @@ public class ExpedienteMedico {
 
     public void setAlergias(String alergias) {
         this.alergias = alergias;
+        marcar("alergias");
     }
 
     public String getCondicionesEspeciales() {
@@ -121,5 +131,6 @@ public class ExpedienteMedico {
 
     public void setCondicionesEspeciales(String condicionesEspeciales) {
         this.condicionesEspeciales = condicionesEspeciales;
+        marcar("condicionesEspeciales");
     }
 }
\ No newline at end of file
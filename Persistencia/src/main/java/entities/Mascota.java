@@ -6,7 +6,7 @@ package entities;
 
 import org.bson.types.ObjectId;
 
-public class Mascota {
+public class Mascota extends EntidadRastreable {
 
     private ObjectId id;
     private String nombre;
@@ -46,6 +46,7 @@ public class Mascota {
 
     public void setNombre(String nombre) {
         this.nombre = nombre;
+        marcar("nombre");
     }
 
     public String getEspecie() {
@@ -54,6 +55,7 @@ public class Mascota {
 
     public void setEspecie(String especie) {
         this.especie = especie;
+        marcar("especie");
     }
 
     public String getEstadoSalud() {
@@ -62,6 +64,7 @@ public class Mascota {
 
     public void setEstadoSalud(String estadoSalud) {
         this.estadoSalud = estadoSalud;
+        marcar("estadoSalud");
     }
 
     public String getPersonalidad() {
@@ -70,6 +73,7 @@ public class Mascota {
 
     public void setPersonalidad(String personalidad) {
         this.personalidad = personalidad;
+        marcar("personalidad");
     }
 
     public String getUrlImagen() {
@@ -78,6 +82,7 @@ public class Mascota {
 
     public void setUrlImagen(String urlImagen) {
         this.urlImagen = urlImagen;
+        marcar("urlImagen");
     }
 
     public int getEdad() {
@@ -86,6 +91,7 @@ public class Mascota {
 
     public void setEdad(int edad) {
         this.edad = edad;
+        marcar("edad");
     }
 
     public boolean isDisponible() {
@@ -94,6 +100,7 @@ public class Mascota {
 
     public void setDisponible(boolean disponible) {
         this.disponible = disponible;
+        marcar("disponible");
     }
 
     public String getEstado() {
@@ -102,6 +109,7 @@ public class Mascota {
 
     public void setEstado(String estado) {
         this.estado = estado;
+        marcar("estado");
     }
 
     public String getColor() {
@@ -110,6 +118,7 @@ public class Mascota {
 
     public void setColor(String color) {
         this.color = color;
+        marcar("color");
     }
 
     public String getRaza() {
@@ -118,6 +127,7 @@ public class Mascota {
 
     public void setRaza(String raza) {
         this.raza = raza;
+        marcar("raza");
     }
 
     public double getPeso() {
@@ -126,6 +136,7 @@ public class Mascota {
 
     public void setPeso(double peso) {
         this.peso = peso;
+        marcar("peso");
     }
 
     public String getTamano() {
@@ -134,6 +145,7 @@ public class Mascota {
 
     public void setTamano(String tamano) {
         this.tamano = tamano;
+        marcar("tamano");
     }
 
     public String getNivelActividad() {
@@ -142,6 +154,7 @@ public class Mascota {
 
     public void setNivelActividad(String nivelActividad) {
         this.nivelActividad = nivelActividad;
+        marcar("nivelActividad");
     }
 
     public boolean isPeludo() {
@@ -150,6 +163,7 @@ public class Mascota {
 
     public void setPeludo(boolean peludo) {
         this.peludo = peludo;
+        marcar("peludo");
     }
 
     public String getCostoMantenimiento() {
@@ -158,6 +172,7 @@ public class Mascota {
 
     public void setCostoMantenimiento(String costoMantenimiento) {
         this.costoMantenimiento = costoMantenimiento;
+        marcar("costoMantenimiento");
     }
 
     public String getDescripcion() {
@@ -166,5 +181,6 @@ public class Mascota {
 
     public void setDescripcion(String descripcion) {
         this.descripcion = descripcion;
+        marcar("descripcion");
     }
 }
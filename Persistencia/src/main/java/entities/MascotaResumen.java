@@ -0,0 +1,81 @@
+package entities;
+
+import org.bson.types.ObjectId;
+
+/**
+ * Vista reducida de una mascota con solo lo que necesitan las tarjetas de
+ * los catalogos. Se llena con una proyeccion, el detalle completo se
+ * consulta por id al abrir la tarjeta.
+ *
+ * @author System
+ */
+public class MascotaResumen {
+
+    private ObjectId id;
+    private String nombre;
+    private String especie;
+    private String urlImagen;
+    private String estado;
+    private boolean disponible;
+    // Relevancia en una busqueda por texto; 0 fuera de una busqueda
+    private double puntaje;
+
+    public MascotaResumen() {
+    }
+
+    public ObjectId getId() {
+        return id;
+    }
+
+    public void setId(ObjectId id) {
+        this.id = id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getEspecie() {
+        return especie;
+    }
+
+    public void setEspecie(String especie) {
+        this.especie = especie;
+    }
+
+    public String getUrlImagen() {
+        return urlImagen;
+    }
+
+    public void setUrlImagen(String urlImagen) {
+        this.urlImagen = urlImagen;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public boolean isDisponible() {
+        return disponible;
+    }
+
+    public void setDisponible(boolean disponible) {
+        this.disponible = disponible;
+    }
+
+    public double getPuntaje() {
+        return puntaje;
+    }
+
+    public void setPuntaje(double puntaje) {
+        this.puntaje = puntaje;
+    }
+}
@@ -0,0 +1,165 @@
+package entities;
+
+import org.bson.types.ObjectId;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Acumulado de un dia (UTC) de la coleccion metricas_diarias: solicitudes
+ * creadas, decisiones del administrador, la suma de los segundos entre que
+ * se creo cada solicitud y se decidio, y las adopciones por especie. Un
+ * reporte de cualquier rango solo suma los dias del rango.
+ *
+ * @author System
+ */
+public class MetricaDiaria {
+
+    /**
+     * Especie con la que se cuentan las mascotas sin especie
+     */
+    public static final String SIN_ESPECIE = "sin dato";
+
+    private ObjectId id;
+    private String dia;
+    private long solicitudes;
+    private long aprobadas;
+    private long rechazadas;
+    private long modificaciones;
+    private long segundosDecision;
+    private Map<String, Long> adopcionesPorEspecie = new LinkedHashMap<>();
+
+    public MetricaDiaria() {
+    }
+
+    /**
+     * @param dia fecha ISO (yyyy-MM-dd)
+     */
+    public MetricaDiaria(String dia) {
+        this.dia = dia;
+    }
+
+    /**
+     * Cuenta una solicitud nueva
+     */
+    public void contarSolicitud() {
+        solicitudes++;
+    }
+
+    /**
+     * Cuenta una decision con las mismas reglas que el $inc de
+     * IMetricasDiariasDAO.registrarDecision
+     *
+     * @param accion   una de las acciones de AuditoriaSolicitud
+     * @param segundos desde que se creo la solicitud hasta la decision
+     * @param especie  especie de la mascota adoptada, solo al aceptar
+     */
+    public void contarDecision(String accion, long segundos, String especie) {
+        switch (accion) {
+            case AuditoriaSolicitud.ACCION_ACEPTAR:
+                aprobadas++;
+                segundosDecision += Math.max(0, segundos);
+                adopcionesPorEspecie.merge(claveEspecie(especie), 1L, Long::sum);
+                break;
+            case AuditoriaSolicitud.ACCION_RECHAZAR:
+                rechazadas++;
+                segundosDecision += Math.max(0, segundos);
+                break;
+            case AuditoriaSolicitud.ACCION_MODIFICAR:
+                modificaciones++;
+                break;
+            default:
+                throw new IllegalArgumentException("Accion desconocida: " + accion);
+        }
+    }
+
+    /**
+     * Nombre de campo para la especie: en minusculas y sin '.' ni '$', que
+     * MongoDB no admite en nombres de campo
+     */
+    public static String claveEspecie(String especie) {
+        if (especie == null || especie.isBlank()) {
+            return SIN_ESPECIE;
+        }
+        return especie.trim().toLowerCase(Locale.ROOT).replace('.', '_').replace('$', '_');
+    }
+
+    /**
+     * Aprobadas mas rechazadas; las modificaciones no cierran la solicitud
+     */
+    public long getDecisiones() {
+        return aprobadas + rechazadas;
+    }
+
+    public ObjectId getId() {
+        return id;
+    }
+
+    public void setId(ObjectId id) {
+        this.id = id;
+    }
+
+    public String getDia() {
+        return dia;
+    }
+
+    public void setDia(String dia) {
+        this.dia = dia;
+    }
+
+    public long getSolicitudes() {
+        return solicitudes;
+    }
+
+    public void setSolicitudes(long solicitudes) {
+        this.solicitudes = solicitudes;
+    }
+
+    public long getAprobadas() {
+        return aprobadas;
+    }
+
+    public void setAprobadas(long aprobadas) {
+        this.aprobadas = aprobadas;
+    }
+
+    public long getRechazadas() {
+        return rechazadas;
+    }
+
+    public void setRechazadas(long rechazadas) {
+        this.rechazadas = rechazadas;
+    }
+
+    public long getModificaciones() {
+        return modificaciones;
+    }
+
+    public void setModificaciones(long modificaciones) {
+        this.modificaciones = modificaciones;
+    }
+
+    public long getSegundosDecision() {
+        return segundosDecision;
+    }
+
+    public void setSegundosDecision(long segundosDecision) {
+        this.segundosDecision = segundosDecision;
+    }
+
+    public Map<String, Long> getAdopcionesPorEspecie() {
+        return adopcionesPorEspecie;
+    }
+
+    public void setAdopcionesPorEspecie(Map<String, Long> adopcionesPorEspecie) {
+        this.adopcionesPorEspecie = adopcionesPorEspecie;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricaDiaria{dia='" + dia + "', solicitudes=" + solicitudes + ", aprobadas=" + aprobadas
+                + ", rechazadas=" + rechazadas + ", modificaciones=" + modificaciones
+                + ", segundosDecision=" + segundosDecision + ", adopcionesPorEspecie=" + adopcionesPorEspecie + '}';
+    }
+}
@@ -7,7 +7,7 @@ package entities;
 import org.bson.types.ObjectId;
 import java.time.LocalDateTime;
 
-public class SolicitudAdopcion {
+public class SolicitudAdopcion extends EntidadRastreable {
 
     private ObjectId id;
 
@@ -39,6 +39,7 @@ public class SolicitudAdopcion {
 
     public void setIdUsuario(ObjectId idUsuario) {
         this.idUsuario = idUsuario;
+        marcar("idUsuario");
     }
 
     public ObjectId getIdMascota() {
@@ -47,6 +48,7 @@ public class SolicitudAdopcion {
 
     public void setIdMascota(ObjectId idMascota) {
         this.idMascota = idMascota;
+        marcar("idMascota");
     }
 
     public RazonesAntecedentes getRazones() {
@@ -55,6 +57,7 @@ public class SolicitudAdopcion {
 
     public void setRazones(RazonesAntecedentes razones) {
         this.razones = razones;
+        marcar("razones");
     }
 
     public LocalDateTime getFechaSolicitud() {
@@ -63,6 +66,7 @@ public class SolicitudAdopcion {
 
     public void setFechaSolicitud(LocalDateTime f) {
         this.fechaSolicitud = f;
+        marcar("fechaSolicitud");
     }
 
     public String getEstado() {
@@ -71,6 +75,7 @@ public class SolicitudAdopcion {
 
     public void setEstado(String estado) {
         this.estado = estado;
+        marcar("estado");
     }
 
     public String getMensajeCorreccion() {
@@ -79,6 +84,7 @@ public class SolicitudAdopcion {
 
     public void setMensajeCorreccion(String mensajeCorreccion) {
         this.mensajeCorreccion = mensajeCorreccion;
+        marcar("mensajeCorreccion");
     }
 
     public ObjectId getIdCita() {
@@ -87,6 +93,7 @@ public class SolicitudAdopcion {
 
     public void setIdCita(ObjectId idCita) {
         this.idCita = idCita;
+        marcar("idCita");
     }
 
 }
@@ -0,0 +1,118 @@
+package entities;
+
+import org.bson.types.ObjectId;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila del listado de solicitudes del administrador: la solicitud con el
+ * nombre y correo del usuario, el nombre de la mascota y la fecha de la
+ * cita, ya unidos por la agregacion de SolicitudAdopcionDAO.
+ *
+ * @author System
+ */
+public class SolicitudListado {
+
+    private ObjectId id;
+    private ObjectId idUsuario;
+    private ObjectId idMascota;
+    private ObjectId idCita;
+    private String estado;
+    private LocalDateTime fechaSolicitud;
+    private String mensajeCorreccion;
+    private String nombreUsuario;
+    private String correoUsuario;
+    private String nombreMascota;
+    private LocalDateTime fechaCita;
+
+    public SolicitudListado() {
+    }
+
+    public ObjectId getId() {
+        return id;
+    }
+
+    public void setId(ObjectId id) {
+        this.id = id;
+    }
+
+    public ObjectId getIdUsuario() {
+        return idUsuario;
+    }
+
+    public void setIdUsuario(ObjectId idUsuario) {
+        this.idUsuario = idUsuario;
+    }
+
+    public ObjectId getIdMascota() {
+        return idMascota;
+    }
+
+    public void setIdMascota(ObjectId idMascota) {
+        this.idMascota = idMascota;
+    }
+
+    public ObjectId getIdCita() {
+        return idCita;
+    }
+
+    public void setIdCita(ObjectId idCita) {
+        this.idCita = idCita;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public LocalDateTime getFechaSolicitud() {
+        return fechaSolicitud;
+    }
+
+    public void setFechaSolicitud(LocalDateTime fechaSolicitud) {
+        this.fechaSolicitud = fechaSolicitud;
+    }
+
+    public String getMensajeCorreccion() {
+        return mensajeCorreccion;
+    }
+
+    public void setMensajeCorreccion(String mensajeCorreccion) {
+        this.mensajeCorreccion = mensajeCorreccion;
+    }
+
+    public String getNombreUsuario() {
+        return nombreUsuario;
+    }
+
+    public void setNombreUsuario(String nombreUsuario) {
+        this.nombreUsuario = nombreUsuario;
+    }
+
+    public String getCorreoUsuario() {
+        return correoUsuario;
+    }
+
+    public void setCorreoUsuario(String correoUsuario) {
+        this.correoUsuario = correoUsuario;
+    }
+
+    public String getNombreMascota() {
+        return nombreMascota;
+    }
+
+    public void setNombreMascota(String nombreMascota) {
+        this.nombreMascota = nombreMascota;
+    }
+
+    public LocalDateTime getFechaCita() {
+        return fechaCita;
+    }
+
+    public void setFechaCita(LocalDateTime fechaCita) {
+        this.fechaCita = fechaCita;
+    }
+}
@@ -0,0 +1,514 @@
+package importacion;
+
+import conexion.ConfiguracionMongoDB;
+import daos.IExpedienteMedicoDAO;
+import daos.IMascotaDAO;
+import entities.ExpedienteMedico;
+import entities.Mascota;
+import org.bson.types.ObjectId;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Importacion masiva de mascotas desde CSV o NDJSON. Cada mascota valida se
+ * guarda con su expediente medico.
+ *
+ * El archivo se lee en secuencia y se corta en lotes; cada lote se
+ * interpreta y valida en un hilo del pool y se escribe, en el orden del
+ * archivo, con un insertMany de mascotas y otro de expedientes. Despues de
+ * cada lote las filas rechazadas se agregan a archivo.errores.csv y se
+ * guarda el avance en archivo.avance, con el tamano que tenia errores.csv.
+ *
+ * Los _id se derivan del numero de fila y de un identificador de la
+ * importacion guardado en el avance; asi, si el proceso se cae a medio lote,
+ * al continuar se reconocen las mascotas y expedientes que ya se habian
+ * insertado y no se duplican. Por lo mismo errores.csv se recorta al
+ * tamano guardado: los errores del lote que se repite se anotan otra vez.
+ *
+ * @author System
+ */
+public class ImportadorMascotas {
+
+    private static final Set<String> TAMANOS = Set.of("pequeño", "mediano", "grande");
+    private static final Set<String> NIVELES = Set.of("bajo", "medio", "alto");
+    private static final int LOTES_POR_AVISO = 10;
+
+    private final IMascotaDAO mascotaDAO;
+    private final IExpedienteMedicoDAO expedienteDAO;
+    private int tamanoLote = new ConfiguracionMongoDB().getTamanoLoteImportacion();
+    private int hilos = Runtime.getRuntime().availableProcessors();
+    private volatile boolean detenido;
+
+    public ImportadorMascotas(IMascotaDAO mascotaDAO, IExpedienteMedicoDAO expedienteDAO) {
+        this.mascotaDAO = mascotaDAO;
+        this.expedienteDAO = expedienteDAO;
+    }
+
+    public void setTamanoLote(int tamanoLote) {
+        if (tamanoLote < 1 || tamanoLote > 100_000) {
+            throw new IllegalArgumentException("El tamano de lote debe estar entre 1 y 100000: " + tamanoLote);
+        }
+        this.tamanoLote = tamanoLote;
+    }
+
+    public void setHilos(int hilos) {
+        if (hilos < 1) {
+            throw new IllegalArgumentException("Se necesita al menos un hilo de validacion: " + hilos);
+        }
+        this.hilos = hilos;
+    }
+
+    /**
+     * Pide terminar despues de los lotes en curso; el avance queda guardado
+     * para continuar despues
+     */
+    public void detener() {
+        detenido = true;
+    }
+
+    public static Path archivoAvance(Path archivo) {
+        return archivo.resolveSibling(archivo.getFileName() + ".avance");
+    }
+
+    public static Path archivoErrores(Path archivo) {
+        return archivo.resolveSibling(archivo.getFileName() + ".errores.csv");
+    }
+
+    /**
+     * Importa el archivo, continuando desde su avance si ya se habia empezado
+     */
+    public ReporteImportacion importar(Path archivo) throws IOException {
+        Avance avance = Avance.cargar(archivoAvance(archivo));
+        if (avance.terminada) {
+            System.out.println(archivo + " ya se importo por completo; borre " + archivoAvance(archivo)
+                    + " para importarlo de nuevo");
+            return new ReporteImportacion(avance.filas, avance.filas, 0, 0, 0, null);
+        }
+        if (avance.filas > 0) {
+            System.out.println("Importacion de " + archivo + ": continuando despues de la fila " + avance.filas);
+        }
+
+        long inicio = System.currentTimeMillis();
+        Escritor escritor = new Escritor(avance, archivoErrores(archivo));
+        ExecutorService validadores = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "importacion-validacion");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long omitidas = 0;
+        long leidas;
+        try (LectorFilas lector = LectorFilas.abrir(archivo)) {
+            ArrayDeque<Future<Lote>> enCurso = new ArrayDeque<>();
+            List<String> registros = new ArrayList<>(tamanoLote);
+            long primeraFila = 0;
+            String registro;
+            while (!detenido && (registro = lector.siguiente()) != null) {
+                long fila = lector.getFilas();
+                if (fila <= avance.filas) {
+                    omitidas++;
+                    continue;
+                }
+                if (registros.isEmpty()) {
+                    primeraFila = fila;
+                }
+                registros.add(registro);
+                if (registros.size() == tamanoLote) {
+                    enCurso.add(validadores.submit(validarLote(lector, primeraFila, registros, avance)));
+                    registros = new ArrayList<>(tamanoLote);
+                    // Limita los lotes validados en memoria mientras se escribe
+                    if (enCurso.size() > hilos * 2) {
+                        escritor.escribir(esperar(enCurso.poll()));
+                    }
+                }
+            }
+            if (!registros.isEmpty()) {
+                enCurso.add(validadores.submit(validarLote(lector, primeraFila, registros, avance)));
+            }
+            while (!enCurso.isEmpty()) {
+                escritor.escribir(esperar(enCurso.poll()));
+            }
+            leidas = lector.getFilas();
+        } finally {
+            validadores.shutdownNow();
+            escritor.cerrar();
+        }
+
+        avance.terminada = !detenido;
+        avance.guardar();
+        Path errores = archivoErrores(archivo);
+        ReporteImportacion reporte = new ReporteImportacion(leidas, omitidas, escritor.insertadas,
+                escritor.rechazadas, System.currentTimeMillis() - inicio, Files.exists(errores) ? errores : null);
+        System.out.println((detenido ? "Importacion detenida, se puede continuar: " : "Importacion terminada: ")
+                + reporte);
+        return reporte;
+    }
+
+    private Lote esperar(Future<Lote> lote) {
+        try {
+            return lote.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Importacion interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error al validar un lote: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private Callable<Lote> validarLote(LectorFilas lector, long primeraFila, List<String> registros,
+            Avance avance) {
+        return () -> {
+            Lote lote = new Lote(primeraFila + registros.size() - 1, registros.size());
+            for (int i = 0; i < registros.size(); i++) {
+                long fila = primeraFila + i;
+                try {
+                    Map<String, String> campos = lector.interpretar(registros.get(i));
+                    Mascota mascota = convertirMascota(campos);
+                    ExpedienteMedico expediente = convertirExpediente(campos);
+                    mascota.setId(avance.idPara(fila, 0));
+                    expediente.setId(avance.idPara(fila, 1));
+                    expediente.setMascotaId(mascota.getId());
+                    lote.mascotas.add(mascota);
+                    lote.expedientes.add(expediente);
+                } catch (IllegalArgumentException e) {
+                    lote.errores.add(fila + ",\"" + e.getMessage().replace("\"", "\"\"") + "\"");
+                }
+            }
+            return lote;
+        };
+    }
+
+    /**
+     * Valida los campos de la mascota; junta todos los problemas de la fila
+     * en un solo mensaje
+     */
+    static Mascota convertirMascota(Map<String, String> campos) {
+        List<String> problemas = new ArrayList<>();
+        Mascota mascota = new Mascota();
+
+        String nombre = texto(campos, "nombre");
+        String especie = texto(campos, "especie");
+        if (nombre == null) {
+            problemas.add("falta nombre");
+        }
+        if (especie == null) {
+            problemas.add("falta especie");
+        }
+        mascota.setNombre(nombre);
+        mascota.setEspecie(especie);
+        mascota.setEdad((int) numero(campos, "edad", 0, 40, true, problemas));
+        mascota.setPeso(numero(campos, "peso", 0, 200, false, problemas));
+        mascota.setEstadoSalud(texto(campos, "estadoSalud"));
+        mascota.setPersonalidad(texto(campos, "personalidad"));
+        mascota.setUrlImagen(texto(campos, "urlImagen"));
+        mascota.setColor(texto(campos, "color"));
+        mascota.setRaza(texto(campos, "raza"));
+        mascota.setDisponible(booleano(campos, "disponible", true, problemas));
+        String estado = texto(campos, "estado");
+        mascota.setEstado(estado != null ? estado : "Disponible");
+
+        String tamano = opcion(campos, "tamano", TAMANOS, problemas);
+        mascota.setTamano(tamano);
+        mascota.setNivelActividad(opcion(campos, "nivelActividad", NIVELES, problemas));
+        mascota.setPeludo(booleano(campos, "peludo", false, problemas));
+        mascota.setCostoMantenimiento(opcion(campos, "costoMantenimiento", NIVELES, problemas));
+        mascota.setDescripcion(texto(campos, "descripcion"));
+
+        if (!problemas.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", problemas));
+        }
+        return mascota;
+    }
+
+    static ExpedienteMedico convertirExpediente(Map<String, String> campos) {
+        List<String> problemas = new ArrayList<>();
+        ExpedienteMedico expediente = new ExpedienteMedico();
+        expediente.setCondicion(texto(campos, "condicion"));
+        expediente.setNivelEnergia(opcion(campos, "nivelEnergia", NIVELES, problemas));
+        expediente.setVacunaRabia(booleano(campos, "vacunaRabia", false, problemas));
+        expediente.setVacunaDesparasitacionExterna(booleano(campos, "vacunaDesparasitacionExterna", false,
+                problemas));
+        expediente.setVacunaBordetella(booleano(campos, "vacunaBordetella", false, problemas));
+        expediente.setVacunaDesparasitacionInterna(booleano(campos, "vacunaDesparasitacionInterna", false,
+                problemas));
+        expediente.setVacunaMultiple(booleano(campos, "vacunaMultiple", false, problemas));
+        expediente.setEsterilizado(booleano(campos, "esterilizado", false, problemas));
+        expediente.setAlergias(texto(campos, "alergias"));
+        expediente.setCondicionesEspeciales(texto(campos, "condicionesEspeciales"));
+        if (!problemas.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", problemas));
+        }
+        return expediente;
+    }
+
+    private static String texto(Map<String, String> campos, String campo) {
+        String valor = campos.get(campo);
+        return valor == null || valor.isBlank() ? null : valor.trim();
+    }
+
+    private static double numero(Map<String, String> campos, String campo, double minimo, double maximo,
+            boolean entero, List<String> problemas) {
+        String valor = texto(campos, campo);
+        if (valor == null) {
+            return 0;
+        }
+        try {
+            double numero = entero ? Integer.parseInt(valor) : Double.parseDouble(valor);
+            if (numero < minimo || numero > maximo) {
+                problemas.add(campo + " fuera de rango: " + valor);
+            }
+            return numero;
+        } catch (NumberFormatException e) {
+            problemas.add(campo + " no es numero: " + valor);
+            return 0;
+        }
+    }
+
+    private static boolean booleano(Map<String, String> campos, String campo, boolean porDefecto,
+            List<String> problemas) {
+        String valor = texto(campos, campo);
+        if (valor == null) {
+            return porDefecto;
+        }
+        String normalizado = valor.toLowerCase(Locale.ROOT);
+        if (normalizado.equals("true") || normalizado.equals("si") || normalizado.equals("sí")
+                || normalizado.equals("1")) {
+            return true;
+        }
+        if (normalizado.equals("false") || normalizado.equals("no") || normalizado.equals("0")) {
+            return false;
+        }
+        problemas.add(campo + " debe ser si/no: " + valor);
+        return porDefecto;
+    }
+
+    private static String opcion(Map<String, String> campos, String campo, Set<String> validas,
+            List<String> problemas) {
+        String valor = texto(campos, campo);
+        if (valor == null) {
+            return null;
+        }
+        String normalizado = valor.toLowerCase(Locale.ROOT);
+        if ("pequeno".equals(normalizado)) {
+            normalizado = "pequeño";
+        }
+        if (!validas.contains(normalizado)) {
+            problemas.add(campo + " invalido: " + valor);
+        }
+        return normalizado;
+    }
+
+    /**
+     * Mascotas, expedientes y errores de un lote de filas consecutivas
+     */
+    private static class Lote {
+
+        private final long ultimaFila;
+        private final List<Mascota> mascotas;
+        private final List<ExpedienteMedico> expedientes;
+        private final List<String> errores = new ArrayList<>();
+
+        Lote(long ultimaFila, int tamano) {
+            this.ultimaFila = ultimaFila;
+            this.mascotas = new ArrayList<>(tamano);
+            this.expedientes = new ArrayList<>(tamano);
+        }
+    }
+
+    /**
+     * Escribe los lotes validados en orden y guarda el avance despues de cada uno
+     */
+    private class Escritor {
+
+        private final Avance avance;
+        private final Path archivoErrores;
+        private BufferedWriter errores;
+        private boolean verificarExistentes;
+        private long insertadas;
+        private long rechazadas;
+        private long lotes;
+        private final long inicio = System.nanoTime();
+
+        Escritor(Avance avance, Path archivoErrores) throws IOException {
+            this.avance = avance;
+            this.archivoErrores = archivoErrores;
+            // Solo el primer lote despues de una caida puede estar escrito a medias
+            this.verificarExistentes = avance.filas > 0;
+
+            long tamano = Files.exists(archivoErrores) ? Files.size(archivoErrores) : 0;
+            if (avance.bytesErrores < 0) {
+                // Importacion nueva o avance anterior a este campo
+                avance.bytesErrores = tamano;
+                avance.guardar();
+            } else if (tamano > avance.bytesErrores) {
+                // Errores de un lote cuyo avance no se alcanzo a guardar; se anotan otra vez al repetirlo
+                try (FileChannel canal = FileChannel.open(archivoErrores, StandardOpenOption.WRITE)) {
+                    canal.truncate(avance.bytesErrores);
+                }
+            }
+        }
+
+        void escribir(Lote lote) {
+            if (verificarExistentes) {
+                quitarExistentes(lote);
+                verificarExistentes = false;
+            }
+            try {
+                mascotaDAO.guardarTodas(lote.mascotas);
+                expedienteDAO.guardarTodos(lote.expedientes);
+                anotarErrores(lote.errores);
+                avance.filas = lote.ultimaFila;
+                avance.guardar();
+            } catch (IOException | RuntimeException e) {
+                throw new RuntimeException("Importacion interrumpida despues de la fila " + avance.filas
+                        + ", se puede continuar: " + e.getMessage(), e);
+            }
+            insertadas += lote.mascotas.size();
+            rechazadas += lote.errores.size();
+            if (++lotes % LOTES_POR_AVISO == 0) {
+                double segundos = (System.nanoTime() - inicio) / 1e9;
+                System.out.printf("Importacion: fila %d, %d insertadas, %d rechazadas (%.0f filas/s)%n",
+                        avance.filas, insertadas, rechazadas, (insertadas + rechazadas) / segundos);
+            }
+        }
+
+        /**
+         * Quita del lote lo que ya se habia insertado antes de la caida
+         */
+        private void quitarExistentes(Lote lote) {
+            List<ObjectId> ids = new ArrayList<>(lote.mascotas.size());
+            for (Mascota mascota : lote.mascotas) {
+                ids.add(mascota.getId());
+            }
+            Set<ObjectId> existentes = mascotaDAO.buscarPorIds(ids).keySet();
+            if (existentes.isEmpty()) {
+                return;
+            }
+            lote.mascotas.removeIf(mascota -> existentes.contains(mascota.getId()));
+            lote.expedientes.removeIf(expediente -> existentes.contains(expediente.getMascotaId())
+                    && expedienteDAO.buscarPorMascotaId(expediente.getMascotaId()) != null);
+            System.out.println("Importacion: " + existentes.size() + " mascotas del lote ya estaban insertadas");
+        }
+
+        private void anotarErrores(List<String> lineas) throws IOException {
+            if (lineas.isEmpty()) {
+                return;
+            }
+            if (errores == null) {
+                boolean nuevo = Files.notExists(archivoErrores) || Files.size(archivoErrores) == 0;
+                errores = Files.newBufferedWriter(archivoErrores, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                if (nuevo) {
+                    errores.write("fila,error");
+                    errores.newLine();
+                }
+            }
+            for (String linea : lineas) {
+                errores.write(linea);
+                errores.newLine();
+            }
+            errores.flush();
+            avance.bytesErrores = Files.size(archivoErrores);
+        }
+
+        void cerrar() throws IOException {
+            if (errores != null) {
+                errores.close();
+            }
+        }
+    }
+
+    /**
+     * Punto de avance de un archivo: la ultima fila escrita y el
+     * identificador con el que se generan los _id
+     */
+    private static class Avance {
+
+        private final Path archivo;
+        private final int inicio;
+        private final int token;
+        private long filas;
+        // Tamano de errores.csv al guardar el avance, -1 si no se conoce
+        private long bytesErrores = -1;
+        private boolean terminada;
+
+        private Avance(Path archivo, int inicio, int token) {
+            this.archivo = archivo;
+            this.inicio = inicio;
+            this.token = token;
+        }
+
+        static Avance cargar(Path archivo) throws IOException {
+            if (Files.notExists(archivo)) {
+                Avance nuevo = new Avance(archivo, (int) (System.currentTimeMillis() / 1000),
+                        new SecureRandom().nextInt(1 << 24));
+                nuevo.guardar();
+                return nuevo;
+            }
+            Properties propiedades = new Properties();
+            try (Reader entrada = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+                propiedades.load(entrada);
+            }
+            try {
+                Avance avance = new Avance(archivo, Integer.parseInt(propiedades.getProperty("inicio")),
+                        Integer.parseInt(propiedades.getProperty("token")));
+                avance.filas = Long.parseLong(propiedades.getProperty("filas", "0"));
+                avance.bytesErrores = Long.parseLong(propiedades.getProperty("bytesErrores", "-1"));
+                avance.terminada = Boolean.parseBoolean(propiedades.getProperty("terminada", "false"));
+                return avance;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Archivo de avance invalido: " + archivo, e);
+            }
+        }
+
+        /**
+         * 4 bytes de inicio (segundos, como un ObjectId normal), 3 del token,
+         * 1 del tipo (0 mascota, 1 expediente) y 4 del numero de fila
+         */
+        ObjectId idPara(long fila, int tipo) {
+            ByteBuffer bytes = ByteBuffer.allocate(12);
+            bytes.putInt(inicio);
+            bytes.put((byte) (token >> 16)).put((byte) (token >> 8)).put((byte) token);
+            bytes.put((byte) tipo);
+            bytes.putInt((int) fila);
+            return new ObjectId(bytes.array());
+        }
+
+        void guardar() throws IOException {
+            Properties propiedades = new Properties();
+            propiedades.setProperty("inicio", Integer.toString(inicio));
+            propiedades.setProperty("token", Integer.toString(token));
+            propiedades.setProperty("filas", Long.toString(filas));
+            propiedades.setProperty("bytesErrores", Long.toString(bytesErrores));
+            propiedades.setProperty("terminada", Boolean.toString(terminada));
+            // Se escribe aparte y se mueve para no dejar un avance a medias
+            Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+            try (Writer salida = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+                propiedades.store(salida, "Avance de importacion de mascotas");
+            }
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package importacion;
+
+import org.bson.Document;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lee un archivo de importacion fila por fila sin cargarlo completo.
+ *
+ * CSV: la primera linea son los nombres de campo; admite comillas dobles
+ * (con "" para una comilla y saltos de linea dentro). NDJSON: un objeto JSON
+ * por linea; los objetos anidados (por ejemplo "expediente") se aplanan a
+ * sus campos. En ambos casos cada fila es campo -> texto.
+ *
+ * La lectura (siguiente) es secuencial; interpretar cada fila no, para que
+ * el importador lo haga en paralelo.
+ *
+ * @author System
+ */
+public class LectorFilas implements Closeable {
+
+    private final BufferedReader entrada;
+    private final boolean json;
+    private final List<String> encabezados;
+    private long filas;
+
+    private LectorFilas(BufferedReader entrada, boolean json) throws IOException {
+        this.entrada = entrada;
+        this.json = json;
+        this.encabezados = json ? null : leerEncabezados();
+    }
+
+    /**
+     * Abre el archivo segun su extension: .csv, o .ndjson/.jsonl/.json
+     */
+    public static LectorFilas abrir(Path archivo) throws IOException {
+        String nombre = archivo.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean json;
+        if (nombre.endsWith(".csv")) {
+            json = false;
+        } else if (nombre.endsWith(".ndjson") || nombre.endsWith(".jsonl") || nombre.endsWith(".json")) {
+            json = true;
+        } else {
+            throw new IllegalArgumentException("Formato no soportado (se espera .csv o .ndjson): " + archivo);
+        }
+        return new LectorFilas(Files.newBufferedReader(archivo, StandardCharsets.UTF_8), json);
+    }
+
+    /**
+     * Texto de la siguiente fila sin interpretar; en CSV junta las lineas
+     * de un valor entre comillas que contiene saltos de linea
+     *
+     * @return la fila, o null al terminar el archivo
+     */
+    public String siguiente() throws IOException {
+        String linea = entrada.readLine();
+        while (linea != null && linea.isBlank()) {
+            linea = entrada.readLine();
+        }
+        if (linea == null) {
+            return null;
+        }
+        if (!json) {
+            StringBuilder registro = null;
+            while (comillasAbiertas(registro != null ? registro : linea)) {
+                String continuacion = entrada.readLine();
+                if (continuacion == null) {
+                    break;
+                }
+                if (registro == null) {
+                    registro = new StringBuilder(linea);
+                }
+                registro.append('\n').append(continuacion);
+            }
+            if (registro != null) {
+                linea = registro.toString();
+            }
+        }
+        filas++;
+        return linea;
+    }
+
+    /**
+     * Convierte el texto de una fila a campo -> valor. No depende del estado
+     * de lectura, se puede llamar desde varios hilos.
+     *
+     * @throws IllegalArgumentException si la fila no se puede interpretar
+     */
+    public Map<String, String> interpretar(String registro) {
+        return json ? leerJson(registro) : leerCsv(registro);
+    }
+
+    /**
+     * Numero de la ultima fila leida, contando desde 1 sin el encabezado
+     */
+    public long getFilas() {
+        return filas;
+    }
+
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+
+    private List<String> leerEncabezados() throws IOException {
+        String linea = entrada.readLine();
+        if (linea == null) {
+            return List.of();
+        }
+        if (linea.startsWith("\uFEFF")) {
+            linea = linea.substring(1);
+        }
+        List<String> campos = new ArrayList<>();
+        for (String campo : separar(linea)) {
+            campos.add(campo.trim());
+        }
+        return campos;
+    }
+
+    private Map<String, String> leerCsv(String registro) {
+        List<String> valores = separar(registro);
+        if (valores.size() > encabezados.size()) {
+            throw new IllegalArgumentException("Tiene " + valores.size() + " columnas y el encabezado "
+                    + encabezados.size());
+        }
+        Map<String, String> fila = new LinkedHashMap<>();
+        for (int i = 0; i < valores.size(); i++) {
+            fila.put(encabezados.get(i), valores.get(i));
+        }
+        return fila;
+    }
+
+    private static boolean comillasAbiertas(CharSequence texto) {
+        int comillas = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) == '"') {
+                comillas++;
+            }
+        }
+        return comillas % 2 != 0;
+    }
+
+    private static List<String> separar(String registro) {
+        if (comillasAbiertas(registro)) {
+            throw new IllegalArgumentException("Comilla sin cerrar");
+        }
+        List<String> valores = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < registro.length(); i++) {
+            char c = registro.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < registro.length() && registro.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                valores.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        valores.add(actual.toString());
+        return valores;
+    }
+
+    private static Map<String, String> leerJson(String linea) {
+        Document documento;
+        try {
+            documento = Document.parse(linea);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("JSON invalido: " + e.getMessage());
+        }
+        Map<String, String> fila = new LinkedHashMap<>();
+        aplanar(documento, fila);
+        return fila;
+    }
+
+    private static void aplanar(Document documento, Map<String, String> fila) {
+        for (Map.Entry<String, Object> campo : documento.entrySet()) {
+            Object valor = campo.getValue();
+            if (valor instanceof Document) {
+                aplanar((Document) valor, fila);
+            } else if (valor != null) {
+                fila.put(campo.getKey(), valor.toString());
+            }
+        }
+    }
+}
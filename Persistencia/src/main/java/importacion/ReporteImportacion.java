@@ -0,0 +1,76 @@
+package importacion;
+
+import java.nio.file.Path;
+
+/**
+ * Resultado de una importacion de mascotas
+ *
+ * @author System
+ */
+public class ReporteImportacion {
+
+    private final long filasLeidas;
+    private final long omitidas;
+    private final long insertadas;
+    private final long rechazadas;
+    private final long milisegundos;
+    private final Path archivoErrores;
+
+    public ReporteImportacion(long filasLeidas, long omitidas, long insertadas, long rechazadas,
+            long milisegundos, Path archivoErrores) {
+        this.filasLeidas = filasLeidas;
+        this.omitidas = omitidas;
+        this.insertadas = insertadas;
+        this.rechazadas = rechazadas;
+        this.milisegundos = milisegundos;
+        this.archivoErrores = archivoErrores;
+    }
+
+    /**
+     * Filas del archivo, incluidas las que ya se habian importado antes
+     */
+    public long getFilasLeidas() {
+        return filasLeidas;
+    }
+
+    /**
+     * Filas que se saltaron por estar antes del punto de avance
+     */
+    public long getOmitidas() {
+        return omitidas;
+    }
+
+    public long getInsertadas() {
+        return insertadas;
+    }
+
+    public long getRechazadas() {
+        return rechazadas;
+    }
+
+    public long getMilisegundos() {
+        return milisegundos;
+    }
+
+    /**
+     * Archivo con una linea por fila rechazada, o null si no hubo errores
+     */
+    public Path getArchivoErrores() {
+        return archivoErrores;
+    }
+
+    /**
+     * Filas procesadas en esta ejecucion por segundo
+     */
+    public double getFilasPorSegundo() {
+        long procesadas = insertadas + rechazadas;
+        return milisegundos == 0 ? procesadas : procesadas * 1000.0 / milisegundos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d filas leidas (%d ya importadas), %d insertadas, %d rechazadas en %d ms"
+                + " (%.0f filas/s)%s", filasLeidas, omitidas, insertadas, rechazadas, milisegundos,
+                getFilasPorSegundo(), archivoErrores != null ? ", errores en " + archivoErrores : "");
+    }
+}
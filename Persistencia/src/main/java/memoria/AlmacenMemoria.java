@@ -0,0 +1,240 @@
+package memoria;
+
+import codecs.CodecEntidad;
+import conexion.ConfiguracionMongoDB;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.bson.types.ObjectId;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Motor de almacenamiento en memoria, alternativa a MongoDB para el modo
+ * kiosco sin servidor y para pruebas de rendimiento deterministas. Cada
+ * coleccion es una TablaMemoria con indices sobre los campos que los DAOs
+ * consultan por igualdad.
+ *
+ * Con persistencia.memoria.archivo configurado los datos sobreviven al
+ * reinicio: el archivo es un snapshot (una linea JSON por documento) y
+ * junto a el se escribe una bitacora (archivo.log) con cada escritura. Al
+ * abrir se carga el snapshot, se reproduce la bitacora y se compacta; al
+ * cerrar se vuelve a compactar.
+ *
+ * @author System
+ */
+public class AlmacenMemoria {
+
+    /**
+     * Campos indexados por coleccion, los mismos que filtran los DAOs
+     */
+    private static final Map<String, List<String>> INDICES = Map.of(
+            "mascotas", List.of("disponible", "especie"),
+            "usuarios", List.of("infoPersonal.correo"),
+            "solicitudes", List.of("idUsuario"),
+            "citas", List.of("idUsuario"),
+            "citasDisponibles", List.of("disponible"),
+            "expedientes_medicos", List.of("mascotaId"),
+            "auditoria_solicitudes", List.of("idSolicitud", "idAdmin"),
+            "metricas_diarias", List.of("dia"));
+
+    private static final JsonWriterSettings JSON = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+
+    private static AlmacenMemoria instancia;
+
+    private final Map<String, TablaMemoria> tablas = new ConcurrentHashMap<>();
+    private final Path archivo;
+    private final Path bitacora;
+    private BufferedWriter escritor;
+    private long escrituras;
+
+    /**
+     * @param archivo snapshot donde persistir, null para solo memoria
+     */
+    public AlmacenMemoria(Path archivo) {
+        this.archivo = archivo;
+        this.bitacora = archivo == null ? null : archivo.resolveSibling(archivo.getFileName() + ".log");
+    }
+
+    /**
+     * Almacen compartido de la aplicacion, abierto con la configuracion
+     */
+    public static synchronized AlmacenMemoria getInstancia() {
+        if (instancia == null) {
+            instancia = new AlmacenMemoria(new ConfiguracionMongoDB().getArchivoMemoria());
+            instancia.abrir();
+            if (instancia.archivo != null) {
+                Runtime.getRuntime().addShutdownHook(new Thread(instancia::cerrar, "cierre-almacen-memoria"));
+            }
+        }
+        return instancia;
+    }
+
+    public TablaMemoria tabla(String nombre) {
+        return tablas.computeIfAbsent(nombre, n -> new TablaMemoria(n, INDICES.getOrDefault(n, List.of()), this));
+    }
+
+    public <T> ColeccionMemoria<T> coleccion(String nombre, CodecEntidad<T> codec) {
+        return new ColeccionMemoria<>(tabla(nombre), codec);
+    }
+
+    /**
+     * Carga el snapshot y la bitacora si hay archivo configurado
+     */
+    public synchronized void abrir() {
+        if (archivo == null || escritor != null) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        long cargados = 0;
+        long reproducidas = 0;
+        try {
+            if (Files.exists(archivo)) {
+                cargados = leer(archivo, false);
+            }
+            if (Files.exists(bitacora)) {
+                reproducidas = leer(bitacora, true);
+            }
+            compactar();
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo abrir el almacen en memoria " + archivo + ": " + e.getMessage(), e);
+        }
+        System.out.println("Almacen en memoria abierto desde " + archivo + ": " + cargados + " documentos, "
+                + reproducidas + " escrituras de bitacora en " + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Escribe un snapshot con el estado actual y vacia la bitacora
+     */
+    public synchronized void compactar() {
+        if (archivo == null) {
+            return;
+        }
+        try {
+            cerrarEscritor();
+            if (archivo.getParent() != null) {
+                Files.createDirectories(archivo.getParent());
+            }
+            // Se escribe aparte y se mueve para no dejar un snapshot a medias
+            Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+            try (BufferedWriter salida = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+                for (TablaMemoria tabla : tablas.values()) {
+                    for (BsonDocument documento : tabla.todos()) {
+                        salida.write(new BsonDocument("c", new BsonString(tabla.getNombre()))
+                                .append("d", documento).toJson(JSON));
+                        salida.newLine();
+                    }
+                }
+            }
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            escritor = Files.newBufferedWriter(bitacora, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            escrituras = 0;
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo compactar el almacen en memoria: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compacta y cierra la bitacora
+     */
+    public synchronized void cerrar() {
+        if (escritor == null) {
+            return;
+        }
+        compactar();
+        try {
+            cerrarEscritor();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar la bitacora del almacen en memoria: " + e.getMessage());
+        }
+        System.out.println("Almacen en memoria guardado en " + archivo);
+    }
+
+    /**
+     * Documentos por coleccion, para diagnostico
+     */
+    public String resumen() {
+        StringBuilder resumen = new StringBuilder("Almacen en memoria:");
+        tablas.values().forEach(tabla -> resumen.append(' ').append(tabla.getNombre())
+                .append('=').append(tabla.tamano()));
+        if (archivo != null) {
+            resumen.append(", ").append(escrituras).append(" escrituras en bitacora desde la ultima compactacion");
+        }
+        return resumen.toString();
+    }
+
+    void registrarEscritura(String tabla, BsonDocument documento) {
+        anotar(new BsonDocument("c", new BsonString(tabla)).append("d", documento));
+    }
+
+    void registrarEliminacion(String tabla, ObjectId id) {
+        anotar(new BsonDocument("c", new BsonString(tabla)).append("x", new BsonObjectId(id)));
+    }
+
+    private synchronized void anotar(BsonDocument registro) {
+        if (escritor == null) {
+            return;
+        }
+        try {
+            escritor.write(registro.toJson(JSON));
+            escritor.newLine();
+            escritor.flush();
+            escrituras++;
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo escribir la bitacora del almacen en memoria: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lee un snapshot o una bitacora. Una ultima linea incompleta (la
+     * aplicacion se cerro a media escritura) se descarta.
+     */
+    private long leer(Path origen, boolean esBitacora) throws IOException {
+        long lineas = 0;
+        try (BufferedReader entrada = Files.newBufferedReader(origen, StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = entrada.readLine()) != null) {
+                if (linea.isBlank()) {
+                    continue;
+                }
+                BsonDocument registro;
+                try {
+                    registro = BsonDocument.parse(linea);
+                } catch (RuntimeException e) {
+                    System.err.println("Linea invalida en " + origen + " despues de " + lineas
+                            + " registros, se ignora el resto: " + e.getMessage());
+                    break;
+                }
+                TablaMemoria tabla = tabla(registro.getString("c").getValue());
+                if (registro.containsKey("d")) {
+                    BsonDocument documento = registro.getDocument("d");
+                    tabla.reproducir(documento.getObjectId("_id").getValue(), documento);
+                } else if (esBitacora) {
+                    tabla.reproducir(registro.getObjectId("x").getValue(), null);
+                }
+                lineas++;
+            }
+        }
+        return lineas;
+    }
+
+    private void cerrarEscritor() throws IOException {
+        if (escritor != null) {
+            escritor.close();
+            escritor = null;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package memoria;
+
+import codecs.RegistroCodecs;
+import com.mongodb.client.model.Filters;
+import daos.IAuditoriaSolicitudDAO;
+import entities.AuditoriaSolicitud;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import paginacion.Pagina;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bitacora de cambios de estado de solicitudes sobre el almacen en memoria
+ *
+ * @author System
+ */
+public class AuditoriaSolicitudDAOMemoria implements IAuditoriaSolicitudDAO {
+
+    private final ColeccionMemoria<AuditoriaSolicitud> coleccion;
+
+    public AuditoriaSolicitudDAOMemoria(AlmacenMemoria almacen) {
+        this.coleccion = almacen.coleccion("auditoria_solicitudes", RegistroCodecs.AUDITORIA_SOLICITUD);
+    }
+
+    @Override
+    public void guardarTodos(List<AuditoriaSolicitud> registros) {
+        if (registros == null) {
+            return;
+        }
+        for (AuditoriaSolicitud registro : registros) {
+            // Igual que la llave duplicada en MongoDB: un reintento no duplica
+            if (registro.getId() == null || coleccion.buscarPorId(registro.getId()) == null) {
+                coleccion.insertar(registro);
+            }
+        }
+    }
+
+    @Override
+    public Pagina<AuditoriaSolicitud> buscarPorSolicitud(ObjectId idSolicitud, String despuesDe, int tamano) {
+        return coleccion.paginar(Filters.eq("idSolicitud", idSolicitud), despuesDe, tamano, true);
+    }
+
+    @Override
+    public Pagina<AuditoriaSolicitud> buscarPorAdmin(String idAdmin, String despuesDe, int tamano) {
+        return coleccion.paginar(Filters.eq("idAdmin", idAdmin), despuesDe, tamano, true);
+    }
+
+    @Override
+    public long recorrer(Bson filtro, int lote, Consumer<AuditoriaSolicitud> consumidor) {
+        return coleccion.recorrer(filtro, consumidor);
+    }
+}
@@ -0,0 +1,136 @@
+package memoria;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Aproximacion en memoria de un $text de MongoDB: sin acentos ni
+ * mayusculas, sin palabras vacias y con una raiz sencilla (sin plural ni
+ * vocal final). Alcanza con que coincida una palabra; "-palabra"
+ * excluye y las frases entre comillas se exigen completas. El puntaje suma
+ * el peso del campo por cada palabra encontrada, con mas valor en campos
+ * cortos, como el textScore; no da los mismos numeros que el servidor pero
+ * si un orden parecido.
+ *
+ * @author System
+ */
+public final class BusquedaTextoMemoria {
+
+    private static final Pattern FRASE = Pattern.compile("\"([^\"]*)\"");
+    private static final Pattern SEPARADOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "el", "la", "lo", "los", "las", "un", "una", "unos", "unas", "de", "del", "al", "a", "y", "e",
+            "o", "u", "en", "con", "por", "para", "que", "muy", "su", "sus", "es", "se");
+
+    private final List<String> palabras = new ArrayList<>();
+    private final List<String> excluidas = new ArrayList<>();
+    private final List<String> frases = new ArrayList<>();
+
+    /**
+     * @throws IllegalArgumentException si no queda ninguna palabra que buscar
+     */
+    public BusquedaTextoMemoria(String texto) {
+        Matcher frase = FRASE.matcher(texto == null ? "" : texto);
+        StringBuilder resto = new StringBuilder();
+        while (frase.find()) {
+            String normalizada = String.join(" ", raices(frase.group(1)));
+            if (!normalizada.isEmpty()) {
+                frases.add(normalizada);
+            }
+            frase.appendReplacement(resto, " ");
+        }
+        frase.appendTail(resto);
+
+        for (String termino : resto.toString().trim().split("\\s+")) {
+            boolean excluir = termino.startsWith("-");
+            List<String> raices = raices(excluir ? termino.substring(1) : termino);
+            (excluir ? excluidas : palabras).addAll(raices);
+        }
+        // Las palabras de las frases tambien suman al puntaje
+        for (String normalizada : frases) {
+            for (String raiz : normalizada.split(" ")) {
+                palabras.add(raiz);
+            }
+        }
+        if (palabras.isEmpty()) {
+            throw new IllegalArgumentException("Texto de busqueda vacio");
+        }
+    }
+
+    /**
+     * Puntaje del documento, 0 si no coincide
+     *
+     * @param pesos campo -> peso
+     */
+    public double puntaje(BsonDocument documento, Map<String, Integer> pesos) {
+        double puntaje = 0;
+        StringBuilder todo = new StringBuilder();
+        for (Map.Entry<String, Integer> peso : pesos.entrySet()) {
+            BsonValue valor = documento.get(peso.getKey());
+            if (valor == null || !valor.isString()) {
+                continue;
+            }
+            List<String> raices = raices(valor.asString().getValue());
+            todo.append(' ').append(String.join(" ", raices)).append(' ');
+            for (String palabra : palabras) {
+                long apariciones = raices.stream().filter(palabra::equals).count();
+                if (apariciones > 0) {
+                    puntaje += peso.getValue() * (0.5 + 0.5 * apariciones / raices.size());
+                }
+            }
+        }
+
+        String campos = todo.toString();
+        for (String excluida : excluidas) {
+            if (campos.contains(' ' + excluida + ' ')) {
+                return 0;
+            }
+        }
+        for (String frase : frases) {
+            if (!campos.contains(' ' + frase + ' ')) {
+                return 0;
+            }
+        }
+        return puntaje;
+    }
+
+    private static List<String> raices(String texto) {
+        String normalizado = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> raices = new ArrayList<>();
+        for (String palabra : SEPARADOR.split(normalizado)) {
+            if (!palabra.isEmpty() && !PALABRAS_VACIAS.contains(palabra)) {
+                raices.add(raiz(palabra));
+            }
+        }
+        return raices;
+    }
+
+    /**
+     * Quita el plural y la vocal final, asi perro, perros y perra quedan
+     * igual
+     */
+    private static String raiz(String palabra) {
+        String raiz = palabra;
+        if (raiz.length() > 4 && raiz.endsWith("es")) {
+            raiz = raiz.substring(0, raiz.length() - 2);
+        } else if (raiz.length() > 3 && raiz.endsWith("s")) {
+            raiz = raiz.substring(0, raiz.length() - 1);
+        }
+        if (raiz.length() > 3 && "aeo".indexOf(raiz.charAt(raiz.length() - 1)) >= 0) {
+            raiz = raiz.substring(0, raiz.length() - 1);
+        }
+        return raiz;
+    }
+}
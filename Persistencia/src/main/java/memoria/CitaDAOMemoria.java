@@ -0,0 +1,58 @@
+package memoria;
+
+import codecs.RegistroCodecs;
+import com.mongodb.client.model.Filters;
+import daos.ICitaDAO;
+import daos.UnidadDeTrabajo;
+import entities.Cita;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * DAO de citas sobre el almacen en memoria, con las mismas consultas que
+ * CitaDAO
+ *
+ * @author System
+ */
+public class CitaDAOMemoria implements ICitaDAO {
+
+    private final ColeccionMemoria<Cita> coleccion;
+
+    public CitaDAOMemoria(AlmacenMemoria almacen) {
+        this.coleccion = almacen.coleccion("citas", RegistroCodecs.CITA);
+    }
+
+    @Override
+    public ObjectId guardar(Cita cita) {
+        return coleccion.insertar(cita);
+    }
+
+    @Override
+    public void registrarNueva(UnidadDeTrabajo unidad, Cita cita) {
+        unidad.registrarAccion(() -> coleccion.insertar(cita) != null, () -> coleccion.eliminar(cita.getId()));
+    }
+
+    @Override
+    public Cita buscarPorId(ObjectId id) {
+        return coleccion.buscarPorId(id);
+    }
+
+    @Override
+    public List<Cita> buscarPorUsuario(ObjectId idUsuario) {
+        return coleccion.buscar(Filters.eq("idUsuario", idUsuario));
+    }
+
+    @Override
+    public long recorrer(Bson filtro, int lote, Consumer<Cita> consumidor) {
+        return coleccion.recorrer(filtro, consumidor);
+    }
+
+    @Override
+    public Stream<Cita> flujo(Bson filtro, int lote) {
+        return coleccion.flujo(filtro);
+    }
+}
@@ -0,0 +1,132 @@
+package memoria;
+
+import codecs.RegistroCodecs;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import daos.ICitaDisponibleDAO;
+import daos.ResultadoReserva;
+import entities.CitaDisponible;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * DAO de citas disponibles sobre el almacen en memoria. La reserva filtra
+ * y actualiza dentro del candado de la tabla, asi es tan atomica como el
+ * findOneAndUpdate de CitaDisponibleDAO.
+ *
+ * @author System
+ */
+public class CitaDisponibleDAOMemoria implements ICitaDisponibleDAO {
+
+    // Mismo orden que el sort {fecha: 1, hora: 1} de MongoDB
+    private static final Comparator<BsonDocument> POR_FECHA_Y_HORA = Comparator
+            .comparing((BsonDocument documento) -> documento.get("fecha"), CitaDisponibleDAOMemoria::comparar)
+            .thenComparing(documento -> documento.get("hora"), CitaDisponibleDAOMemoria::comparar);
+
+    private final ColeccionMemoria<CitaDisponible> coleccion;
+
+    public CitaDisponibleDAOMemoria(AlmacenMemoria almacen) {
+        this.coleccion = almacen.coleccion("citasDisponibles", RegistroCodecs.CITA_DISPONIBLE);
+    }
+
+    @Override
+    public List<CitaDisponible> obtenerCitasDisponibles() {
+        return coleccion.getTabla().consultar(Filters.eq("disponible", true))
+                .sorted(POR_FECHA_Y_HORA)
+                .map(coleccion::decodificar)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    @Override
+    public ResultadoReserva reservarCita(String idCita, String idUsuario) {
+        if (idCita == null || !ObjectId.isValid(idCita)) {
+            throw new IllegalArgumentException("ID de cita invalido: " + idCita);
+        }
+        if (idUsuario != null && !ObjectId.isValid(idUsuario)) {
+            throw new IllegalArgumentException("ID de usuario invalido: " + idUsuario);
+        }
+        ObjectId citaObjId = new ObjectId(idCita);
+        ObjectId usuarioObjId = idUsuario != null ? new ObjectId(idUsuario) : null;
+
+        CitaDisponible reservada = coleccion.actualizarUno(
+                Filters.and(
+                        Filters.eq("_id", citaObjId),
+                        Filters.eq("disponible", true)),
+                Updates.combine(
+                        Updates.set("disponible", false),
+                        Updates.set("idUsuario", usuarioObjId)));
+        if (reservada != null) {
+            return ResultadoReserva.RESERVADA;
+        }
+        return coleccion.getTabla().buscar(citaObjId) != null ? ResultadoReserva.OCUPADA
+                : ResultadoReserva.NO_EXISTE;
+    }
+
+    @Override
+    public boolean marcarCitaOcupada(String idCita, String idUsuario) {
+        try {
+            return reservarCita(idCita, idUsuario) == ResultadoReserva.RESERVADA;
+        } catch (Exception e) {
+            System.err.println("Error al marcar cita como ocupada: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean liberarCita(String idCita) {
+        try {
+            coleccion.actualizarUno(Filters.eq("_id", new ObjectId(idCita)),
+                    Updates.combine(
+                            Updates.set("disponible", true),
+                            Updates.set("idUsuario", null)));
+            return true;
+        } catch (Exception e) {
+            System.err.println("Error al liberar cita: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean estaCitaDisponible(String idCita) {
+        try {
+            return coleccion.contar(Filters.and(
+                    Filters.eq("_id", new ObjectId(idCita)),
+                    Filters.eq("disponible", true))) > 0;
+        } catch (Exception e) {
+            System.err.println("Error al verificar disponibilidad de cita: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public long recorrer(Bson filtro, int lote, Consumer<CitaDisponible> consumidor) {
+        return coleccion.recorrer(filtro, consumidor);
+    }
+
+    @Override
+    public Stream<CitaDisponible> flujo(Bson filtro, int lote) {
+        return coleccion.flujo(filtro);
+    }
+
+    /**
+     * Los nulos y los campos ausentes van primero, como en MongoDB
+     */
+    private static int comparar(BsonValue a, BsonValue b) {
+        boolean aVacio = a == null || a.isNull();
+        boolean bVacio = b == null || b.isNull();
+        if (aVacio || bVacio) {
+            return Boolean.compare(!aVacio, !bVacio);
+        }
+        Integer resultado = FiltroMemoria.comparar(a, b);
+        return resultado == null ? 0 : resultado;
+    }
+}
@@ -0,0 +1,157 @@
+package memoria;
+
+import codecs.CodecEntidad;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import paginacion.Pagina;
+import paginacion.Paginador;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Vista tipada de una TablaMemoria: codifica y decodifica las entidades con
+ * los mismos codecs que MongoDB. Cada lectura decodifica una entidad nueva,
+ * asi quien la modifique no altera lo guardado.
+ *
+ * @param <T> entidad de la coleccion
+ * @author System
+ */
+public class ColeccionMemoria<T> {
+
+    private static final DecoderContext CONTEXTO = DecoderContext.builder().build();
+
+    private final TablaMemoria tabla;
+    private final CodecEntidad<T> codec;
+
+    public ColeccionMemoria(TablaMemoria tabla, CodecEntidad<T> codec) {
+        this.tabla = tabla;
+        this.codec = codec;
+    }
+
+    public TablaMemoria getTabla() {
+        return tabla;
+    }
+
+    /**
+     * Inserta la entidad; si no tiene _id se le asigna uno
+     */
+    public ObjectId insertar(T entidad) {
+        codec.generateIdIfAbsentFromDocument(entidad);
+        tabla.insertar(codec.aDocumento(entidad));
+        return codec.getDocumentId(entidad).asObjectId().getValue();
+    }
+
+    public T buscarPorId(ObjectId id) {
+        return decodificar(tabla.buscar(id));
+    }
+
+    public T buscarUno(Bson filtro) {
+        return tabla.consultar(filtro).findFirst().map(this::decodificar).orElse(null);
+    }
+
+    public List<T> buscar(Bson filtro) {
+        return tabla.consultar(filtro).map(this::decodificar).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    public Map<ObjectId, T> buscarPorIds(Collection<ObjectId> ids) {
+        Map<ObjectId, T> encontrados = new HashMap<>();
+        if (ids == null) {
+            return encontrados;
+        }
+        for (ObjectId id : ids) {
+            T entidad = buscarPorId(id);
+            if (entidad != null) {
+                encontrados.put(id, entidad);
+            }
+        }
+        return encontrados;
+    }
+
+    public long contar(Bson filtro) {
+        return tabla.contar(filtro);
+    }
+
+    /**
+     * Aplica el cambio al primer documento que cumple el filtro
+     *
+     * @return la entidad ya actualizada, o null si ninguno coincidio
+     */
+    public T actualizarUno(Bson filtro, Bson cambio) {
+        return decodificar(tabla.actualizarUno(filtro, cambio));
+    }
+
+    public boolean eliminar(ObjectId id) {
+        return tabla.eliminar(id);
+    }
+
+    /**
+     * Pagina por cursor sobre _id con las mismas reglas que Paginador
+     */
+    public Pagina<T> paginar(Bson filtro, String despuesDe, int tamano, boolean descendente) {
+        return paginar(filtro, despuesDe, tamano, descendente, this::decodificar,
+                entidad -> codec.getDocumentId(entidad).asObjectId().getValue());
+    }
+
+    /**
+     * Pagina convirtiendo cada documento, por ejemplo a un resumen o a una
+     * fila de listado
+     */
+    public <R> Pagina<R> paginar(Bson filtro, String despuesDe, int tamano, boolean descendente,
+            Function<BsonDocument, R> conversion, Function<R, ObjectId> obtenerId) {
+        Paginador.validarTamano(tamano);
+        ObjectId ultimo = despuesDe == null ? null : Paginador.leerCursor(despuesDe);
+
+        List<BsonDocument> documentos = tabla.pagina(filtro, ultimo, tamano + 1, descendente);
+        boolean hayMas = documentos.size() > tamano;
+        if (hayMas) {
+            documentos.remove(tamano);
+        }
+        List<R> elementos = new ArrayList<>(documentos.size());
+        for (BsonDocument documento : documentos) {
+            elementos.add(conversion.apply(documento));
+        }
+
+        String cursor = hayMas ? obtenerId.apply(elementos.get(elementos.size() - 1)).toHexString() : null;
+        long total = despuesDe != null ? Pagina.SIN_TOTAL : hayMas ? tabla.contar(filtro) : elementos.size();
+        return new Pagina<>(elementos, cursor, hayMas, total);
+    }
+
+    public long recorrer(Bson filtro, Consumer<T> consumidor) {
+        long[] recorridos = {0};
+        tabla.consultar(filtro).forEach(documento -> {
+            consumidor.accept(decodificar(documento));
+            recorridos[0]++;
+        });
+        return recorridos[0];
+    }
+
+    public Stream<T> flujo(Bson filtro) {
+        return tabla.consultar(filtro).map(this::decodificar);
+    }
+
+    public T decodificar(BsonDocument documento) {
+        return decodificar(documento, codec);
+    }
+
+    /**
+     * Decodifica un documento con otro codec, por ejemplo uno de resumen
+     */
+    public static <R> R decodificar(BsonDocument documento, Codec<R> codec) {
+        if (documento == null) {
+            return null;
+        }
+        return codec.decode(new BsonDocumentReader(documento), CONTEXTO);
+    }
+}
@@ -0,0 +1,105 @@
+package memoria;
+
+import daos.IEstadisticasDAO;
+import entities.EstadisticasAdmin;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.IsoFields;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Estadisticas del tablero sobre el almacen en memoria, con los mismos
+ * criterios que el $facet de EstadisticasDAO: estados en minusculas, las
+ * bajas juntas y semanas ISO en UTC.
+ *
+ * @author System
+ */
+public class EstadisticasDAOMemoria implements IEstadisticasDAO {
+
+    private final AlmacenMemoria almacen;
+
+    public EstadisticasDAOMemoria(AlmacenMemoria almacen) {
+        this.almacen = almacen;
+    }
+
+    @Override
+    public EstadisticasAdmin calcular(int semanas) {
+        LocalDate desde = EstadisticasAdmin.inicioSemanas(semanas);
+        Instant desdeInstante = desde.atStartOfDay(ZoneOffset.UTC).toInstant();
+
+        EstadisticasAdmin estadisticas = new EstadisticasAdmin();
+        estadisticas.setCalculadoEn(LocalDateTime.now());
+        estadisticas.iniciarSemanas(desde);
+
+        TablaMemoria mascotas = almacen.tabla("mascotas");
+        estadisticas.setMascotasPorEstado(contar(mascotas, EstadisticasDAOMemoria::estadoMascota));
+        estadisticas.setMascotasPorEspecie(contar(mascotas, documento -> texto(documento, "especie")));
+        Map<String, Long> disponibles = contar(mascotas, documento -> String.valueOf(disponible(documento)));
+        estadisticas.setMascotasDisponibles(disponibles.getOrDefault("true", 0L));
+        estadisticas.setMascotasNoDisponibles(disponibles.getOrDefault("false", 0L));
+
+        TablaMemoria solicitudes = almacen.tabla("solicitudes");
+        estadisticas.setSolicitudesPorEstado(contar(solicitudes, EstadisticasDAOMemoria::estado));
+        Map<String, Long> citas = contar(almacen.tabla("citasDisponibles"),
+                documento -> String.valueOf(disponible(documento)));
+        estadisticas.setCitasLibres(citas.getOrDefault("true", 0L));
+        estadisticas.setCitasReservadas(citas.getOrDefault("false", 0L));
+
+        solicitudes.consultar(new BsonDocument())
+                .filter(documento -> ESTADO_APROBADA.equals(estado(documento)))
+                .map(documento -> documento.get("fechaSolicitud"))
+                .filter(fecha -> fecha != null && fecha.isDateTime())
+                .map(fecha -> Instant.ofEpochMilli(fecha.asDateTime().getValue()))
+                .filter(fecha -> !fecha.isBefore(desdeInstante))
+                .map(fecha -> ZonedDateTime.ofInstant(fecha, ZoneOffset.UTC))
+                .sorted()
+                .forEach(fecha -> estadisticas.getAdopcionesPorSemana().merge(EstadisticasAdmin.etiquetaSemana(
+                        fecha.get(IsoFields.WEEK_BASED_YEAR), fecha.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR)),
+                        1L, Long::sum));
+        return estadisticas;
+    }
+
+    /**
+     * Igual que $sortByCount: de mayor a menor conteo
+     */
+    private static Map<String, Long> contar(TablaMemoria tabla, Function<BsonDocument, String> clave) {
+        Map<String, Long> conteos = tabla.consultar(new BsonDocument())
+                .collect(Collectors.groupingBy(clave, Collectors.counting()));
+        return conteos.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    private static String estadoMascota(BsonDocument documento) {
+        BsonValue estado = documento.get("estado");
+        if (estado != null && estado.isString() && estado.asString().getValue().regionMatches(true, 0, "BAJA", 0, 4)) {
+            return ESTADO_BAJA;
+        }
+        return estado(documento);
+    }
+
+    private static String estado(BsonDocument documento) {
+        return texto(documento, "estado").toLowerCase(Locale.ROOT);
+    }
+
+    private static String texto(BsonDocument documento, String campo) {
+        BsonValue valor = documento.get(campo);
+        return valor != null && valor.isString() ? valor.asString().getValue() : SIN_DATO;
+    }
+
+    private static boolean disponible(BsonDocument documento) {
+        BsonValue valor = documento.get("disponible");
+        return valor != null && valor.isBoolean() && valor.asBoolean().getValue();
+    }
+}
@@ -0,0 +1,72 @@
+package memoria;
+
+import codecs.RegistroCodecs;
+import com.mongodb.client.model.Filters;
+import daos.IExpedienteMedicoDAO;
+import entities.ExpedienteMedico;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * DAO de expedientes medicos sobre el almacen en memoria. Los datos en
+ * memoria siempre se escriben con mascotaId, no hace falta el filtro de
+ * la migracion.
+ *
+ * @author System
+ */
+public class ExpedienteMedicoDAOMemoria implements IExpedienteMedicoDAO {
+
+    private final ColeccionMemoria<ExpedienteMedico> coleccion;
+
+    public ExpedienteMedicoDAOMemoria(AlmacenMemoria almacen) {
+        this.coleccion = almacen.coleccion("expedientes_medicos", RegistroCodecs.EXPEDIENTE);
+    }
+
+    @Override
+    public ObjectId guardar(ExpedienteMedico expediente) {
+        coleccion.insertar(expediente);
+        expediente.limpiarCambios();
+        return expediente.getId();
+    }
+
+    @Override
+    public void guardarTodos(List<ExpedienteMedico> expedientes) {
+        if (expedientes == null) {
+            return;
+        }
+        for (ExpedienteMedico expediente : expedientes) {
+            guardar(expediente);
+        }
+    }
+
+    @Override
+    public ExpedienteMedico buscarPorMascotaId(ObjectId mascotaId) {
+        if (mascotaId == null) {
+            return null;
+        }
+        return coleccion.buscarUno(Filters.eq("mascotaId", mascotaId));
+    }
+
+    @Override
+    public void actualizar(ExpedienteMedico expediente) {
+        if (expediente.getId() != null && expediente.hayCambios()) {
+            coleccion.actualizarUno(Filters.eq("_id", expediente.getId()),
+                    RegistroCodecs.EXPEDIENTE.actualizacionParcial(expediente, expediente.getCamposModificados()));
+            expediente.limpiarCambios();
+        }
+    }
+
+    @Override
+    public long recorrer(Bson filtro, int lote, Consumer<ExpedienteMedico> consumidor) {
+        return coleccion.recorrer(filtro, consumidor);
+    }
+
+    @Override
+    public Stream<ExpedienteMedico> flujo(Bson filtro, int lote) {
+        return coleccion.flujo(filtro);
+    }
+}
@@ -0,0 +1,393 @@
+package memoria;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonNull;
+import org.bson.BsonRegularExpression;
+import org.bson.BsonValue;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Evalua en memoria los filtros y actualizaciones que arman los DAOs con
+ * Filters y Updates, para que el motor en memoria acepte las mismas
+ * consultas que MongoDB. Soporta el subconjunto que usa el proyecto:
+ * igualdad, $ne, $gt/$gte/$lt/$lte, $in/$nin, $exists, $regex, $and, $or,
+ * $nor y $not; en actualizaciones $set, $unset e $inc. Cualquier otro
+ * operador lanza IllegalArgumentException.
+ *
+ * @author System
+ */
+public final class FiltroMemoria {
+
+    // Los filtros de los DAOs repiten pocos patrones; compilarlos una vez
+    private static final Map<String, Pattern> PATRONES = new ConcurrentHashMap<>();
+
+    private FiltroMemoria() {
+    }
+
+    /**
+     * Convierte el filtro en un predicado sobre documentos; null o vacio
+     * acepta todo
+     */
+    public static Predicate<BsonDocument> compilar(Bson filtro) {
+        if (filtro == null) {
+            return documento -> true;
+        }
+        BsonDocument condiciones = filtro.toBsonDocument();
+        if (condiciones.isEmpty()) {
+            return documento -> true;
+        }
+        return documento -> cumple(documento, condiciones);
+    }
+
+    /**
+     * Igualdades simples del primer nivel del filtro (campo: valor); el
+     * motor las usa para elegir un indice
+     */
+    public static BsonDocument igualdades(Bson filtro) {
+        BsonDocument resultado = new BsonDocument();
+        if (filtro == null) {
+            return resultado;
+        }
+        BsonDocument condiciones = filtro.toBsonDocument();
+        for (Map.Entry<String, BsonValue> condicion : condiciones.entrySet()) {
+            String campo = condicion.getKey();
+            BsonValue valor = condicion.getValue();
+            if ("$and".equals(campo)) {
+                for (BsonValue parte : valor.asArray()) {
+                    resultado.putAll(igualdades(parte.asDocument()));
+                }
+            } else if (!campo.startsWith("$") && !esOperador(valor) && !valor.isRegularExpression()) {
+                resultado.put(campo, valor);
+            } else if (!campo.startsWith("$") && valor.asDocument().size() == 1
+                    && valor.asDocument().containsKey("$eq")) {
+                resultado.put(campo, valor.asDocument().get("$eq"));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Aplica una actualizacion ($set, $unset, $inc) sobre el documento
+     */
+    public static void aplicar(BsonDocument documento, Bson actualizacion) {
+        for (Map.Entry<String, BsonValue> operador : actualizacion.toBsonDocument().entrySet()) {
+            BsonDocument campos = operador.getValue().asDocument();
+            switch (operador.getKey()) {
+                case "$set":
+                    for (Map.Entry<String, BsonValue> campo : campos.entrySet()) {
+                        asignar(documento, campo.getKey(), campo.getValue());
+                    }
+                    break;
+                case "$unset":
+                    for (String campo : campos.keySet()) {
+                        quitar(documento, campo);
+                    }
+                    break;
+                case "$inc":
+                    for (Map.Entry<String, BsonValue> campo : campos.entrySet()) {
+                        BsonValue actual = valor(documento, campo.getKey());
+                        asignar(documento, campo.getKey(), sumar(actual, campo.getValue()));
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Operador de actualizacion no soportado en memoria: "
+                            + operador.getKey());
+            }
+        }
+    }
+
+    /**
+     * Valor de un campo con notacion de punto; null si no existe
+     */
+    public static BsonValue valor(BsonDocument documento, String ruta) {
+        BsonValue actual = documento;
+        for (String parte : ruta.split("\\.")) {
+            if (actual == null || !actual.isDocument()) {
+                return null;
+            }
+            actual = actual.asDocument().get(parte);
+        }
+        return actual;
+    }
+
+    private static boolean cumple(BsonDocument documento, BsonDocument condiciones) {
+        for (Map.Entry<String, BsonValue> condicion : condiciones.entrySet()) {
+            String campo = condicion.getKey();
+            BsonValue valor = condicion.getValue();
+            switch (campo) {
+                case "$and":
+                    for (BsonValue parte : valor.asArray()) {
+                        if (!cumple(documento, parte.asDocument())) {
+                            return false;
+                        }
+                    }
+                    break;
+                case "$or":
+                    if (!algunoCumple(documento, valor.asArray())) {
+                        return false;
+                    }
+                    break;
+                case "$nor":
+                    if (algunoCumple(documento, valor.asArray())) {
+                        return false;
+                    }
+                    break;
+                default:
+                    if (campo.startsWith("$")) {
+                        throw new IllegalArgumentException("Operador no soportado en memoria: " + campo);
+                    }
+                    if (!cumpleCampo(valor(documento, campo), valor)) {
+                        return false;
+                    }
+            }
+        }
+        return true;
+    }
+
+    private static boolean algunoCumple(BsonDocument documento, BsonArray partes) {
+        for (BsonValue parte : partes) {
+            if (cumple(documento, parte.asDocument())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean cumpleCampo(BsonValue actual, BsonValue condicion) {
+        if (condicion.isRegularExpression()) {
+            return coincideRegex(actual, condicion.asRegularExpression());
+        }
+        if (!esOperador(condicion)) {
+            return igual(actual, condicion);
+        }
+
+        BsonDocument operadores = condicion.asDocument();
+        for (Map.Entry<String, BsonValue> operador : operadores.entrySet()) {
+            BsonValue esperado = operador.getValue();
+            boolean cumple;
+            switch (operador.getKey()) {
+                case "$eq":
+                    cumple = igual(actual, esperado);
+                    break;
+                case "$ne":
+                    cumple = !igual(actual, esperado);
+                    break;
+                case "$gt":
+                    cumple = comparar(actual, esperado, c -> c > 0);
+                    break;
+                case "$gte":
+                    cumple = comparar(actual, esperado, c -> c >= 0);
+                    break;
+                case "$lt":
+                    cumple = comparar(actual, esperado, c -> c < 0);
+                    break;
+                case "$lte":
+                    cumple = comparar(actual, esperado, c -> c <= 0);
+                    break;
+                case "$in":
+                    cumple = algunoIgual(actual, esperado.asArray());
+                    break;
+                case "$nin":
+                    cumple = !algunoIgual(actual, esperado.asArray());
+                    break;
+                case "$exists":
+                    cumple = (actual != null) == esperado.asBoolean().getValue();
+                    break;
+                case "$regex":
+                    String opciones = operadores.containsKey("$options")
+                            ? operadores.getString("$options").getValue() : "";
+                    cumple = coincideRegex(actual, esperado.isRegularExpression()
+                            ? esperado.asRegularExpression()
+                            : new BsonRegularExpression(esperado.asString().getValue(), opciones));
+                    break;
+                case "$options":
+                    cumple = true;
+                    break;
+                case "$not":
+                    cumple = !cumpleCampo(actual, esperado);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Operador no soportado en memoria: " + operador.getKey());
+            }
+            if (!cumple) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean esOperador(BsonValue valor) {
+        return valor.isDocument() && !valor.asDocument().isEmpty()
+                && valor.asDocument().getFirstKey().startsWith("$");
+    }
+
+    /**
+     * Igualdad como la de MongoDB: null tambien coincide con el campo
+     * ausente y un arreglo coincide si alguno de sus elementos es igual
+     */
+    private static boolean igual(BsonValue actual, BsonValue esperado) {
+        if (esperado.isNull()) {
+            return actual == null || actual.isNull();
+        }
+        if (actual == null) {
+            return false;
+        }
+        if (actual.isArray() && !esperado.isArray()) {
+            for (BsonValue elemento : actual.asArray()) {
+                if (igual(elemento, esperado)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (actual.isNumber() && esperado.isNumber()) {
+            return Double.compare(actual.asNumber().doubleValue(), esperado.asNumber().doubleValue()) == 0;
+        }
+        return actual.equals(esperado);
+    }
+
+    private static boolean algunoIgual(BsonValue actual, BsonArray opciones) {
+        for (BsonValue opcion : opciones) {
+            if (igual(actual, opcion)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean comparar(BsonValue actual, BsonValue esperado, Predicate<Integer> criterio) {
+        if (actual == null) {
+            return false;
+        }
+        if (actual.isArray()) {
+            for (BsonValue elemento : actual.asArray()) {
+                if (comparar(elemento, esperado, criterio)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        Integer resultado = comparar(actual, esperado);
+        return resultado != null && criterio.test(resultado);
+    }
+
+    /**
+     * Compara valores del mismo tipo; null si no son comparables
+     */
+    static Integer comparar(BsonValue a, BsonValue b) {
+        if (a.isNumber() && b.isNumber()) {
+            return Double.compare(a.asNumber().doubleValue(), b.asNumber().doubleValue());
+        }
+        if (a.isString() && b.isString()) {
+            return a.asString().getValue().compareTo(b.asString().getValue());
+        }
+        if (a.isDateTime() && b.isDateTime()) {
+            return Long.compare(a.asDateTime().getValue(), b.asDateTime().getValue());
+        }
+        if (a.isObjectId() && b.isObjectId()) {
+            return a.asObjectId().getValue().compareTo(b.asObjectId().getValue());
+        }
+        if (a.isBoolean() && b.isBoolean()) {
+            return Boolean.compare(a.asBoolean().getValue(), b.asBoolean().getValue());
+        }
+        return null;
+    }
+
+    private static boolean coincideRegex(BsonValue actual, BsonRegularExpression regex) {
+        if (actual == null) {
+            return false;
+        }
+        if (actual.isArray()) {
+            for (BsonValue elemento : actual.asArray()) {
+                if (coincideRegex(elemento, regex)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (!actual.isString()) {
+            return false;
+        }
+        Pattern patron = PATRONES.computeIfAbsent(regex.getOptions() + "/" + regex.getPattern(),
+                llave -> compilarRegex(regex));
+        return patron.matcher(actual.asString().getValue()).find();
+    }
+
+    private static Pattern compilarRegex(BsonRegularExpression regex) {
+        int banderas = 0;
+        String opciones = regex.getOptions();
+        if (opciones.contains("i")) {
+            banderas |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+        }
+        if (opciones.contains("m")) {
+            banderas |= Pattern.MULTILINE;
+        }
+        if (opciones.contains("s")) {
+            banderas |= Pattern.DOTALL;
+        }
+        return Pattern.compile(regex.getPattern(), banderas);
+    }
+
+    private static void asignar(BsonDocument documento, String ruta, BsonValue valor) {
+        String[] partes = ruta.split("\\.");
+        BsonDocument actual = documento;
+        for (int i = 0; i < partes.length - 1; i++) {
+            BsonValue siguiente = actual.get(partes[i]);
+            if (siguiente == null || !siguiente.isDocument()) {
+                siguiente = new BsonDocument();
+                actual.put(partes[i], siguiente);
+            }
+            actual = siguiente.asDocument();
+        }
+        actual.put(partes[partes.length - 1], valor == null ? BsonNull.VALUE : valor);
+    }
+
+    private static void quitar(BsonDocument documento, String ruta) {
+        int punto = ruta.lastIndexOf('.');
+        BsonValue padre = punto < 0 ? documento : valor(documento, ruta.substring(0, punto));
+        if (padre != null && padre.isDocument()) {
+            padre.asDocument().remove(ruta.substring(punto + 1));
+        }
+    }
+
+    private static BsonValue sumar(BsonValue actual, BsonValue incremento) {
+        if (actual == null || actual.isNull()) {
+            return incremento;
+        }
+        if (!actual.isNumber() || !incremento.isNumber()) {
+            throw new IllegalArgumentException("$inc solo aplica a campos numericos");
+        }
+        if (actual.isDouble() || incremento.isDouble()) {
+            return new org.bson.BsonDouble(actual.asNumber().doubleValue() + incremento.asNumber().doubleValue());
+        }
+        long suma = actual.asNumber().longValue() + incremento.asNumber().longValue();
+        if (actual.isInt32() && incremento.isInt32() && suma == (int) suma) {
+            return new org.bson.BsonInt32((int) suma);
+        }
+        return new org.bson.BsonInt64(suma);
+    }
+
+    /**
+     * Valores de un campo para indexar: cada elemento si es arreglo
+     */
+    static List<BsonValue> valoresIndice(BsonDocument documento, String campo) {
+        List<BsonValue> valores = new ArrayList<>();
+        BsonValue valor = valor(documento, campo);
+        if (valor == null) {
+            valores.add(BsonNull.VALUE);
+        } else if (valor.isArray()) {
+            valores.addAll(valor.asArray());
+        } else {
+            valores.add(valor);
+        }
+        return valores;
+    }
+}
@@ -0,0 +1,212 @@
+package memoria;
+
+import codecs.RegistroCodecs;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import daos.IMascotaDAO;
+import daos.UnidadDeTrabajo;
+import entities.Mascota;
+import entities.MascotaResumen;
+import org.bson.BsonValue;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import paginacion.CursorPuntaje;
+import paginacion.Pagina;
+import paginacion.Paginador;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * DAO de mascotas sobre el almacen en memoria, con las mismas consultas
+ * que MascotaDAO
+ *
+ * @author System
+ */
+public class MascotaDAOMemoria implements IMascotaDAO {
+
+    private final ColeccionMemoria<Mascota> coleccion;
+
+    public MascotaDAOMemoria(AlmacenMemoria almacen) {
+        this.coleccion = almacen.coleccion("mascotas", RegistroCodecs.MASCOTA);
+    }
+
+    @Override
+    public ObjectId guardar(Mascota mascota) {
+        coleccion.insertar(mascota);
+        mascota.limpiarCambios();
+        return mascota.getId();
+    }
+
+    @Override
+    public void guardarTodas(List<Mascota> mascotas) {
+        if (mascotas == null) {
+            return;
+        }
+        for (Mascota mascota : mascotas) {
+            guardar(mascota);
+        }
+    }
+
+    @Override
+    public Mascota buscarPorId(ObjectId id) {
+        return coleccion.buscarPorId(id);
+    }
+
+    @Override
+    public Map<ObjectId, Mascota> buscarPorIds(Collection<ObjectId> ids) {
+        return coleccion.buscarPorIds(ids);
+    }
+
+    @Override
+    public List<Mascota> buscarTodas() {
+        return coleccion.buscar(Filters.empty());
+    }
+
+    @Override
+    public List<Mascota> buscarDisponibles() {
+        return coleccion.buscar(Filters.eq("disponible", true));
+    }
+
+    @Override
+    public List<Mascota> buscarPorDisponibilidad(boolean disponible) {
+        return coleccion.buscar(Filters.eq("disponible", disponible));
+    }
+
+    @Override
+    public List<Mascota> buscarDisponiblesPorEspecie(String especie) {
+        return coleccion.buscar(Filters.and(Filters.eq("disponible", true), Filters.eq("especie", especie)));
+    }
+
+    @Override
+    public Pagina<Mascota> buscarPagina(String despuesDe, int tamano) {
+        return coleccion.paginar(Filters.empty(), despuesDe, tamano, false);
+    }
+
+    @Override
+    public Pagina<MascotaResumen> buscarPaginaResumenDisponibles(String especie, String despuesDe, int tamano) {
+        Bson filtro = especie == null
+                ? Filters.eq("disponible", true)
+                : Filters.and(Filters.eq("disponible", true), Filters.eq("especie", especie));
+        return buscarPaginaResumen(filtro, despuesDe, tamano);
+    }
+
+    @Override
+    public Pagina<MascotaResumen> buscarPaginaResumenPorPrefijoEstado(String prefijo, String especie,
+            String despuesDe, int tamano) {
+        Bson filtro = Filters.regex("estado", "^" + Pattern.quote(prefijo), "i");
+        if (especie != null) {
+            filtro = Filters.and(filtro, Filters.eq("especie", especie));
+        }
+        return buscarPaginaResumen(filtro, despuesDe, tamano);
+    }
+
+    /**
+     * Puntua cada mascota disponible con BusquedaTextoMemoria y pagina por
+     * (puntaje, _id) igual que Paginador.paginarPorPuntaje
+     */
+    @Override
+    public Pagina<MascotaResumen> buscarTexto(String texto, String especie, String despuesDe, int tamano) {
+        Paginador.validarTamano(tamano);
+        BusquedaTextoMemoria busqueda = new BusquedaTextoMemoria(texto);
+        CursorPuntaje ultimo = despuesDe == null ? null : CursorPuntaje.leer(despuesDe);
+        Bson filtro = especie == null
+                ? Filters.eq("disponible", true)
+                : Filters.and(Filters.eq("disponible", true), Filters.eq("especie", especie));
+
+        List<MascotaResumen> coincidencias = new ArrayList<>();
+        coleccion.getTabla().consultar(filtro).forEach(documento -> {
+            double puntaje = busqueda.puntaje(documento, PESOS_TEXTO);
+            if (puntaje > 0) {
+                MascotaResumen resumen = ColeccionMemoria.decodificar(documento, RegistroCodecs.MASCOTA_RESUMEN);
+                resumen.setPuntaje(puntaje);
+                coincidencias.add(resumen);
+            }
+        });
+        coincidencias.sort(Comparator.comparingDouble(MascotaResumen::getPuntaje).reversed()
+                .thenComparing(MascotaResumen::getId));
+
+        List<MascotaResumen> elementos = new ArrayList<>(tamano);
+        boolean hayMas = false;
+        for (MascotaResumen resumen : coincidencias) {
+            if (ultimo != null && !ultimo.esAnteriorA(resumen.getPuntaje(), resumen.getId())) {
+                continue;
+            }
+            if (elementos.size() == tamano) {
+                hayMas = true;
+                break;
+            }
+            elementos.add(resumen);
+        }
+
+        MascotaResumen ultimoDePagina = elementos.isEmpty() ? null : elementos.get(elementos.size() - 1);
+        String cursor = hayMas
+                ? new CursorPuntaje(ultimoDePagina.getPuntaje(), ultimoDePagina.getId()).toString()
+                : null;
+        return new Pagina<>(elementos, cursor, hayMas, despuesDe == null ? coincidencias.size() : Pagina.SIN_TOTAL);
+    }
+
+    @Override
+    public MascotaResumen buscarResumenDisponible(ObjectId id) {
+        return coleccion.getTabla().consultar(Filters.and(Filters.eq("_id", id), Filters.eq("disponible", true)))
+                .findFirst()
+                .map(documento -> ColeccionMemoria.decodificar(documento, RegistroCodecs.MASCOTA_RESUMEN))
+                .orElse(null);
+    }
+
+    private Pagina<MascotaResumen> buscarPaginaResumen(Bson filtro, String despuesDe, int tamano) {
+        // El codec de resumen solo lee los campos de MascotaResumenCodec.CAMPOS
+        return coleccion.paginar(filtro, despuesDe, tamano, false,
+                documento -> ColeccionMemoria.decodificar(documento, RegistroCodecs.MASCOTA_RESUMEN),
+                MascotaResumen::getId);
+    }
+
+    @Override
+    public List<String> buscarEspeciesDisponibles() {
+        List<String> especies = new ArrayList<>();
+        for (BsonValue especie : coleccion.getTabla().distintos("especie", Filters.eq("disponible", true))) {
+            if (especie.isString()) {
+                especies.add(especie.asString().getValue());
+            }
+        }
+        return especies;
+    }
+
+    @Override
+    public void actualizar(Mascota mascota) {
+        if (mascota.getId() != null && mascota.hayCambios()) {
+            coleccion.actualizarUno(Filters.eq("_id", mascota.getId()),
+                    RegistroCodecs.MASCOTA.actualizacionParcial(mascota, mascota.getCamposModificados()));
+            mascota.limpiarCambios();
+        }
+    }
+
+    @Override
+    public void registrarReserva(UnidadDeTrabajo unidad, ObjectId id) {
+        unidad.registrarAccion(
+                () -> coleccion.actualizarUno(Filters.and(Filters.eq("_id", id), Filters.eq("disponible", true)),
+                        Updates.set("disponible", false)) != null,
+                () -> coleccion.actualizarUno(Filters.eq("_id", id), Updates.set("disponible", true)));
+    }
+
+    @Override
+    public boolean eliminar(ObjectId id) {
+        return id != null && coleccion.eliminar(id);
+    }
+
+    @Override
+    public long recorrer(Bson filtro, int lote, Consumer<Mascota> consumidor) {
+        return coleccion.recorrer(filtro, consumidor);
+    }
+
+    @Override
+    public Stream<Mascota> flujo(Bson filtro, int lote) {
+        return coleccion.flujo(filtro);
+    }
+}
@@ -0,0 +1,70 @@
+package memoria;
+
+import codecs.RegistroCodecs;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import daos.IMetricasDiariasDAO;
+import entities.MetricaDiaria;
+import org.bson.conversions.Bson;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Acumulados diarios sobre el almacen en memoria. El upsert (buscar el dia
+ * y crearlo si no existe) se hace con la tabla bloqueada, para que dos
+ * escrituras del mismo dia no creen dos documentos.
+ *
+ * @author System
+ */
+public class MetricasDiariasDAOMemoria implements IMetricasDiariasDAO {
+
+    private final ColeccionMemoria<MetricaDiaria> coleccion;
+
+    public MetricasDiariasDAOMemoria(AlmacenMemoria almacen) {
+        this.coleccion = almacen.coleccion("metricas_diarias", RegistroCodecs.METRICA_DIARIA);
+    }
+
+    @Override
+    public void registrarSolicitud(Date fecha) {
+        incrementar(IMetricasDiariasDAO.dia(fecha), Updates.inc("solicitudes", 1L));
+    }
+
+    @Override
+    public void registrarDecision(Date fecha, String accion, long segundos, String especie) {
+        incrementar(IMetricasDiariasDAO.dia(fecha), IMetricasDiariasDAO.incrementoDecision(accion, segundos, especie));
+    }
+
+    private void incrementar(String dia, Bson incremento) {
+        synchronized (coleccion.getTabla()) {
+            if (coleccion.actualizarUno(Filters.eq("dia", dia), incremento) == null) {
+                coleccion.insertar(new MetricaDiaria(dia));
+                coleccion.actualizarUno(Filters.eq("dia", dia), incremento);
+            }
+        }
+    }
+
+    @Override
+    public List<MetricaDiaria> buscarRango(LocalDate desde, LocalDate hasta) {
+        List<MetricaDiaria> metricas = coleccion.buscar(
+                Filters.and(Filters.gte("dia", desde.toString()), Filters.lte("dia", hasta.toString())));
+        metricas.sort(Comparator.comparing(MetricaDiaria::getDia));
+        return metricas;
+    }
+
+    @Override
+    public void reemplazarTodas(Collection<MetricaDiaria> metricas) {
+        synchronized (coleccion.getTabla()) {
+            for (MetricaDiaria anterior : coleccion.buscar(Filters.empty())) {
+                coleccion.eliminar(anterior.getId());
+            }
+            for (MetricaDiaria metrica : metricas) {
+                metrica.setId(null);
+                coleccion.insertar(metrica);
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package memoria;
+
+import codecs.RegistroCodecs;
+import com.mongodb.client.model.Filters;
+import daos.ISolicitudAdopcionDAO;
+import daos.UnidadDeTrabajo;
+import entities.SolicitudAdopcion;
+import entities.SolicitudListado;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import paginacion.Pagina;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * DAO de solicitudes de adopcion sobre el almacen en memoria. El listado
+ * del administrador se arma uniendo cada solicitud con su usuario, mascota
+ * y cita por _id, con las mismas reglas que la agregacion de
+ * SolicitudAdopcionDAO.
+ *
+ * @author System
+ */
+public class SolicitudAdopcionDAOMemoria implements ISolicitudAdopcionDAO {
+
+    private static final List<String> CAMPOS_LISTADO = List.of("idUsuario", "idMascota", "estado",
+            "fechaSolicitud", "mensajeCorreccion");
+
+    private final ColeccionMemoria<SolicitudAdopcion> coleccion;
+    private final TablaMemoria usuarios;
+    private final TablaMemoria mascotas;
+    private final TablaMemoria citas;
+
+    public SolicitudAdopcionDAOMemoria(AlmacenMemoria almacen) {
+        this.coleccion = almacen.coleccion("solicitudes", RegistroCodecs.SOLICITUD);
+        this.usuarios = almacen.tabla("usuarios");
+        this.mascotas = almacen.tabla("mascotas");
+        this.citas = almacen.tabla("citas");
+    }
+
+    @Override
+    public ObjectId guardar(SolicitudAdopcion solicitud) {
+        coleccion.insertar(solicitud);
+        solicitud.limpiarCambios();
+        return solicitud.getId();
+    }
+
+    @Override
+    public void registrarNueva(UnidadDeTrabajo unidad, SolicitudAdopcion solicitud) {
+        unidad.registrarAccion(() -> coleccion.insertar(solicitud) != null,
+                () -> coleccion.eliminar(solicitud.getId()));
+    }
+
+    @Override
+    public void actualizar(SolicitudAdopcion solicitud) {
+        if (solicitud.getId() != null && solicitud.hayCambios()) {
+            coleccion.actualizarUno(Filters.eq("_id", solicitud.getId()),
+                    RegistroCodecs.SOLICITUD.actualizacionParcial(solicitud, solicitud.getCamposModificados()));
+            solicitud.limpiarCambios();
+        }
+    }
+
+    @Override
+    public SolicitudAdopcion buscarPorId(ObjectId id) {
+        return coleccion.buscarPorId(id);
+    }
+
+    @Override
+    public List<SolicitudAdopcion> buscarPorUsuario(ObjectId idUsuario) {
+        return coleccion.buscar(Filters.eq("idUsuario", idUsuario));
+    }
+
+    @Override
+    public List<SolicitudAdopcion> buscarTodas() {
+        return coleccion.buscar(Filters.empty());
+    }
+
+    @Override
+    public Pagina<SolicitudAdopcion> buscarPagina(String despuesDe, int tamano) {
+        return coleccion.paginar(Filters.empty(), despuesDe, tamano, true);
+    }
+
+    @Override
+    public long recorrer(Bson filtro, int lote, Consumer<SolicitudAdopcion> consumidor) {
+        return coleccion.recorrer(filtro, consumidor);
+    }
+
+    @Override
+    public Stream<SolicitudAdopcion> flujo(Bson filtro, int lote) {
+        return coleccion.flujo(filtro);
+    }
+
+    @Override
+    public List<SolicitudListado> buscarListado() {
+        List<SolicitudListado> listado = coleccion.getTabla().consultar(Filters.empty())
+                .map(this::fila)
+                .collect(Collectors.toCollection(ArrayList::new));
+        // La tabla recorre por _id ascendente; el listado va de la mas reciente a la mas antigua
+        Collections.reverse(listado);
+        return listado;
+    }
+
+    @Override
+    public Pagina<SolicitudListado> buscarPaginaListado(String despuesDe, int tamano) {
+        return coleccion.paginar(Filters.empty(), despuesDe, tamano, true, this::fila, SolicitudListado::getId);
+    }
+
+    @Override
+    public SolicitudListado buscarListadoPorId(ObjectId id) {
+        BsonDocument solicitud = coleccion.getTabla().buscar(id);
+        return solicitud == null ? null : fila(solicitud);
+    }
+
+    /**
+     * Arma el documento que produciria la proyeccion del listado y lo
+     * decodifica con el mismo codec
+     */
+    private SolicitudListado fila(BsonDocument solicitud) {
+        BsonDocument fila = new BsonDocument("_id", solicitud.get("_id"));
+        for (String campo : CAMPOS_LISTADO) {
+            if (solicitud.containsKey(campo)) {
+                fila.put(campo, solicitud.get(campo));
+            }
+        }
+
+        BsonDocument cita = citaDe(solicitud);
+        BsonValue idCita = cita != null ? cita.get("_id") : solicitud.get("idCita");
+        if (idCita != null) {
+            fila.put("idCita", idCita);
+        }
+        if (cita != null && cita.containsKey("fechaHora")) {
+            fila.put("fechaCita", cita.get("fechaHora"));
+        }
+
+        BsonDocument usuario = buscar(usuarios, solicitud.get("idUsuario"));
+        if (usuario != null) {
+            copiar(usuario, "infoPersonal.nombre", fila, "nombreUsuario");
+            copiar(usuario, "infoPersonal.correo", fila, "correoUsuario");
+        }
+        BsonDocument mascota = buscar(mascotas, solicitud.get("idMascota"));
+        if (mascota != null) {
+            copiar(mascota, "nombre", fila, "nombreMascota");
+        }
+        return ColeccionMemoria.decodificar(fila, RegistroCodecs.SOLICITUD_LISTADO);
+    }
+
+    /**
+     * La cita por idCita; si no hay (o ya no existe) la del mismo usuario y
+     * mascota
+     */
+    private BsonDocument citaDe(BsonDocument solicitud) {
+        BsonDocument cita = buscar(citas, solicitud.get("idCita"));
+        if (cita != null) {
+            return cita;
+        }
+        BsonValue idUsuario = solicitud.get("idUsuario");
+        BsonValue idMascota = solicitud.get("idMascota");
+        if (idUsuario == null || idMascota == null) {
+            return null;
+        }
+        return citas.consultar(Filters.and(Filters.eq("idUsuario", idUsuario), Filters.eq("idMascota", idMascota)))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static BsonDocument buscar(TablaMemoria tabla, BsonValue id) {
+        return id != null && id.isObjectId() ? tabla.buscar(id.asObjectId().getValue()) : null;
+    }
+
+    private static void copiar(BsonDocument origen, String ruta, BsonDocument destino, String campo) {
+        BsonValue valor = FiltroMemoria.valor(origen, ruta);
+        if (valor != null) {
+            destino.put(campo, valor);
+        }
+    }
+}
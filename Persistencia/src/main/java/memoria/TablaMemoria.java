@@ -0,0 +1,263 @@
+package memoria;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Una coleccion del motor en memoria: los documentos BSON ordenados por _id
+ * mas indices secundarios (valor -> ids) sobre los campos que se consultan
+ * por igualdad.
+ *
+ * Los documentos guardados nunca se modifican: una actualizacion copia el
+ * documento, le aplica el cambio y reemplaza la entrada. Asi las lecturas
+ * no necesitan candado; las escrituras se serializan por tabla para que el
+ * filtro y el cambio de actualizarUno sean atomicos, igual que en MongoDB.
+ *
+ * @author System
+ */
+public class TablaMemoria {
+
+    private final String nombre;
+    private final AlmacenMemoria almacen;
+    private final ConcurrentSkipListMap<ObjectId, BsonDocument> documentos = new ConcurrentSkipListMap<>();
+    private final Map<String, Map<BsonValue, Set<ObjectId>>> indices = new ConcurrentHashMap<>();
+    private final Object candado = new Object();
+
+    TablaMemoria(String nombre, Collection<String> camposIndice, AlmacenMemoria almacen) {
+        this.nombre = nombre;
+        this.almacen = almacen;
+        for (String campo : camposIndice) {
+            indices.put(campo, new ConcurrentHashMap<>());
+        }
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int tamano() {
+        return documentos.size();
+    }
+
+    /**
+     * Inserta un documento con _id
+     *
+     * @throws IllegalArgumentException si ya existe ese _id
+     */
+    public void insertar(BsonDocument documento) {
+        ObjectId id = idDe(documento);
+        synchronized (candado) {
+            if (documentos.containsKey(id)) {
+                throw new IllegalArgumentException("Ya existe un documento con _id " + id + " en " + nombre);
+            }
+            poner(id, documento);
+            almacen.registrarEscritura(nombre, documento);
+        }
+    }
+
+    public BsonDocument buscar(ObjectId id) {
+        return id == null ? null : documentos.get(id);
+    }
+
+    /**
+     * Documentos que cumplen el filtro, en orden de _id
+     */
+    public Stream<BsonDocument> consultar(Bson filtro) {
+        Predicate<BsonDocument> predicado = FiltroMemoria.compilar(filtro);
+        return candidatos(filtro).filter(predicado);
+    }
+
+    public long contar(Bson filtro) {
+        return consultar(filtro).count();
+    }
+
+    /**
+     * Aplica el cambio al primer documento que cumple el filtro; el filtro
+     * y el cambio no se intercalan con otras escrituras de la tabla
+     *
+     * @return el documento ya actualizado, o null si ninguno coincidio
+     */
+    public BsonDocument actualizarUno(Bson filtro, Bson cambio) {
+        synchronized (candado) {
+            BsonDocument actual = consultar(filtro).findFirst().orElse(null);
+            if (actual == null) {
+                return null;
+            }
+            BsonDocument nuevo = actual.clone();
+            FiltroMemoria.aplicar(nuevo, cambio);
+            reemplazar(idDe(actual), actual, nuevo);
+            almacen.registrarEscritura(nombre, nuevo);
+            return nuevo;
+        }
+    }
+
+    public boolean eliminar(ObjectId id) {
+        synchronized (candado) {
+            BsonDocument anterior = documentos.remove(id);
+            if (anterior == null) {
+                return false;
+            }
+            quitarDeIndices(id, anterior, null);
+            almacen.registrarEliminacion(nombre, id);
+            return true;
+        }
+    }
+
+    /**
+     * Documentos de una pagina por cursor, con las mismas reglas que
+     * paginacion.Paginador; trae uno de mas para saber si hay otra pagina
+     */
+    public List<BsonDocument> pagina(Bson filtro, ObjectId despuesDe, int limite, boolean descendente) {
+        NavigableMap<ObjectId, BsonDocument> rango = descendente ? documentos.descendingMap() : documentos;
+        if (despuesDe != null) {
+            rango = rango.tailMap(despuesDe, false);
+        }
+        Predicate<BsonDocument> predicado = FiltroMemoria.compilar(filtro);
+        List<BsonDocument> resultado = new ArrayList<>(limite);
+        for (BsonDocument documento : rango.values()) {
+            if (predicado.test(documento)) {
+                resultado.add(documento);
+                if (resultado.size() == limite) {
+                    break;
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Valores distintos de un campo entre los documentos que cumplen el filtro
+     */
+    public List<BsonValue> distintos(String campo, Bson filtro) {
+        List<BsonValue> valores = new ArrayList<>();
+        consultar(filtro).forEach(documento -> {
+            for (BsonValue valor : FiltroMemoria.valoresIndice(documento, campo)) {
+                if (!valor.isNull() && !valores.contains(valor)) {
+                    valores.add(valor);
+                }
+            }
+        });
+        return valores;
+    }
+
+    /**
+     * Reemplaza o quita un documento al reproducir la bitacora, sin volver
+     * a registrarlo
+     */
+    void reproducir(ObjectId id, BsonDocument documento) {
+        synchronized (candado) {
+            BsonDocument anterior = documentos.get(id);
+            if (documento == null) {
+                if (anterior != null) {
+                    documentos.remove(id);
+                    quitarDeIndices(id, anterior, null);
+                }
+            } else if (anterior == null) {
+                poner(id, documento);
+            } else {
+                reemplazar(id, anterior, documento);
+            }
+        }
+    }
+
+    Collection<BsonDocument> todos() {
+        return documentos.values();
+    }
+
+    /**
+     * Si el filtro tiene una igualdad sobre un campo indexado solo se revisan
+     * los ids de ese valor; si no, toda la tabla
+     */
+    private Stream<BsonDocument> candidatos(Bson filtro) {
+        BsonDocument igualdades = FiltroMemoria.igualdades(filtro);
+        BsonValue id = igualdades.get("_id");
+        if (id != null && id.isObjectId()) {
+            BsonDocument documento = documentos.get(id.asObjectId().getValue());
+            return documento == null ? Stream.empty() : Stream.of(documento);
+        }
+
+        Set<ObjectId> mejor = null;
+        for (Map.Entry<String, BsonValue> igualdad : igualdades.entrySet()) {
+            Map<BsonValue, Set<ObjectId>> indice = indices.get(igualdad.getKey());
+            // Los numeros se comparan por valor (1 == 1L), el indice no lo haria
+            if (indice == null || igualdad.getValue().isNumber() || igualdad.getValue().isDocument()
+                    || igualdad.getValue().isArray()) {
+                continue;
+            }
+            Set<ObjectId> ids = indice.getOrDefault(igualdad.getValue(), Set.of());
+            if (mejor == null || ids.size() < mejor.size()) {
+                mejor = ids;
+            }
+        }
+        if (mejor == null) {
+            return documentos.values().stream();
+        }
+        return new TreeSet<>(mejor).stream()
+                .map(documentos::get)
+                .filter(documento -> documento != null);
+    }
+
+    private void poner(ObjectId id, BsonDocument documento) {
+        documentos.put(id, documento);
+        for (Map.Entry<String, Map<BsonValue, Set<ObjectId>>> indice : indices.entrySet()) {
+            for (BsonValue valor : FiltroMemoria.valoresIndice(documento, indice.getKey())) {
+                indice.getValue().computeIfAbsent(valor, v -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+    }
+
+    /**
+     * Cambia un documento existente: primero agrega sus nuevas entradas de
+     * indice y despues quita las que ya no le corresponden, para que una
+     * lectura sin candado nunca deje de encontrarlo por un valor que conserva
+     */
+    private void reemplazar(ObjectId id, BsonDocument anterior, BsonDocument nuevo) {
+        poner(id, nuevo);
+        quitarDeIndices(id, anterior, nuevo);
+    }
+
+    /**
+     * Quita las entradas de indice del documento, salvo los valores que
+     * tambien tiene el documento que queda (null si se elimina)
+     */
+    private void quitarDeIndices(ObjectId id, BsonDocument documento, BsonDocument queda) {
+        for (Map.Entry<String, Map<BsonValue, Set<ObjectId>>> indice : indices.entrySet()) {
+            List<BsonValue> conservados = queda == null ? List.of()
+                    : FiltroMemoria.valoresIndice(queda, indice.getKey());
+            for (BsonValue valor : FiltroMemoria.valoresIndice(documento, indice.getKey())) {
+                if (conservados.contains(valor)) {
+                    continue;
+                }
+                Set<ObjectId> ids = indice.getValue().get(valor);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        indice.getValue().remove(valor, ids);
+                    }
+                }
+            }
+        }
+    }
+
+    private static ObjectId idDe(BsonDocument documento) {
+        BsonValue id = documento.get("_id");
+        if (id == null || !id.isObjectId()) {
+            throw new IllegalArgumentException("El documento no tiene un _id ObjectId");
+        }
+        return id.asObjectId().getValue();
+    }
+}
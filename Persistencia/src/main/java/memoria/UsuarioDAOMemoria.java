@@ -0,0 +1,76 @@
+package memoria;
+
+import codecs.RegistroCodecs;
+import com.mongodb.client.model.Filters;
+import daos.IUsuarioDAO;
+import entities.Usuario;
+import org.bson.BsonDocument;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * DAO de usuarios sobre el almacen en memoria, con las mismas consultas
+ * que UsuarioDAO
+ *
+ * @author System
+ */
+public class UsuarioDAOMemoria implements IUsuarioDAO {
+
+    private final ColeccionMemoria<Usuario> coleccion;
+
+    public UsuarioDAOMemoria(AlmacenMemoria almacen) {
+        this.coleccion = almacen.coleccion("usuarios", RegistroCodecs.USUARIO);
+    }
+
+    @Override
+    public Usuario buscarPorCorreo(String correo) {
+        return coleccion.buscarUno(Filters.eq("infoPersonal.correo", correo));
+    }
+
+    @Override
+    public Usuario buscarPorId(ObjectId id) {
+        return coleccion.buscarPorId(id);
+    }
+
+    @Override
+    public Map<ObjectId, Usuario> buscarPorIds(Collection<ObjectId> ids) {
+        return coleccion.buscarPorIds(ids);
+    }
+
+    @Override
+    public ObjectId guardar(Usuario usuario) {
+        return coleccion.insertar(usuario);
+    }
+
+    @Override
+    public void actualizar(Usuario usuario) {
+        if (usuario.getId() == null) {
+            throw new IllegalArgumentException("El usuario debe tener un ID para ser actualizado");
+        }
+
+        BsonDocument doc = RegistroCodecs.USUARIO.aDocumento(usuario);
+        doc.remove("_id");
+
+        coleccion.actualizarUno(Filters.eq("_id", usuario.getId()), new BsonDocument("$set", doc));
+    }
+
+    @Override
+    public boolean existeCorreo(String correo) {
+        return coleccion.contar(Filters.eq("infoPersonal.correo", correo)) > 0;
+    }
+
+    @Override
+    public long recorrer(Bson filtro, int lote, Consumer<Usuario> consumidor) {
+        return coleccion.recorrer(filtro, consumidor);
+    }
+
+    @Override
+    public Stream<Usuario> flujo(Bson filtro, int lote) {
+        return coleccion.flujo(filtro);
+    }
+}
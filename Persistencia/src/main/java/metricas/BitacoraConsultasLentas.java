@@ -0,0 +1,288 @@
+package metricas;
+
+import com.mongodb.client.MongoClient;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bitacora de consultas lentas: cada comando que supera el umbral se vuelve
+ * a ejecutar con explain("executionStats") en un hilo aparte y se guarda,
+ * con el resumen de su plan, en un anillo de tamano fijo (las mas viejas se
+ * descartan). Un COLLSCAN o muchos documentos examinados contra pocos
+ * devueltos senalan el indice que falta.
+ *
+ * Para no saturar al servidor, una misma forma de consulta (comando,
+ * coleccion y campos del filtro) se explica a lo mas una vez por minuto;
+ * las repeticiones reutilizan ese plan.
+ *
+ * @author System
+ */
+public class BitacoraConsultasLentas implements BitacoraConsultasLentasMBean {
+
+    private static final Set<String> EXPLICABLES = Set.of("find", "aggregate", "count", "distinct",
+            "findAndModify", "update", "delete");
+    // Campos de la sesion o de la escritura que explain no acepta dentro del comando
+    private static final Set<String> CAMPOS_SESION = Set.of("lsid", "txnNumber", "autocommit",
+            "startTransaction", "writeConcern", "readConcern");
+    private static final long VENTANA_EXPLAIN_MS = 60_000;
+    private static final int EXPLAIN_EN_COLA = 32;
+
+    private final ConsultaLenta[] anillo;
+    private int siguiente;
+    private int ocupadas;
+    private volatile long umbralMs;
+    private volatile MongoClient cliente;
+    private final Map<String, PlanReciente> planes = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor explicador;
+
+    public BitacoraConsultasLentas(long umbralMs, int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad de la bitacora debe ser mayor a 0");
+        }
+        this.umbralMs = umbralMs;
+        this.anillo = new ConsultaLenta[capacidad];
+        this.explicador = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(EXPLAIN_EN_COLA), tarea -> {
+                    Thread hilo = new Thread(tarea, "explain-consultas-lentas");
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+    }
+
+    /**
+     * Cliente con el que se ejecutan los explain; sin el las consultas lentas
+     * se registran sin plan
+     */
+    public void setCliente(MongoClient cliente) {
+        this.cliente = cliente;
+    }
+
+    public boolean isHabilitada() {
+        return umbralMs > 0;
+    }
+
+    /**
+     * Solo vale la pena copiar el comando al iniciarse si admite explain
+     */
+    public boolean admiteExplain(String comando) {
+        return EXPLICABLES.contains(comando);
+    }
+
+    /**
+     * Llamado por EscuchaComandos al terminar cada comando
+     *
+     * @param operacionDAO metodo de DAO que lo origino, puede ser null
+     * @param nombre comando y coleccion, por ejemplo "find mascotas"
+     * @param comando copia del comando enviado, null si no admite explain
+     */
+    public void registrar(String operacionDAO, String nombre, String baseDatos, BsonDocument comando, long nanos) {
+        long umbral = umbralMs;
+        if (umbral <= 0 || nanos < umbral * 1_000_000) {
+            return;
+        }
+        LocalDateTime fecha = LocalDateTime.now();
+        double milisegundos = nanos / 1_000_000.0;
+        if (comando == null) {
+            agregar(new ConsultaLenta(fecha, operacionDAO, nombre, "", milisegundos, null));
+            return;
+        }
+        String filtro = forma(filtroDe(comando));
+        String clave = nombre + " " + filtro;
+        long ahora = System.currentTimeMillis();
+        PlanReciente reciente = planes.get(clave);
+        if (reciente != null && ahora - reciente.momento < VENTANA_EXPLAIN_MS) {
+            agregar(new ConsultaLenta(fecha, operacionDAO, nombre, filtro, milisegundos, reciente.plan));
+            return;
+        }
+        // Se marca antes de encolar para que las repeticiones no pidan otro explain
+        planes.put(clave, new PlanReciente(null, ahora));
+        try {
+            explicador.execute(() -> {
+                PlanConsulta plan = explicar(baseDatos, comando);
+                planes.put(clave, new PlanReciente(plan, System.currentTimeMillis()));
+                ConsultaLenta consulta = new ConsultaLenta(fecha, operacionDAO, nombre, filtro, milisegundos, plan);
+                agregar(consulta);
+                if (plan.isRecorridoCompleto()) {
+                    System.out.println("Consulta lenta sin indice: " + consulta);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            planes.remove(clave);
+            agregar(new ConsultaLenta(fecha, operacionDAO, nombre, filtro, milisegundos, null));
+        }
+    }
+
+    private PlanConsulta explicar(String baseDatos, BsonDocument comando) {
+        MongoClient actual = cliente;
+        if (actual == null) {
+            return PlanConsulta.fallido("sin conexion para ejecutar explain");
+        }
+        BsonDocument limpio = new BsonDocument();
+        for (Map.Entry<String, BsonValue> campo : comando.entrySet()) {
+            if (!campo.getKey().startsWith("$") && !CAMPOS_SESION.contains(campo.getKey())) {
+                limpio.append(campo.getKey(), campo.getValue());
+            }
+        }
+        BsonDocument explain = new BsonDocument("explain", limpio)
+                .append("verbosity", new BsonString("executionStats"));
+        try {
+            return PlanConsulta.de(actual.getDatabase(baseDatos).runCommand(explain, BsonDocument.class));
+        } catch (RuntimeException e) {
+            return PlanConsulta.fallido(e.getMessage());
+        }
+    }
+
+    /**
+     * Filtro de la consulta segun el comando; en un aggregate, el $match
+     * inicial
+     */
+    private static BsonValue filtroDe(BsonDocument comando) {
+        String nombre = comando.getFirstKey();
+        switch (nombre) {
+            case "find":
+                return comando.get("filter");
+            case "aggregate":
+                BsonArray pipeline = comando.getArray("pipeline", new BsonArray());
+                return !pipeline.isEmpty() && pipeline.get(0).isDocument() ? pipeline.get(0).asDocument().get("$match")
+                        : null;
+            case "update":
+                return primeraSentencia(comando.getArray("updates", new BsonArray()));
+            case "delete":
+                return primeraSentencia(comando.getArray("deletes", new BsonArray()));
+            default:
+                return comando.get("query");
+        }
+    }
+
+    private static BsonValue primeraSentencia(BsonArray sentencias) {
+        return !sentencias.isEmpty() && sentencias.get(0).isDocument() ? sentencias.get(0).asDocument().get("q")
+                : null;
+    }
+
+    /**
+     * Los campos y operadores del filtro con los valores cambiados por ?;
+     * asi se agrupan las consultas iguales y la bitacora no guarda datos
+     * de los usuarios
+     */
+    private static String forma(BsonValue valor) {
+        if (valor == null) {
+            return "{}";
+        }
+        if (valor.isDocument()) {
+            StringBuilder texto = new StringBuilder("{");
+            for (Map.Entry<String, BsonValue> campo : valor.asDocument().entrySet()) {
+                if (texto.length() > 1) {
+                    texto.append(", ");
+                }
+                texto.append(campo.getKey()).append(": ").append(forma(campo.getValue()));
+            }
+            return texto.append('}').toString();
+        }
+        if (valor.isArray()) {
+            // Sin el tamano: un $in con 1 o con 50 valores es la misma forma
+            BsonArray arreglo = valor.asArray();
+            return arreglo.isEmpty() ? "[]" : "[" + forma(arreglo.get(0)) + "]";
+        }
+        return "?";
+    }
+
+    private synchronized void agregar(ConsultaLenta consulta) {
+        anillo[siguiente] = consulta;
+        siguiente = (siguiente + 1) % anillo.length;
+        if (ocupadas < anillo.length) {
+            ocupadas++;
+        }
+    }
+
+    /**
+     * @return las consultas conservadas, de la mas vieja a la mas nueva
+     */
+    public synchronized List<ConsultaLenta> getEntradas() {
+        List<ConsultaLenta> entradas = new ArrayList<>(ocupadas);
+        int inicio = (siguiente - ocupadas + anillo.length) % anillo.length;
+        for (int i = 0; i < ocupadas; i++) {
+            entradas.add(anillo[(inicio + i) % anillo.length]);
+        }
+        return entradas;
+    }
+
+    @Override
+    public long getUmbralMs() {
+        return umbralMs;
+    }
+
+    @Override
+    public void setUmbralMs(long umbralMs) {
+        this.umbralMs = umbralMs;
+    }
+
+    @Override
+    public int getCapacidad() {
+        return anillo.length;
+    }
+
+    @Override
+    public String[] getConsultas() {
+        return getEntradas().stream().map(ConsultaLenta::toString).toArray(String[]::new);
+    }
+
+    @Override
+    public int getRecorridosCompletos() {
+        int total = 0;
+        for (ConsultaLenta consulta : getEntradas()) {
+            if (consulta.getPlan() != null && consulta.getPlan().isRecorridoCompleto()) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public String volcar(String archivo) {
+        try {
+            Path destino = Path.of(archivo).toAbsolutePath();
+            Files.write(destino, List.of(getConsultas()), StandardCharsets.UTF_8);
+            return destino.toString();
+        } catch (IOException | RuntimeException e) {
+            return "No se pudo escribir la bitacora: " + e.getMessage();
+        }
+    }
+
+    @Override
+    public synchronized void limpiar() {
+        Arrays.fill(anillo, null);
+        siguiente = 0;
+        ocupadas = 0;
+        planes.clear();
+    }
+
+    private static final class PlanReciente {
+
+        // null mientras el explain sigue en cola
+        private final PlanConsulta plan;
+        private final long momento;
+
+        PlanReciente(PlanConsulta plan, long momento) {
+            this.plan = plan;
+            this.momento = momento;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package metricas;
+
+/**
+ * Vista JMX de la bitacora de consultas lentas (jconsole, VisualVM)
+ *
+ * @author System
+ */
+public interface BitacoraConsultasLentasMBean {
+
+    long getUmbralMs();
+
+    void setUmbralMs(long umbralMs);
+
+    int getCapacidad();
+
+    /**
+     * @return las consultas lentas conservadas, de la mas vieja a la mas nueva
+     */
+    String[] getConsultas();
+
+    /**
+     * Cuantas del total conservado leyeron la coleccion completa
+     */
+    int getRecorridosCompletos();
+
+    /**
+     * Escribe las consultas conservadas en un archivo de texto
+     *
+     * @return la ruta escrita o el motivo del error
+     */
+    String volcar(String archivo);
+
+    void limpiar();
+}
@@ -0,0 +1,74 @@
+package metricas;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Un comando que supero el umbral de metricas.consultasLentas.umbralMs,
+ * con el metodo de DAO que lo origino y, si se pudo explicar, su plan.
+ * El filtro se guarda solo con la forma ({especie: ?}), sin los valores.
+ *
+ * @author System
+ */
+public class ConsultaLenta {
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final LocalDateTime fecha;
+    private final String operacionDAO;
+    private final String comando;
+    private final String filtro;
+    private final double milisegundos;
+    private final PlanConsulta plan;
+
+    public ConsultaLenta(LocalDateTime fecha, String operacionDAO, String comando, String filtro,
+            double milisegundos, PlanConsulta plan) {
+        this.fecha = fecha;
+        this.operacionDAO = operacionDAO;
+        this.comando = comando;
+        this.filtro = filtro;
+        this.milisegundos = milisegundos;
+        this.plan = plan;
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+
+    /**
+     * @return el metodo de DAO (MascotaDAO.buscarDisponibles) o null si el
+     * comando no salio de un DAO medido
+     */
+    public String getOperacionDAO() {
+        return operacionDAO;
+    }
+
+    /**
+     * @return el comando y su coleccion, por ejemplo "find mascotas"
+     */
+    public String getComando() {
+        return comando;
+    }
+
+    public String getFiltro() {
+        return filtro;
+    }
+
+    public double getMilisegundos() {
+        return milisegundos;
+    }
+
+    /**
+     * @return null si el comando no admite explain (insert, getMore...) o si
+     * el explain de su misma forma aun no termina
+     */
+    public PlanConsulta getPlan() {
+        return plan;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %8.1f ms  %s%s %s -> %s", FORMATO_FECHA.format(fecha), milisegundos, comando,
+                operacionDAO != null ? " (" + operacionDAO + ")" : "", filtro, plan != null ? plan : "sin explain");
+    }
+}
@@ -0,0 +1,115 @@
+package metricas;
+
+import paginacion.Pagina;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Envoltura delgada que mide cada metodo de un DAO: un proxy sobre su
+ * interfaz (IMascotaDAO, ISolicitudAdopcionDAO...) que registra latencia,
+ * errores y documentos devueltos en la metrica "Clase.metodo", por ejemplo
+ * MascotaDAO.buscarDisponibles. Los DAOs no cambian; FabricaDAOs los
+ * envuelve cuando las metricas estan habilitadas.
+ * <p>
+ * Los recorridos (flujo, recorrer) no se miden: su tiempo depende del
+ * consumidor y sus getMore llegan despues de que el metodo regresa.
+ *
+ * @author System
+ */
+public final class DAOsMedidos {
+
+    private DAOsMedidos() {
+    }
+
+    /**
+     * @return el mismo DAO si las metricas estan deshabilitadas
+     */
+    public static <I> I envolver(Class<I> interfaz, I dao) {
+        RegistroMetricas registro = RegistroMetricas.getInstancia();
+        if (!registro.isHabilitado()) {
+            return dao;
+        }
+        Object proxy = Proxy.newProxyInstance(interfaz.getClassLoader(), new Class<?>[] {interfaz},
+                new Medidor(dao, registro));
+        return interfaz.cast(proxy);
+    }
+
+    private static final class Medidor implements InvocationHandler {
+
+        private final Object dao;
+        private final RegistroMetricas registro;
+        private final Map<Method, MetricaOperacion> metricas = new ConcurrentHashMap<>();
+
+        Medidor(Object dao, RegistroMetricas registro) {
+            this.dao = dao;
+            this.registro = registro;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            if (metodo.getDeclaringClass() == Object.class || esRecorrido(metodo)) {
+                return invocar(metodo, args);
+            }
+            MetricaOperacion metrica = metricas.computeIfAbsent(metodo,
+                    m -> registro.operacionDAO(dao.getClass().getSimpleName() + "." + m.getName()));
+            MetricaOperacion anterior = registro.entrar(metrica);
+            long inicio = System.nanoTime();
+            try {
+                Object resultado = invocar(metodo, args);
+                metrica.sumarDocumentos(documentos(resultado));
+                return resultado;
+            } catch (Throwable e) {
+                metrica.registrarError();
+                throw e;
+            } finally {
+                metrica.registrar(System.nanoTime() - inicio);
+                registro.salir(anterior);
+            }
+        }
+
+        private static boolean esRecorrido(Method metodo) {
+            if (Stream.class.isAssignableFrom(metodo.getReturnType())) {
+                return true;
+            }
+            for (Class<?> parametro : metodo.getParameterTypes()) {
+                if (Consumer.class.isAssignableFrom(parametro)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Object invocar(Method metodo, Object[] args) throws Throwable {
+            try {
+                return metodo.invoke(dao, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private static long documentos(Object resultado) {
+            if (resultado instanceof Collection) {
+                return ((Collection<?>) resultado).size();
+            }
+            if (resultado instanceof Map) {
+                return ((Map<?, ?>) resultado).size();
+            }
+            if (resultado instanceof Pagina) {
+                return ((Pagina<?>) resultado).getElementos().size();
+            }
+            if (resultado == null || resultado instanceof Number || resultado instanceof Boolean
+                    || resultado instanceof AutoCloseable) {
+                return 0;
+            }
+            return 1;
+        }
+    }
+}
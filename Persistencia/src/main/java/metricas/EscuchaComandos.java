@@ -0,0 +1,122 @@
+package metricas;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listener de comandos del driver: mide cada comando por nombre y
+ * coleccion (por ejemplo "find mascotas") y atribuye los bytes de la
+ * respuesta al metodo de DAO que lo origino. Los comandos que admiten
+ * explain se copian al iniciarse (el documento del driver solo es valido
+ * durante el evento) por si resultan lentos.
+ *
+ * @author System
+ */
+public class EscuchaComandos implements CommandListener {
+
+    private final RegistroMetricas registro;
+    // requestId -> metodo de DAO en curso cuando salio el comando
+    private final Map<Integer, MetricaOperacion> origenes = new ConcurrentHashMap<>();
+    private final Map<Integer, String> nombres = new ConcurrentHashMap<>();
+    private final Map<Integer, BsonDocument> copias = new ConcurrentHashMap<>();
+
+    public EscuchaComandos(RegistroMetricas registro) {
+        this.registro = registro;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        nombres.put(event.getRequestId(), nombreComando(event.getCommandName(), event.getCommand()));
+        MetricaOperacion origen = registro.getOperacionActual();
+        if (origen != null) {
+            origenes.put(event.getRequestId(), origen);
+        }
+        BitacoraConsultasLentas bitacora = registro.getBitacora();
+        if (bitacora.isHabilitada() && bitacora.admiteExplain(event.getCommandName())) {
+            copias.put(event.getRequestId(), event.getCommand().clone());
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        MetricaOperacion comando = comandoDe(event.getRequestId(), event.getCommandName());
+        MetricaOperacion origen = origenes.remove(event.getRequestId());
+        long bytes = tamano(event.getResponse());
+        long nanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+
+        comando.registrar(nanos);
+        comando.sumarDocumentos(documentos(event.getResponse()));
+        comando.sumarBytes(bytes);
+        if (origen != null) {
+            origen.sumarBytes(bytes);
+        }
+        // Los explain de la bitacora tambien pasan por aqui; no se registran a si mismos
+        if (!"explain".equals(event.getCommandName())) {
+            registro.getBitacora().registrar(origen != null ? origen.getNombre() : null, comando.getNombre(),
+                    event.getDatabaseName(), copias.remove(event.getRequestId()), nanos);
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        MetricaOperacion comando = comandoDe(event.getRequestId(), event.getCommandName());
+        origenes.remove(event.getRequestId());
+        copias.remove(event.getRequestId());
+        comando.registrar(event.getElapsedTime(TimeUnit.NANOSECONDS));
+        comando.registrarError();
+    }
+
+    private MetricaOperacion comandoDe(int requestId, String porDefecto) {
+        String nombre = nombres.remove(requestId);
+        return registro.comando(nombre != null ? nombre : porDefecto);
+    }
+
+    /**
+     * find, aggregate, insert... llevan la coleccion como valor del comando;
+     * getMore la lleva en "collection"
+     */
+    private static String nombreComando(String comando, BsonDocument documento) {
+        BsonValue coleccion = "getMore".equals(comando) ? documento.get("collection") : documento.get(comando);
+        return coleccion != null && coleccion.isString() ? comando + " " + coleccion.asString().getValue() : comando;
+    }
+
+    /**
+     * Documentos del lote de un cursor, o afectados (n) en una escritura
+     */
+    private static long documentos(BsonDocument respuesta) {
+        try {
+            BsonValue cursor = respuesta.get("cursor");
+            if (cursor != null && cursor.isDocument()) {
+                BsonValue lote = cursor.asDocument().get("firstBatch");
+                if (lote == null) {
+                    lote = cursor.asDocument().get("nextBatch");
+                }
+                return lote != null && lote.isArray() ? lote.asArray().size() : 0;
+            }
+            BsonValue n = respuesta.get("n");
+            return n != null && n.isNumber() ? n.asNumber().longValue() : 0;
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * El driver entrega la respuesta como RawBsonDocument, sin decodificar;
+     * su tamano es el del buffer
+     */
+    private static long tamano(BsonDocument respuesta) {
+        if (respuesta instanceof RawBsonDocument) {
+            return ((RawBsonDocument) respuesta).getByteBuffer().remaining();
+        }
+        return 0;
+    }
+}
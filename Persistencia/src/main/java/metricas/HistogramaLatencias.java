@@ -0,0 +1,95 @@
+package metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias sin candados: cubetas logaritmicas con 16
+ * subdivisiones por potencia de dos (error menor a 3%) en un
+ * AtomicLongArray. Registrar es un incremento atomico, asi varios hilos
+ * pueden medir a la vez sin bloquearse.
+ *
+ * @author System
+ */
+public class HistogramaLatencias {
+
+    private static final int SUBCUBETAS = 16;
+    private static final int BITS_SUBCUBETA = 4;
+    // Hasta 2^63 microsegundos; sobra, pero son solo 8 KB por histograma
+    private static final int CUBETAS = (64 - BITS_SUBCUBETA + 1) * SUBCUBETAS;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(CUBETAS);
+    private final LongAdder conteo = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maximoMicros = new AtomicLong();
+
+    public void registrar(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        cubetas.incrementAndGet(cubeta(micros));
+        conteo.increment();
+        totalMicros.add(micros);
+        maximoMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public long getConteo() {
+        return conteo.sum();
+    }
+
+    public double getPromedioMs() {
+        long total = conteo.sum();
+        return total == 0 ? 0 : totalMicros.sum() / 1000.0 / total;
+    }
+
+    public double getMaximoMs() {
+        return maximoMicros.get() / 1000.0;
+    }
+
+    /**
+     * Latencia bajo la cual queda la fraccion indicada de las mediciones
+     *
+     * @param fraccion entre 0 y 1, por ejemplo 0.99 para p99
+     */
+    public double percentilMs(double fraccion) {
+        long[] copia = new long[CUBETAS];
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            copia[i] = cubetas.get(i);
+            total += copia[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(fraccion * total));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= objetivo) {
+                return Math.min(valorMedio(i), maximoMicros.get()) / 1000.0;
+            }
+        }
+        return getMaximoMs();
+    }
+
+    static int cubeta(long micros) {
+        if (micros < SUBCUBETAS) {
+            return (int) micros;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponente - BITS_SUBCUBETA)) & (SUBCUBETAS - 1);
+        return (exponente - BITS_SUBCUBETA + 1) * SUBCUBETAS + sub;
+    }
+
+    /**
+     * Punto medio del rango de microsegundos que cubre la cubeta
+     */
+    static long valorMedio(int cubeta) {
+        if (cubeta < SUBCUBETAS) {
+            return cubeta;
+        }
+        int exponente = cubeta / SUBCUBETAS + BITS_SUBCUBETA - 1;
+        long ancho = 1L << (exponente - BITS_SUBCUBETA);
+        long inferior = (SUBCUBETAS + cubeta % SUBCUBETAS) * ancho;
+        return inferior + ancho / 2;
+    }
+}
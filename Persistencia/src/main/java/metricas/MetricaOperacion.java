@@ -0,0 +1,100 @@
+package metricas;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metricas de un metodo de DAO o de un comando de MongoDB: latencias,
+ * errores, documentos devueltos y bytes recibidos del servidor
+ *
+ * @author System
+ */
+public class MetricaOperacion implements MetricaOperacionMBean {
+
+    private final String nombre;
+    private final HistogramaLatencias latencias = new HistogramaLatencias();
+    private final LongAdder errores = new LongAdder();
+    private final LongAdder documentos = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    public MetricaOperacion(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public void registrar(long nanos) {
+        latencias.registrar(nanos);
+    }
+
+    public void registrarError() {
+        errores.increment();
+    }
+
+    public void sumarDocumentos(long cantidad) {
+        if (cantidad > 0) {
+            documentos.add(cantidad);
+        }
+    }
+
+    public void sumarBytes(long cantidad) {
+        if (cantidad > 0) {
+            bytes.add(cantidad);
+        }
+    }
+
+    @Override
+    public String getNombre() {
+        return nombre;
+    }
+
+    @Override
+    public long getConteo() {
+        return latencias.getConteo();
+    }
+
+    @Override
+    public long getErrores() {
+        return errores.sum();
+    }
+
+    @Override
+    public double getPromedioMs() {
+        return latencias.getPromedioMs();
+    }
+
+    @Override
+    public double getP50Ms() {
+        return latencias.percentilMs(0.50);
+    }
+
+    @Override
+    public double getP95Ms() {
+        return latencias.percentilMs(0.95);
+    }
+
+    @Override
+    public double getP99Ms() {
+        return latencias.percentilMs(0.99);
+    }
+
+    @Override
+    public double getMaximoMs() {
+        return latencias.getMaximoMs();
+    }
+
+    @Override
+    public long getDocumentos() {
+        return documentos.sum();
+    }
+
+    @Override
+    public long getBytesRecibidos() {
+        return bytes.sum();
+    }
+
+    /**
+     * Una linea para el volcado periodico
+     */
+    public String resumen() {
+        return String.format("%-50s %8d %6d %9.2f %9.2f %9.2f %9.2f %10d %12d", nombre, getConteo(), getErrores(),
+                getP50Ms(), getP95Ms(), getP99Ms(), getMaximoMs(), getDocumentos(), getBytesRecibidos());
+    }
+}
@@ -0,0 +1,29 @@
+package metricas;
+
+/**
+ * Vista JMX de una metrica (jconsole / VisualVM, dominio lavidaesbella)
+ *
+ * @author System
+ */
+public interface MetricaOperacionMBean {
+
+    String getNombre();
+
+    long getConteo();
+
+    long getErrores();
+
+    double getPromedioMs();
+
+    double getP50Ms();
+
+    double getP95Ms();
+
+    double getP99Ms();
+
+    double getMaximoMs();
+
+    long getDocumentos();
+
+    long getBytesRecibidos();
+}
@@ -0,0 +1,127 @@
+package metricas;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumen de un explain("executionStats"): etapas del plan ganador (por
+ * ejemplo "FETCH > IXSCAN idx_especie" o "COLLSCAN") y cuantos documentos
+ * y llaves examino el servidor contra los que devolvio.
+ *
+ * @author System
+ */
+public class PlanConsulta {
+
+    private final String etapas;
+    private final boolean recorridoCompleto;
+    private final long documentosExaminados;
+    private final long llavesExaminadas;
+    private final long devueltos;
+    private final String error;
+
+    private PlanConsulta(String etapas, boolean recorridoCompleto, long documentosExaminados,
+            long llavesExaminadas, long devueltos, String error) {
+        this.etapas = etapas;
+        this.recorridoCompleto = recorridoCompleto;
+        this.documentosExaminados = documentosExaminados;
+        this.llavesExaminadas = llavesExaminadas;
+        this.devueltos = devueltos;
+        this.error = error;
+    }
+
+    /**
+     * Interpreta la respuesta del comando explain. En un aggregate el plan
+     * de la consulta viene dentro de la primera etapa ($cursor), salvo que
+     * el pipeline completo se haya resuelto en la capa de consultas.
+     */
+    public static PlanConsulta de(BsonDocument explicacion) {
+        BsonDocument origen = explicacion;
+        if (!explicacion.containsKey("queryPlanner")) {
+            BsonArray etapasPipeline = explicacion.getArray("stages", new BsonArray());
+            if (!etapasPipeline.isEmpty() && etapasPipeline.get(0).isDocument()
+                    && etapasPipeline.get(0).asDocument().isDocument("$cursor")) {
+                origen = etapasPipeline.get(0).asDocument().getDocument("$cursor");
+            }
+        }
+        if (!origen.isDocument("queryPlanner")) {
+            return fallido("explain sin queryPlanner");
+        }
+        BsonDocument ganador = origen.getDocument("queryPlanner").getDocument("winningPlan", new BsonDocument());
+        // Con el motor SBE (MongoDB 7+) el arbol de etapas va en queryPlan
+        if (ganador.isDocument("queryPlan")) {
+            ganador = ganador.getDocument("queryPlan");
+        }
+        List<String> etapas = new ArrayList<>();
+        recorrer(ganador, etapas);
+
+        BsonDocument estadisticas = origen.getDocument("executionStats", new BsonDocument());
+        return new PlanConsulta(String.join(" > ", etapas), etapas.contains("COLLSCAN"),
+                entero(estadisticas, "totalDocsExamined"), entero(estadisticas, "totalKeysExamined"),
+                entero(estadisticas, "nReturned"), null);
+    }
+
+    public static PlanConsulta fallido(String error) {
+        return new PlanConsulta("", false, 0, 0, 0, error);
+    }
+
+    private static void recorrer(BsonDocument etapa, List<String> etapas) {
+        if (!etapa.isString("stage")) {
+            return;
+        }
+        String nombre = etapa.getString("stage").getValue();
+        etapas.add(etapa.isString("indexName") ? nombre + " " + etapa.getString("indexName").getValue() : nombre);
+        if (etapa.isDocument("inputStage")) {
+            recorrer(etapa.getDocument("inputStage"), etapas);
+        }
+        for (BsonValue entrada : etapa.getArray("inputStages", new BsonArray())) {
+            if (entrada.isDocument()) {
+                recorrer(entrada.asDocument(), etapas);
+            }
+        }
+    }
+
+    private static long entero(BsonDocument documento, String campo) {
+        BsonValue valor = documento.get(campo);
+        return valor != null && valor.isNumber() ? valor.asNumber().longValue() : 0;
+    }
+
+    public String getEtapas() {
+        return etapas;
+    }
+
+    /**
+     * true si el plan leyo la coleccion completa (COLLSCAN): falta un indice
+     */
+    public boolean isRecorridoCompleto() {
+        return recorridoCompleto;
+    }
+
+    public long getDocumentosExaminados() {
+        return documentosExaminados;
+    }
+
+    public long getLlavesExaminadas() {
+        return llavesExaminadas;
+    }
+
+    public long getDevueltos() {
+        return devueltos;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        if (error != null) {
+            return "explain fallo: " + error;
+        }
+        return String.format("%s, %d docs y %d llaves examinados / %d devueltos", etapas, documentosExaminados,
+                llavesExaminadas, devueltos);
+    }
+}
@@ -0,0 +1,159 @@
+package metricas;
+
+import conexion.ConfiguracionMongoDB;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro de las metricas de latencia de la aplicacion: una por metodo de
+ * DAO (DAOsMedidos) y una por comando de MongoDB (EscuchaComandos). Cada
+ * metrica se publica como MBean al crearse y, si metricas.volcadoSegundos
+ * es mayor a 0, se imprime una tabla periodica con las mas costosas.
+ *
+ * El metodo de DAO en curso se guarda por hilo; asi el listener de comandos,
+ * que el driver llama en el mismo hilo, le suma los bytes recibidos. Los
+ * comandos que superan metricas.consultasLentas.umbralMs van ademas a la
+ * BitacoraConsultasLentas.
+ *
+ * @author System
+ */
+public final class RegistroMetricas {
+
+    private static final String DOMINIO_JMX = "lavidaesbella";
+    private static final int FILAS_VOLCADO = 20;
+
+    private static final RegistroMetricas INSTANCIA = new RegistroMetricas(new ConfiguracionMongoDB());
+
+    private final boolean habilitado;
+    private final Map<String, MetricaOperacion> daos = new ConcurrentHashMap<>();
+    private final Map<String, MetricaOperacion> comandos = new ConcurrentHashMap<>();
+    private final ThreadLocal<MetricaOperacion> operacionActual = new ThreadLocal<>();
+    private final BitacoraConsultasLentas bitacora;
+    private long conteoUltimoVolcado;
+
+    private RegistroMetricas(ConfiguracionMongoDB configuracion) {
+        this.habilitado = configuracion.isMetricasHabilitadas();
+        this.bitacora = new BitacoraConsultasLentas(configuracion.getUmbralConsultasLentasMs(),
+                configuracion.getCapacidadConsultasLentas());
+        if (habilitado) {
+            publicar(bitacora, DOMINIO_JMX + ":type=ConsultasLentas");
+        }
+        int volcado = configuracion.getSegundosVolcadoMetricas();
+        if (habilitado && volcado > 0) {
+            ScheduledExecutorService programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, "volcado-metricas");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            programador.scheduleAtFixedRate(this::volcar, volcado, volcado, TimeUnit.SECONDS);
+        }
+    }
+
+    public static RegistroMetricas getInstancia() {
+        return INSTANCIA;
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public MetricaOperacion operacionDAO(String nombre) {
+        return daos.computeIfAbsent(nombre, n -> publicar("DAO", new MetricaOperacion(n)));
+    }
+
+    public MetricaOperacion comando(String nombre) {
+        return comandos.computeIfAbsent(nombre, n -> publicar("Comando", new MetricaOperacion(n)));
+    }
+
+    public BitacoraConsultasLentas getBitacora() {
+        return bitacora;
+    }
+
+    /**
+     * Marca el metodo de DAO en curso en este hilo
+     *
+     * @return el que estaba antes, para restaurarlo con salir
+     */
+    MetricaOperacion entrar(MetricaOperacion operacion) {
+        MetricaOperacion anterior = operacionActual.get();
+        operacionActual.set(operacion);
+        return anterior;
+    }
+
+    void salir(MetricaOperacion anterior) {
+        if (anterior == null) {
+            operacionActual.remove();
+        } else {
+            operacionActual.set(anterior);
+        }
+    }
+
+    MetricaOperacion getOperacionActual() {
+        return operacionActual.get();
+    }
+
+    /**
+     * Tabla con los metodos de DAO y comandos de mayor tiempo acumulado
+     */
+    public String resumen() {
+        StringBuilder texto = new StringBuilder();
+        agregarTabla(texto, "Metodos de DAO", daos);
+        agregarTabla(texto, "Comandos MongoDB", comandos);
+        return texto.toString();
+    }
+
+    private void volcar() {
+        long conteo = 0;
+        for (MetricaOperacion metrica : daos.values()) {
+            conteo += metrica.getConteo();
+        }
+        // Sin actividad desde el ultimo volcado no se repite la misma tabla
+        if (conteo == conteoUltimoVolcado) {
+            return;
+        }
+        conteoUltimoVolcado = conteo;
+        System.out.print(resumen());
+    }
+
+    private static void agregarTabla(StringBuilder texto, String titulo, Map<String, MetricaOperacion> metricas) {
+        if (metricas.isEmpty()) {
+            return;
+        }
+        List<MetricaOperacion> ordenadas = new ArrayList<>(metricas.values());
+        ordenadas.sort(Comparator.comparingDouble((MetricaOperacion m) -> m.getPromedioMs() * m.getConteo())
+                .reversed());
+        texto.append(String.format("%s (acumulado, ms)%n%-50s %8s %6s %9s %9s %9s %9s %10s %12s%n", titulo,
+                "operacion", "conteo", "errores", "p50", "p95", "p99", "max", "docs", "bytes"));
+        for (MetricaOperacion metrica : ordenadas.subList(0, Math.min(FILAS_VOLCADO, ordenadas.size()))) {
+            texto.append(metrica.resumen()).append(System.lineSeparator());
+        }
+    }
+
+    private static MetricaOperacion publicar(String tipo, MetricaOperacion metrica) {
+        publicar(metrica, DOMINIO_JMX + ":type=" + tipo + ",name=" + ObjectName.quote(metrica.getNombre()));
+        return metrica;
+    }
+
+    private static void publicar(Object mbean, String nombreJmx) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName(nombreJmx);
+            if (!servidor.isRegistered(nombre)) {
+                servidor.registerMBean(mbean, nombre);
+            }
+        } catch (JMException e) {
+            System.err.println("No se pudo publicar " + nombreJmx + " en JMX: " + e.getMessage());
+        }
+    }
+}
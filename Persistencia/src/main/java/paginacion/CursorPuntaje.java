@@ -0,0 +1,72 @@
+package paginacion;
+
+import com.mongodb.client.model.Filters;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+/**
+ * Cursor de las paginas ordenadas por relevancia (puntaje descendente y _id
+ * ascendente para los empates). Viaja como texto "puntaje_id"; el puntaje
+ * se escribe con Double.toString para que al leerlo sea exactamente el
+ * mismo valor y el corte no repita ni salte elementos.
+ *
+ * @author System
+ */
+public final class CursorPuntaje {
+
+    private static final char SEPARADOR = '_';
+
+    private final double puntaje;
+    private final ObjectId id;
+
+    public CursorPuntaje(double puntaje, ObjectId id) {
+        this.puntaje = puntaje;
+        this.id = id;
+    }
+
+    /**
+     * @throws IllegalArgumentException si el texto no es un cursor de puntaje
+     */
+    public static CursorPuntaje leer(String cursor) {
+        int separador = cursor == null ? -1 : cursor.lastIndexOf(SEPARADOR);
+        if (separador <= 0 || !ObjectId.isValid(cursor.substring(separador + 1))) {
+            throw new IllegalArgumentException("Cursor de pagina invalido: " + cursor);
+        }
+        try {
+            return new CursorPuntaje(Double.parseDouble(cursor.substring(0, separador)),
+                    new ObjectId(cursor.substring(separador + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor de pagina invalido: " + cursor);
+        }
+    }
+
+    public double getPuntaje() {
+        return puntaje;
+    }
+
+    public ObjectId getId() {
+        return id;
+    }
+
+    /**
+     * true si el elemento va despues de este cursor en el orden de relevancia
+     */
+    public boolean esAnteriorA(double otroPuntaje, ObjectId otroId) {
+        int comparacion = Double.compare(otroPuntaje, puntaje);
+        return comparacion < 0 || (comparacion == 0 && otroId.compareTo(id) > 0);
+    }
+
+    /**
+     * Filtro equivalente a esAnteriorA sobre el campo con el puntaje
+     */
+    public Bson filtro(String campoPuntaje) {
+        return Filters.or(
+                Filters.lt(campoPuntaje, puntaje),
+                Filters.and(Filters.eq(campoPuntaje, puntaje), Filters.gt("_id", id)));
+    }
+
+    @Override
+    public String toString() {
+        return Double.toString(puntaje) + SEPARADOR + id.toHexString();
+    }
+}
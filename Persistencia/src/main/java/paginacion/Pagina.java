@@ -0,0 +1,71 @@
+package paginacion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Una pagina de resultados de una consulta paginada por cursor. El cursor es
+ * el _id del ultimo elemento; para pedir la siguiente pagina se manda de
+ * regreso tal cual.
+ *
+ * @param <T> tipo de los elementos
+ * @author System
+ */
+public class Pagina<T> {
+
+    /**
+     * Valor de totalEstimado cuando no se calculo (paginas despues de la primera)
+     */
+    public static final long SIN_TOTAL = -1;
+
+    private final List<T> elementos;
+    private final String cursorSiguiente;
+    private final boolean hayMas;
+    private final long totalEstimado;
+
+    public Pagina(List<T> elementos, String cursorSiguiente, boolean hayMas, long totalEstimado) {
+        this.elementos = elementos;
+        this.cursorSiguiente = cursorSiguiente;
+        this.hayMas = hayMas;
+        this.totalEstimado = totalEstimado;
+    }
+
+    public static <T> Pagina<T> vacia() {
+        return new Pagina<>(new ArrayList<>(), null, false, 0);
+    }
+
+    public List<T> getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Cursor para pedir la siguiente pagina, null si ya no hay mas
+     */
+    public String getCursorSiguiente() {
+        return cursorSiguiente;
+    }
+
+    public boolean isHayMas() {
+        return hayMas;
+    }
+
+    /**
+     * Total aproximado de elementos de la consulta, solo viene en la primera
+     * pagina; en las demas es SIN_TOTAL
+     */
+    public long getTotalEstimado() {
+        return totalEstimado;
+    }
+
+    /**
+     * Convierte los elementos conservando el cursor y el total
+     */
+    public <R> Pagina<R> map(Function<T, R> conversion) {
+        List<R> convertidos = new ArrayList<>(elementos.size());
+        for (T elemento : elementos) {
+            convertidos.add(conversion.apply(elemento));
+        }
+        return new Pagina<>(convertidos, cursorSiguiente, hayMas, totalEstimado);
+    }
+}
@@ -0,0 +1,197 @@
+package paginacion;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Field;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Paginacion por cursor (keyset) sobre _id: en lugar de skip se filtra por
+ * _id mayor (o menor) que el ultimo de la pagina anterior, asi cada pagina
+ * cuesta lo mismo sin importar que tan adelante se este.
+ *
+ * @author System
+ */
+public final class Paginador {
+
+    public static final int TAMANO_MAXIMO = 500;
+
+    /**
+     * Campo en el que paginarPorPuntaje deja el puntaje de relevancia
+     */
+    public static final String CAMPO_PUNTAJE = "puntaje";
+
+    private Paginador() {
+    }
+
+    /**
+     * Obtiene una pagina de la coleccion
+     *
+     * @param coleccion   coleccion a consultar
+     * @param filtro      filtro de la consulta
+     * @param proyeccion  proyeccion a aplicar, null para traer todo
+     * @param despuesDe   cursor de la pagina anterior, null para la primera
+     * @param tamano      elementos por pagina
+     * @param descendente true para recorrer del mas reciente al mas antiguo
+     * @param obtenerId   como sacar el _id de un elemento
+     */
+    public static <T> Pagina<T> paginar(MongoCollection<T> coleccion, Bson filtro, Bson proyeccion,
+            String despuesDe, int tamano, boolean descendente, Function<T, ObjectId> obtenerId) {
+        validarTamano(tamano);
+
+        // Se pide uno de mas para saber si hay otra pagina sin contar
+        FindIterable<T> consulta = coleccion.find(filtroPagina(filtro, despuesDe, descendente))
+                .sort(orden(descendente))
+                .limit(tamano + 1)
+                .batchSize(tamano + 1);
+        if (proyeccion != null) {
+            consulta = consulta.projection(proyeccion);
+        }
+
+        List<T> elementos = consulta.into(new ArrayList<>(tamano + 1));
+        boolean hayMas = recortar(elementos, tamano);
+        long total = despuesDe == null ? contar(coleccion, filtro, elementos.size(), hayMas) : Pagina.SIN_TOTAL;
+        return new Pagina<>(elementos, cursor(elementos, hayMas, obtenerId), hayMas, total);
+    }
+
+    /**
+     * Obtiene una pagina de una agregacion. El corte por cursor, el orden y
+     * el limite se aplican al inicio, de modo que las etapas (por ejemplo
+     * $lookup) solo se ejecutan sobre los documentos de la pagina.
+     *
+     * @param etapas    etapas a aplicar despues de elegir la pagina
+     * @param resultado clase en la que se decodifica cada resultado
+     */
+    public static <T, R> Pagina<R> paginarAgregacion(MongoCollection<T> coleccion, Bson filtro,
+            List<Bson> etapas, Class<R> resultado, String despuesDe, int tamano, boolean descendente,
+            Function<R, ObjectId> obtenerId) {
+        validarTamano(tamano);
+
+        List<Bson> pipeline = new ArrayList<>();
+        pipeline.add(Aggregates.match(filtroPagina(filtro, despuesDe, descendente)));
+        pipeline.add(Aggregates.sort(orden(descendente)));
+        pipeline.add(Aggregates.limit(tamano + 1));
+        pipeline.addAll(etapas);
+
+        List<R> elementos = coleccion.aggregate(pipeline, resultado)
+                .batchSize(tamano + 1)
+                .into(new ArrayList<>(tamano + 1));
+        boolean hayMas = recortar(elementos, tamano);
+        long total = despuesDe == null ? contar(coleccion, filtro, elementos.size(), hayMas) : Pagina.SIN_TOTAL;
+        return new Pagina<>(elementos, cursor(elementos, hayMas, obtenerId), hayMas, total);
+    }
+
+    /**
+     * Obtiene una pagina de una busqueda $text ordenada por relevancia. El
+     * puntaje (textScore) se copia al campo CAMPO_PUNTAJE y el corte se hace
+     * con CursorPuntaje sobre (puntaje, _id), sin skip. El servidor tiene
+     * que ordenar todas las coincidencias en cada pagina, pero solo regresa
+     * la pagina pedida.
+     *
+     * @param filtro      filtro con el $text y las demas condiciones
+     * @param proyeccion  campos a regresar; debe incluir CAMPO_PUNTAJE
+     * @param despuesDe   cursor de la pagina anterior, null para la primera
+     * @param obtenerPuntaje como sacar el puntaje de un elemento
+     */
+    public static <T> Pagina<T> paginarPorPuntaje(MongoCollection<T> coleccion, Bson filtro, Bson proyeccion,
+            String despuesDe, int tamano, Function<T, ObjectId> obtenerId, ToDoubleFunction<T> obtenerPuntaje) {
+        validarTamano(tamano);
+
+        List<Bson> pipeline = new ArrayList<>();
+        pipeline.add(Aggregates.match(filtro));
+        pipeline.add(Aggregates.addFields(new Field<>(CAMPO_PUNTAJE, new Document("$meta", "textScore"))));
+        if (despuesDe != null) {
+            pipeline.add(Aggregates.match(CursorPuntaje.leer(despuesDe).filtro(CAMPO_PUNTAJE)));
+        }
+        pipeline.add(Aggregates.sort(Sorts.orderBy(Sorts.descending(CAMPO_PUNTAJE), Sorts.ascending("_id"))));
+        pipeline.add(Aggregates.limit(tamano + 1));
+        pipeline.add(Aggregates.project(proyeccion));
+
+        List<T> elementos = coleccion.aggregate(pipeline)
+                .batchSize(tamano + 1)
+                .into(new ArrayList<>(tamano + 1));
+        boolean hayMas = recortar(elementos, tamano);
+        long total = despuesDe == null ? contar(coleccion, filtro, elementos.size(), hayMas) : Pagina.SIN_TOTAL;
+        String cursor = null;
+        if (hayMas) {
+            T ultimo = elementos.get(elementos.size() - 1);
+            cursor = new CursorPuntaje(obtenerPuntaje.applyAsDouble(ultimo), obtenerId.apply(ultimo)).toString();
+        }
+        return new Pagina<>(elementos, cursor, hayMas, total);
+    }
+
+    /**
+     * @throws IllegalArgumentException si el tamano no esta entre 1 y TAMANO_MAXIMO
+     */
+    public static void validarTamano(int tamano) {
+        if (tamano <= 0 || tamano > TAMANO_MAXIMO) {
+            throw new IllegalArgumentException("Tamano de pagina invalido: " + tamano);
+        }
+    }
+
+    private static Bson filtroPagina(Bson filtro, String despuesDe, boolean descendente) {
+        if (despuesDe == null) {
+            return filtro;
+        }
+        ObjectId ultimo = leerCursor(despuesDe);
+        return Filters.and(filtro, descendente ? Filters.lt("_id", ultimo) : Filters.gt("_id", ultimo));
+    }
+
+    /**
+     * _id del ultimo elemento de la pagina anterior
+     *
+     * @throws IllegalArgumentException si el cursor no es un ObjectId
+     */
+    public static ObjectId leerCursor(String despuesDe) {
+        if (!ObjectId.isValid(despuesDe)) {
+            throw new IllegalArgumentException("Cursor de pagina invalido: " + despuesDe);
+        }
+        return new ObjectId(despuesDe);
+    }
+
+    private static Bson orden(boolean descendente) {
+        return descendente ? Sorts.descending("_id") : Sorts.ascending("_id");
+    }
+
+    /**
+     * Quita el elemento de mas; regresa true si lo habia
+     */
+    private static <T> boolean recortar(List<T> elementos, int tamano) {
+        if (elementos.size() > tamano) {
+            elementos.remove(tamano);
+            return true;
+        }
+        return false;
+    }
+
+    private static <T> String cursor(List<T> elementos, boolean hayMas, Function<T, ObjectId> obtenerId) {
+        if (!hayMas || elementos.isEmpty()) {
+            return null;
+        }
+        return obtenerId.apply(elementos.get(elementos.size() - 1)).toHexString();
+    }
+
+    /**
+     * Sin filtro se usa la metadata de la coleccion; con filtro se cuenta
+     * sobre el indice. Si todo cupo en la pagina no hace falta consultar.
+     */
+    private static long contar(MongoCollection<?> coleccion, Bson filtro, int enPagina, boolean hayMas) {
+        if (!hayMas) {
+            return enPagina;
+        }
+        if (filtro == null || filtro.toBsonDocument().isEmpty()) {
+            return coleccion.estimatedDocumentCount();
+        }
+        return coleccion.countDocuments(filtro);
+    }
+}
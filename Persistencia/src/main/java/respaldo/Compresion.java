@@ -0,0 +1,97 @@
+package respaldo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Formatos de compresion de los archivos de respaldo. zstd comprime mas
+ * rapido pero requiere zstd-jni en el classpath (igual que la compresion
+ * del protocolo); gzip siempre esta disponible.
+ *
+ * @author System
+ */
+public enum Compresion {
+
+    GZIP(".ndjson.gz"),
+    ZSTD(".ndjson.zst");
+
+    private static final int BUFFER = 1 << 16;
+
+    private final String extension;
+
+    Compresion(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public boolean isDisponible() {
+        if (this == GZIP) {
+            return true;
+        }
+        try {
+            Class.forName("com.github.luben.zstd.ZstdOutputStream");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Compresion que corresponde a la extension del archivo, o null si no
+     * es un archivo de respaldo
+     */
+    public static Compresion deArchivo(Path archivo) {
+        String nombre = archivo.getFileName().toString();
+        for (Compresion compresion : values()) {
+            if (nombre.endsWith(compresion.extension)) {
+                return compresion;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Nombre de la coleccion a partir del nombre del archivo
+     */
+    public String coleccionDe(Path archivo) {
+        String nombre = archivo.getFileName().toString();
+        return nombre.substring(0, nombre.length() - extension.length());
+    }
+
+    public OutputStream comprimir(OutputStream salida) throws IOException {
+        if (this == GZIP) {
+            return new GZIPOutputStream(salida, BUFFER);
+        }
+        return (OutputStream) crearZstd("com.github.luben.zstd.ZstdOutputStream", OutputStream.class, salida);
+    }
+
+    public InputStream descomprimir(InputStream entrada) throws IOException {
+        if (this == GZIP) {
+            return new GZIPInputStream(entrada, BUFFER);
+        }
+        return (InputStream) crearZstd("com.github.luben.zstd.ZstdInputStream", InputStream.class, entrada);
+    }
+
+    private static Object crearZstd(String clase, Class<?> tipo, Object flujo) throws IOException {
+        try {
+            return Class.forName(clase).getConstructor(tipo).newInstance(flujo);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Compresion zstd no disponible: zstd-jni no esta en el classpath");
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new RuntimeException("No se pudo crear el flujo zstd: " + e.getCause().getMessage(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("No se pudo crear el flujo zstd: " + e.getMessage(), e);
+        }
+    }
+}
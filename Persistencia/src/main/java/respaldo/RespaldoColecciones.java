@@ -0,0 +1,317 @@
+package respaldo;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.InsertManyOptions;
+import conexion.ConfiguracionMongoDB;
+import conexion.GestorIndices;
+import daos.RecorridoCursor;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Exporta e importa las colecciones de la aplicacion como NDJSON comprimido
+ * (un archivo por coleccion, JSON extendido para conservar ObjectId, fechas
+ * y numeros), para clonar ambientes y sembrar pruebas de carga sin
+ * mongodump.
+ *
+ * Cada coleccion se procesa en su propio hilo. La memoria usada no depende
+ * del tamano de la coleccion: al exportar los documentos llegan por lotes
+ * del cursor y se escriben al canal del archivo; al importar se leen linea
+ * por linea y se insertan por lotes con insertMany sin orden.
+ *
+ * @author System
+ */
+public class RespaldoColecciones {
+
+    /**
+     * Colecciones que usan los DAOs de todos los modulos
+     */
+    public static final List<String> COLECCIONES = List.of("mascotas", "usuarios", "solicitudes", "citas",
+            "citasDisponibles", "expedientes_medicos", "encuestas", "resultados_mascota_ideal",
+            "solicitudes_adopcion", "migraciones", "auditoria_solicitudes",
+            "metricas_diarias");
+
+    public static final String MANIFIESTO = "manifiesto.json";
+
+    private static final JsonWriterSettings JSON = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+    private static final int BUFFER = 1 << 16;
+    private static final int CODIGO_DUPLICADO = 11000;
+
+    private final MongoDatabase database;
+    private int hilos = 4;
+    private int tamanoLote = new ConfiguracionMongoDB().getTamanoLoteCursor();
+
+    public RespaldoColecciones(MongoDatabase database) {
+        this.database = database;
+    }
+
+    public void setHilos(int hilos) {
+        if (hilos < 1) {
+            throw new IllegalArgumentException("Se necesita al menos un hilo: " + hilos);
+        }
+        this.hilos = hilos;
+    }
+
+    public void setTamanoLote(int tamanoLote) {
+        if (tamanoLote < 1) {
+            throw new IllegalArgumentException("El tamano de lote debe ser positivo: " + tamanoLote);
+        }
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Exporta las colecciones existentes al directorio y escribe un
+     * manifiesto con los conteos
+     *
+     * @return documentos exportados por coleccion
+     */
+    public Map<String, Long> exportar(Path directorio, Compresion compresion) throws IOException {
+        if (!compresion.isDisponible()) {
+            throw new IllegalArgumentException("Compresion " + compresion + " no disponible en el classpath");
+        }
+        Files.createDirectories(directorio);
+        List<String> existentes = database.listCollectionNames().into(new ArrayList<>());
+
+        long inicio = System.currentTimeMillis();
+        Map<String, Callable<Long>> tareas = new LinkedHashMap<>();
+        for (String nombre : COLECCIONES) {
+            if (existentes.contains(nombre)) {
+                Path destino = directorio.resolve(nombre + compresion.getExtension());
+                tareas.put(nombre, () -> exportarColeccion(nombre, destino, compresion));
+            }
+        }
+        Map<String, Long> conteos = ejecutar("exportar", tareas);
+
+        Document manifiesto = new Document("baseDatos", database.getName())
+                .append("fecha", new Date())
+                .append("compresion", compresion.name())
+                .append("colecciones", new Document(new LinkedHashMap<>(conteos)));
+        Files.writeString(directorio.resolve(MANIFIESTO), manifiesto.toJson(JSON), StandardCharsets.UTF_8);
+
+        System.out.println("Respaldo exportado a " + directorio + ": " + total(conteos) + " documentos de "
+                + conteos.size() + " colecciones en " + (System.currentTimeMillis() - inicio) + " ms");
+        return conteos;
+    }
+
+    /**
+     * Importa todos los archivos de respaldo del directorio. Con reemplazar
+     * cada coleccion se elimina antes y al final se recrean los indices
+     * declarados; sin el, los documentos con _id repetido se omiten.
+     *
+     * @return documentos insertados por coleccion
+     */
+    public Map<String, Long> importar(Path directorio, boolean reemplazar) throws IOException {
+        long inicio = System.currentTimeMillis();
+        Map<String, Callable<Long>> tareas = new LinkedHashMap<>();
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            for (Path archivo : (Iterable<Path>) archivos.sorted()::iterator) {
+                Compresion compresion = Compresion.deArchivo(archivo);
+                if (compresion != null) {
+                    String nombre = compresion.coleccionDe(archivo);
+                    tareas.put(nombre, () -> importarColeccion(nombre, archivo, compresion, reemplazar));
+                }
+            }
+        }
+        if (tareas.isEmpty()) {
+            throw new IllegalArgumentException("No hay archivos de respaldo en " + directorio);
+        }
+        Map<String, Long> conteos = ejecutar("importar", tareas);
+        if (reemplazar) {
+            new GestorIndices(database).sincronizar();
+        }
+        verificarManifiesto(directorio, conteos, reemplazar);
+
+        System.out.println("Respaldo importado desde " + directorio + ": " + total(conteos) + " documentos en "
+                + conteos.size() + " colecciones en " + (System.currentTimeMillis() - inicio) + " ms");
+        return conteos;
+    }
+
+    private long exportarColeccion(String nombre, Path destino, Compresion compresion) throws IOException {
+        long inicio = System.currentTimeMillis();
+        MongoCollection<RawBsonDocument> coleccion = database.getCollection(nombre, RawBsonDocument.class);
+        // Se escribe aparte y se mueve para no dejar un archivo a medias
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        long documentos;
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                Writer salida = new BufferedWriter(new OutputStreamWriter(compresion.comprimir(
+                        new BufferedOutputStream(Channels.newOutputStream(canal), BUFFER)), StandardCharsets.UTF_8),
+                        BUFFER)) {
+            documentos = RecorridoCursor.recorrer(coleccion.find(), tamanoLote, documento -> {
+                try {
+                    salida.write(documento.toJson(JSON));
+                    salida.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(temporal);
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+        Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.println("  " + nombre + ": " + documentos + " documentos, " + Files.size(destino) / 1024
+                + " KB en " + (System.currentTimeMillis() - inicio) + " ms");
+        return documentos;
+    }
+
+    private long importarColeccion(String nombre, Path origen, Compresion compresion, boolean reemplazar)
+            throws IOException {
+        long inicio = System.currentTimeMillis();
+        MongoCollection<RawBsonDocument> coleccion = database.getCollection(nombre, RawBsonDocument.class);
+        if (reemplazar) {
+            coleccion.drop();
+        }
+        long insertados = 0;
+        long duplicados = 0;
+        try (FileChannel canal = FileChannel.open(origen, StandardOpenOption.READ);
+                BufferedReader entrada = new BufferedReader(new InputStreamReader(compresion.descomprimir(
+                        new BufferedInputStream(Channels.newInputStream(canal), BUFFER)), StandardCharsets.UTF_8),
+                        BUFFER)) {
+            List<RawBsonDocument> lote = new ArrayList<>(tamanoLote);
+            String linea;
+            while ((linea = entrada.readLine()) != null) {
+                if (linea.isBlank()) {
+                    continue;
+                }
+                lote.add(RawBsonDocument.parse(linea));
+                if (lote.size() == tamanoLote) {
+                    long omitidos = insertar(coleccion, lote);
+                    insertados += lote.size() - omitidos;
+                    duplicados += omitidos;
+                    lote.clear();
+                }
+            }
+            long omitidos = insertar(coleccion, lote);
+            insertados += lote.size() - omitidos;
+            duplicados += omitidos;
+        }
+        System.out.println("  " + nombre + ": " + insertados + " insertados"
+                + (duplicados > 0 ? ", " + duplicados + " ya existian" : "") + " en "
+                + (System.currentTimeMillis() - inicio) + " ms");
+        return insertados;
+    }
+
+    /**
+     * insertMany sin orden: un _id repetido no detiene el resto del lote
+     *
+     * @return documentos omitidos por _id repetido
+     */
+    private static long insertar(MongoCollection<RawBsonDocument> coleccion, List<RawBsonDocument> lote) {
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        try {
+            coleccion.insertMany(lote, new InsertManyOptions().ordered(false));
+            return 0;
+        } catch (MongoBulkWriteException e) {
+            long duplicados = 0;
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (error.getCode() != CODIGO_DUPLICADO) {
+                    throw e;
+                }
+                duplicados++;
+            }
+            return duplicados;
+        }
+    }
+
+    /**
+     * Corre una tarea por coleccion en el pool; si alguna falla las demas
+     * terminan y al final se reportan todas las fallas
+     */
+    private Map<String, Long> ejecutar(String accion, Map<String, Callable<Long>> tareas) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(hilos, Math.max(1, tareas.size())), tarea -> {
+            Thread hilo = new Thread(tarea, "respaldo-" + accion);
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        Map<String, Future<Long>> enCurso = new LinkedHashMap<>();
+        for (Map.Entry<String, Callable<Long>> tarea : tareas.entrySet()) {
+            enCurso.put(tarea.getKey(), pool.submit(tarea.getValue()));
+        }
+
+        Map<String, Long> conteos = new TreeMap<>();
+        List<String> fallas = new ArrayList<>();
+        try {
+            for (Map.Entry<String, Future<Long>> resultado : enCurso.entrySet()) {
+                try {
+                    conteos.put(resultado.getKey(), resultado.getValue().get());
+                } catch (ExecutionException e) {
+                    fallas.add(resultado.getKey() + ": " + e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Respaldo interrumpido", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        if (!fallas.isEmpty()) {
+            throw new RuntimeException("No se pudo " + accion + " " + String.join("; ", fallas));
+        }
+        return conteos;
+    }
+
+    private static void verificarManifiesto(Path directorio, Map<String, Long> conteos, boolean reemplazar)
+            throws IOException {
+        Path archivo = directorio.resolve(MANIFIESTO);
+        if (!reemplazar || Files.notExists(archivo)) {
+            return;
+        }
+        Document colecciones = Document.parse(Files.readString(archivo, StandardCharsets.UTF_8))
+                .get("colecciones", Document.class);
+        for (Map.Entry<String, Long> conteo : conteos.entrySet()) {
+            Number esperado = colecciones != null ? colecciones.get(conteo.getKey(), Number.class) : null;
+            if (esperado != null && esperado.longValue() != conteo.getValue()) {
+                System.err.println("Advertencia: " + conteo.getKey() + " tiene " + conteo.getValue()
+                        + " documentos y el manifiesto " + esperado);
+            }
+        }
+    }
+
+    private static long total(Map<String, Long> conteos) {
+        long total = 0;
+        for (long conteo : conteos.values()) {
+            total += conteo;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,176 @@
+package utils;
+
+import codecs.RegistroCodecs;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import conexion.ConexionMongoDB;
+import entities.Mascota;
+import org.bson.Document;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compara el recorrido completo del catalogo decodificando a Document y
+ * convirtiendo campo por campo contra el codec de Mascota. Usa una coleccion
+ * temporal que se elimina al terminar.
+ *
+ * Uso: java utils.BenchmarkCodecs [documentos] [repeticiones]
+ *
+ * @author System
+ */
+public class BenchmarkCodecs {
+
+    private static final String COLECCION = "benchmark_mascotas";
+    private static final int LOTE = 1000;
+
+    public static void main(String[] args) {
+        int documentos = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int repeticiones = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        MongoDatabase database = ConexionMongoDB.getInstancia().getDatabase();
+        MongoCollection<Document> coleccionDocumentos = database.getCollection(COLECCION);
+        MongoCollection<Mascota> coleccionTipada = database.getCollection(COLECCION, Mascota.class)
+                .withCodecRegistry(RegistroCodecs.getRegistro());
+
+        try {
+            coleccionDocumentos.drop();
+            poblar(coleccionTipada, documentos);
+
+            // Calentamiento del JIT
+            recorrerDocumentos(coleccionDocumentos);
+            recorrerTipado(coleccionTipada);
+
+            Resultado documento = new Resultado("Document + conversion");
+            Resultado tipado = new Resultado("Codec Mascota");
+            for (int i = 0; i < repeticiones; i++) {
+                medir(documento, () -> recorrerDocumentos(coleccionDocumentos));
+                medir(tipado, () -> recorrerTipado(coleccionTipada));
+            }
+
+            System.out.println("Recorrido de " + documentos + " mascotas, mejor de " + repeticiones + " repeticiones:");
+            documento.imprimir(documentos);
+            tipado.imprimir(documentos);
+        } finally {
+            coleccionDocumentos.drop();
+            ConexionMongoDB.getInstancia().cerrarConexion();
+        }
+    }
+
+    private static void poblar(MongoCollection<Mascota> coleccion, int documentos) {
+        String[] especies = {"Perro", "Gato", "Conejo", "Ave"};
+        String[] tamanos = {"Pequeño", "Mediano", "Grande"};
+        List<Mascota> lote = new ArrayList<>(LOTE);
+        for (int i = 0; i < documentos; i++) {
+            Mascota mascota = new Mascota();
+            mascota.setNombre("Mascota " + i);
+            mascota.setEspecie(especies[i % especies.length]);
+            mascota.setEstadoSalud("Sano");
+            mascota.setPersonalidad("Juguetón y cariñoso");
+            mascota.setUrlImagen("/imagenes/mascota" + (i % 6) + ".jpg");
+            mascota.setEdad(i % 15);
+            mascota.setDisponible(i % 3 != 0);
+            mascota.setEstado("disponible");
+            mascota.setColor("Café");
+            mascota.setRaza("Mestizo");
+            mascota.setPeso(3.5 + (i % 30));
+            mascota.setTamano(tamanos[i % tamanos.length]);
+            mascota.setNivelActividad("Medio");
+            mascota.setPeludo(i % 2 == 0);
+            mascota.setCostoMantenimiento("Medio");
+            mascota.setDescripcion("Mascota de prueba para el benchmark de codecs");
+            lote.add(mascota);
+            if (lote.size() == LOTE) {
+                coleccion.insertMany(lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            coleccion.insertMany(lote);
+        }
+    }
+
+    private static long recorrerDocumentos(MongoCollection<Document> coleccion) {
+        long suma = 0;
+        try (MongoCursor<Document> cursor = coleccion.find().batchSize(LOTE).iterator()) {
+            while (cursor.hasNext()) {
+                suma += convertirDocumentoAMascota(cursor.next()).getEdad();
+            }
+        }
+        return suma;
+    }
+
+    private static long recorrerTipado(MongoCollection<Mascota> coleccion) {
+        long suma = 0;
+        try (MongoCursor<Mascota> cursor = coleccion.find().batchSize(LOTE).iterator()) {
+            while (cursor.hasNext()) {
+                suma += cursor.next().getEdad();
+            }
+        }
+        return suma;
+    }
+
+    /**
+     * Conversion manual que usaba MascotaDAO antes del codec
+     */
+    private static Mascota convertirDocumentoAMascota(Document doc) {
+        Mascota mascota = new Mascota();
+        mascota.setId(doc.getObjectId("_id"));
+        mascota.setNombre(doc.getString("nombre"));
+        mascota.setEspecie(doc.getString("especie"));
+        mascota.setEstadoSalud(doc.getString("estadoSalud"));
+        mascota.setPersonalidad(doc.getString("personalidad"));
+        mascota.setUrlImagen(doc.getString("urlImagen"));
+        mascota.setEdad(doc.getInteger("edad"));
+        mascota.setDisponible(doc.getBoolean("disponible"));
+        mascota.setEstado(doc.getString("estado"));
+        mascota.setColor(doc.getString("color"));
+        mascota.setRaza(doc.getString("raza"));
+        Double peso = doc.getDouble("peso");
+        mascota.setPeso(peso != null ? peso : 0.0);
+        mascota.setTamano(doc.getString("tamano"));
+        mascota.setNivelActividad(doc.getString("nivelActividad"));
+        Boolean peludo = doc.getBoolean("peludo");
+        mascota.setPeludo(peludo != null ? peludo : false);
+        mascota.setCostoMantenimiento(doc.getString("costoMantenimiento"));
+        mascota.setDescripcion(doc.getString("descripcion"));
+        return mascota;
+    }
+
+    private static void medir(Resultado resultado, Runnable recorrido) {
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long hilo = Thread.currentThread().threadId();
+
+        long bytesInicio = hilos.getThreadAllocatedBytes(hilo);
+        long inicio = System.nanoTime();
+        recorrido.run();
+        long nanos = System.nanoTime() - inicio;
+        long bytes = hilos.getThreadAllocatedBytes(hilo) - bytesInicio;
+
+        resultado.registrar(nanos, bytes);
+    }
+
+    private static class Resultado {
+
+        private final String nombre;
+        private long mejorNanos = Long.MAX_VALUE;
+        private long menorBytes = Long.MAX_VALUE;
+
+        Resultado(String nombre) {
+            this.nombre = nombre;
+        }
+
+        void registrar(long nanos, long bytes) {
+            mejorNanos = Math.min(mejorNanos, nanos);
+            menorBytes = Math.min(menorBytes, bytes);
+        }
+
+        void imprimir(int documentos) {
+            double ms = mejorNanos / 1_000_000.0;
+            System.out.printf("  %-22s %9.1f ms  %10.0f docs/s  %8.0f bytes/doc%n",
+                    nombre, ms, documentos / (ms / 1000.0), (double) menorBytes / documentos);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package utils;
+
+import importacion.ImportadorMascotas;
+import importacion.ReporteImportacion;
+import memoria.AlmacenMemoria;
+import memoria.ExpedienteMedicoDAOMemoria;
+import memoria.MascotaDAOMemoria;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * Mide la importacion masiva de mascotas sobre el motor en memoria, sin
+ * servidor: genera un CSV con filas invalidas mezcladas, lo importa con
+ * distintos numeros de hilos y reporta filas por segundo. Despues detiene
+ * una importacion a medias, simula una caida entre el insertMany y el
+ * avance, y comprueba que al continuar no se duplica ni se pierde nada.
+ *
+ * Uso: java utils.BenchmarkImportacion [filas] [lote]
+ *
+ * @author System
+ */
+public class BenchmarkImportacion {
+
+    private static final String ENCABEZADO = "nombre,especie,edad,peso,disponible,tamano,nivelActividad,peludo,"
+            + "costoMantenimiento,descripcion,condicion,nivelEnergia,vacunaRabia,esterilizado,alergias";
+    private static final String[] ESPECIES = {"Perro", "Gato", "Pájaro", "Reptil"};
+    private static final String[] TAMANOS = {"pequeño", "mediano", "grande"};
+    private static final String[] NIVELES = {"bajo", "medio", "alto"};
+
+    public static void main(String[] args) throws Exception {
+        int filas = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int lote = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        boolean correcto = Pruebas.enDirectorio("importacion", directorio -> {
+            Path archivo = directorio.resolve("mascotas.csv");
+            int invalidas = generar(archivo, filas);
+            System.out.printf("Archivo de %d filas (%d invalidas), %d KB%n", filas, invalidas,
+                    Files.size(archivo) / 1024);
+
+            boolean medidas = true;
+            for (int hilos : new TreeSet<>(List.of(1, 2, Runtime.getRuntime().availableProcessors()))) {
+                medidas &= medir(archivo, lote, hilos, filas - invalidas, invalidas);
+            }
+            medidas &= probarContinuacion(archivo, lote, filas - invalidas, invalidas);
+            return medidas;
+        });
+        Pruebas.terminar(correcto, "Importacion correcta");
+    }
+
+    private static boolean medir(Path archivo, int lote, int hilos, int validas, int invalidas) throws IOException {
+        limpiarAvance(archivo);
+        AlmacenMemoria almacen = new AlmacenMemoria(null);
+        ImportadorMascotas importador = nuevoImportador(almacen, lote, hilos);
+        ReporteImportacion reporte = importador.importar(archivo);
+        System.out.printf("  %2d hilos, lote %d: %,.0f filas/s%n", hilos, lote, reporte.getFilasPorSegundo());
+        return Pruebas.comprobar(reporte.getInsertadas() == validas && reporte.getRechazadas() == invalidas
+                && almacen.tabla("mascotas").tamano() == validas
+                && almacen.tabla("expedientes_medicos").tamano() == validas, "conteos con " + hilos + " hilos");
+    }
+
+    /**
+     * Detiene a la mitad, regresa el avance un lote (como si el proceso se
+     * hubiera caido despues de insertar pero antes de guardar el avance) y
+     * continua
+     */
+    private static boolean probarContinuacion(Path archivo, int lote, int validas, int invalidas)
+            throws Exception {
+        limpiarAvance(archivo);
+        AlmacenMemoria almacen = new AlmacenMemoria(null);
+        ImportadorMascotas primero = nuevoImportador(almacen, lote, 2);
+        Thread hilo = new Thread(() -> {
+            try {
+                primero.importar(archivo);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        hilo.start();
+        while (hilo.isAlive() && almacen.tabla("mascotas").tamano() < validas / 2) {
+            Thread.sleep(1);
+        }
+        primero.detener();
+        hilo.join();
+
+        Path avance = ImportadorMascotas.archivoAvance(archivo);
+        Properties propiedades = new Properties();
+        try (var entrada = Files.newBufferedReader(avance, StandardCharsets.UTF_8)) {
+            propiedades.load(entrada);
+        }
+        long filas = Long.parseLong(propiedades.getProperty("filas"));
+        long desde = Math.max(0, filas - lote);
+        propiedades.setProperty("filas", Long.toString(desde));
+        propiedades.setProperty("bytesErrores", Long.toString(bytesErroresHasta(archivo, desde)));
+        try (var salida = Files.newBufferedWriter(avance, StandardCharsets.UTF_8)) {
+            propiedades.store(salida, null);
+        }
+        System.out.printf("  detenida en la fila %d con %d mascotas, se continua desde la fila %d%n", filas,
+                almacen.tabla("mascotas").tamano(), desde);
+
+        ReporteImportacion reporte = nuevoImportador(almacen, lote, 2).importar(archivo);
+        boolean correcto = Pruebas.comprobar(almacen.tabla("mascotas").tamano() == validas
+                && almacen.tabla("expedientes_medicos").tamano() == validas
+                && reporte.getOmitidas() > 0, "continuacion sin duplicados");
+        // Encabezado mas una linea por fila invalida
+        long lineasErrores = Files.readAllLines(ImportadorMascotas.archivoErrores(archivo), StandardCharsets.UTF_8).size();
+        correcto &= Pruebas.comprobar(lineasErrores == 1 + invalidas, "errores.csv sin duplicados ("
+                + (lineasErrores - 1) + " de " + invalidas + ")");
+        return correcto;
+    }
+
+    /**
+     * Bytes de errores.csv hasta la fila dada, lo que tendria guardado el
+     * avance de esa fila
+     */
+    private static long bytesErroresHasta(Path archivo, long fila) throws IOException {
+        Path errores = ImportadorMascotas.archivoErrores(archivo);
+        if (Files.notExists(errores)) {
+            return 0;
+        }
+        List<String> lineas = Files.readAllLines(errores, StandardCharsets.UTF_8);
+        long bytes = 0;
+        for (int i = 0; i < lineas.size(); i++) {
+            String linea = lineas.get(i);
+            // La primera es el encabezado; las demas empiezan con el numero de fila
+            if (i > 0 && Long.parseLong(linea.substring(0, linea.indexOf(','))) > fila) {
+                break;
+            }
+            bytes += linea.getBytes(StandardCharsets.UTF_8).length + System.lineSeparator().length();
+        }
+        return bytes;
+    }
+
+    private static ImportadorMascotas nuevoImportador(AlmacenMemoria almacen, int lote, int hilos) {
+        ImportadorMascotas importador = new ImportadorMascotas(new MascotaDAOMemoria(almacen),
+                new ExpedienteMedicoDAOMemoria(almacen));
+        importador.setTamanoLote(lote);
+        importador.setHilos(hilos);
+        return importador;
+    }
+
+    /**
+     * Una de cada 100 filas es invalida (sin nombre o con edad no numerica)
+     *
+     * @return filas invalidas generadas
+     */
+    private static int generar(Path archivo, int filas) throws IOException {
+        int invalidas = 0;
+        try (BufferedWriter salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            salida.write(ENCABEZADO);
+            salida.newLine();
+            for (int i = 1; i <= filas; i++) {
+                boolean invalida = i % 100 == 0;
+                String nombre = invalida && i % 200 == 0 ? "" : "Mascota " + i;
+                String edad = invalida && i % 200 != 0 ? "dos" : Integer.toString(i % 15);
+                if (invalida) {
+                    invalidas++;
+                }
+                salida.write(String.join(",", nombre, ESPECIES[i % ESPECIES.length], edad,
+                        Double.toString(1 + i % 40), i % 3 == 0 ? "no" : "si", TAMANOS[i % 3], NIVELES[i % 3],
+                        i % 2 == 0 ? "si" : "no", NIVELES[(i + 1) % 3],
+                        "\"Llego el dia de ingreso, muy \"\"tranquilo\"\", con collar\"",
+                        "Sana", NIVELES[(i + 2) % 3], "si", i % 4 == 0 ? "si" : "no", ""));
+                salida.newLine();
+            }
+        }
+        return invalidas;
+    }
+
+    private static void limpiarAvance(Path archivo) throws IOException {
+        Files.deleteIfExists(ImportadorMascotas.archivoAvance(archivo));
+        Files.deleteIfExists(ImportadorMascotas.archivoErrores(archivo));
+    }
+}
@@ -0,0 +1,217 @@
+package utils;
+
+import codecs.RegistroCodecs;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import conexion.ConfiguracionMongoDB;
+import conexion.GestorIndices;
+import daos.CitaDAO;
+import daos.ConsultaPorIds;
+import daos.MascotaDAO;
+import daos.SolicitudAdopcionDAO;
+import daos.UsuarioDAO;
+import entities.Cita;
+import entities.InfoPersonal;
+import entities.Mascota;
+import entities.SolicitudAdopcion;
+import entities.Usuario;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntSupplier;
+
+/**
+ * Compara el armado del listado de solicitudes del administrador:
+ * una consulta por fila (como estaba), busqueda por lotes con $in y la
+ * agregacion con $lookup. Trabaja en una base de datos temporal que se
+ * elimina al terminar.
+ *
+ * Uso: java utils.BenchmarkListadoSolicitudes [solicitudes] [repeticiones]
+ *
+ * @author System
+ */
+public class BenchmarkListadoSolicitudes {
+
+    private static final String BASE_DATOS = "lavidaesbella_benchmark";
+    private static final int LOTE = 1000;
+
+    public static void main(String[] args) {
+        int solicitudes = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int repeticiones = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        try (MongoClient cliente = MongoClients.create(new ConfiguracionMongoDB().construirSettings(null))) {
+            MongoDatabase database = cliente.getDatabase(BASE_DATOS).withCodecRegistry(RegistroCodecs.getRegistro());
+            database.drop();
+            try {
+                new GestorIndices(database).sincronizar();
+                poblar(database, solicitudes);
+
+                SolicitudAdopcionDAO solicitudDAO = new SolicitudAdopcionDAO(database);
+                UsuarioDAO usuarioDAO = new UsuarioDAO(database);
+                MascotaDAO mascotaDAO = new MascotaDAO(database);
+                CitaDAO citaDAO = new CitaDAO(database);
+
+                IntSupplier porFila = () -> listadoPorFila(solicitudDAO, usuarioDAO, mascotaDAO, citaDAO);
+                IntSupplier porLotes = () -> listadoPorLotes(solicitudDAO, usuarioDAO, mascotaDAO,
+                        database.getCollection("citas", Cita.class));
+                IntSupplier agregacion = () -> solicitudDAO.buscarListado().size();
+                IntSupplier pagina = () -> solicitudDAO.buscarPaginaListado(null, 50).getElementos().size();
+
+                System.out.println("Listado de " + solicitudes + " solicitudes, mejor de " + repeticiones
+                        + " repeticiones:");
+                medir("Una consulta por fila", porFila, repeticiones);
+                medir("Lotes con $in", porLotes, repeticiones);
+                medir("Agregacion $lookup", agregacion, repeticiones);
+                medir("Pagina de 50 ($lookup)", pagina, repeticiones);
+            } finally {
+                database.drop();
+            }
+        }
+    }
+
+    private static void poblar(MongoDatabase database, int solicitudes) {
+        int usuarios = Math.max(1, solicitudes / 5);
+        int mascotas = Math.max(1, solicitudes / 3);
+
+        List<ObjectId> idsUsuario = new ArrayList<>();
+        List<Usuario> loteUsuarios = new ArrayList<>();
+        for (int i = 0; i < usuarios; i++) {
+            Usuario usuario = new Usuario();
+            usuario.setId(new ObjectId());
+            InfoPersonal info = new InfoPersonal();
+            info.setNombre("Usuario " + i);
+            info.setCorreo("usuario" + i + "@correo.com");
+            usuario.setInfoPersonal(info);
+            idsUsuario.add(usuario.getId());
+            loteUsuarios.add(usuario);
+            if (loteUsuarios.size() == LOTE) {
+                database.getCollection("usuarios", Usuario.class).insertMany(loteUsuarios);
+                loteUsuarios.clear();
+            }
+        }
+        if (!loteUsuarios.isEmpty()) {
+            database.getCollection("usuarios", Usuario.class).insertMany(loteUsuarios);
+        }
+
+        List<ObjectId> idsMascota = new ArrayList<>();
+        List<Mascota> loteMascotas = new ArrayList<>();
+        for (int i = 0; i < mascotas; i++) {
+            Mascota mascota = new Mascota();
+            mascota.setId(new ObjectId());
+            mascota.setNombre("Mascota " + i);
+            mascota.setEspecie("Perro");
+            mascota.setDisponible(true);
+            mascota.setEstado("disponible");
+            idsMascota.add(mascota.getId());
+            loteMascotas.add(mascota);
+            if (loteMascotas.size() == LOTE) {
+                database.getCollection("mascotas", Mascota.class).insertMany(loteMascotas);
+                loteMascotas.clear();
+            }
+        }
+        if (!loteMascotas.isEmpty()) {
+            database.getCollection("mascotas", Mascota.class).insertMany(loteMascotas);
+        }
+
+        // Un tercio con idCita, un tercio con cita solo por usuario+mascota y el resto sin cita
+        List<SolicitudAdopcion> loteSolicitudes = new ArrayList<>();
+        List<Cita> loteCitas = new ArrayList<>();
+        for (int i = 0; i < solicitudes; i++) {
+            SolicitudAdopcion solicitud = new SolicitudAdopcion();
+            solicitud.setIdUsuario(idsUsuario.get(i % usuarios));
+            solicitud.setIdMascota(idsMascota.get(i % mascotas));
+            solicitud.setEstado("PENDIENTE");
+            solicitud.setFechaSolicitud(LocalDateTime.now().minusDays(i % 365));
+
+            if (i % 3 != 2) {
+                Cita cita = new Cita();
+                cita.setId(new ObjectId());
+                cita.setIdUsuario(solicitud.getIdUsuario());
+                cita.setIdMascota(solicitud.getIdMascota());
+                cita.setFechaHora(LocalDateTime.now().plusDays(i % 30));
+                loteCitas.add(cita);
+                if (i % 3 == 0) {
+                    solicitud.setIdCita(cita.getId());
+                }
+            }
+            loteSolicitudes.add(solicitud);
+
+            if (loteSolicitudes.size() == LOTE) {
+                database.getCollection("solicitudes", SolicitudAdopcion.class).insertMany(loteSolicitudes);
+                loteSolicitudes.clear();
+            }
+            if (loteCitas.size() >= LOTE) {
+                database.getCollection("citas", Cita.class).insertMany(loteCitas);
+                loteCitas.clear();
+            }
+        }
+        if (!loteSolicitudes.isEmpty()) {
+            database.getCollection("solicitudes", SolicitudAdopcion.class).insertMany(loteSolicitudes);
+        }
+        if (!loteCitas.isEmpty()) {
+            database.getCollection("citas", Cita.class).insertMany(loteCitas);
+        }
+    }
+
+    /**
+     * Como armaba el listado SeleccionarOpcion antes: 1 + 3N consultas
+     */
+    private static int listadoPorFila(SolicitudAdopcionDAO solicitudDAO, UsuarioDAO usuarioDAO,
+            MascotaDAO mascotaDAO, CitaDAO citaDAO) {
+        int filas = 0;
+        for (SolicitudAdopcion solicitud : solicitudDAO.buscarTodas()) {
+            usuarioDAO.buscarPorId(solicitud.getIdUsuario());
+            mascotaDAO.buscarPorId(solicitud.getIdMascota());
+            Cita cita = solicitud.getIdCita() != null ? citaDAO.buscarPorId(solicitud.getIdCita()) : null;
+            if (cita == null) {
+                for (Cita c : citaDAO.buscarPorUsuario(solicitud.getIdUsuario())) {
+                    if (solicitud.getIdMascota().equals(c.getIdMascota())) {
+                        break;
+                    }
+                }
+            }
+            filas++;
+        }
+        return filas;
+    }
+
+    /**
+     * Una consulta por tipo de entidad con $in; las citas van directo con
+     * ConsultaPorIds porque el listado real ya no las busca por id
+     */
+    private static int listadoPorLotes(SolicitudAdopcionDAO solicitudDAO, UsuarioDAO usuarioDAO,
+            MascotaDAO mascotaDAO, MongoCollection<Cita> citas) {
+        List<SolicitudAdopcion> todas = solicitudDAO.buscarTodas();
+        Set<ObjectId> idsUsuario = new HashSet<>();
+        Set<ObjectId> idsMascota = new HashSet<>();
+        Set<ObjectId> idsCita = new HashSet<>();
+        for (SolicitudAdopcion solicitud : todas) {
+            idsUsuario.add(solicitud.getIdUsuario());
+            idsMascota.add(solicitud.getIdMascota());
+            idsCita.add(solicitud.getIdCita());
+        }
+        usuarioDAO.buscarPorIds(idsUsuario);
+        mascotaDAO.buscarPorIds(idsMascota);
+        ConsultaPorIds.buscar(citas, "_id", idsCita, Cita::getId);
+        return todas.size();
+    }
+
+    private static void medir(String nombre, IntSupplier listado, int repeticiones) {
+        // Calentamiento
+        int filas = listado.getAsInt();
+
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < repeticiones; i++) {
+            long inicio = System.nanoTime();
+            listado.getAsInt();
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+        System.out.printf("  %-24s %10.1f ms  (%d filas)%n", nombre, mejor / 1_000_000.0, filas);
+    }
+}
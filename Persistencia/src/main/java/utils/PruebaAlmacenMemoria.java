@@ -0,0 +1,217 @@
+package utils;
+
+import codecs.RegistroCodecs;
+import daos.ResultadoReserva;
+import daos.UnidadDeTrabajo;
+import entities.CitaDisponible;
+import entities.Mascota;
+import entities.MascotaResumen;
+import memoria.AlmacenMemoria;
+import memoria.CitaDisponibleDAOMemoria;
+import memoria.MascotaDAOMemoria;
+import org.bson.types.ObjectId;
+import paginacion.Pagina;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prueba el motor en memoria sin servidor: consultas por indice,
+ * paginacion, reserva concurrente de una cita, unidad de trabajo que se
+ * deshace, lecturas por indice mientras se actualiza el documento y
+ * reapertura desde el snapshot y la bitacora. Tambien mide el
+ * tiempo de buscarPorId y de una pagina de resumenes.
+ *
+ * Uso: java utils.PruebaAlmacenMemoria [mascotas]
+ *
+ * @author System
+ */
+public class PruebaAlmacenMemoria {
+
+    private static final int HILOS = 32;
+
+    public static void main(String[] args) throws Exception {
+        int total = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        Pruebas.terminar(Pruebas.enDirectorio("almacen-memoria",
+                directorio -> probar(directorio.resolve(Pruebas.ARCHIVO_DATOS), total)), "Motor en memoria correcto");
+    }
+
+    private static boolean probar(Path archivo, int total) throws Exception {
+        AlmacenMemoria almacen = new AlmacenMemoria(archivo);
+        almacen.abrir();
+        MascotaDAOMemoria mascotas = new MascotaDAOMemoria(almacen);
+
+        List<ObjectId> ids = new ArrayList<>(total);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            Mascota mascota = new Mascota();
+            mascota.setNombre("Mascota " + i);
+            mascota.setEspecie(i % 3 == 0 ? "Gato" : "Perro");
+            mascota.setEstado(i % 10 == 0 ? "baja" : "activo");
+            mascota.setDisponible(i % 2 == 0);
+            ids.add(mascotas.guardar(mascota));
+        }
+        System.out.printf("  %d mascotas insertadas en %d ms%n", total, (System.nanoTime() - inicio) / 1_000_000);
+
+        if (!Pruebas.comprobar(mascotas.buscarDisponiblesPorEspecie("Gato").size() == contarGatosDisponibles(total),
+                "buscarDisponiblesPorEspecie")) {
+            return false;
+        }
+        if (!comprobarPaginas(mascotas, total)) {
+            return false;
+        }
+
+        inicio = System.nanoTime();
+        for (ObjectId id : ids) {
+            mascotas.buscarPorId(id);
+        }
+        System.out.printf("  buscarPorId: %.2f us promedio%n", (System.nanoTime() - inicio) / 1000.0 / total);
+
+        if (!probarReserva(almacen) || !probarUnidadDeTrabajo(mascotas, ids)
+                || !probarLecturasDuranteActualizacion(mascotas)) {
+            return false;
+        }
+
+        Mascota cambiada = mascotas.buscarPorId(ids.get(1));
+        cambiada.setNombre("Renombrada");
+        mascotas.actualizar(cambiada);
+        mascotas.eliminar(ids.get(3));
+        // Sin cerrar: la reapertura debe reproducir la bitacora
+        AlmacenMemoria reabierto = new AlmacenMemoria(archivo);
+        reabierto.abrir();
+        MascotaDAOMemoria releidas = new MascotaDAOMemoria(reabierto);
+        // Mas el huron de probarLecturasDuranteActualizacion, menos la eliminada
+        boolean persistido = releidas.buscarTodas().size() == total
+                && "Renombrada".equals(releidas.buscarPorId(ids.get(1)).getNombre())
+                && releidas.buscarPorId(ids.get(3)) == null;
+        reabierto.cerrar();
+        almacen.cerrar();
+        return Pruebas.comprobar(persistido, "reapertura desde snapshot y bitacora");
+    }
+
+    private static boolean comprobarPaginas(MascotaDAOMemoria mascotas, int total) {
+        long inicio = System.nanoTime();
+        String cursor = null;
+        int vistas = 0;
+        long totalEstimado = Pagina.SIN_TOTAL;
+        do {
+            Pagina<MascotaResumen> pagina = mascotas.buscarPaginaResumenDisponibles(null, cursor, 100);
+            if (cursor == null) {
+                totalEstimado = pagina.getTotalEstimado();
+            }
+            vistas += pagina.getElementos().size();
+            cursor = pagina.getCursorSiguiente();
+        } while (cursor != null);
+        System.out.printf("  paginas de resumenes disponibles: %d en %d ms%n", vistas,
+                (System.nanoTime() - inicio) / 1_000_000);
+        int disponibles = (total + 1) / 2;
+        return Pruebas.comprobar(vistas == disponibles && totalEstimado == disponibles, "paginacion por cursor");
+    }
+
+    private static boolean probarReserva(AlmacenMemoria almacen) throws Exception {
+        CitaDisponibleDAOMemoria citas = new CitaDisponibleDAOMemoria(almacen);
+        CitaDisponible cita = new CitaDisponible(new Date(), "10:00");
+        almacen.coleccion("citasDisponibles", RegistroCodecs.CITA_DISPONIBLE).insertar(cita);
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        try {
+            CountDownLatch salida = new CountDownLatch(1);
+            List<Future<ResultadoReserva>> intentos = new ArrayList<>();
+            for (int i = 0; i < HILOS; i++) {
+                String usuario = new ObjectId().toHexString();
+                intentos.add(ejecutor.submit(() -> {
+                    salida.await();
+                    return citas.reservarCita(cita.getId().toHexString(), usuario);
+                }));
+            }
+            salida.countDown();
+            int ganadores = 0;
+            int ocupadas = 0;
+            for (Future<ResultadoReserva> intento : intentos) {
+                ResultadoReserva resultado = intento.get();
+                if (resultado == ResultadoReserva.RESERVADA) {
+                    ganadores++;
+                } else if (resultado == ResultadoReserva.OCUPADA) {
+                    ocupadas++;
+                }
+            }
+            boolean correcto = Pruebas.comprobar(ganadores == 1 && ocupadas == HILOS - 1
+                    && !citas.estaCitaDisponible(cita.getId().toHexString()), "reserva concurrente con un solo ganador");
+            return correcto & Pruebas.comprobar(citas.reservarCita(new ObjectId().toHexString(), null)
+                    == ResultadoReserva.NO_EXISTE, "reserva de una cita inexistente");
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    private static boolean probarUnidadDeTrabajo(MascotaDAOMemoria mascotas, List<ObjectId> ids) {
+        // ids[0] esta disponible e ids[1] no: la segunda reserva falla y la primera se deshace
+        UnidadDeTrabajo unidad = new UnidadDeTrabajo();
+        mascotas.registrarReserva(unidad, ids.get(0));
+        mascotas.registrarReserva(unidad, ids.get(1));
+        try {
+            unidad.confirmar();
+            return Pruebas.comprobar(false, "la unidad de trabajo debia fallar");
+        } catch (RuntimeException e) {
+            return Pruebas.comprobar(mascotas.buscarPorId(ids.get(0)).isDisponible(), "unidad de trabajo deshecha");
+        }
+    }
+
+    /**
+     * Un hilo renombra una mascota sin tocar sus campos indexados mientras
+     * otros la buscan por especie: ninguna lectura debe dejar de verla
+     */
+    private static boolean probarLecturasDuranteActualizacion(MascotaDAOMemoria mascotas) throws Exception {
+        Mascota huron = new Mascota();
+        huron.setNombre("Huron 0");
+        huron.setEspecie("Huron");
+        huron.setDisponible(true);
+        mascotas.guardar(huron);
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        try {
+            AtomicBoolean escribiendo = new AtomicBoolean(true);
+            AtomicInteger perdidas = new AtomicInteger();
+            List<Future<?>> lectores = new ArrayList<>();
+            for (int i = 1; i < HILOS; i++) {
+                lectores.add(ejecutor.submit(() -> {
+                    while (escribiendo.get()) {
+                        if (mascotas.buscarDisponiblesPorEspecie("Huron").isEmpty()) {
+                            perdidas.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (int i = 1; i <= 20000; i++) {
+                huron.setNombre("Huron " + i);
+                mascotas.actualizar(huron);
+            }
+            escribiendo.set(false);
+            for (Future<?> lector : lectores) {
+                lector.get();
+            }
+            return Pruebas.comprobar(perdidas.get() == 0,
+                    "lecturas por indice durante actualizaciones (" + perdidas.get() + " perdidas)");
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    private static int contarGatosDisponibles(int total) {
+        int gatos = 0;
+        for (int i = 0; i < total; i++) {
+            if (i % 3 == 0 && i % 2 == 0) {
+                gatos++;
+            }
+        }
+        return gatos;
+    }
+}
@@ -0,0 +1,165 @@
+package utils;
+
+import auditoria.EscritorAuditoria;
+import daos.IAuditoriaSolicitudDAO;
+import entities.AuditoriaSolicitud;
+import memoria.AuditoriaSolicitudDAOMemoria;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import paginacion.Pagina;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+/**
+ * Prueba EscritorAuditoria sobre el motor en memoria: que registrar no
+ * espere a la escritura, que los registros se junten en lotes, el orden y
+ * los filtros de las consultas, que reintentar un lote no duplique, la
+ * cola llena y una base que no responde.
+ *
+ * Uso: java utils.PruebaAuditoria
+ *
+ * @author System
+ */
+public class PruebaAuditoria {
+
+    public static void main(String[] args) throws Exception {
+        Pruebas.terminar(Pruebas.conAlmacen("auditoria", almacen -> probar(new AuditoriaSolicitudDAOMemoria(almacen))),
+                "Auditoria de solicitudes correcta");
+    }
+
+    private static boolean probar(AuditoriaSolicitudDAOMemoria dao) throws Exception {
+        ObjectId solicitud = new ObjectId();
+        ObjectId otra = new ObjectId();
+
+        // Con la base detenida, registrar regresa de inmediato y se acumula en la cola
+        CountDownLatch liberar = new CountDownLatch(1);
+        EscritorAuditoria escritor = new EscritorAuditoria(detenido(dao, liberar), 10000, 50);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            ObjectId id = i % 2 == 0 ? solicitud : otra;
+            String admin = i % 4 < 2 ? "admin@gmail.com" : "otro@gmail.com";
+            escritor.registrar(new AuditoriaSolicitud(id, admin, AuditoriaSolicitud.ACCION_MODIFICAR,
+                    "PENDIENTE", "Requiere Modificacion", "registro " + i));
+        }
+        long microsPorRegistro = (System.nanoTime() - inicio) / 1000 / 1000;
+        boolean correcto = Pruebas.comprobar(microsPorRegistro < 1000,
+                "registrar no espera a la base (" + microsPorRegistro + " us por registro)");
+        liberar.countDown();
+        correcto &= Pruebas.comprobar(escritor.esperar(10000), "se escribe todo lo encolado");
+        correcto &= Pruebas.comprobar(escritor.getEscritos() == 1000, "1000 registros escritos");
+        correcto &= Pruebas.comprobar(escritor.getLotes() < 100,
+                "escritos en lotes (" + escritor.getLotes() + " insertMany)");
+
+        List<AuditoriaSolicitud> historial = todas(dao, solicitud, null);
+        correcto &= Pruebas.comprobar(historial.size() == 500, "historial por solicitud");
+        boolean ordenado = true;
+        for (int i = 1; i < historial.size(); i++) {
+            ordenado &= historial.get(i - 1).getId().compareTo(historial.get(i).getId()) > 0;
+        }
+        correcto &= Pruebas.comprobar(ordenado && "registro 998".equals(historial.get(0).getDetalle()),
+                "del mas reciente al mas antiguo");
+        correcto &= Pruebas.comprobar(todas(dao, null, "otro@gmail.com").size() == 500, "historial por admin");
+
+        // Reintentar un lote que ya se escribio no lo duplica
+        List<AuditoriaSolicitud> repetidos = new ArrayList<>(historial.subList(0, 10));
+        dao.guardarTodos(repetidos);
+        correcto &= Pruebas.comprobar(todas(dao, solicitud, null).size() == 500, "reintento sin duplicados");
+        escritor.cerrar(1000);
+        correcto &= Pruebas.comprobar(!escritor.registrar(nuevo(solicitud)) && escritor.getDescartados() == 1,
+                "cerrado ya no acepta registros");
+
+        // Cola llena: se descarta sin bloquear
+        CountDownLatch nunca = new CountDownLatch(1);
+        EscritorAuditoria lleno = new EscritorAuditoria(detenido(dao, nunca), 10, 5);
+        for (int i = 0; i < 30; i++) {
+            lleno.registrar(nuevo(solicitud));
+        }
+        correcto &= Pruebas.comprobar(lleno.getDescartados() > 0, "cola llena descarta ("
+                + lleno.getDescartados() + " de 30)");
+        nunca.countDown();
+        lleno.cerrar(1000);
+
+        // La base no responde: se reintenta y el lote se da por perdido
+        EscritorAuditoria sinBase = new EscritorAuditoria(new IAuditoriaSolicitudDAO() {
+            @Override
+            public void guardarTodos(List<AuditoriaSolicitud> registros) {
+                throw new RuntimeException("sin conexion");
+            }
+
+            @Override
+            public Pagina<AuditoriaSolicitud> buscarPorSolicitud(ObjectId idSolicitud, String despuesDe,
+                    int tamano) {
+                return dao.buscarPorSolicitud(idSolicitud, despuesDe, tamano);
+            }
+
+            @Override
+            public Pagina<AuditoriaSolicitud> buscarPorAdmin(String idAdmin, String despuesDe, int tamano) {
+                return dao.buscarPorAdmin(idAdmin, despuesDe, tamano);
+            }
+
+            @Override
+            public long recorrer(Bson filtro, int lote, Consumer<AuditoriaSolicitud> consumidor) {
+                return dao.recorrer(filtro, lote, consumidor);
+            }
+        }, 10, 10);
+        sinBase.registrar(nuevo(solicitud));
+        correcto &= Pruebas.comprobar(sinBase.esperar(15000) && sinBase.getPerdidos() == 1
+                && sinBase.getEscritos() == 0, "sin base se pierde tras los reintentos");
+        sinBase.cerrar(1000);
+        return correcto;
+    }
+
+    /**
+     * DAO que no escribe hasta que se libera el latch
+     */
+    private static IAuditoriaSolicitudDAO detenido(AuditoriaSolicitudDAOMemoria dao, CountDownLatch liberar) {
+        return new IAuditoriaSolicitudDAO() {
+            @Override
+            public void guardarTodos(List<AuditoriaSolicitud> registros) {
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                dao.guardarTodos(registros);
+            }
+
+            @Override
+            public Pagina<AuditoriaSolicitud> buscarPorSolicitud(ObjectId idSolicitud, String despuesDe,
+                    int tamano) {
+                return dao.buscarPorSolicitud(idSolicitud, despuesDe, tamano);
+            }
+
+            @Override
+            public Pagina<AuditoriaSolicitud> buscarPorAdmin(String idAdmin, String despuesDe, int tamano) {
+                return dao.buscarPorAdmin(idAdmin, despuesDe, tamano);
+            }
+
+            @Override
+            public long recorrer(Bson filtro, int lote, Consumer<AuditoriaSolicitud> consumidor) {
+                return dao.recorrer(filtro, lote, consumidor);
+            }
+        };
+    }
+
+    private static AuditoriaSolicitud nuevo(ObjectId solicitud) {
+        return new AuditoriaSolicitud(solicitud, "admin@gmail.com", AuditoriaSolicitud.ACCION_ACEPTAR,
+                "PENDIENTE", "APROBADA", null);
+    }
+
+    private static List<AuditoriaSolicitud> todas(IAuditoriaSolicitudDAO dao, ObjectId solicitud, String admin) {
+        List<AuditoriaSolicitud> resultado = new ArrayList<>();
+        String cursor = null;
+        do {
+            Pagina<AuditoriaSolicitud> pagina = solicitud != null
+                    ? dao.buscarPorSolicitud(solicitud, cursor, 100)
+                    : dao.buscarPorAdmin(admin, cursor, 100);
+            resultado.addAll(pagina.getElementos());
+            cursor = pagina.getCursorSiguiente();
+        } while (cursor != null);
+        return resultado;
+    }
+}
@@ -0,0 +1,116 @@
+package utils;
+
+import entities.Mascota;
+import entities.MascotaResumen;
+import memoria.MascotaDAOMemoria;
+import paginacion.Pagina;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prueba buscarTexto sobre el motor en memoria: orden por relevancia,
+ * paginacion por (puntaje, _id) con empates, exclusiones, frases, filtro
+ * de especie y cursores invalidos. Con MongoDB la misma consulta la
+ * resuelve el indice idx_texto.
+ *
+ * Uso: java utils.PruebaBusquedaTexto
+ *
+ * @author System
+ */
+public class PruebaBusquedaTexto {
+
+    public static void main(String[] args) throws Exception {
+        Pruebas.terminar(Pruebas.conAlmacen("busqueda-texto", almacen -> probar(new MascotaDAOMemoria(almacen))),
+                "Busqueda por texto correcta");
+    }
+
+    private static boolean probar(MascotaDAOMemoria mascotas) {
+        guardar(mascotas, "Luna", "Perro", "Labrador", "Negro", "Tranquila", "Le gusta dormir en el sillón", true);
+        guardar(mascotas, "Max", "Perro", "Labrador", "Dorado", "Juguetón", "Corre todo el día", true);
+        guardar(mascotas, "Sombra", "Gato", "Común", "Negro", "Tranquilo", "Gato negro muy tranquilo", true);
+        guardar(mascotas, "Rocky", "Perro", "Pastor Alemán", "Café", "Energético", "Convive con labradores", true);
+        guardar(mascotas, "Nube", "Perro", "Labrador", "Negro", "Tranquilo", "Ya fue adoptado", false);
+        for (int i = 0; i < 5; i++) {
+            guardar(mascotas, "Bobby", "Perro", "Beagle", "Tricolor", "Curioso", "", true);
+        }
+
+        List<MascotaResumen> calmados = todas(mascotas, "labrador negro tranquilo", null, 50);
+        boolean correcto = Pruebas.comprobar(!calmados.isEmpty() && "Luna".equals(calmados.get(0).getNombre()),
+                "el labrador negro tranquilo va primero");
+        correcto &= Pruebas.comprobar(calmados.stream().noneMatch(m -> "Nube".equals(m.getNombre())),
+                "solo mascotas disponibles");
+        correcto &= Pruebas.comprobar(calmados.stream().noneMatch(m -> "Bobby".equals(m.getNombre())),
+                "sin coincidencias no aparecen");
+        for (int i = 1; i < calmados.size(); i++) {
+            correcto &= Pruebas.comprobar(calmados.get(i - 1).getPuntaje() >= calmados.get(i).getPuntaje(),
+                    "orden descendente por puntaje en la posicion " + i);
+        }
+
+        // Paginas de 2 con cinco empates: mismo orden que de una sola vez y sin repetidos
+        List<MascotaResumen> empates = todas(mascotas, "beagle", null, 50);
+        List<MascotaResumen> paginadas = todas(mascotas, "beagle", null, 2);
+        correcto &= Pruebas.comprobar(empates.size() == 5 && ids(empates).equals(ids(paginadas)),
+                "paginacion con empates de puntaje");
+        Pagina<MascotaResumen> primera = mascotas.buscarTexto("beagle", null, null, 2);
+        correcto &= Pruebas.comprobar(primera.getTotalEstimado() == 5 && primera.isHayMas(),
+                "total en la primera pagina");
+
+        correcto &= Pruebas.comprobar(todas(mascotas, "negro -gato", null, 50).stream()
+                .noneMatch(m -> "Sombra".equals(m.getNombre())), "exclusion con -palabra");
+        List<MascotaResumen> frase = todas(mascotas, "\"pastor aleman\"", null, 50);
+        correcto &= Pruebas.comprobar(frase.size() == 1 && "Rocky".equals(frase.get(0).getNombre()),
+                "frase entre comillas sin acentos");
+        correcto &= Pruebas.comprobar(todas(mascotas, "negro", "Gato", 50).size() == 1, "filtro de especie");
+        correcto &= Pruebas.comprobar(todas(mascotas, "LABRADORES", null, 50).size() == 3, "plural y mayusculas");
+
+        correcto &= Pruebas.comprobar(lanza(() -> mascotas.buscarTexto("  ", null, null, 10)), "texto vacio");
+        correcto &= Pruebas.comprobar(lanza(() -> mascotas.buscarTexto("el de la", null, null, 10)),
+                "solo palabras vacias");
+        correcto &= Pruebas.comprobar(lanza(() -> mascotas.buscarTexto("negro", null, "abc", 10)), "cursor invalido");
+        return correcto;
+    }
+
+    private static void guardar(MascotaDAOMemoria mascotas, String nombre, String especie, String raza,
+            String color, String personalidad, String descripcion, boolean disponible) {
+        Mascota mascota = new Mascota();
+        mascota.setNombre(nombre);
+        mascota.setEspecie(especie);
+        mascota.setRaza(raza);
+        mascota.setColor(color);
+        mascota.setPersonalidad(personalidad);
+        mascota.setDescripcion(descripcion);
+        mascota.setDisponible(disponible);
+        mascota.setEstado("activo");
+        mascotas.guardar(mascota);
+    }
+
+    private static List<MascotaResumen> todas(MascotaDAOMemoria mascotas, String texto, String especie,
+            int tamano) {
+        List<MascotaResumen> resultado = new ArrayList<>();
+        String cursor = null;
+        do {
+            Pagina<MascotaResumen> pagina = mascotas.buscarTexto(texto, especie, cursor, tamano);
+            resultado.addAll(pagina.getElementos());
+            cursor = pagina.getCursorSiguiente();
+        } while (cursor != null);
+        return resultado;
+    }
+
+    private static List<String> ids(List<MascotaResumen> mascotas) {
+        List<String> ids = new ArrayList<>();
+        for (MascotaResumen mascota : mascotas) {
+            ids.add(mascota.getId().toHexString());
+        }
+        return ids;
+    }
+
+    private static boolean lanza(Runnable accion) {
+        try {
+            accion.run();
+            return false;
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package utils;
+
+import cambios.EventoCambio;
+import cambios.SuscriptorCambios;
+import cambios.TipoCambio;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import conexion.ConfiguracionMongoDB;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prueba el SuscriptorCambios contra un replica set local: inserta,
+ * actualiza y elimina una mascota y espera los tres eventos en orden;
+ * despues lo detiene, escribe con el suscriptor apagado y comprueba que al
+ * reiniciar con el mismo archivo de token recibe ese cambio. Usa una base
+ * de datos temporal que se elimina al terminar.
+ *
+ * Requiere un replica set, por ejemplo de un solo nodo:
+ * mongod --replSet rs0 --dbpath datos y despues rs.initiate() en mongosh.
+ *
+ * Uso: java utils.PruebaCambios
+ *
+ * @author System
+ */
+public class PruebaCambios {
+
+    private static final String BASE_DATOS = "lavidaesbella_prueba_cambios";
+    private static final String COLECCION = "mascotas";
+    private static final long ESPERA_SEGUNDOS = 10;
+
+    public static void main(String[] args) throws Exception {
+        try (MongoClient cliente = MongoClients.create(new ConfiguracionMongoDB().construirSettings(null))) {
+            Document hello = cliente.getDatabase("admin").runCommand(new Document("hello", 1));
+            if (!hello.containsKey("setName")) {
+                System.err.println("✗ El servidor no es un replica set; iniciar mongod con --replSet rs0 "
+                        + "y ejecutar rs.initiate()");
+                System.exit(1);
+            }
+
+            MongoDatabase database = cliente.getDatabase(BASE_DATOS);
+            database.drop();
+            Path archivoToken = Files.createTempFile("token-cambios", ".json");
+            Files.delete(archivoToken);
+            try {
+                if (!probar(database, archivoToken)) {
+                    System.exit(1);
+                }
+                System.out.println("✓ Eventos en orden y reanudacion con el token guardado");
+            } finally {
+                database.drop();
+                Files.deleteIfExists(archivoToken);
+            }
+        }
+    }
+
+    private static boolean probar(MongoDatabase database, Path archivoToken) throws InterruptedException {
+        MongoCollection<Document> mascotas = database.getCollection(COLECCION);
+        BlockingQueue<EventoCambio> eventos = new LinkedBlockingQueue<>();
+
+        SuscriptorCambios suscriptor = new SuscriptorCambios(database, List.of(COLECCION), archivoToken);
+        suscriptor.agregarEscucha(COLECCION, eventos::add);
+        suscriptor.iniciar();
+        try {
+            if (!esperarInicio(mascotas, eventos)) {
+                System.err.println("✗ El change stream no entrego eventos en " + ESPERA_SEGUNDOS + " s");
+                return false;
+            }
+
+            ObjectId id = new ObjectId();
+            mascotas.insertOne(new Document("_id", id).append("nombre", "Prueba").append("disponible", true));
+            mascotas.updateOne(Filters.eq("_id", id), Updates.set("disponible", false));
+            mascotas.deleteOne(Filters.eq("_id", id));
+
+            if (!esperar(eventos, TipoCambio.INSERCION, id)
+                    || !esperar(eventos, TipoCambio.ACTUALIZACION, id)
+                    || !esperar(eventos, TipoCambio.ELIMINACION, id)) {
+                return false;
+            }
+        } finally {
+            suscriptor.detener();
+        }
+
+        if (!Files.exists(archivoToken)) {
+            System.err.println("✗ No se guardo el token en " + archivoToken);
+            return false;
+        }
+
+        // Cambio mientras el suscriptor esta apagado
+        ObjectId mientrasApagado = new ObjectId();
+        mascotas.insertOne(new Document("_id", mientrasApagado).append("nombre", "Reanudada"));
+
+        BlockingQueue<EventoCambio> reanudados = new LinkedBlockingQueue<>();
+        SuscriptorCambios segundo = new SuscriptorCambios(database, List.of(COLECCION), archivoToken);
+        segundo.agregarEscucha(COLECCION, reanudados::add);
+        segundo.iniciar();
+        try {
+            return esperar(reanudados, TipoCambio.INSERCION, mientrasApagado);
+        } finally {
+            segundo.detener();
+        }
+    }
+
+    /**
+     * Sin token el stream empieza cuando se abre; se inserta un documento
+     * hasta que llega su evento para saber que ya esta escuchando
+     */
+    private static boolean esperarInicio(MongoCollection<Document> mascotas, BlockingQueue<EventoCambio> eventos)
+            throws InterruptedException {
+        long limite = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ESPERA_SEGUNDOS);
+        while (System.currentTimeMillis() < limite) {
+            mascotas.insertOne(new Document("nombre", "Calentamiento"));
+            if (eventos.poll(300, TimeUnit.MILLISECONDS) != null) {
+                Thread.sleep(300);
+                eventos.clear();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean esperar(BlockingQueue<EventoCambio> eventos, TipoCambio tipo, ObjectId id)
+            throws InterruptedException {
+        EventoCambio evento = eventos.poll(ESPERA_SEGUNDOS, TimeUnit.SECONDS);
+        if (evento == null) {
+            System.err.println("✗ No llego " + tipo + " de " + id);
+            return false;
+        }
+        if (evento.getTipo() != tipo || !id.equals(evento.getId())) {
+            System.err.println("✗ Se esperaba " + tipo + " de " + id + " y llego " + evento);
+            return false;
+        }
+        System.out.println("  " + evento + (evento.getCamposActualizados().isEmpty()
+                ? "" : " " + evento.getCamposActualizados()));
+        return true;
+    }
+}
@@ -0,0 +1,117 @@
+package utils;
+
+import codecs.RegistroCodecs;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import conexion.ConfiguracionMongoDB;
+import daos.CitaDisponibleDAO;
+import daos.ResultadoReserva;
+import entities.CitaDisponible;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Varios hilos intentan reservar la misma cita al mismo tiempo; solo uno
+ * debe ganar y la cita debe quedar a nombre del ganador. Usa una base de
+ * datos temporal que se elimina al terminar.
+ *
+ * Uso: java utils.PruebaConcurrenciaReserva [hilos] [rondas]
+ *
+ * @author System
+ */
+public class PruebaConcurrenciaReserva {
+
+    private static final String BASE_DATOS = "lavidaesbella_prueba_reserva";
+
+    public static void main(String[] args) throws Exception {
+        int hilos = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int rondas = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        try (MongoClient cliente = MongoClients.create(new ConfiguracionMongoDB().construirSettings(null))) {
+            MongoDatabase database = cliente.getDatabase(BASE_DATOS).withCodecRegistry(RegistroCodecs.getRegistro());
+            database.drop();
+            try {
+                CitaDisponibleDAO dao = new CitaDisponibleDAO(database);
+                int fallidas = 0;
+                for (int ronda = 0; ronda < rondas; ronda++) {
+                    if (!ronda(database, dao, ejecutor, hilos)) {
+                        fallidas++;
+                    }
+                }
+
+                if (fallidas > 0) {
+                    System.err.println("✗ " + fallidas + " de " + rondas + " rondas con mas de un ganador");
+                    System.exit(1);
+                }
+                if (dao.reservarCita(new ObjectId().toHexString(), null) != ResultadoReserva.NO_EXISTE) {
+                    System.err.println("✗ Una cita inexistente no se reporto como NO_EXISTE");
+                    System.exit(1);
+                }
+                System.out.println("✓ " + rondas + " rondas de " + hilos + " hilos, un solo ganador en cada una");
+            } finally {
+                database.drop();
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return true si exactamente un hilo reservo la cita y los demas la
+     *         encontraron OCUPADA
+     */
+    private static boolean ronda(MongoDatabase database, CitaDisponibleDAO dao, ExecutorService ejecutor,
+            int hilos) throws Exception {
+        CitaDisponible cita = new CitaDisponible(new Date(), "10:00");
+        cita.setId(new ObjectId());
+        database.getCollection("citasDisponibles", CitaDisponible.class).insertOne(cita);
+        String idCita = cita.getId().toHexString();
+
+        // Todos los hilos arrancan a la vez para forzar la carrera
+        CountDownLatch salida = new CountDownLatch(1);
+        List<String> usuarios = new ArrayList<>();
+        List<Future<ResultadoReserva>> intentos = new ArrayList<>();
+        for (int i = 0; i < hilos; i++) {
+            String idUsuario = new ObjectId().toHexString();
+            usuarios.add(idUsuario);
+            intentos.add(ejecutor.submit(() -> {
+                salida.await();
+                return dao.reservarCita(idCita, idUsuario);
+            }));
+        }
+        salida.countDown();
+
+        String ganador = null;
+        int ganadores = 0;
+        int ocupadas = 0;
+        for (int i = 0; i < hilos; i++) {
+            ResultadoReserva resultado = intentos.get(i).get();
+            if (resultado == ResultadoReserva.RESERVADA) {
+                ganadores++;
+                ganador = usuarios.get(i);
+            } else if (resultado == ResultadoReserva.OCUPADA) {
+                ocupadas++;
+            }
+        }
+
+        CitaDisponible guardada = database.getCollection("citasDisponibles", CitaDisponible.class)
+                .find(Filters.eq("_id", cita.getId())).first();
+        boolean consistente = guardada != null && !guardada.isDisponible()
+                && ganador != null && ganador.equals(guardada.getIdUsuario().toHexString());
+        if (ganadores != 1 || ocupadas != hilos - 1 || !consistente) {
+            System.err.println("Cita " + idCita + ": " + ganadores + " ganadores, " + ocupadas + " ocupadas");
+            return false;
+        }
+        return true;
+    }
+}
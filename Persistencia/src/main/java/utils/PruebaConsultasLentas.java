@@ -0,0 +1,88 @@
+package utils;
+
+import metricas.BitacoraConsultasLentas;
+import metricas.ConsultaLenta;
+import metricas.PlanConsulta;
+import org.bson.BsonDocument;
+
+import java.util.List;
+
+/**
+ * Prueba la bitacora de consultas lentas sin servidor: el resumen de
+ * respuestas de explain reales (find con COLLSCAN, find con indice y un
+ * aggregate), el umbral, el descarte de las mas viejas en el anillo y que
+ * una misma forma de consulta se explique una sola vez.
+ *
+ * Uso: java utils.PruebaConsultasLentas
+ *
+ * @author System
+ */
+public class PruebaConsultasLentas {
+
+    private static final String EXPLAIN_COLLSCAN = "{queryPlanner: {winningPlan: {stage: 'COLLSCAN',"
+            + " filter: {especie: {$eq: 'Perro'}}}}, executionStats: {nReturned: 12, totalDocsExamined: 48000,"
+            + " totalKeysExamined: 0, executionTimeMillis: 140}, ok: 1}";
+    private static final String EXPLAIN_IXSCAN = "{queryPlanner: {winningPlan: {queryPlan: {stage: 'FETCH',"
+            + " inputStage: {stage: 'IXSCAN', indexName: 'idx_especie_disponible'}}}}, executionStats:"
+            + " {nReturned: 12, totalDocsExamined: 12, totalKeysExamined: 12}, ok: 1}";
+    private static final String EXPLAIN_AGGREGATE = "{stages: [{$cursor: {queryPlanner: {winningPlan: {stage:"
+            + " 'PROJECTION_SIMPLE', inputStage: {stage: 'COLLSCAN'}}}, executionStats: {nReturned: 300,"
+            + " totalDocsExamined: 300}}}, {$group: {}}], ok: 1}";
+
+    public static void main(String[] args) throws Exception {
+        boolean correcto = true;
+
+        PlanConsulta recorrido = PlanConsulta.de(BsonDocument.parse(EXPLAIN_COLLSCAN));
+        PlanConsulta indice = PlanConsulta.de(BsonDocument.parse(EXPLAIN_IXSCAN));
+        PlanConsulta agregado = PlanConsulta.de(BsonDocument.parse(EXPLAIN_AGGREGATE));
+        System.out.println("  " + recorrido);
+        System.out.println("  " + indice);
+        System.out.println("  " + agregado);
+        correcto &= Pruebas.comprobar(recorrido.isRecorridoCompleto() && recorrido.getDocumentosExaminados() == 48000
+                && recorrido.getDevueltos() == 12, "explain con COLLSCAN");
+        correcto &= Pruebas.comprobar(!indice.isRecorridoCompleto()
+                && "FETCH > IXSCAN idx_especie_disponible".equals(indice.getEtapas()), "explain con indice (SBE)");
+        correcto &= Pruebas.comprobar(agregado.isRecorridoCompleto() && agregado.getDevueltos() == 300,
+                "explain de aggregate");
+
+        // Sin cliente el explain falla, pero la consulta queda registrada con el motivo
+        BitacoraConsultasLentas bitacora = new BitacoraConsultasLentas(100, 5);
+        BsonDocument comando = BsonDocument.parse("{find: 'mascotas', filter: {especie: 'Perro',"
+                + " edad: {$in: [1, 2, 3]}}, $db: 'lavidaesbella'}");
+        bitacora.registrar("MascotaDAO.buscarPorEspecie", "find mascotas", "lavidaesbella", comando, 50_000_000);
+        correcto &= Pruebas.comprobar(bitacora.getEntradas().isEmpty(), "umbral");
+
+        bitacora.registrar("MascotaDAO.buscarPorEspecie", "find mascotas", "lavidaesbella", comando, 150_000_000);
+        esperar(bitacora, 1);
+        // Misma forma con otros valores: reutiliza el plan en vez de pedir otro explain
+        BsonDocument otroValor = BsonDocument.parse("{find: 'mascotas', filter: {especie: 'Gato',"
+                + " edad: {$in: [4]}}, $db: 'lavidaesbella'}");
+        bitacora.registrar("MascotaDAO.buscarPorEspecie", "find mascotas", "lavidaesbella", otroValor, 160_000_000);
+        for (int i = 0; i < 4; i++) {
+            bitacora.registrar(null, "insert mascotas", "lavidaesbella", null, (200 + i) * 1_000_000L);
+        }
+
+        List<ConsultaLenta> entradas = bitacora.getEntradas();
+        for (String linea : bitacora.getConsultas()) {
+            System.out.println("  " + linea);
+        }
+        correcto &= Pruebas.comprobar(entradas.size() == 5 && entradas.get(4).getMilisegundos() == 203.0,
+                "anillo conserva las 5 mas nuevas en orden");
+        ConsultaLenta repetida = entradas.get(0);
+        correcto &= Pruebas.comprobar(repetida.getMilisegundos() == 160.0 && repetida.getPlan() != null
+                && repetida.getPlan().getError() != null, "un solo explain por forma de consulta");
+        correcto &= Pruebas.comprobar("{especie: ?, edad: {$in: [?]}}".equals(repetida.getFiltro()),
+                "filtro sin valores");
+
+        Pruebas.terminar(correcto, "Bitacora de consultas lentas correcta");
+    }
+
+    /**
+     * El explain corre en otro hilo; se espera a que el anillo se llene
+     */
+    private static void esperar(BitacoraConsultasLentas bitacora, int entradas) throws InterruptedException {
+        for (int i = 0; i < 100 && bitacora.getEntradas().size() < entradas; i++) {
+            Thread.sleep(20);
+        }
+    }
+}
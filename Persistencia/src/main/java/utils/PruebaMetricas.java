@@ -0,0 +1,166 @@
+package utils;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import daos.IMascotaDAO;
+import entities.Mascota;
+import memoria.AlmacenMemoria;
+import memoria.MascotaDAOMemoria;
+import metricas.DAOsMedidos;
+import metricas.EscuchaComandos;
+import metricas.HistogramaLatencias;
+import metricas.MetricaOperacion;
+import metricas.RegistroMetricas;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Prueba las metricas sin servidor: precision de los percentiles del
+ * histograma contra los exactos, registro concurrente, la envoltura de un
+ * DAO (sobre el motor en memoria) con su MBean, y el listener de comandos
+ * con eventos armados a mano. Tambien mide el costo de la envoltura.
+ *
+ * Uso: java utils.PruebaMetricas
+ *
+ * @author System
+ */
+public class PruebaMetricas {
+
+    private static final int HILOS = 8;
+    private static final int POR_HILO = 250_000;
+
+    public static void main(String[] args) throws Exception {
+        // Cada bloque corre aunque otro falle, para ver todos los fallos de una vez
+        boolean correcto = probarPrecision();
+        correcto &= probarConcurrencia();
+        correcto &= probarDAO();
+        correcto &= probarComandos();
+        System.out.print(RegistroMetricas.getInstancia().resumen());
+        Pruebas.terminar(correcto, "Metricas correctas");
+    }
+
+    private static boolean probarPrecision() {
+        Random aleatorio = new Random(7);
+        HistogramaLatencias histograma = new HistogramaLatencias();
+        long[] valores = new long[100_000];
+        for (int i = 0; i < valores.length; i++) {
+            // Log-normal: la mayoria rapidas, cola larga como las consultas reales
+            valores[i] = (long) (Math.exp(6 + 1.5 * aleatorio.nextGaussian()) * 1000);
+            histograma.registrar(valores[i]);
+        }
+        Arrays.sort(valores);
+        boolean correcto = true;
+        for (double fraccion : new double[] {0.50, 0.95, 0.99}) {
+            double exacto = valores[(int) Math.ceil(fraccion * valores.length) - 1] / 1_000_000.0;
+            double estimado = histograma.percentilMs(fraccion);
+            double error = Math.abs(estimado - exacto) / exacto;
+            System.out.printf("  p%.0f exacto %.3f ms, histograma %.3f ms (error %.1f%%)%n", fraccion * 100, exacto,
+                    estimado, error * 100);
+            correcto &= Pruebas.comprobar(error < 0.04, "precision de p" + (int) (fraccion * 100));
+        }
+        return correcto;
+    }
+
+    private static boolean probarConcurrencia() throws Exception {
+        HistogramaLatencias histograma = new HistogramaLatencias();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        long inicio = System.nanoTime();
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < HILOS; h++) {
+                tareas.add(ejecutor.submit(() -> {
+                    for (int i = 0; i < POR_HILO; i++) {
+                        histograma.registrar(1000L * (i % 500));
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } finally {
+            ejecutor.shutdown();
+        }
+        long total = (long) HILOS * POR_HILO;
+        System.out.printf("  %d registros desde %d hilos: %.1f ns por registro%n", total, HILOS,
+                (System.nanoTime() - inicio) / (double) total * HILOS);
+        return Pruebas.comprobar(histograma.getConteo() == total, "conteo concurrente");
+    }
+
+    private static boolean probarDAO() throws Exception {
+        MascotaDAOMemoria directo = new MascotaDAOMemoria(new AlmacenMemoria(null));
+        IMascotaDAO medido = DAOsMedidos.envolver(IMascotaDAO.class, directo);
+        for (int i = 0; i < 200; i++) {
+            Mascota mascota = new Mascota();
+            mascota.setNombre("Mascota " + i);
+            mascota.setEspecie("Perro");
+            mascota.setDisponible(i % 2 == 0);
+            medido.guardar(mascota);
+        }
+
+        int repeticiones = 2000;
+        // Calentamiento del JIT para que la comparacion no favorezca al segundo ciclo
+        for (int i = 0; i < repeticiones; i++) {
+            directo.buscarDisponibles();
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < repeticiones; i++) {
+            directo.buscarDisponibles();
+        }
+        double sinEnvoltura = (System.nanoTime() - inicio) / 1000.0 / repeticiones;
+        inicio = System.nanoTime();
+        for (int i = 0; i < repeticiones; i++) {
+            medido.buscarDisponibles();
+        }
+        double conEnvoltura = (System.nanoTime() - inicio) / 1000.0 / repeticiones;
+        System.out.printf("  buscarDisponibles: %.1f us directo, %.1f us medido%n", sinEnvoltura, conEnvoltura);
+
+        MetricaOperacion metrica = RegistroMetricas.getInstancia().operacionDAO("MascotaDAOMemoria.buscarDisponibles");
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        Object conteoJmx = servidor.getAttribute(new ObjectName("lavidaesbella:type=DAO,name="
+                + ObjectName.quote("MascotaDAOMemoria.buscarDisponibles")), "Conteo");
+        return Pruebas.comprobar(metrica.getConteo() == repeticiones && metrica.getDocumentos() == 100L * repeticiones
+                && Long.valueOf(repeticiones).equals(conteoJmx), "metrica del DAO y su MBean");
+    }
+
+    private static boolean probarComandos() {
+        RegistroMetricas registro = RegistroMetricas.getInstancia();
+        EscuchaComandos escucha = new EscuchaComandos(registro);
+        ConnectionDescription conexion = new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+        BsonDocument comando = new BsonDocument("find", new BsonString("mascotas"));
+        BsonArray lote = new BsonArray();
+        for (int i = 0; i < 3; i++) {
+            lote.add(new BsonDocument("_id", new BsonInt32(i)));
+        }
+        RawBsonDocument respuesta = new RawBsonDocument(new BsonDocument("cursor",
+                new BsonDocument("firstBatch", lote)).append("ok", new BsonInt32(1)), new BsonDocumentCodec());
+
+        escucha.commandStarted(new CommandStartedEvent(null, 1, 1, conexion, "lavidaesbella", "find", comando));
+        escucha.commandSucceeded(new CommandSucceededEvent(null, 1, 1, conexion, "lavidaesbella", "find",
+                respuesta, 2_000_000));
+
+        MetricaOperacion metrica = registro.comando("find mascotas");
+        return Pruebas.comprobar(metrica.getConteo() == 1 && metrica.getDocumentos() == 3
+                && metrica.getBytesRecibidos() == respuesta.getByteBuffer().remaining()
+                && Math.abs(metrica.getP50Ms() - 2.0) < 0.1, "metrica del comando find");
+    }
+}
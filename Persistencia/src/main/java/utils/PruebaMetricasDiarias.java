@@ -0,0 +1,180 @@
+package utils;
+
+import acumulados.ReconstructorMetricas;
+import daos.IMetricasDiariasDAO;
+import entities.AuditoriaSolicitud;
+import entities.Mascota;
+import entities.MetricaDiaria;
+import entities.SolicitudAdopcion;
+import memoria.AlmacenMemoria;
+import memoria.AuditoriaSolicitudDAOMemoria;
+import memoria.MascotaDAOMemoria;
+import memoria.MetricasDiariasDAOMemoria;
+import memoria.SolicitudAdopcionDAOMemoria;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prueba los acumulados diarios sobre el motor en memoria: los $inc de cada
+ * cambio de estado, el corte de dias en UTC, los upserts concurrentes del
+ * mismo dia y que ReconstructorMetricas llegue a los mismos documentos que
+ * los incrementos.
+ *
+ * Uso: java utils.PruebaMetricasDiarias
+ *
+ * @author System
+ */
+public class PruebaMetricasDiarias {
+
+    private static final Instant LUNES = Instant.parse("2026-03-02T15:00:00Z");
+    private static final long HORA = 3600;
+
+    public static void main(String[] args) throws Exception {
+        Pruebas.terminar(Pruebas.conAlmacen("metricas-diarias", PruebaMetricasDiarias::probar),
+                "Metricas diarias correctas");
+    }
+
+    private static boolean probar(AlmacenMemoria almacen) throws Exception {
+        SolicitudAdopcionDAOMemoria solicitudes = new SolicitudAdopcionDAOMemoria(almacen);
+        AuditoriaSolicitudDAOMemoria auditoria = new AuditoriaSolicitudDAOMemoria(almacen);
+        MascotaDAOMemoria mascotas = new MascotaDAOMemoria(almacen);
+        MetricasDiariasDAOMemoria metricas = new MetricasDiariasDAOMemoria(almacen);
+
+        ObjectId perro = mascota(mascotas, "Perro");
+        ObjectId gato = mascota(mascotas, " gato ");
+
+        // Lunes: tres solicitudes; martes: una aprobada (perro, 24 h), una
+        // rechazada (30 h) y una modificacion; el 1 de abril una adopcion de gato
+        ObjectId s1 = solicitud(solicitudes, metricas, LUNES, perro, "APROBADA");
+        ObjectId s2 = solicitud(solicitudes, metricas, LUNES.plusSeconds(HORA), null, "RECHAZADA");
+        ObjectId s3 = solicitud(solicitudes, metricas, LUNES.plusSeconds(2 * HORA), gato, "APROBADA");
+        decision(auditoria, metricas, s1, LUNES.plusSeconds(24 * HORA), AuditoriaSolicitud.ACCION_ACEPTAR, "Perro");
+        decision(auditoria, metricas, s2, LUNES.plusSeconds(31 * HORA), AuditoriaSolicitud.ACCION_RECHAZAR, null);
+        decision(auditoria, metricas, s3, LUNES.plusSeconds(26 * HORA), AuditoriaSolicitud.ACCION_MODIFICAR, null);
+        decision(auditoria, metricas, s3, Instant.parse("2026-04-01T10:00:00Z"),
+                AuditoriaSolicitud.ACCION_ACEPTAR, " gato ");
+        // Aprobada antes de que existiera la auditoria: sin fecha de decision
+        solicitud(solicitudes, metricas, Instant.parse("2026-02-27T23:59:59Z"), perro, "APROBADA");
+
+        List<MetricaDiaria> incrementos = metricas.buscarRango(LocalDate.parse("2026-01-01"),
+                LocalDate.parse("2026-12-31"));
+        boolean correcto = Pruebas.comprobar(dias(incrementos).equals(List.of("2026-02-27", "2026-03-02", "2026-03-03",
+                "2026-04-01")), "un documento por dia con actividad " + dias(incrementos));
+        MetricaDiaria martes = incrementos.get(2);
+        correcto &= Pruebas.comprobar(martes.getAprobadas() == 1 && martes.getRechazadas() == 1
+                && martes.getModificaciones() == 1 && martes.getSegundosDecision() == (24 + 30) * HORA,
+                "decisiones y segundos del martes");
+        correcto &= Pruebas.comprobar(incrementos.get(1).getSolicitudes() == 3, "solicitudes del lunes");
+        correcto &= Pruebas.comprobar(incrementos.get(3).getAdopcionesPorEspecie().equals(Map.of("gato", 1L)),
+                "especie normalizada");
+        correcto &= Pruebas.comprobar(metricas.buscarRango(LocalDate.parse("2026-03-03"), LocalDate.parse("2026-03-31"))
+                .size() == 1, "rango inclusive");
+
+        // La reconstruccion llega a lo mismo que los incrementos
+        List<String> antes = textos(incrementos);
+        ReconstructorMetricas reconstructor = new ReconstructorMetricas(solicitudes, auditoria, mascotas, metricas);
+        reconstructor.reconstruir();
+        List<String> despues = textos(metricas.buscarRango(LocalDate.parse("2026-01-01"),
+                LocalDate.parse("2026-12-31")));
+        correcto &= Pruebas.comprobar(antes.equals(despues), "reconstruir da los mismos acumulados");
+        if (!antes.equals(despues)) {
+            System.out.println("    incrementos:    " + antes);
+            System.out.println("    reconstruccion: " + despues);
+        }
+        correcto &= Pruebas.comprobar(reconstructor.getCerradasSinAuditoria() == 1, "aprobada sin auditoria reportada");
+        reconstructor.reconstruir();
+        correcto &= Pruebas.comprobar(metricas.buscarRango(LocalDate.parse("2026-01-01"), LocalDate.parse("2026-12-31"))
+                .size() == 4, "reconstruir dos veces no duplica dias");
+
+        // Muchos hilos creando el mismo dia: un solo documento con todo sumado
+        Date hoy = new Date();
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        for (int h = 0; h < 8; h++) {
+            hilos.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    metricas.registrarSolicitud(hoy);
+                }
+            });
+        }
+        hilos.shutdown();
+        hilos.awaitTermination(30, TimeUnit.SECONDS);
+        LocalDate diaHoy = LocalDate.parse(IMetricasDiariasDAO.dia(hoy));
+        List<MetricaDiaria> concurrentes = metricas.buscarRango(diaHoy, diaHoy);
+        correcto &= Pruebas.comprobar(concurrentes.size() == 1 && concurrentes.get(0).getSolicitudes() == 8000,
+                "upserts concurrentes del mismo dia");
+
+        try {
+            metricas.registrarDecision(hoy, "BORRAR", 0, null);
+            correcto &= Pruebas.comprobar(false, "accion desconocida");
+        } catch (IllegalArgumentException e) {
+            correcto &= Pruebas.comprobar(true, "accion desconocida");
+        }
+        return correcto;
+    }
+
+    private static ObjectId mascota(MascotaDAOMemoria mascotas, String especie) {
+        Mascota mascota = new Mascota();
+        mascota.setNombre("Mascota " + especie.trim());
+        mascota.setEspecie(especie);
+        mascota.setDisponible(true);
+        return mascotas.guardar(mascota);
+    }
+
+    /**
+     * Solicitud creada en el instante dado, con el mismo $inc que hace el BO
+     */
+    private static ObjectId solicitud(SolicitudAdopcionDAOMemoria solicitudes, MetricasDiariasDAOMemoria metricas,
+            Instant creada, ObjectId idMascota, String estado) {
+        SolicitudAdopcion solicitud = new SolicitudAdopcion();
+        solicitud.setId(new ObjectId(Date.from(creada)));
+        solicitud.setIdUsuario(new ObjectId());
+        solicitud.setIdMascota(idMascota);
+        solicitud.setEstado(estado);
+        solicitudes.guardar(solicitud);
+        metricas.registrarSolicitud(Date.from(creada));
+        return solicitud.getId();
+    }
+
+    /**
+     * Decision con su registro de auditoria y el mismo $inc que hace
+     * SeleccionarOpcion
+     */
+    private static void decision(AuditoriaSolicitudDAOMemoria auditoria, MetricasDiariasDAOMemoria metricas,
+            ObjectId idSolicitud, Instant cuando, String accion, String especie) {
+        AuditoriaSolicitud registro = new AuditoriaSolicitud(idSolicitud, "admin@gmail.com", accion, null, null,
+                null);
+        registro.setId(new ObjectId(Date.from(cuando)));
+        registro.setFecha(Date.from(cuando));
+        auditoria.guardarTodos(List.of(registro));
+        long segundos = (registro.getFecha().getTime() - idSolicitud.getDate().getTime()) / 1000;
+        metricas.registrarDecision(registro.getFecha(), accion, segundos, especie);
+    }
+
+    private static List<String> dias(List<MetricaDiaria> metricas) {
+        List<String> dias = new ArrayList<>();
+        for (MetricaDiaria metrica : metricas) {
+            dias.add(metrica.getDia());
+        }
+        return dias;
+    }
+
+    /**
+     * Documentos sin _id, para comparar los incrementos con la reconstruccion
+     */
+    private static List<String> textos(List<MetricaDiaria> metricas) {
+        List<String> textos = new ArrayList<>();
+        for (MetricaDiaria metrica : metricas) {
+            textos.add(metrica.toString());
+        }
+        return textos;
+    }
+}
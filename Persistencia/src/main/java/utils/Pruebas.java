@@ -0,0 +1,94 @@
+package utils;
+
+import memoria.AlmacenMemoria;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Lo que comparten las pruebas sin servidor de este paquete: reportar cada
+ * comprobacion, correr la prueba en un directorio temporal (o sobre un
+ * AlmacenMemoria abierto en el) que se borra al terminar, y salir con
+ * codigo 1 si algo fallo.
+ *
+ * @author System
+ */
+public final class Pruebas {
+
+    /**
+     * Prueba que recibe el directorio temporal
+     */
+    @FunctionalInterface
+    public interface EnDirectorio {
+        boolean probar(Path directorio) throws Exception;
+    }
+
+    /**
+     * Prueba que recibe un AlmacenMemoria ya abierto
+     */
+    @FunctionalInterface
+    public interface ConAlmacen {
+        boolean probar(AlmacenMemoria almacen) throws Exception;
+    }
+
+    /**
+     * Archivo de datos del almacen dentro del directorio temporal
+     */
+    public static final String ARCHIVO_DATOS = "datos.ndjson";
+
+    private Pruebas() {
+    }
+
+    /**
+     * Imprime el resultado de una comprobacion y lo regresa, para sumarlo
+     * con &= sin saltarse las siguientes
+     */
+    public static boolean comprobar(boolean condicion, String descripcion) {
+        System.out.println((condicion ? "  ok    " : "  FALLO ") + descripcion);
+        return condicion;
+    }
+
+    /**
+     * Corre la prueba en un directorio temporal y lo borra con todo lo que
+     * haya dejado, aunque la prueba lance una excepcion
+     */
+    public static boolean enDirectorio(String prefijo, EnDirectorio prueba) throws Exception {
+        Path directorio = Files.createTempDirectory(prefijo);
+        try {
+            return prueba.probar(directorio);
+        } finally {
+            try (var archivos = Files.list(directorio)) {
+                for (Path restante : (Iterable<Path>) archivos::iterator) {
+                    Files.deleteIfExists(restante);
+                }
+            }
+            Files.deleteIfExists(directorio);
+        }
+    }
+
+    /**
+     * Corre la prueba sobre un AlmacenMemoria persistido en un directorio
+     * temporal; el almacen se cierra antes de borrar sus archivos
+     */
+    public static boolean conAlmacen(String prefijo, ConAlmacen prueba) throws Exception {
+        return enDirectorio(prefijo, directorio -> {
+            AlmacenMemoria almacen = new AlmacenMemoria(directorio.resolve(ARCHIVO_DATOS));
+            try {
+                almacen.abrir();
+                return prueba.probar(almacen);
+            } finally {
+                almacen.cerrar();
+            }
+        });
+    }
+
+    /**
+     * Termina el main: codigo 1 si hubo fallos, si no imprime el mensaje
+     */
+    public static void terminar(boolean correcto, String mensaje) {
+        if (!correcto) {
+            System.exit(1);
+        }
+        System.out.println("✓ " + mensaje);
+    }
+}
@@ -0,0 +1,34 @@
+package utils;
+
+import acumulados.ReconstructorMetricas;
+import conexion.ConexionMongoDB;
+import daos.FabricaDAOs;
+
+/**
+ * Recalcula los acumulados diarios (metricas_diarias) desde las
+ * solicitudes y la auditoria, sobre el motor configurado. Se corre una vez
+ * al instalar los acumulados y despues solo si se sospecha que se perdio
+ * algun incremento.
+ *
+ * Uso: java utils.ReconstruirMetricas
+ *
+ * @author System
+ */
+public class ReconstruirMetricas {
+
+    public static void main(String[] args) {
+        boolean correcto = true;
+        try {
+            new ReconstructorMetricas().reconstruir();
+        } catch (RuntimeException e) {
+            System.err.println("Error al reconstruir las metricas: " + e.getMessage());
+            correcto = false;
+        }
+        if (!FabricaDAOs.isEnMemoria()) {
+            ConexionMongoDB.getInstancia().cerrarConexion();
+        }
+        if (!correcto) {
+            System.exit(1);
+        }
+    }
+}
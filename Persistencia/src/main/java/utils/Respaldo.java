@@ -0,0 +1,60 @@
+package utils;
+
+import conexion.ConexionMongoDB;
+import respaldo.Compresion;
+import respaldo.RespaldoColecciones;
+
+import java.nio.file.Path;
+
+/**
+ * Exporta o importa todas las colecciones de la aplicacion, por ejemplo
+ * para clonar el ambiente de un refugio o sembrar una prueba de carga.
+ *
+ * Uso:
+ * java utils.Respaldo exportar directorio [--zstd] [--hilos N] [--lote N]
+ * java utils.Respaldo importar directorio [--reemplazar] [--hilos N] [--lote N]
+ *
+ * @author System
+ */
+public class Respaldo {
+
+    public static void main(String[] args) {
+        if (args.length < 2 || !("exportar".equals(args[0]) || "importar".equals(args[0]))) {
+            System.err.println("Uso: java utils.Respaldo exportar|importar directorio"
+                    + " [--zstd] [--reemplazar] [--hilos N] [--lote N]");
+            System.exit(2);
+        }
+        Path directorio = Path.of(args[1]);
+        Compresion compresion = Compresion.GZIP;
+        boolean reemplazar = false;
+
+        ConexionMongoDB conexion = ConexionMongoDB.getInstancia();
+        RespaldoColecciones respaldo = new RespaldoColecciones(conexion.getDatabase());
+        try {
+            for (int i = 2; i < args.length; i++) {
+                if ("--zstd".equals(args[i])) {
+                    compresion = Compresion.ZSTD;
+                } else if ("--reemplazar".equals(args[i])) {
+                    reemplazar = true;
+                } else if ("--hilos".equals(args[i]) && i + 1 < args.length) {
+                    respaldo.setHilos(Integer.parseInt(args[++i]));
+                } else if ("--lote".equals(args[i]) && i + 1 < args.length) {
+                    respaldo.setTamanoLote(Integer.parseInt(args[++i]));
+                } else {
+                    throw new IllegalArgumentException("Opcion desconocida: " + args[i]);
+                }
+            }
+
+            if ("exportar".equals(args[0])) {
+                respaldo.exportar(directorio, compresion);
+            } else {
+                respaldo.importar(directorio, reemplazar);
+            }
+        } catch (Exception e) {
+            System.err.println("Error en el respaldo: " + e.getMessage());
+            conexion.cerrarConexion();
+            System.exit(1);
+        }
+        conexion.cerrarConexion();
+    }
+}
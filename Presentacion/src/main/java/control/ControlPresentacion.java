@@ -53,10 +53,17 @@ public class ControlPresentacion {
     private InfoPersonalDTO borradorInfoPersonal;
     private CitaDisponibleDTO borradorCita;
 
+    /**
+     * Usa los subsistemas del arranque (ArranqueSistema); si aun no terminan,
+     * espera a que terminen
+     */
     public ControlPresentacion() {
-        this.controlSubsistemas = new ControlSubsistemas();
+        this(ArranqueSistema.getInstancia().getControlSubsistemas());
+    }
+
+    public ControlPresentacion(ControlSubsistemas controlSubsistemas) {
+        this.controlSubsistemas = controlSubsistemas;
         this.idUsuarioActual = null;
-        this.controlSubsistemas.InicializarAdminUser();
     }
 
     /**
@@ -251,6 +258,13 @@ public class ControlPresentacion {
         }
     }
 
+    /**
+     * Obtiene las estadisticas del tablero del administrador
+     */
+    public DTOS.EstadisticasDTO obtenerEstadisticas() {
+        return controlSubsistemas.obtenerEstadisticas();
+    }
+
     /**
      * Obtiene las citas disponibles
      */
@@ -263,9 +277,9 @@ public class ControlPresentacion {
      * 
      * @param idCita    ID de la cita.
      * @param idUsuario ID del usuario.
-     * @return true si la reserva fue exitosa, false en caso contrario.
+     * @return RESERVADA, OCUPADA si otro usuario la tomo antes o NO_EXISTE.
      */
-    public boolean reservarCita(String idCita, String idUsuario) {
+    public DTOS.ResultadoReservaDTO reservarCita(String idCita, String idUsuario) {
         return controlSubsistemas.reservarCita(idCita, idUsuario);
     }
 
@@ -298,8 +312,12 @@ public class ControlPresentacion {
 
             if (cita != null && cita.getId() != null) {
                 System.out.println("→ Intentando reservar cita: " + cita.getId());
-                if (!controlSubsistemas.reservarCita(cita.getId(), idUsuarioActual)) {
-                    throw new Exception("No se pudo reservar la cita");
+                DTOS.ResultadoReservaDTO reserva = controlSubsistemas.reservarCita(cita.getId(), idUsuarioActual);
+                if (reserva == DTOS.ResultadoReservaDTO.OCUPADA) {
+                    throw new Exception("Otra persona acaba de tomar esa cita, elija otro horario");
+                }
+                if (reserva == DTOS.ResultadoReservaDTO.NO_EXISTE) {
+                    throw new Exception("La cita seleccionada ya no existe");
                 }
             }
 
@@ -4,7 +4,9 @@
  */
 package gui;
 
+import control.ArranqueSistema;
 import control.ControlPresentacion;
+import control.ControlSubsistemas;
 
 /**
  * Ventana de inicio de sesion.
@@ -15,11 +17,39 @@ public class FrmInicioSesion extends javax.swing.JFrame {
         private ControlPresentacion controlPresentacion;
 
         /**
-         * Constructor. Inicializa los componentes y el controlador.
+         * Constructor. Inicializa los componentes; el controlador se crea
+         * cuando el arranque en segundo plano termina, mientras tanto los
+         * botones quedan deshabilitados.
          */
         public FrmInicioSesion() {
                 initComponents();
-                this.controlPresentacion = new ControlPresentacion();
+                btnIniciarS.setEnabled(false);
+                btnRegistro.setEnabled(false);
+                btnIniciarS.setText("Conectando...");
+
+                ArranqueSistema arranque = ArranqueSistema.getInstancia();
+                arranque.iniciar();
+                arranque.getListo().whenComplete((control, error) -> java.awt.EventQueue
+                                .invokeLater(() -> terminarArranque(control, error)));
+        }
+
+        /**
+         * Habilita el inicio de sesion cuando los subsistemas estan listos
+         */
+        private void terminarArranque(ControlSubsistemas control, Throwable error) {
+                if (error != null) {
+                        btnIniciarS.setText("Sin conexion");
+                        javax.swing.JOptionPane.showMessageDialog(this,
+                                        "No se pudo conectar con la base de datos: " + error.getMessage(),
+                                        "Error de conexion",
+                                        javax.swing.JOptionPane.ERROR_MESSAGE);
+                        return;
+                }
+                this.controlPresentacion = new ControlPresentacion(control);
+                btnIniciarS.setText("Iniciar sesion");
+                btnIniciarS.setEnabled(true);
+                btnRegistro.setEnabled(true);
+                ArranqueSistema.getInstancia().marcarInteractivo();
         }
 
         /**
@@ -447,6 +477,9 @@ public class FrmInicioSesion extends javax.swing.JFrame {
          * @param args Argumentos de la línea de comandos.
          */
         public static void main(String args[]) {
+                // Conexion, indices y usuario admin en segundo plano mientras se pinta la ventana
+                ArranqueSistema.getInstancia().iniciar();
+
                 /* Set the Nimbus look and feel */
                 // <editor-fold defaultstate="collapsed" desc=" Look and feel setting code
                 // (optional) ">
@@ -487,6 +520,7 @@ public class FrmInicioSesion extends javax.swing.JFrame {
                 java.awt.EventQueue.invokeLater(new Runnable() {
                         public void run() {
                                 new FrmInicioSesion().setVisible(true);
+                                ArranqueSistema.getInstancia().marcar("ventana visible");
                         }
                 });
         }
@@ -13,12 +13,120 @@ package gui;
  */
 public class JPAdmin extends javax.swing.JPanel {
 
+    /** Cada cuanto se refrescan las estadisticas mientras el panel se ve */
+    private static final int REFRESCO_ESTADISTICAS_MS = 30_000;
+
+    /** Resumen de estadisticas debajo de los botones */
+    private javax.swing.JLabel lblEstadisticas;
+    private javax.swing.Timer refrescoEstadisticas;
+    /** Se crea en el primer refresco y se reutiliza en los siguientes */
+    private control.ControlPresentacion controlPresentacion;
+
     /**
      * Crea una nueva instancia del panel de administración.
      * Inicializa los componentes gráficos.
      */
     public JPAdmin() {
         initComponents();
+        agregarEstadisticas();
+    }
+
+    /**
+     * Agrega la franja de estadisticas debajo del contenido del formulario y
+     * la carga fuera del hilo de Swing
+     */
+    private void agregarEstadisticas() {
+        lblEstadisticas = new javax.swing.JLabel("Cargando estadisticas...");
+        lblEstadisticas.setFont(new java.awt.Font("Segoe UI", 0, 14)); // NOI18N
+        lblEstadisticas.setOpaque(true);
+        lblEstadisticas.setBackground(new java.awt.Color(219, 213, 195));
+        lblEstadisticas.setBorder(javax.swing.BorderFactory.createEmptyBorder(8, 20, 12, 20));
+
+        removeAll();
+        setLayout(new java.awt.BorderLayout());
+        add(jPanel1, java.awt.BorderLayout.CENTER);
+        add(lblEstadisticas, java.awt.BorderLayout.SOUTH);
+
+        refrescoEstadisticas = new javax.swing.Timer(REFRESCO_ESTADISTICAS_MS, evt -> cargarEstadisticas());
+        cargarEstadisticas();
+    }
+
+    private void cargarEstadisticas() {
+        java.util.concurrent.CompletableFuture
+                .supplyAsync(() -> controlPresentacion().obtenerEstadisticas())
+                .whenComplete((estadisticas, error) -> java.awt.EventQueue.invokeLater(() -> {
+                    if (error != null) {
+                        lblEstadisticas.setText("No se pudieron cargar las estadisticas");
+                        System.err.println("Error al cargar estadisticas: " + error.getMessage());
+                    } else {
+                        lblEstadisticas.setText(formatearEstadisticas(estadisticas));
+                    }
+                }));
+    }
+
+    /**
+     * El constructor espera a que termine el arranque, por eso se crea fuera
+     * del hilo de Swing, dentro del refresco
+     */
+    private synchronized control.ControlPresentacion controlPresentacion() {
+        if (controlPresentacion == null) {
+            controlPresentacion = new control.ControlPresentacion();
+        }
+        return controlPresentacion;
+    }
+
+    private static String formatearEstadisticas(DTOS.EstadisticasDTO estadisticas) {
+        StringBuilder texto = new StringBuilder("<html>");
+        texto.append("<b>Mascotas:</b> ").append(estadisticas.getMascotasDisponibles()).append(" disponibles, ")
+                .append(estadisticas.getMascotasNoDisponibles()).append(" no disponibles &nbsp;|&nbsp; ")
+                .append(conteos(estadisticas.getMascotasPorEspecie())).append(" &nbsp;|&nbsp; ")
+                .append(conteos(estadisticas.getMascotasPorEstado())).append("<br>");
+        texto.append("<b>Solicitudes:</b> ").append(conteos(estadisticas.getSolicitudesPorEstado())).append("<br>");
+        texto.append("<b>Citas:</b> ").append(estadisticas.getCitasReservadas()).append(" reservadas, ")
+                .append(estadisticas.getCitasLibres()).append(" libres<br>");
+        texto.append("<b>Adopciones por semana:</b> ");
+        for (java.util.Map.Entry<String, Long> semana : estadisticas.getAdopcionesPorSemana().entrySet()) {
+            texto.append(semana.getKey().substring(semana.getKey().indexOf('W'))).append(": ")
+                    .append(semana.getValue()).append(" &nbsp;");
+        }
+        if (estadisticas.getCalculadoEn() != null) {
+            texto.append("<br><font size=-1>Actualizado ").append(estadisticas.getCalculadoEn()
+                    .format(java.time.format.DateTimeFormatter.ofPattern("HH:mm:ss"))).append("</font>");
+        }
+        return texto.append("</html>").toString();
+    }
+
+    private static String conteos(java.util.Map<String, Long> conteos) {
+        if (conteos.isEmpty()) {
+            return "sin datos";
+        }
+        StringBuilder texto = new StringBuilder();
+        for (java.util.Map.Entry<String, Long> conteo : conteos.entrySet()) {
+            if (texto.length() > 0) {
+                texto.append(", ");
+            }
+            texto.append(escapar(conteo.getKey())).append(' ').append(conteo.getValue());
+        }
+        return texto.toString();
+    }
+
+    private static String escapar(String valor) {
+        return valor.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    /**
+     * El refresco solo corre mientras el panel esta en una ventana
+     */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        refrescoEstadisticas.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        refrescoEstadisticas.stop();
+        super.removeNotify();
     }
 
     /**
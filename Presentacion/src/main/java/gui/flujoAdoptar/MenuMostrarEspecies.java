@@ -4,12 +4,13 @@
  */
 package gui.flujoAdoptar;
 
-import DTOS.MascotaDTO;
+import DTOS.MascotaResumenDTO;
+import DTOS.PaginaDTO;
 import gui.PetCardPanel;
 import negocio.subsistemas.mascotas.FachadaMascotas;
 import negocio.subsistemas.mascotas.IMascotas;
-import java.util.List;
 import javax.swing.JOptionPane;
+import javax.swing.JScrollBar;
 
 /**
  *
@@ -27,18 +28,65 @@ public class MenuMostrarEspecies extends javax.swing.JPanel {
         private IMascotas fachadaMascotas;
         private control.ControlPresentacion controlPresentacion;
 
+        private static final int TAMANO_PAGINA = 24;
+        private String filtroEspecie;
+        private String textoBusqueda;
+        private javax.swing.JTextField txtBuscar;
+        private String cursorSiguiente;
+        private boolean hayMas;
+        private boolean cargando;
+
         /**
          * Crea un nuevo formulario MenuMostrarEspecies.
          * Inicializa la fachada de mascotas y carga el catálogo.
          */
         public MenuMostrarEspecies() {
                 initComponents();
+                configurarBusqueda();
                 this.fachadaMascotas = new FachadaMascotas();
                 cargarEspecies();
                 cargarMascotas();
 
                 JScrollPaneCatalogo.getVerticalScrollBar().setUnitIncrement(16);
                 JScrollPaneCatalogo.getVerticalScrollBar().setBlockIncrement(100);
+
+                // Al acercarse al final del catalogo se pide la siguiente pagina
+                JScrollPaneCatalogo.getVerticalScrollBar().addAdjustmentListener(e -> {
+                        JScrollBar barra = JScrollPaneCatalogo.getVerticalScrollBar();
+                        if (!e.getValueIsAdjusting() && hayMas
+                                        && barra.getValue() + barra.getVisibleAmount() >= barra.getMaximum() - 200) {
+                                cargarSiguientePagina();
+                        }
+                });
+        }
+
+        /**
+         * Agrega la caja de busqueda arriba del catalogo, fija al hacer
+         * scroll. La busqueda se hace en el servidor con el indice de texto;
+         * con la caja vacia se muestra el catalogo normal.
+         */
+        private void configurarBusqueda() {
+                txtBuscar = new javax.swing.JTextField(30);
+                txtBuscar.setToolTipText("Nombre, raza, color o personalidad, por ejemplo: labrador negro tranquilo");
+                txtBuscar.addActionListener(e -> cargarMascotas());
+
+                javax.swing.JButton btnBuscar = new javax.swing.JButton("Buscar");
+                btnBuscar.addActionListener(e -> cargarMascotas());
+
+                javax.swing.JButton btnLimpiar = new javax.swing.JButton("Limpiar");
+                btnLimpiar.addActionListener(e -> {
+                        txtBuscar.setText("");
+                        cargarMascotas();
+                });
+
+                javax.swing.JPanel barraBusqueda = new javax.swing.JPanel(
+                                new java.awt.FlowLayout(java.awt.FlowLayout.LEFT, 8, 6));
+                barraBusqueda.setBackground(new java.awt.Color(235, 229, 220));
+                barraBusqueda.add(new javax.swing.JLabel("BUSCAR"));
+                barraBusqueda.add(txtBuscar);
+                barraBusqueda.add(btnBuscar);
+                barraBusqueda.add(btnLimpiar);
+                JScrollPaneCatalogo.setColumnHeaderView(barraBusqueda);
         }
 
         /**
@@ -49,21 +97,8 @@ public class MenuMostrarEspecies extends javax.swing.JPanel {
                         cbFiltro.removeAllItems();
                         cbFiltro.addItem("Todas"); // Opción por defecto
 
-                        // Obtener todas las mascotas para extraer especies únicas
-                        List<MascotaDTO> mascotas = fachadaMascotas.buscarMascotasDisponibles();
-
-                        // Extraer especies únicas
-                        java.util.Set<String> especiesUnicas = new java.util.HashSet<>();
-                        for (MascotaDTO mascota : mascotas) {
-                                if (mascota.getEspecie() != null && !mascota.getEspecie().isEmpty()) {
-                                        especiesUnicas.add(mascota.getEspecie());
-                                }
-                        }
-
-                        // Agregar especies al ComboBox ordenadas alfabéticamente
-                        java.util.List<String> especiesOrdenadas = new java.util.ArrayList<>(especiesUnicas);
-                        java.util.Collections.sort(especiesOrdenadas);
-                        for (String especie : especiesOrdenadas) {
+                        // Especies únicas ya ordenadas, sin traer las mascotas
+                        for (String especie : fachadaMascotas.buscarEspeciesDisponibles()) {
                                 cbFiltro.addItem(especie);
                         }
                 } catch (Exception e) {
@@ -88,32 +123,52 @@ public class MenuMostrarEspecies extends javax.swing.JPanel {
         }
 
         /**
-         * Carga las mascotas disponibles desde la base de datos
+         * Carga la primera pagina de mascotas disponibles desde la base de datos
          */
         public void cargarMascotas() {
-                try {
-                        // Limpiar el panel antes de cargar
-                        JPaneCatalogo.removeAll();
-
-                        // Obtener la especie seleccionada del ComboBox
-                        String especieSeleccionada = (String) cbFiltro.getSelectedItem();
-                        String filtroEspecie = ("Todas".equals(especieSeleccionada)) ? null : especieSeleccionada;
+                // Limpiar el panel antes de cargar
+                JPaneCatalogo.removeAll();
+
+                // Obtener la especie seleccionada del ComboBox
+                String especieSeleccionada = (String) cbFiltro.getSelectedItem();
+                filtroEspecie = ("Todas".equals(especieSeleccionada)) ? null : especieSeleccionada;
+                String texto = txtBuscar.getText().trim();
+                textoBusqueda = texto.isEmpty() ? null : texto;
+                cursorSiguiente = null;
+                hayMas = true;
+
+                cargarSiguientePagina();
+                JScrollPaneCatalogo.getVerticalScrollBar().setValue(0);
+        }
 
-                        // Obtener mascotas disponibles
-                        List<MascotaDTO> mascotas = fachadaMascotas.buscarMascotasDisponibles();
+        /**
+         * Agrega al catalogo la siguiente pagina de tarjetas
+         */
+        private void cargarSiguientePagina() {
+                if (!hayMas || cargando) {
+                        return;
+                }
 
-                        // Si no hay mascotas, mostrar mensaje
-                        if (mascotas == null || mascotas.isEmpty()) {
-                                return;
+                cargando = true;
+                try {
+                        // Obtener solo los datos de tarjeta; el filtro de especie y la busqueda se
+                        // aplican en la consulta (con busqueda vienen de la mas a la menos relevante)
+                        boolean primera = cursorSiguiente == null;
+                        PaginaDTO<MascotaResumenDTO> pagina = textoBusqueda == null
+                                        ? fachadaMascotas.buscarPaginaResumenMascotasDisponibles(filtroEspecie,
+                                                        cursorSiguiente, TAMANO_PAGINA)
+                                        : fachadaMascotas.buscarTexto(textoBusqueda, filtroEspecie,
+                                                        cursorSiguiente, TAMANO_PAGINA);
+                        cursorSiguiente = pagina.getCursorSiguiente();
+                        hayMas = pagina.isHayMas();
+
+                        if (primera && textoBusqueda != null && pagina.getElementos().isEmpty()) {
+                                JPaneCatalogo.add(new javax.swing.JLabel(
+                                                "No hay mascotas disponibles que coincidan con \"" + textoBusqueda + "\""));
                         }
 
                         // Crear una tarjeta por cada mascota
-                        for (MascotaDTO mascota : mascotas) {
-                                // Aplicar filtro de especie si está seleccionado
-                                if (filtroEspecie != null && !filtroEspecie.equals(mascota.getEspecie())) {
-                                        continue; // Saltar esta mascota si no coincide con el filtro
-                                }
-
+                        for (MascotaResumenDTO mascota : pagina.getElementos()) {
                                 PetCardPanel card = new PetCardPanel();
                                 card.setNombreMascota(mascota.getNombre());
                                 card.setImagenMascota(mascota.getUrlImagen());
@@ -131,16 +186,18 @@ public class MenuMostrarEspecies extends javax.swing.JPanel {
                                 JPaneCatalogo.add(card);
                         }
 
-                        // Refrescar el panel
-                        JPaneCatalogo.revalidate();
-                        JPaneCatalogo.repaint();
-
                 } catch (Exception e) {
+                        hayMas = false;
                         e.printStackTrace();
                         JOptionPane.showMessageDialog(this,
                                         "Error al cargar las mascotas: " + e.getMessage(),
                                         "Error",
                                         JOptionPane.ERROR_MESSAGE);
+                } finally {
+                        cargando = false;
+                        // Refrescar el panel
+                        JPaneCatalogo.revalidate();
+                        JPaneCatalogo.repaint();
                 }
         }
 
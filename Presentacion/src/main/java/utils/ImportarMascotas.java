@@ -0,0 +1,70 @@
+package utils;
+
+import daos.FabricaDAOs;
+import importacion.ImportadorMascotas;
+import importacion.ReporteImportacion;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Importacion masiva de mascotas para los dias de ingreso. A diferencia de
+ * InsertarDatosCompleto, que registra unas cuantas mascotas de prueba una
+ * por una, lee un archivo CSV o NDJSON y lo guarda por lotes, con su
+ * expediente medico.
+ *
+ * Uso: java utils.ImportarMascotas archivo.csv [--lote N] [--hilos N]
+ *
+ * Columnas (CSV) o campos (NDJSON, se permite un objeto "expediente"):
+ * nombre, especie, edad, peso, estadoSalud, personalidad, urlImagen, color,
+ * raza, disponible, estado, tamano, nivelActividad, peludo,
+ * costoMantenimiento, descripcion, condicion, nivelEnergia, vacunaRabia,
+ * vacunaDesparasitacionExterna, vacunaBordetella,
+ * vacunaDesparasitacionInterna, vacunaMultiple, esterilizado, alergias,
+ * condicionesEspeciales. Solo nombre y especie son obligatorios.
+ *
+ * Si se interrumpe, volver a ejecutar con el mismo archivo continua desde
+ * archivo.avance; las filas rechazadas quedan en archivo.errores.csv.
+ *
+ * @author System
+ */
+public class ImportarMascotas {
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Uso: java utils.ImportarMascotas archivo.csv|archivo.ndjson [--lote N] [--hilos N]");
+            System.exit(2);
+        }
+        Path archivo = Path.of(args[0]);
+        if (!Files.isRegularFile(archivo)) {
+            System.err.println("No existe el archivo " + archivo);
+            System.exit(2);
+        }
+
+        ImportadorMascotas importador = new ImportadorMascotas(FabricaDAOs.mascotas(), FabricaDAOs.expedientes());
+        try {
+            for (int i = 1; i < args.length; i++) {
+                if ("--lote".equals(args[i]) && i + 1 < args.length) {
+                    importador.setTamanoLote(Integer.parseInt(args[++i]));
+                } else if ("--hilos".equals(args[i]) && i + 1 < args.length) {
+                    importador.setHilos(Integer.parseInt(args[++i]));
+                } else {
+                    throw new IllegalArgumentException("Opcion desconocida: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+
+        try {
+            ReporteImportacion reporte = importador.importar(archivo);
+            if (reporte.getRechazadas() > 0) {
+                System.out.println("Revise las filas rechazadas en " + reporte.getArchivoErrores());
+            }
+        } catch (Exception e) {
+            System.err.println("Error al importar mascotas: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
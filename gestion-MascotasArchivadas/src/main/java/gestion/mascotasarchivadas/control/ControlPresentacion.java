@@ -1,13 +1,12 @@
 package gestion.mascotasarchivadas.control;
 
 import gestion.mascotasarchivadas.dtos.MascotaArchivoDTO;
+import gestion.mascotasarchivadas.dtos.MascotaResumenDTO;
+import gestion.mascotasarchivadas.dtos.PaginaDTO;
 import gestion.mascotasarchivadas.dtos.ResultadoOperacion;
 import negocio.GestionMascotasArchivadas;
 import negocio.IGestionMascotasArchivadas;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Fachada principal del módulo de gestión de mascotas archivadas.
  * Proporciona una interfaz simplificada para la capa de presentación,
@@ -39,29 +38,25 @@ public class ControlPresentacion {
     }
 
     /**
-     * Obtiene el catálogo de mascotas archivadas.
+     * Obtiene una página de tarjetas de las mascotas archivadas con solo los
+     * datos de resumen.
      * 
-     * @return Lista de mascotas archivadas o lista vacía en caso de error
+     * @param especie Especie a filtrar, null para todas
+     * @param cursor  Cursor de la página anterior, null para la primera
+     * @param tamano  Mascotas por página
+     * @return Página de resúmenes o página vacía en caso de error
      */
-    public List<MascotaArchivoDTO> obtenerCatalogo() {
+    public PaginaDTO<MascotaResumenDTO> obtenerPaginaResumenMascotasArchivadas(String especie, String cursor,
+            int tamano) {
         try {
-            return controlSubsistemas.obtenerCatalogo();
+            return controlSubsistemas.obtenerPaginaResumenCatalogo(especie, cursor, tamano);
         } catch (Exception e) {
             System.err.println("Error al obtener catálogo de mascotas archivadas: " + e.getMessage());
             e.printStackTrace();
-            return new ArrayList<>();
+            return new PaginaDTO<>();
         }
     }
 
-    /**
-     * Alias de obtenerCatalogo para mayor claridad semántica.
-     * 
-     * @return Lista de mascotas archivadas
-     */
-    public List<MascotaArchivoDTO> obtenerMascotasArchivadas() {
-        return obtenerCatalogo();
-    }
-
     /**
      * Obtiene los detalles de una mascota archivada específica.
      * 
@@ -167,24 +162,4 @@ public class ControlPresentacion {
                     "Error del sistema al reactivar la mascota: " + e.getMessage());
         }
     }
-
-    /**
-     * Filtra mascotas archivadas por especie.
-     * 
-     * @param especie Especie a filtrar (perro, gato, etc.)
-     * @return Lista de mascotas filtradas
-     */
-    public List<MascotaArchivoDTO> filtrarPorEspecie(String especie) {
-        try {
-            if (especie == null || especie.trim().isEmpty()) {
-                return obtenerCatalogo();
-            }
-
-            return controlSubsistemas.filtrarPorEspecie(especie);
-        } catch (Exception e) {
-            System.err.println("Error al filtrar por especie: " + e.getMessage());
-            e.printStackTrace();
-            return new ArrayList<>();
-        }
-    }
 }
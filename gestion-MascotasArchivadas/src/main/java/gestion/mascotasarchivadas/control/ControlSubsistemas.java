@@ -1,10 +1,10 @@
 package gestion.mascotasarchivadas.control;
 
 import gestion.mascotasarchivadas.dtos.MascotaArchivoDTO;
+import gestion.mascotasarchivadas.dtos.MascotaResumenDTO;
+import gestion.mascotasarchivadas.dtos.PaginaDTO;
 import negocio.IGestionMascotasArchivadas;
 
-import java.util.List;
-
 /**
  * Controlador de subsistemas para el módulo de gestión de mascotas archivadas.
  * Coordina la lógica de negocio y gestiona instancias de subsistemas.
@@ -23,12 +23,15 @@ public class ControlSubsistemas {
     }
 
     /**
-     * Obtiene el catálogo de mascotas archivadas.
+     * Obtiene una página de tarjetas de las mascotas archivadas.
      * 
-     * @return Lista de mascotas archivadas
+     * @param especie Especie a filtrar, null para todas
+     * @param cursor  Cursor de la página anterior, null para la primera
+     * @param tamano  Mascotas por página
+     * @return Página de resúmenes de mascotas archivadas
      */
-    public List<MascotaArchivoDTO> obtenerCatalogo() {
-        return gestionMascotasArchivadas.obtenerMascotasArchivadas();
+    public PaginaDTO<MascotaResumenDTO> obtenerPaginaResumenCatalogo(String especie, String cursor, int tamano) {
+        return gestionMascotasArchivadas.obtenerPaginaResumenMascotasArchivadas(especie, cursor, tamano);
     }
 
     /**
@@ -60,14 +63,4 @@ public class ControlSubsistemas {
     public boolean reactivarMascota(String id) {
         return gestionMascotasArchivadas.reactivarMascota(id);
     }
-
-    /**
-     * Filtra mascotas archivadas por especie.
-     * 
-     * @param especie Especie a filtrar
-     * @return Lista filtrada
-     */
-    public List<MascotaArchivoDTO> filtrarPorEspecie(String especie) {
-        return gestionMascotasArchivadas.filtrarPorEspecie(especie);
-    }
 }
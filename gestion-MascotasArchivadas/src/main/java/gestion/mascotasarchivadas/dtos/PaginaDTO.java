@@ -0,0 +1,68 @@
+package gestion.mascotasarchivadas.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO con una página de resultados para la vista: los elementos y el cursor
+ * con el que se pide la siguiente, tal como llegó en la página anterior.
+ *
+ * @param <T> tipo de los elementos
+ * @author System
+ */
+public class PaginaDTO<T> {
+
+    private List<T> elementos = new ArrayList<>();
+    private String cursorSiguiente;
+    private boolean hayMas;
+    private long totalEstimado;
+
+    public PaginaDTO() {
+    }
+
+    public PaginaDTO(List<T> elementos, String cursorSiguiente, boolean hayMas, long totalEstimado) {
+        this.elementos = elementos;
+        this.cursorSiguiente = cursorSiguiente;
+        this.hayMas = hayMas;
+        this.totalEstimado = totalEstimado;
+    }
+
+    public List<T> getElementos() {
+        return elementos;
+    }
+
+    public void setElementos(List<T> elementos) {
+        this.elementos = elementos;
+    }
+
+    /**
+     * Cursor para pedir la siguiente página, null si ya no hay más
+     */
+    public String getCursorSiguiente() {
+        return cursorSiguiente;
+    }
+
+    public void setCursorSiguiente(String cursorSiguiente) {
+        this.cursorSiguiente = cursorSiguiente;
+    }
+
+    public boolean isHayMas() {
+        return hayMas;
+    }
+
+    public void setHayMas(boolean hayMas) {
+        this.hayMas = hayMas;
+    }
+
+    /**
+     * Total aproximado de resultados; solo viene en la primera página, en las
+     * demás es negativo
+     */
+    public long getTotalEstimado() {
+        return totalEstimado;
+    }
+
+    public void setTotalEstimado(long totalEstimado) {
+        this.totalEstimado = totalEstimado;
+    }
+}
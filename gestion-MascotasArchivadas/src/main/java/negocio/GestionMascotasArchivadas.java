@@ -2,13 +2,13 @@ package negocio;
 
 import entities.Mascota;
 import gestion.mascotasarchivadas.dtos.MascotaArchivoDTO;
+import gestion.mascotasarchivadas.dtos.MascotaResumenDTO;
+import gestion.mascotasarchivadas.dtos.PaginaDTO;
 import negocio.IGestionMascotasArchivadas;
 import negocio.ObjetoNegocio;
 import persistencia.IMascotaArchivoDAO;
 import persistencia.MascotaArchivoDAO;
 
-import java.util.List;
-
 /**
  * Implementación de la lógica de negocio para gestión de mascotas archivadas.
  * Coordina entre la capa de persistencia y aplica reglas de negocio.
@@ -18,7 +18,7 @@ import java.util.List;
 public class GestionMascotasArchivadas implements IGestionMascotasArchivadas {
 
     private final IMascotaArchivoDAO mascotaArchivoDAO;
-    private final daos.ExpedienteMedicoDAO expedienteMedicoDAO;
+    private final daos.IExpedienteMedicoDAO expedienteMedicoDAO;
     private final ObjetoNegocio objetoNegocio;
 
     /**
@@ -28,8 +28,7 @@ public class GestionMascotasArchivadas implements IGestionMascotasArchivadas {
     public GestionMascotasArchivadas() {
         this.mascotaArchivoDAO = new MascotaArchivoDAO();
         this.objetoNegocio = new ObjetoNegocio();
-        com.mongodb.client.MongoDatabase database = conexion.ConexionMongoDB.getInstancia().getDatabase();
-        this.expedienteMedicoDAO = new daos.ExpedienteMedicoDAO(database);
+        this.expedienteMedicoDAO = daos.FabricaDAOs.expedientes();
     }
 
     // Constructor con inyección de dependencias para testing
@@ -42,19 +41,19 @@ public class GestionMascotasArchivadas implements IGestionMascotasArchivadas {
     public GestionMascotasArchivadas(IMascotaArchivoDAO mascotaArchivoDAO, ObjetoNegocio objetoNegocio) {
         this.mascotaArchivoDAO = mascotaArchivoDAO;
         this.objetoNegocio = objetoNegocio;
-        com.mongodb.client.MongoDatabase database = conexion.ConexionMongoDB.getInstancia().getDatabase();
-        this.expedienteMedicoDAO = new daos.ExpedienteMedicoDAO(database);
+        this.expedienteMedicoDAO = daos.FabricaDAOs.expedientes();
     }
 
     @Override
-    public List<MascotaArchivoDTO> obtenerMascotasArchivadas() {
+    public PaginaDTO<MascotaResumenDTO> obtenerPaginaResumenMascotasArchivadas(String especie, String cursor,
+            int tamano) {
         try {
-            List<Mascota> mascotas = mascotaArchivoDAO.obtenerMascotasArchivadas();
-            return Adaptadores.listEntidadADTO(mascotas);
+            return Adaptadores.paginaResumenADTO(
+                    mascotaArchivoDAO.obtenerPaginaResumenArchivadas(especie, cursor, tamano));
         } catch (Exception e) {
             System.err.println("Error al obtener mascotas archivadas: " + e.getMessage());
             e.printStackTrace();
-            return List.of(); // Retornar lista vacía en caso de error
+            return new PaginaDTO<>();
         }
     }
 
@@ -178,21 +177,4 @@ public class GestionMascotasArchivadas implements IGestionMascotasArchivadas {
             return false;
         }
     }
-
-    @Override
-    public List<MascotaArchivoDTO> filtrarPorEspecie(String especie) {
-        if (especie == null || especie.trim().isEmpty()) {
-            System.out.println("Especie vacía, retornando todas las mascotas archivadas");
-            return obtenerMascotasArchivadas();
-        }
-
-        try {
-            List<Mascota> mascotas = mascotaArchivoDAO.buscarPorEspecie(especie);
-            return Adaptadores.listEntidadADTO(mascotas);
-        } catch (Exception e) {
-            System.err.println("Error al filtrar por especie: " + e.getMessage());
-            e.printStackTrace();
-            return List.of(); // Retornar lista vacía en caso de error
-        }
-    }
 }
@@ -1,7 +1,8 @@
 package negocio;
 
 import gestion.mascotasarchivadas.dtos.MascotaArchivoDTO;
-import java.util.List;
+import gestion.mascotasarchivadas.dtos.MascotaResumenDTO;
+import gestion.mascotasarchivadas.dtos.PaginaDTO;
 
 /**
  * Interfaz para la lógica de negocio de gestión de mascotas archivadas.
@@ -10,13 +11,6 @@ import java.util.List;
  */
 public interface IGestionMascotasArchivadas {
 
-    /**
-     * Obtiene todas las mascotas archivadas.
-     * 
-     * @return Lista de mascotas archivadas
-     */
-    List<MascotaArchivoDTO> obtenerMascotasArchivadas();
-
     /**
      * Obtiene los detalles de una mascota archivada específica.
      * 
@@ -44,10 +38,14 @@ public interface IGestionMascotasArchivadas {
     boolean reactivarMascota(String id);
 
     /**
-     * Filtra mascotas archivadas por especie.
+     * Obtiene una página de tarjetas de las mascotas archivadas, solo con los
+     * datos que muestra el catálogo. El detalle se pide con
+     * obtenerDetalleMascota.
      * 
-     * @param especie Especie a filtrar (perro, gato, etc.)
-     * @return Lista de mascotas archivadas de la especie especificada
+     * @param especie Especie a filtrar, null para todas
+     * @param cursor  Cursor de la página anterior, null para la primera
+     * @param tamano  Mascotas por página
+     * @return Página de resúmenes de mascotas archivadas
      */
-    List<MascotaArchivoDTO> filtrarPorEspecie(String especie);
+    PaginaDTO<MascotaResumenDTO> obtenerPaginaResumenMascotasArchivadas(String especie, String cursor, int tamano);
 }
@@ -1,7 +1,8 @@
 package persistencia;
 
 import entities.Mascota;
-import java.util.List;
+import entities.MascotaResumen;
+import paginacion.Pagina;
 
 /**
  * Interfaz para operaciones de persistencia de mascotas archivadas.
@@ -9,13 +10,6 @@ import java.util.List;
  */
 public interface IMascotaArchivoDAO {
 
-    /**
-     * Obtiene todas las mascotas archivadas (estado = "baja").
-     * 
-     * @return Lista de mascotas archivadas
-     */
-    List<Mascota> obtenerMascotasArchivadas();
-
     /**
      * Obtiene una mascota archivada por su ID.
      * 
@@ -41,10 +35,13 @@ public interface IMascotaArchivoDAO {
     boolean reactivarMascota(String id);
 
     /**
-     * Busca mascotas archivadas por especie.
+     * Obtiene una página con solo los datos de tarjeta de las mascotas
+     * archivadas.
      * 
-     * @param especie Especie a filtrar
-     * @return Lista de mascotas archivadas de la especie especificada
+     * @param especie Especie a filtrar, null para todas
+     * @param cursor  Cursor de la página anterior, null para la primera
+     * @param tamano  Mascotas por página
+     * @return Página de resúmenes de mascotas archivadas
      */
-    List<Mascota> buscarPorEspecie(String especie);
+    Pagina<MascotaResumen> obtenerPaginaResumenArchivadas(String especie, String cursor, int tamano);
 }
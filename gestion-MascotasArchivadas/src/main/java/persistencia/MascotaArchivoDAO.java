@@ -1,47 +1,25 @@
 package persistencia;
 
-import com.mongodb.client.MongoDatabase;
-import conexion.ConexionMongoDB;
 import entities.Mascota;
+import entities.MascotaResumen;
 import org.bson.types.ObjectId;
-
-import java.util.ArrayList;
-import java.util.List;
+import paginacion.Pagina;
 
 /**
  * Implementación del DAO de mascotas archivadas.
- * Reutiliza la conexión MongoDB compartida y trabaja con entities.Mascota.
+ * Reutiliza el DAO de mascotas del motor configurado y trabaja con entities.Mascota.
  * Se enfoca en mascotas con estado "baja".
  */
 public class MascotaArchivoDAO implements IMascotaArchivoDAO {
 
-    private final daos.MascotaDAO mascotaDAOCompartido;
+    private final daos.IMascotaDAO mascotaDAOCompartido;
 
     /**
      * Constructor por defecto.
-     * Inicializa la conexión a la base de datos reutilizando la instancia
-     * compartida.
+     * Obtiene el DAO de mascotas del motor configurado (MongoDB o memoria).
      */
     public MascotaArchivoDAO() {
-        // Reutilizar la conexión compartida
-        MongoDatabase database = ConexionMongoDB.getInstancia().getDatabase();
-        this.mascotaDAOCompartido = new daos.MascotaDAO(database);
-    }
-
-    @Override
-    public List<Mascota> obtenerMascotasArchivadas() {
-        // Obtener todas las mascotas y filtrar las archivadas (estado = "baja")
-        List<Mascota> todasMascotas = mascotaDAOCompartido.buscarTodas();
-        List<Mascota> mascotasArchivadas = new ArrayList<>();
-
-        for (Mascota mascota : todasMascotas) {
-            String estado = mascota.getEstado() != null ? mascota.getEstado().toLowerCase() : "";
-            if (estado.startsWith("baja")) {
-                mascotasArchivadas.add(mascota);
-            }
-        }
-
-        return mascotasArchivadas;
+        this.mascotaDAOCompartido = daos.FabricaDAOs.mascotas();
     }
 
     @Override
@@ -125,16 +103,8 @@ public class MascotaArchivoDAO implements IMascotaArchivoDAO {
     }
 
     @Override
-    public List<Mascota> buscarPorEspecie(String especie) {
-        List<Mascota> mascotasArchivadas = obtenerMascotasArchivadas();
-        List<Mascota> mascotasFiltradas = new ArrayList<>();
-
-        for (Mascota mascota : mascotasArchivadas) {
-            if (especie.equalsIgnoreCase(mascota.getEspecie())) {
-                mascotasFiltradas.add(mascota);
-            }
-        }
-
-        return mascotasFiltradas;
+    public Pagina<MascotaResumen> obtenerPaginaResumenArchivadas(String especie, String cursor, int tamano) {
+        // El filtro por estado "baja" y por especie se resuelve en la consulta
+        return mascotaDAOCompartido.buscarPaginaResumenPorPrefijoEstado("baja", especie, cursor, tamano);
     }
 }
@@ -5,8 +5,9 @@
 package presentacion;
 
 import gestion.mascotasarchivadas.control.ControlPresentacion;
-import gestion.mascotasarchivadas.dtos.MascotaArchivoDTO;
-import java.util.List;
+import gestion.mascotasarchivadas.dtos.MascotaResumenDTO;
+import gestion.mascotasarchivadas.dtos.PaginaDTO;
+import javax.swing.JScrollBar;
 
 /**
  *
@@ -19,6 +20,12 @@ public class CatalogoMascotasArchivadas extends javax.swing.JPanel {
      */
     private ControlPresentacion controlPresentacion;
 
+    private static final int TAMANO_PAGINA = 24;
+    private String filtroEspecie;
+    private String cursorSiguiente;
+    private boolean hayMas;
+    private boolean cargando;
+
     /**
      * Creates new form CatalogoMascotasArchivadas
      */
@@ -37,34 +44,58 @@ public class CatalogoMascotasArchivadas extends javax.swing.JPanel {
         // Configurar scroll
         JScrollPaneCatalogo.getVerticalScrollBar().setUnitIncrement(16);
         JScrollPaneCatalogo.getVerticalScrollBar().setBlockIncrement(100);
+
+        // Al acercarse al final del catálogo se pide la siguiente página
+        JScrollPaneCatalogo.getVerticalScrollBar().addAdjustmentListener(e -> {
+            JScrollBar barra = JScrollPaneCatalogo.getVerticalScrollBar();
+            if (!e.getValueIsAdjusting() && hayMas
+                    && barra.getValue() + barra.getVisibleAmount() >= barra.getMaximum() - 200) {
+                cargarSiguientePagina();
+            }
+        });
     }
 
     /**
-     * Carga el catálogo de mascotas archivadas desde la base de datos.
-     * Muestra las cartas de mascotas en el panel.
+     * Carga la primera página del catálogo de mascotas archivadas con la
+     * especie seleccionada. Muestra las cartas de mascotas en el panel.
      */
     public void cargarCatalogo() {
-        try {
-            // Limpiar panel
-            JPaneCatalogo.removeAll();
+        // Limpiar panel
+        JPaneCatalogo.removeAll();
+
+        // Obtener especie seleccionada; el filtro se aplica en la consulta
+        String especieSeleccionada = cbFiltro.getSelectedItem() != null
+                ? cbFiltro.getSelectedItem().toString()
+                : "TODAS";
+        filtroEspecie = "TODAS".equalsIgnoreCase(especieSeleccionada) ? null : especieSeleccionada;
+        cursorSiguiente = null;
+        hayMas = true;
+
+        cargarSiguientePagina();
+        JScrollPaneCatalogo.getVerticalScrollBar().setValue(0);
+    }
 
-            // Obtener mascotas ARCHIVADAS (disponible=false o estado="baja")
-            List<MascotaArchivoDTO> mascotasArchivadas = controlPresentacion.obtenerMascotasArchivadas();
+    /**
+     * Agrega al catálogo la siguiente página de mascotas archivadas
+     */
+    private void cargarSiguientePagina() {
+        if (!hayMas || cargando || controlPresentacion == null) {
+            return;
+        }
 
-            if (mascotasArchivadas == null || mascotasArchivadas.isEmpty()) {
+        cargando = true;
+        try {
+            // Obtener mascotas ARCHIVADAS (estado="baja")
+            PaginaDTO<MascotaResumenDTO> pagina = controlPresentacion
+                    .obtenerPaginaResumenMascotasArchivadas(filtroEspecie, cursorSiguiente, TAMANO_PAGINA);
+            if (cursorSiguiente == null && pagina.getElementos().isEmpty()) {
                 System.out.println("No hay mascotas archivadas");
-                JPaneCatalogo.revalidate();
-                JPaneCatalogo.repaint();
-                return;
             }
-
-            System.out.println("Cargando " + mascotasArchivadas.size() + " mascotas archivadas...");
+            cursorSiguiente = pagina.getCursorSiguiente();
+            hayMas = pagina.isHayMas();
 
             // Crear PetCard por cada mascota archivada
-            for (MascotaArchivoDTO mascota : mascotasArchivadas) {
-                System.out.println("Creando card para: " + mascota.getNombre()
-                        + " (ID: " + mascota.getId() + ")");
-
+            for (MascotaResumenDTO mascota : pagina.getElementos()) {
                 PetCardPanel card = new PetCardPanel();
 
                 // Setear datos de la mascota
@@ -96,18 +127,18 @@ public class CatalogoMascotasArchivadas extends javax.swing.JPanel {
                 JPaneCatalogo.add(card);
             }
 
-            // Refrescar UI
-            JPaneCatalogo.revalidate();
-            JPaneCatalogo.repaint();
-
-            System.out.println("Catálogo de mascotas archivadas cargado exitosamente");
-
         } catch (Exception e) {
+            hayMas = false;
             e.printStackTrace();
             javax.swing.JOptionPane.showMessageDialog(this,
                     "Error al cargar catálogo: " + e.getMessage(),
                     "Error",
                     javax.swing.JOptionPane.ERROR_MESSAGE);
+        } finally {
+            cargando = false;
+            // Refrescar UI
+            JPaneCatalogo.revalidate();
+            JPaneCatalogo.repaint();
         }
     }
 
@@ -125,76 +156,8 @@ public class CatalogoMascotasArchivadas extends javax.swing.JPanel {
      * Aplica el filtro de especie seleccionado y recarga el catálogo
      */
     private void aplicarFiltro() {
-        try {
-            // Limpiar panel
-            JPaneCatalogo.removeAll();
-
-            // Obtener especie seleccionada
-            String especieSeleccionada = cbFiltro.getSelectedItem() != null
-                    ? cbFiltro.getSelectedItem().toString()
-                    : "Todas las especies";
-
-            // Obtener todas las mascotas archivadas
-            List<MascotaArchivoDTO> todasLasMascotas = controlPresentacion.obtenerMascotasArchivadas();
-
-            if (todasLasMascotas == null || todasLasMascotas.isEmpty()) {
-                System.out.println("No hay mascotas archivadas");
-                JPaneCatalogo.revalidate();
-                JPaneCatalogo.repaint();
-                return;
-            }
-
-            System.out.println("Filtrando por especie: " + especieSeleccionada);
-
-            // Crear cards solo para las mascotas que coincidan con el filtro
-            for (MascotaArchivoDTO mascota : todasLasMascotas) {
-                // Aplicar filtro: si es "Todas" mostrar todo, sino filtrar por especie
-                if (!especieSeleccionada.equals("Todas las especies")
-                        && !mascota.getEspecie().equalsIgnoreCase(especieSeleccionada)) {
-                    continue; // Saltar esta mascota si no coincide con el filtro
-                }
-
-                PetCardPanel card = new PetCardPanel();
-                card.setMascotaId(mascota.getId());
-                card.setNombreMascota(mascota.getNombre());
-                card.setImagenMascota(mascota.getUrlImagen());
-
-                card.agregarListenerDetalle(e -> {
-                    // Obtener la ventana ancestro sin hacer cast específico
-                    java.awt.Window window = javax.swing.SwingUtilities.getWindowAncestor(this);
-                    if (window instanceof FramePrincipal) {
-                        FramePrincipal frame = (FramePrincipal) window;
-                        // Obtener panel de detalles y pasarle el ID
-                        DetallesMascota detalles = frame.obtenerPanelDetalles();
-                        if (detalles != null) {
-                            detalles.setMascotaId(mascota.getId());
-                        }
-                        frame.mostrarPanel("DETALLES");
-                    } else {
-                        System.err.println("Error: Ventana ancestro no es FramePrincipal en filtro. Tipo: " +
-                                (window != null ? window.getClass().getName() : "null"));
-                        javax.swing.JOptionPane.showMessageDialog(this,
-                                "Error de navegación. Por favor, abra el módulo desde el menú de administración.",
-                                "Error", javax.swing.JOptionPane.ERROR_MESSAGE);
-                    }
-                });
-
-                JPaneCatalogo.add(card);
-            }
-
-            // Refrescar UI
-            JPaneCatalogo.revalidate();
-            JPaneCatalogo.repaint();
-
-            System.out.println("Catálogo filtrado actualizado");
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            javax.swing.JOptionPane.showMessageDialog(this,
-                    "Error al filtrar catálogo: " + e.getMessage(),
-                    "Error",
-                    javax.swing.JOptionPane.ERROR_MESSAGE);
-        }
+        System.out.println("Filtrando por especie: " + cbFiltro.getSelectedItem());
+        cargarCatalogo();
     }
 
     /**
@@ -2,8 +2,11 @@
 package gestion.catalogo.control;
 
 import gestion.catalogo.dtos.CatalogoDTO;
+import gestion.catalogo.dtos.MascotaResumenDTO;
+import gestion.catalogo.dtos.PaginaDTO;
 import gestion.catalogo.dtos.ResultadoOperacion;
 import negocioo.GestionCatalogo;
+import negocioo.IEscuchaCambiosCatalogo;
 import negocioo.IGestionCatalogo;
 
 import java.util.List;
@@ -41,6 +44,83 @@ public class ControlPresentacion {
         }
     }
 
+    /**
+     * Obtiene una página de tarjetas del catálogo con solo los datos de
+     * resumen.
+     * 
+     * @param cursor Cursor de la página anterior, null para la primera
+     * @param tamano Mascotas por página
+     * @return Página de resúmenes o página vacía en caso de error
+     */
+    public PaginaDTO<MascotaResumenDTO> obtenerPaginaResumenCatalogo(String cursor, int tamano) {
+        try {
+            return controlSubsistemas.obtenerPaginaResumenCatalogo(cursor, tamano);
+        } catch (Exception e) {
+            System.err.println("Error al obtener catálogo: " + e.getMessage());
+            return new PaginaDTO<>();
+        }
+    }
+
+    /**
+     * Busca tarjetas del catálogo por texto en el servidor, de la más a la
+     * menos relevante. Con el texto vacío regresa el catálogo normal.
+     * 
+     * @param texto  Palabras a buscar
+     * @param cursor Cursor de la página anterior, null para la primera
+     * @param tamano Mascotas por página
+     * @return Página de resúmenes o página vacía en caso de error
+     */
+    public PaginaDTO<MascotaResumenDTO> buscarCatalogoPorTexto(String texto, String cursor, int tamano) {
+        try {
+            return controlSubsistemas.buscarCatalogoPorTexto(texto, cursor, tamano);
+        } catch (Exception e) {
+            System.err.println("Error al buscar en el catálogo: " + e.getMessage());
+            return new PaginaDTO<>();
+        }
+    }
+
+    /**
+     * Obtiene la tarjeta de una mascota si sigue disponible.
+     * 
+     * @param id ID de la mascota
+     * @return Resumen o null si ya no está disponible o hubo un error
+     */
+    public MascotaResumenDTO obtenerResumenCatalogo(String id) {
+        try {
+            return controlSubsistemas.obtenerResumenCatalogo(id);
+        } catch (Exception e) {
+            System.err.println("Error al obtener mascota: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Registra una escucha de los cambios en mascotas, para actualizar el
+     * catálogo sin recargarlo.
+     * 
+     * @param escucha Escucha de cambios
+     */
+    public void escucharCambiosCatalogo(IEscuchaCambiosCatalogo escucha) {
+        try {
+            controlSubsistemas.escucharCambiosCatalogo(escucha);
+        } catch (Exception e) {
+            System.err.println("No se pudo escuchar cambios del catálogo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Quita una escucha registrada con escucharCambiosCatalogo.
+     * 
+     * @param escucha Escucha de cambios
+     */
+    public void dejarDeEscucharCambiosCatalogo(IEscuchaCambiosCatalogo escucha) {
+        try {
+            controlSubsistemas.dejarDeEscucharCambiosCatalogo(escucha);
+        } catch (Exception e) {
+            System.err.println("No se pudo quitar la escucha del catálogo: " + e.getMessage());
+        }
+    }
+
     /**
      * Obtiene los detalles de una mascota específica.
      * 
@@ -1,6 +1,9 @@
 package gestion.catalogo.control;
 
 import gestion.catalogo.dtos.CatalogoDTO;
+import gestion.catalogo.dtos.MascotaResumenDTO;
+import gestion.catalogo.dtos.PaginaDTO;
+import negocioo.IEscuchaCambiosCatalogo;
 import negocioo.IGestionCatalogo;
 
 import java.util.List;
@@ -26,6 +29,57 @@ public class ControlSubsistemas {
         return gestionCatalogo.obtenerMascotasDisponibles();
     }
 
+    /**
+     * Obtiene una página de tarjetas del catálogo (solo datos de resumen).
+     * 
+     * @param cursor Cursor de la página anterior, null para la primera
+     * @param tamano Mascotas por página
+     * @return Página de resúmenes de mascotas
+     */
+    public PaginaDTO<MascotaResumenDTO> obtenerPaginaResumenCatalogo(String cursor, int tamano) {
+        return gestionCatalogo.obtenerPaginaResumenMascotasDisponibles(cursor, tamano);
+    }
+
+    /**
+     * Busca tarjetas del catálogo por texto, ordenadas por relevancia.
+     * 
+     * @param texto  Palabras a buscar
+     * @param cursor Cursor de la página anterior, null para la primera
+     * @param tamano Mascotas por página
+     * @return Página de resúmenes de mascotas
+     */
+    public PaginaDTO<MascotaResumenDTO> buscarCatalogoPorTexto(String texto, String cursor, int tamano) {
+        return gestionCatalogo.buscarMascotasPorTexto(texto, cursor, tamano);
+    }
+
+    /**
+     * Obtiene la tarjeta de una mascota si sigue disponible.
+     * 
+     * @param id ID de la mascota
+     * @return Resumen o null si ya no está disponible
+     */
+    public MascotaResumenDTO obtenerResumenCatalogo(String id) {
+        return gestionCatalogo.obtenerResumenMascotaDisponible(id);
+    }
+
+    /**
+     * Registra una escucha de los cambios en mascotas.
+     * 
+     * @param escucha Escucha de cambios
+     */
+    public void escucharCambiosCatalogo(IEscuchaCambiosCatalogo escucha) {
+        gestionCatalogo.agregarEscuchaCambios(escucha);
+    }
+
+    /**
+     * Quita una escucha de los cambios en mascotas.
+     * 
+     * @param escucha Escucha de cambios
+     */
+    public void dejarDeEscucharCambiosCatalogo(IEscuchaCambiosCatalogo escucha) {
+        gestionCatalogo.quitarEscuchaCambios(escucha);
+    }
+
     /**
      * Obtiene los detalles de una mascota específica.
      * 
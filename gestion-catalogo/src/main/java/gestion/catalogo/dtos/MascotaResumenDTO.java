@@ -0,0 +1,65 @@
+package gestion.catalogo.dtos;
+
+/**
+ * DTO con los datos que muestra la tarjeta de una mascota en el catálogo.
+ * El detalle completo se carga por id al abrir la tarjeta.
+ */
+public class MascotaResumenDTO {
+
+    private String id;
+    private String nombre;
+    private String especie;
+    private String urlImagen;
+    private String estado;
+
+    public MascotaResumenDTO() {
+    }
+
+    public MascotaResumenDTO(String id, String nombre, String especie, String urlImagen, String estado) {
+        this.id = id;
+        this.nombre = nombre;
+        this.especie = especie;
+        this.urlImagen = urlImagen;
+        this.estado = estado;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getEspecie() {
+        return especie;
+    }
+
+    public void setEspecie(String especie) {
+        this.especie = especie;
+    }
+
+    public String getUrlImagen() {
+        return urlImagen;
+    }
+
+    public void setUrlImagen(String urlImagen) {
+        this.urlImagen = urlImagen;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+}
@@ -1,8 +1,12 @@
 package negocioo;
 
 import entities.Mascota;
+import entities.MascotaResumen;
 import gestion.catalogo.dtos.CatalogoDTO;
+import gestion.catalogo.dtos.MascotaResumenDTO;
+import gestion.catalogo.dtos.PaginaDTO;
 import org.bson.types.ObjectId;
+import paginacion.Pagina;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -121,4 +125,32 @@ public class Adaptadores {
 
         return mascotas;
     }
+
+    /**
+     * Convierte un resumen de mascota a DTO de tarjeta.
+     * 
+     * @param resumen Resumen de la mascota
+     * @return DTO de tarjeta
+     */
+    public static MascotaResumenDTO resumenADTO(MascotaResumen resumen) {
+        if (resumen == null) {
+            return null;
+        }
+
+        return new MascotaResumenDTO(resumen.getId().toString(), resumen.getNombre(),
+                resumen.getEspecie(), resumen.getUrlImagen(), resumen.getEstado());
+    }
+
+    /**
+     * Convierte una página de resúmenes a la página de tarjetas que recibe
+     * la presentación.
+     * 
+     * @param pagina Página de resúmenes
+     * @return Página de DTOs de tarjeta
+     */
+    public static PaginaDTO<MascotaResumenDTO> paginaResumenADTO(Pagina<MascotaResumen> pagina) {
+        Pagina<MascotaResumenDTO> tarjetas = pagina.map(Adaptadores::resumenADTO);
+        return new PaginaDTO<>(tarjetas.getElementos(), tarjetas.getCursorSiguiente(), tarjetas.isHayMas(),
+                tarjetas.getTotalEstimado());
+    }
 }
@@ -4,11 +4,13 @@ import gestion.catalogo.dtos.ExpedienteDTO;
 import conexion.ConexionMongoDB;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import daos.ExpedienteMedicoDAO;
 import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import static com.mongodb.client.model.Filters.*;
 
 /**
  * Implementación de IExpedienteBO
@@ -96,7 +98,7 @@ public class ExpedienteBO implements IExpedienteBO {
     @Override
     public ExpedienteDTO obtenerExpediente(String idMascota) {
         try {
-            Document doc = coleccion.find(eq("idMascota", idMascota)).first();
+            Document doc = coleccion.find(filtroPorMascota(idMascota)).first();
             return doc != null ? convertirADTO(doc) : null;
         } catch (Exception e) {
             System.err.println("Error al obtener expediente: " + e.getMessage());
@@ -108,7 +110,7 @@ public class ExpedienteBO implements IExpedienteBO {
     public boolean actualizarExpediente(ExpedienteDTO expediente) {
         try {
             Document doc = convertirADocument(expediente);
-            coleccion.replaceOne(eq("idMascota", expediente.getIdMascota()), doc);
+            coleccion.replaceOne(filtroPorMascota(expediente.getIdMascota()), doc);
             return true;
         } catch (Exception e) {
             System.err.println("Error al actualizar expediente: " + e.getMessage());
@@ -132,7 +134,7 @@ public class ExpedienteBO implements IExpedienteBO {
     @Override
     public boolean eliminarExpediente(String idMascota) {
         try {
-            coleccion.deleteOne(eq("idMascota", idMascota));
+            coleccion.deleteOne(filtroPorMascota(idMascota));
             System.out.println("✓ Expediente eliminado (composición)");
             return true;
         } catch (Exception e) {
@@ -141,6 +143,38 @@ public class ExpedienteBO implements IExpedienteBO {
         }
     }
 
+    /**
+     * Igualdad sobre mascotaId (ObjectId), la unica llave por mascota de expedientes_medicos
+     */
+    private Bson filtroPorMascota(String idMascota) {
+        return ExpedienteMedicoDAO.filtroPorMascota(aObjectId(idMascota));
+    }
+
+    private ObjectId aObjectId(String idMascota) {
+        if (idMascota == null || !ObjectId.isValid(idMascota)) {
+            throw new IllegalArgumentException("ID de mascota invalido: " + idMascota);
+        }
+        return new ObjectId(idMascota);
+    }
+
+    /**
+     * Los expedientes sin migrar pueden traer el id como String, en
+     * mascotaId o en idMascota; se leen con la misma prioridad que usa
+     * MigradorExpedientes
+     */
+    private static String idMascotaDe(Document doc) {
+        for (String campo : new String[] {"mascotaId", "idMascota"}) {
+            Object valor = doc.get(campo);
+            if (valor instanceof ObjectId) {
+                return ((ObjectId) valor).toHexString();
+            }
+            if (valor instanceof String && ObjectId.isValid((String) valor)) {
+                return (String) valor;
+            }
+        }
+        return null;
+    }
+
     private String generarCodigoExpediente() {
         return "EXP-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
     }
@@ -148,7 +182,7 @@ public class ExpedienteBO implements IExpedienteBO {
     private Document convertirADocument(ExpedienteDTO dto) {
         Document doc = new Document();
         doc.append("codigo", dto.getCodigo());
-        doc.append("idMascota", dto.getIdMascota());
+        doc.append("mascotaId", aObjectId(dto.getIdMascota()));
         doc.append("condicion", dto.getCondicion());
         doc.append("nivelEnergia", dto.getNivelEnergia());
         doc.append("vacunaRabia", dto.isVacunaRabia());
@@ -167,7 +201,7 @@ public class ExpedienteBO implements IExpedienteBO {
     private ExpedienteDTO convertirADTO(Document doc) {
         ExpedienteDTO dto = new ExpedienteDTO();
         dto.setCodigo(doc.getString("codigo"));
-        dto.setIdMascota(doc.getString("idMascota"));
+        dto.setIdMascota(idMascotaDe(doc));
 
         dto.setCondicion(doc.getString("condicion"));
         dto.setNivelEnergia(doc.getString("nivelEnergia"));
@@ -1,12 +1,19 @@
 package negocioo;
 
+import cambios.EventoCambio;
+import cambios.TipoCambio;
 import negocioo.ExpedienteBO;
 import entities.Mascota;
 import gestion.catalogo.dtos.CatalogoDTO;
+import gestion.catalogo.dtos.MascotaResumenDTO;
+import gestion.catalogo.dtos.PaginaDTO;
 import persistencia.IMascotaDAO;
 import persistencia.MascotaDAO;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * Implementación de la lógica de negocio para gestión de catálogo.
@@ -20,6 +27,8 @@ public class GestionCatalogo implements IGestionCatalogo {
     private final IMascotaDAO mascotaDAO;
     private final ObjetoNegocio objetoNegocio;
     private final IExpedienteBO expedienteBO; // expediente pertenece a mascota
+    // Consumidor registrado en el DAO por cada escucha, para poder quitarlo
+    private final Map<IEscuchaCambiosCatalogo, Consumer<EventoCambio>> escuchas = new ConcurrentHashMap<>();
 
     public GestionCatalogo() {
         this.mascotaDAO = new MascotaDAO();
@@ -180,4 +189,52 @@ public class GestionCatalogo implements IGestionCatalogo {
         List<Mascota> mascotas = mascotaDAO.obtenerMascotasDisponibles();
         return Adaptadores.listEntidadADTO(mascotas);
     }
+
+    @Override
+    public PaginaDTO<MascotaResumenDTO> obtenerPaginaResumenMascotasDisponibles(String cursor, int tamano) {
+        return Adaptadores.paginaResumenADTO(mascotaDAO.obtenerPaginaResumenDisponibles(cursor, tamano));
+    }
+
+    @Override
+    public PaginaDTO<MascotaResumenDTO> buscarMascotasPorTexto(String texto, String cursor, int tamano) {
+        if (texto == null || texto.trim().isEmpty()) {
+            return obtenerPaginaResumenMascotasDisponibles(cursor, tamano);
+        }
+
+        return Adaptadores.paginaResumenADTO(mascotaDAO.buscarTexto(texto.trim(), cursor, tamano));
+    }
+
+    @Override
+    public MascotaResumenDTO obtenerResumenMascotaDisponible(String id) {
+        if (id == null || id.trim().isEmpty()) {
+            return null;
+        }
+
+        return Adaptadores.resumenADTO(mascotaDAO.obtenerResumenDisponible(id));
+    }
+
+    @Override
+    public void agregarEscuchaCambios(IEscuchaCambiosCatalogo escucha) {
+        // Los eventos del change stream se traducen aquí; fuera del negocio solo se ven IDs
+        Consumer<EventoCambio> consumidor = evento -> {
+            if (evento.getTipo() == TipoCambio.RECARGA) {
+                escucha.alRecargar();
+            } else if (evento.getTipo() == TipoCambio.ELIMINACION) {
+                escucha.alEliminarMascota(evento.getId().toHexString());
+            } else {
+                escucha.alCambiarMascota(evento.getId().toHexString());
+            }
+        };
+        if (escuchas.putIfAbsent(escucha, consumidor) == null) {
+            mascotaDAO.agregarEscuchaCambios(consumidor);
+        }
+    }
+
+    @Override
+    public void quitarEscuchaCambios(IEscuchaCambiosCatalogo escucha) {
+        Consumer<EventoCambio> consumidor = escuchas.remove(escucha);
+        if (consumidor != null) {
+            mascotaDAO.quitarEscuchaCambios(consumidor);
+        }
+    }
 }
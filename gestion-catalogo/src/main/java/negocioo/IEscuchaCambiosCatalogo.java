@@ -0,0 +1,30 @@
+package negocioo;
+
+/**
+ * Escucha de los cambios en mascotas hechos desde cualquier instancia. Los
+ * métodos se llaman desde el hilo del suscriptor de cambios, no desde el
+ * de Swing.
+ *
+ * @author System
+ */
+public interface IEscuchaCambiosCatalogo {
+
+    /**
+     * Se insertó o cambió la mascota; puede ya no estar disponible
+     *
+     * @param id ID de la mascota
+     */
+    void alCambiarMascota(String id);
+
+    /**
+     * Se eliminó la mascota
+     *
+     * @param id ID de la mascota
+     */
+    void alEliminarMascota(String id);
+
+    /**
+     * Se perdieron cambios; hay que recargar todo el catálogo
+     */
+    void alRecargar();
+}
@@ -1,6 +1,8 @@
 package negocioo;
 
 import gestion.catalogo.dtos.CatalogoDTO;
+import gestion.catalogo.dtos.MascotaResumenDTO;
+import gestion.catalogo.dtos.PaginaDTO;
 import java.util.List;
 
 /**
@@ -81,4 +83,49 @@ public interface IGestionCatalogo {
      * @return Lista de mascotas disponibles
      */
     List<CatalogoDTO> obtenerMascotasDisponibles();
+
+    /**
+     * Obtiene una página de tarjetas de las mascotas disponibles, solo con
+     * los datos que muestra el catálogo. El detalle se pide con
+     * obtenerDetalleMascota.
+     * 
+     * @param cursor Cursor de la página anterior, null para la primera
+     * @param tamano Mascotas por página
+     * @return Página de resúmenes de mascotas disponibles
+     */
+    PaginaDTO<MascotaResumenDTO> obtenerPaginaResumenMascotasDisponibles(String cursor, int tamano);
+
+    /**
+     * Busca en el servidor las tarjetas de las mascotas disponibles que
+     * coinciden con el texto, de la más a la menos relevante.
+     * 
+     * @param texto  Palabras a buscar
+     * @param cursor Cursor de la página anterior, null para la primera
+     * @param tamano Mascotas por página
+     * @return Página de resúmenes ordenada por relevancia
+     */
+    PaginaDTO<MascotaResumenDTO> buscarMascotasPorTexto(String texto, String cursor, int tamano);
+
+    /**
+     * Obtiene la tarjeta de una mascota disponible, para actualizarla sola
+     * cuando cambia.
+     * 
+     * @param id ID de la mascota
+     * @return Resumen o null si ya no está disponible
+     */
+    MascotaResumenDTO obtenerResumenMascotaDisponible(String id);
+
+    /**
+     * Registra una escucha de los cambios en mascotas.
+     * 
+     * @param escucha Se llama desde el hilo del suscriptor de cambios
+     */
+    void agregarEscuchaCambios(IEscuchaCambiosCatalogo escucha);
+
+    /**
+     * Quita una escucha registrada con agregarEscuchaCambios.
+     * 
+     * @param escucha Escucha a quitar
+     */
+    void quitarEscuchaCambios(IEscuchaCambiosCatalogo escucha);
 }
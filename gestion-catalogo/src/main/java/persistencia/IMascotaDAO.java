@@ -1,7 +1,11 @@
 package persistencia;
 
+import cambios.EventoCambio;
 import entities.Mascota;
+import entities.MascotaResumen;
 import java.util.List;
+import java.util.function.Consumer;
+import paginacion.Pagina;
 
 /**
  * Interfaz para acceso a datos de mascotas en el módulo de gestión de catálogo.
@@ -70,4 +74,48 @@ public interface IMascotaDAO {
      * @return Lista de mascotas disponibles
      */
     List<Mascota> obtenerMascotasDisponibles();
+
+    /**
+     * Obtiene una página con solo los datos de tarjeta de las mascotas
+     * disponibles.
+     * 
+     * @param cursor Cursor de la página anterior, null para la primera
+     * @param tamano Mascotas por página
+     * @return Página de resúmenes de mascotas disponibles
+     */
+    Pagina<MascotaResumen> obtenerPaginaResumenDisponibles(String cursor, int tamano);
+
+    /**
+     * Busca por texto entre las mascotas disponibles (nombre, raza, color,
+     * personalidad y descripción), de la más a la menos relevante.
+     * 
+     * @param texto  Palabras a buscar
+     * @param cursor Cursor de la página anterior, null para la primera
+     * @param tamano Mascotas por página
+     * @return Página de resúmenes ordenada por relevancia
+     */
+    Pagina<MascotaResumen> buscarTexto(String texto, String cursor, int tamano);
+
+    /**
+     * Obtiene el resumen de una mascota solo si sigue disponible.
+     * 
+     * @param id ID de la mascota
+     * @return Resumen de la mascota o null si no existe o ya no está disponible
+     */
+    MascotaResumen obtenerResumenDisponible(String id);
+
+    /**
+     * Registra una escucha de los cambios en mascotas hechos por cualquier
+     * instancia de la aplicación.
+     * 
+     * @param escucha Se llama desde el hilo del suscriptor de cambios
+     */
+    void agregarEscuchaCambios(Consumer<EventoCambio> escucha);
+
+    /**
+     * Quita una escucha registrada con agregarEscuchaCambios.
+     * 
+     * @param escucha Escucha a quitar
+     */
+    void quitarEscuchaCambios(Consumer<EventoCambio> escucha);
 }
@@ -1,26 +1,29 @@
 package persistencia;
 
-import com.mongodb.client.MongoDatabase;
+import cambios.EventoCambio;
 import conexion.ConexionMongoDB;
+import daos.FabricaDAOs;
 import entities.Mascota;
+import entities.MascotaResumen;
 import persistencia.IMascotaDAO;
 import org.bson.types.ObjectId;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import paginacion.Pagina;
 
 /**
  * Implementación del DAO de mascotas para el módulo de gestión de catálogo.
- * Reutiliza la conexión MongoDB compartida y trabaja con entities.Mascota.
+ * Reutiliza el DAO de mascotas del motor configurado y trabaja con entities.Mascota.
  */
 public class MascotaDAO implements IMascotaDAO {
 
-    private final daos.MascotaDAO mascotaDAOCompartido;
+    private final daos.IMascotaDAO mascotaDAOCompartido;
 
     public MascotaDAO() {
-        // Reutilizar la conexión compartida
-        MongoDatabase database = ConexionMongoDB.getInstancia().getDatabase();
-        this.mascotaDAOCompartido = new daos.MascotaDAO(database);
+        // MongoDB o el almacen en memoria segun persistencia.motor
+        this.mascotaDAOCompartido = FabricaDAOs.mascotas();
     }
 
     @Override
@@ -115,4 +118,41 @@ public class MascotaDAO implements IMascotaDAO {
     public List<Mascota> obtenerMascotasDisponibles() {
         return mascotaDAOCompartido.buscarDisponibles();
     }
+
+    @Override
+    public Pagina<MascotaResumen> obtenerPaginaResumenDisponibles(String cursor, int tamano) {
+        return mascotaDAOCompartido.buscarPaginaResumenDisponibles(null, cursor, tamano);
+    }
+
+    @Override
+    public Pagina<MascotaResumen> buscarTexto(String texto, String cursor, int tamano) {
+        return mascotaDAOCompartido.buscarTexto(texto, null, cursor, tamano);
+    }
+
+    @Override
+    public MascotaResumen obtenerResumenDisponible(String id) {
+        try {
+            return mascotaDAOCompartido.buscarResumenDisponible(new ObjectId(id));
+        } catch (IllegalArgumentException e) {
+            System.err.println("ID inválido: " + id);
+            return null;
+        }
+    }
+
+    @Override
+    public void agregarEscuchaCambios(Consumer<EventoCambio> escucha) {
+        if (FabricaDAOs.isEnMemoria()) {
+            // Sin MongoDB no hay change stream; solo esta aplicacion escribe
+            return;
+        }
+        ConexionMongoDB.getInstancia().getSuscriptorCambios().agregarEscucha("mascotas", escucha);
+    }
+
+    @Override
+    public void quitarEscuchaCambios(Consumer<EventoCambio> escucha) {
+        if (FabricaDAOs.isEnMemoria()) {
+            return;
+        }
+        ConexionMongoDB.getInstancia().getSuscriptorCambios().quitarEscucha("mascotas", escucha);
+    }
 }
@@ -6,8 +6,13 @@ package presentacion.gestioncatalogo;
 
 import gestion.catalogo.control.ControlPresentacion;
 import gestion.catalogo.dtos.CatalogoDTO;
-import java.util.List;
+import gestion.catalogo.dtos.MascotaResumenDTO;
+import gestion.catalogo.dtos.PaginaDTO;
+import negocioo.IEscuchaCambiosCatalogo;
 import javax.swing.JOptionPane;
+import javax.swing.JScrollBar;
+import javax.swing.SwingUtilities;
+import java.util.TreeMap;
 
 /**
  * Panel para gestión del catálogo de mascotas
@@ -17,11 +22,41 @@ public class GestionCatalogoPanel extends javax.swing.JPanel {
     private ControlPresentacion controlPresentacion;
     private PanelPrincipalGestionCatalogo panelPrincipal; // Referencia al panel principal para navegación
 
+    private static final int TAMANO_PAGINA = 24;
+    private String cursorSiguiente;
+    private boolean hayMas;
+    private boolean cargando;
+    private int mascotasCargadas;
+    // Tarjetas por id; el catálogo va en orden ascendente de _id, igual que su hex
+    private final TreeMap<String, PetCardPanel> tarjetas = new TreeMap<>();
+    private String ultimoIdCargado;
+    // Texto de la búsqueda activa; null muestra el catálogo normal
+    private String textoBusqueda;
+    private javax.swing.JTextField txtBuscar;
+    private final IEscuchaCambiosCatalogo escuchaCambios = new IEscuchaCambiosCatalogo() {
+        @Override
+        public void alCambiarMascota(String id) {
+            MascotaResumenDTO resumen = controlPresentacion.obtenerResumenCatalogo(id);
+            SwingUtilities.invokeLater(() -> aplicarCambio(id, resumen));
+        }
+
+        @Override
+        public void alEliminarMascota(String id) {
+            SwingUtilities.invokeLater(() -> aplicarCambio(id, null));
+        }
+
+        @Override
+        public void alRecargar() {
+            SwingUtilities.invokeLater(GestionCatalogoPanel.this::cargarCatalogo);
+        }
+    };
+
     /**
      * Creates new form GestionCatalogoPanel
      */
     public GestionCatalogoPanel() {
         initComponents();
+        configurarBusqueda();
 
         // Inicializar control
         this.controlPresentacion = new ControlPresentacion();
@@ -32,6 +67,41 @@ public class GestionCatalogoPanel extends javax.swing.JPanel {
         // Configurar scroll
         JScrollPaneCatalogo.getVerticalScrollBar().setUnitIncrement(16);
         JScrollPaneCatalogo.getVerticalScrollBar().setBlockIncrement(100);
+
+        // Al acercarse al final del catálogo se pide la siguiente página
+        JScrollPaneCatalogo.getVerticalScrollBar().addAdjustmentListener(e -> {
+            JScrollBar barra = JScrollPaneCatalogo.getVerticalScrollBar();
+            if (!e.getValueIsAdjusting() && hayMas
+                    && barra.getValue() + barra.getVisibleAmount() >= barra.getMaximum() - 200) {
+                cargarSiguientePagina();
+            }
+        });
+    }
+
+    /**
+     * Agrega la caja de búsqueda a la izquierda del botón agregar. La
+     * búsqueda se hace en el servidor con el índice de texto de mascotas.
+     */
+    private void configurarBusqueda() {
+        txtBuscar = new javax.swing.JTextField();
+        txtBuscar.setToolTipText("Nombre, raza, color, personalidad o descripción");
+        txtBuscar.addActionListener(e -> buscar());
+
+        javax.swing.JButton btnBuscar = new javax.swing.JButton("Buscar");
+        btnBuscar.addActionListener(e -> buscar());
+
+        jPanel1.add(txtBuscar, new org.netbeans.lib.awtextra.AbsoluteConstraints(20, 20, 330, 40));
+        jPanel1.add(btnBuscar, new org.netbeans.lib.awtextra.AbsoluteConstraints(355, 20, 90, 40));
+    }
+
+    /**
+     * Recarga el catálogo con el texto de la caja; vacía regresa al
+     * catálogo completo
+     */
+    private void buscar() {
+        String texto = txtBuscar.getText().trim();
+        textoBusqueda = texto.isEmpty() ? null : texto;
+        cargarCatalogo();
     }
 
     /**
@@ -49,71 +119,164 @@ public class GestionCatalogoPanel extends javax.swing.JPanel {
     }
 
     /**
-     * Carga el catálogo de mascotas
+     * Carga la primera página del catálogo de mascotas
      */
     public void cargarCatalogo() {
-        try {
-            // Limpiar panel
-            JPaneCatalogo.removeAll();
+        // Limpiar panel
+        JPaneCatalogo.removeAll();
+        tarjetas.clear();
+        cursorSiguiente = null;
+        ultimoIdCargado = null;
+        hayMas = true;
+        mascotasCargadas = 0;
+
+        cargarSiguientePagina();
+        JScrollPaneCatalogo.getVerticalScrollBar().setValue(0);
+    }
 
-            // Obtener mascotas
-            List<CatalogoDTO> mascotas = controlPresentacion.obtenerCatalogo();
+    /**
+     * Agrega al catálogo la siguiente página de tarjetas
+     */
+    private void cargarSiguientePagina() {
+        if (!hayMas || cargando) {
+            return;
+        }
 
-            if (mascotas == null || mascotas.isEmpty()) {
+        cargando = true;
+        try {
+            // Obtener solo los datos de tarjeta; con búsqueda vienen por relevancia
+            PaginaDTO<MascotaResumenDTO> pagina = textoBusqueda == null
+                    ? controlPresentacion.obtenerPaginaResumenCatalogo(cursorSiguiente, TAMANO_PAGINA)
+                    : controlPresentacion.buscarCatalogoPorTexto(textoBusqueda, cursorSiguiente, TAMANO_PAGINA);
+            boolean primera = cursorSiguiente == null;
+            cursorSiguiente = pagina.getCursorSiguiente();
+            hayMas = pagina.isHayMas();
+
+            if (primera && pagina.getElementos().isEmpty()) {
+                if (textoBusqueda != null) {
+                    JPaneCatalogo.add(new javax.swing.JLabel("Ninguna mascota coincide con \"" + textoBusqueda + "\""));
+                }
                 System.out.println("No hay mascotas en el catálogo");
-                JPaneCatalogo.revalidate();
-                JPaneCatalogo.repaint();
                 return;
             }
 
-            System.out.println("Cargando catálogo con " + mascotas.size() + " mascotas...");
-
             // Crear PetCard por cada mascota
-            for (CatalogoDTO mascota : mascotas) {
-                System.out.println("Creando card para: " + mascota.getNombre()
-                        + " (ID: " + mascota.getId() + ", URL: " + mascota.getUrlImagen()
-                        + ")");
-
-                PetCardPanel card = new PetCardPanel();
-
-                //  Usar método simplificado para setear todos los datos
-                card.setDatosMascota(mascota);
-
-                // Listener para ver detalles
-                card.agregarListenerDetalle(e -> {
-                    mostrarDetallesMascota(mascota.getId());
-                });
-
-                // Listener para editar
-                card.agregarListenerEditar(e -> {
-                    if (panelPrincipal != null) {
-                        panelPrincipal.editarMascota(mascota);
-                    }
-                });
-
-                // Listener para eliminar
-                card.agregarListenerEliminar(e -> {
-                    if (panelPrincipal != null) {
-                        panelPrincipal.eliminarMascota(mascota);
-                    }
-                });
-
-                JPaneCatalogo.add(card);
+            for (MascotaResumenDTO mascota : pagina.getElementos()) {
+                agregarTarjeta(mascota, -1);
+                ultimoIdCargado = mascota.getId();
+            }
+
+            mascotasCargadas += pagina.getElementos().size();
+            if (primera) {
+                System.out.println("Catálogo: " + mascotasCargadas + " de " + pagina.getTotalEstimado() + " mascotas");
             }
 
+        } catch (Exception e) {
+            hayMas = false;
+            e.printStackTrace();
+            JOptionPane.showMessageDialog(this,
+                    "Error al cargar catálogo: " + e.getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+        } finally {
+            cargando = false;
             // Refrescar UI
             JPaneCatalogo.revalidate();
             JPaneCatalogo.repaint();
+        }
+    }
 
-            System.out.println("Catálogo cargado exitosamente: " + mascotas.size() + " mascotas");
+    /**
+     * Crea la tarjeta de una mascota con sus listeners
+     *
+     * @param posicion posición en el catálogo, -1 para agregarla al final
+     */
+    private void agregarTarjeta(MascotaResumenDTO mascota, int posicion) {
+        PetCardPanel card = new PetCardPanel();
 
-        } catch (Exception e) {
-            e.printStackTrace();
+        //  Usar método simplificado para setear todos los datos
+        card.setDatosMascota(mascota);
+
+        // Listener para ver detalles
+        card.agregarListenerDetalle(e -> {
+            mostrarDetallesMascota(mascota.getId());
+        });
+
+        // Listener para editar (carga el detalle completo al abrir)
+        card.agregarListenerEditar(e -> {
+            CatalogoDTO detalle = obtenerDetalle(mascota.getId());
+            if (panelPrincipal != null && detalle != null) {
+                panelPrincipal.editarMascota(detalle);
+            }
+        });
+
+        // Listener para eliminar
+        card.agregarListenerEliminar(e -> {
+            CatalogoDTO detalle = obtenerDetalle(mascota.getId());
+            if (panelPrincipal != null && detalle != null) {
+                panelPrincipal.eliminarMascota(detalle);
+            }
+        });
+
+        JPaneCatalogo.add(card, posicion);
+        tarjetas.put(mascota.getId(), card);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        controlPresentacion.escucharCambiosCatalogo(escuchaCambios);
+    }
+
+    @Override
+    public void removeNotify() {
+        controlPresentacion.dejarDeEscucharCambiosCatalogo(escuchaCambios);
+        super.removeNotify();
+    }
+
+    /**
+     * Actualiza, quita o inserta solo la tarjeta que cambió. Los cambios
+     * llegan en el hilo del suscriptor: la consulta se hace ahí y esto corre
+     * en el hilo de Swing.
+     *
+     * @param resumen null si la mascota ya no está disponible
+     */
+    private void aplicarCambio(String id, MascotaResumenDTO resumen) {
+        PetCardPanel tarjeta = tarjetas.get(id);
+        if (resumen == null) {
+            if (tarjeta == null) {
+                return;
+            }
+            JPaneCatalogo.remove(tarjeta);
+            tarjetas.remove(id);
+            mascotasCargadas--;
+        } else if (tarjeta != null) {
+            tarjeta.setDatosMascota(resumen);
+        } else if (textoBusqueda == null
+                && (!hayMas || (ultimoIdCargado != null && id.compareTo(ultimoIdCargado) < 0))) {
+            // Si va después de lo cargado llegará con su página al hacer scroll; los
+            // resultados de una búsqueda van por relevancia y no se insertan aquí
+            agregarTarjeta(resumen, tarjetas.headMap(id).size());
+            mascotasCargadas++;
+        } else {
+            return;
+        }
+        JPaneCatalogo.revalidate();
+        JPaneCatalogo.repaint();
+    }
+
+    /**
+     * Consulta el detalle completo de una mascota a partir de su tarjeta
+     */
+    private CatalogoDTO obtenerDetalle(String idMascota) {
+        CatalogoDTO detalle = controlPresentacion.obtenerDetalleMascota(idMascota);
+        if (detalle == null) {
             JOptionPane.showMessageDialog(this,
-                    "Error al cargar catálogo: " + e.getMessage(),
+                    "No se encontró la mascota seleccionada",
                     "Error",
                     JOptionPane.ERROR_MESSAGE);
         }
+        return detalle;
     }
 
     /**
@@ -149,6 +149,17 @@ public class PetCardPanel extends javax.swing.JPanel {
         }
     }
 
+    /**
+     * Establece los datos de la mascota desde su resumen de catálogo
+     */
+    public void setDatosMascota(gestion.catalogo.dtos.MascotaResumenDTO mascota) {
+        if (mascota != null) {
+            this.mascotaId = mascota.getId();
+            setNombreMascota(mascota.getNombre());
+            setImagenMascota(mascota.getUrlImagen());
+        }
+    }
+
     /**
      * Agrega un listener al botón de detalle
      */